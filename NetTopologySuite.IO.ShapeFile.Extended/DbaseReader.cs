@@ -88,6 +88,22 @@ namespace NetTopologySuite.IO.ShapeFile.Extended
 			return tbl;
 		}
 
+		/// <summary>
+		/// Creates a reader that decodes only the given columns, without boxing the values.
+		/// This is much faster than <see cref="ReadEntry"/> when only a few columns of a wide table are needed.
+		/// </summary>
+		/// <param name="columnNames">The names of the columns to read. If none are given, all columns are read.</param>
+		/// <returns>A new reader positioned before the first record, which has to be disposed by the caller.</returns>
+		public DbaseProjectedReader GetProjectedReader(params string[] columnNames)
+		{
+			if (m_IsDisposed)
+			{
+				throw new InvalidOperationException("Reader was disposed, cannot read from a disposed reader");
+			}
+
+			return new DbaseProjectedReader(m_Filename, columnNames);
+		}
+
 		public IEnumerator<IAttributesTable> GetEnumerator()
 		{
 			return new DbaseEnumerator(this);
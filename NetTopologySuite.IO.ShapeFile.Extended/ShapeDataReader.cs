@@ -24,17 +24,62 @@ namespace NetTopologySuite.IO.ShapeFile.Extended
 		private readonly DbaseReader m_DbfReader;
 		private readonly IGeometryFactory m_GeoFactory;
 		private readonly ShapeReader m_ShapeReader;
+		private readonly QixIndex m_QixIndex;
+		private readonly long[] m_RecordOffsets;
 
 	    public ShapeDataReader(string shapeFilePath, ISpatialIndex<ShapeLocationInFileInfo> index, IGeometryFactory geoFactory, bool buildIndexAsync)
+			: this(shapeFilePath, index, geoFactory, buildIndexAsync, false)
+		{ }
+
+		/// <summary>
+		/// Creates a reader for the given shapefile.
+		/// </summary>
+		/// <param name="shapeFilePath">The path to the .shp file</param>
+		/// <param name="index">The spatial index to fill with the locations of the shapes</param>
+		/// <param name="geoFactory">The factory to create the geometries with</param>
+		/// <param name="buildIndexAsync">True to fill the index on a background task</param>
+		/// <param name="useMemoryMapping">
+		/// True to decode shapes from a memory-mapped view of the .shp file,
+		/// so that features returned by <see cref="ReadByMBRFilter"/> can be read from many threads without locking.
+		/// </param>
+	    public ShapeDataReader(string shapeFilePath, ISpatialIndex<ShapeLocationInFileInfo> index, IGeometryFactory geoFactory, bool buildIndexAsync, bool useMemoryMapping)
+			: this(shapeFilePath, index, geoFactory, buildIndexAsync, useMemoryMapping, false)
+		{ }
+
+		/// <summary>
+		/// Creates a reader for the given shapefile.
+		/// </summary>
+		/// <param name="shapeFilePath">The path to the .shp file</param>
+		/// <param name="index">The spatial index to fill with the locations of the shapes</param>
+		/// <param name="geoFactory">The factory to create the geometries with</param>
+		/// <param name="buildIndexAsync">True to fill the index on a background task</param>
+		/// <param name="useMemoryMapping">
+		/// True to decode shapes from a memory-mapped view of the .shp file,
+		/// so that features returned by <see cref="ReadByMBRFilter"/> can be read from many threads without locking.
+		/// </param>
+		/// <param name="useQixIndex">
+		/// True to answer queries from the .qix spatial index file next to the shapefile, if there is one,
+		/// instead of filling <paramref name="index"/>.
+		/// </param>
+		/// <remarks>
+		/// A .qix file saves scanning the whole .shp file up front, but <paramref name="index"/> is then left empty.
+		/// It is only used if it was written after the .shp and .shx files were last changed and
+		/// it was built for as many records as the shapefile has; otherwise <paramref name="index"/> is filled.
+		/// </remarks>
+	    public ShapeDataReader(string shapeFilePath, ISpatialIndex<ShapeLocationInFileInfo> index, IGeometryFactory geoFactory, bool buildIndexAsync, bool useMemoryMapping, bool useQixIndex)
 		{
 			m_SpatialIndex = index;
 			m_GeoFactory = geoFactory;
 
 			ValidateParameters(shapeFilePath);
 
-			m_ShapeReader = new ShapeReader(shapeFilePath);
+			m_ShapeReader = new ShapeReader(shapeFilePath, useMemoryMapping);
 
-			if (buildIndexAsync)
+			if (useQixIndex && TryReadQixIndex(shapeFilePath, out m_QixIndex, out m_RecordOffsets))
+			{
+				m_IsIndexingComplete = true;
+			}
+			else if (buildIndexAsync)
 			{
                 m_CancellationTokenSrc = new CancellationTokenSource();
                 m_IndexCreationTask = Task.Factory.StartNew(FillSpatialIndex, m_CancellationTokenSrc.Token);
@@ -47,6 +92,28 @@ namespace NetTopologySuite.IO.ShapeFile.Extended
 			m_DbfReader = new DbaseReader(Path.ChangeExtension(shapeFilePath, DBF_EXT));			
 		}
 
+		/// <summary>
+		/// Reads the .qix index of the shapefile, unless there is none or it does not match the shapefile any more.
+		/// </summary>
+		private static bool TryReadQixIndex(string shapeFilePath, out QixIndex qixIndex, out long[] recordOffsets)
+		{
+			qixIndex = null;
+			recordOffsets = null;
+			if (!File.Exists(QixIndex.GetIndexFilename(shapeFilePath)))
+			{
+				return false;
+			}
+
+			recordOffsets = Shapefile.ReadRecordOffsets(shapeFilePath);
+			qixIndex = QixIndex.ReadIfCurrent(shapeFilePath, recordOffsets.Length);
+			if (qixIndex == null)
+			{
+				recordOffsets = null;
+				return false;
+			}
+			return true;
+		}
+
 		public ShapeDataReader(string shapeFilePath, ISpatialIndex<ShapeLocationInFileInfo> index, IGeometryFactory geoFactory)
 			: this(shapeFilePath, index, geoFactory, true)
 		{ }
@@ -55,8 +122,12 @@ namespace NetTopologySuite.IO.ShapeFile.Extended
 			: this(shapeFilePath, index, new GeometryFactory())
 		{ }
 
+		/// <summary>
+		/// Creates a reader for the given shapefile, which answers queries from its .qix spatial index file if there is a current one.
+		/// </summary>
+		/// <param name="shapeFilePath">The path to the .shp file</param>
 		public ShapeDataReader(string shapeFilePath)
-			: this(shapeFilePath, new STRtree<ShapeLocationInFileInfo>())
+			: this(shapeFilePath, new STRtree<ShapeLocationInFileInfo>(), new GeometryFactory(), true, false, true)
 		{ }
 
 		~ShapeDataReader()
@@ -116,7 +187,9 @@ namespace NetTopologySuite.IO.ShapeFile.Extended
 				m_IndexCreationTask.Wait();
 			}
 
-			IList<ShapeLocationInFileInfo> shapesInRegion = m_SpatialIndex.Query(envelope);
+			IList<ShapeLocationInFileInfo> shapesInRegion = m_QixIndex != null
+				? QueryQixIndex(envelope)
+				: m_SpatialIndex.Query(envelope);
 
 			if (shapesInRegion.Count == 0)
 			{
@@ -140,6 +213,33 @@ namespace NetTopologySuite.IO.ShapeFile.Extended
 			}
 		}
 
+		/// <summary>
+		/// Query the .qix index, which returns all shapes of the quadtree nodes touching the envelope,
+		/// and keep those shapes whose MBR intersects the envelope.
+		/// </summary>
+		private IList<ShapeLocationInFileInfo> QueryQixIndex(Envelope envelope)
+		{
+			List<ShapeLocationInFileInfo> shapesInRegion = new List<ShapeLocationInFileInfo>();
+
+			foreach (int shapeIndex in m_QixIndex.Query(envelope))
+			{
+				if (shapeIndex < 0 || shapeIndex >= m_RecordOffsets.Length)
+				{
+					continue;
+				}
+
+				long offset = m_RecordOffsets[shapeIndex];
+				Envelope shapeMBR = m_ShapeReader.ReadShapeMBRAtOffset(offset);
+
+				if (shapeMBR != null && shapeMBR.Intersects(envelope))
+				{
+					shapesInRegion.Add(new ShapeLocationInFileInfo(offset, shapeIndex));
+				}
+			}
+
+			return shapesInRegion;
+		}
+
 		private IShapefileFeature ReadFeature(ShapeLocationInFileInfo shapeLocationInfo)
 		{
 			return new ShapefileFeature(m_ShapeReader, m_DbfReader, shapeLocationInfo, m_GeoFactory);
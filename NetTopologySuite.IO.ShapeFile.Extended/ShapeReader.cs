@@ -1,6 +1,7 @@
 ﻿using System;
 using System.Collections.Generic;
 using System.IO;
+using System.IO.MemoryMappedFiles;
 using System.Linq;
 using System.Threading;
 using GeoAPI.Geometries;
@@ -17,9 +18,27 @@ namespace NetTopologySuite.IO.ShapeFile.Extended
 		private readonly string m_ShapeFilePath;
 		private readonly ShapeHandler m_ShapeHandler;
 		private readonly Lazy<long[]> m_ShapeOffsetCache;
+		private readonly MemoryMappedFile m_MappedFile;
+		private readonly MemoryMappedViewAccessor m_MappedView;
+		private readonly long m_MappedLength;
+		private readonly ThreadLocal<MappedRecordReader> m_MappedRecordReaders;
+		private readonly List<MappedRecordReader> m_AllMappedRecordReaders;
 		private bool m_IsDisposed;
 
 	    public ShapeReader(string shapeFilePath)
+			: this(shapeFilePath, false)
+		{ }
+
+		/// <summary>
+		/// Creates a reader for the given shapefile.
+		/// </summary>
+		/// <param name="shapeFilePath">The path to the .shp file</param>
+		/// <param name="useMemoryMapping">
+		/// True to map the whole file into memory and decode shapes from the mapped view.
+		/// Shapes at different offsets can then be read by many threads concurrently, without locking.
+		/// The whole file is mapped at once, so files larger than about 1 GB need a 64-bit process.
+		/// </param>
+	    public ShapeReader(string shapeFilePath, bool useMemoryMapping)
 		{
 			if (shapeFilePath == null)
 			{
@@ -42,6 +61,16 @@ namespace NetTopologySuite.IO.ShapeFile.Extended
 			m_ShapeHandler = Shapefile.GetShapeHandler(ShapefileHeader.ShapeType);
 
 			m_ShapeOffsetCache = new Lazy<long[]>(BuildOffsetCache, LazyThreadSafetyMode.ExecutionAndPublication);
+
+			if (useMemoryMapping)
+			{
+				FileStream stream = new FileStream(m_ShapeFilePath, FileMode.Open, FileAccess.Read, FileShare.Read);
+				m_MappedLength = stream.Length;
+				m_MappedFile = MemoryMappedFile.CreateFromFile(stream, null, 0, MemoryMappedFileAccess.Read, null, HandleInheritability.None, false);
+				m_MappedView = m_MappedFile.CreateViewAccessor(0, 0, MemoryMappedFileAccess.Read);
+				m_AllMappedRecordReaders = new List<MappedRecordReader>();
+				m_MappedRecordReaders = new ThreadLocal<MappedRecordReader>(CreateMappedRecordReader);
+			}
 		}
 
 		~ShapeReader()
@@ -49,6 +78,17 @@ namespace NetTopologySuite.IO.ShapeFile.Extended
 			Dispose(false);
 		}
 
+		/// <summary>
+		/// Gets a value indicating whether shapes are decoded from a memory-mapped view of the file.
+		/// </summary>
+		public bool IsMemoryMapped
+		{
+			get
+			{
+				return m_MappedView != null;
+			}
+		}
+
 	    public ShapefileHeader ShapefileHeader
 		{
 			get
@@ -132,6 +172,11 @@ namespace NetTopologySuite.IO.ShapeFile.Extended
             IGeometry currGeomtry = null;
 			ThrowIfDisposed();
 
+			if (m_MappedView != null)
+			{
+				return ReadMappedShapeAtOffset(shapeOffset, geoFactory);
+			}
+
 			if (shapeOffset < HEADER_LENGTH || shapeOffset >= ShapeReaderStream.BaseStream.Length)
 			{
 				throw new IndexOutOfRangeException("Shape offset cannot be lower than header length (100) or higher than shape file size");
@@ -150,6 +195,115 @@ namespace NetTopologySuite.IO.ShapeFile.Extended
 			return currGeomtry;
 		}
 
+		/// <summary>
+		/// Read the bounding box of the shape at a given offset, without decoding the shape.
+		/// </summary>
+		/// <param name="shapeOffset"> The offset at which the requested shape metadata begins.</param>
+		/// <returns>The bounding box, or null for a null shape.</returns>
+		public Envelope ReadShapeMBRAtOffset(long shapeOffset)
+		{
+			ThrowIfDisposed();
+
+			// Record header, shape type and the bounding box (or the coordinates of a point).
+			byte[] buffer = new byte[44];
+			int bytesRead;
+
+			if (m_MappedView != null)
+			{
+				if (shapeOffset < HEADER_LENGTH || shapeOffset + 12 > m_MappedLength)
+				{
+					throw new IndexOutOfRangeException("Shape offset cannot be lower than header length (100) or higher than shape file size");
+				}
+
+				bytesRead = m_MappedView.ReadArray(shapeOffset, buffer, 0, (int)Math.Min(buffer.Length, m_MappedLength - shapeOffset));
+			}
+			else
+			{
+				if (shapeOffset < HEADER_LENGTH || shapeOffset + 12 > ShapeReaderStream.BaseStream.Length)
+				{
+					throw new IndexOutOfRangeException("Shape offset cannot be lower than header length (100) or higher than shape file size");
+				}
+
+				lock (ShapeReaderStream)
+				{
+					ShapeReaderStream.BaseStream.Seek(shapeOffset, SeekOrigin.Begin);
+					bytesRead = ShapeReaderStream.Read(buffer, 0, buffer.Length);
+				}
+			}
+
+			ShapeGeometryType shapeType = (ShapeGeometryType)BitConverter.ToInt32(buffer, 8);
+			switch (shapeType)
+			{
+				case ShapeGeometryType.NullShape:
+					return null;
+
+				case ShapeGeometryType.Point:
+				case ShapeGeometryType.PointM:
+				case ShapeGeometryType.PointZ:
+				case ShapeGeometryType.PointZM:
+					if (bytesRead < 28)
+					{
+						break;
+					}
+
+					double x = BitConverter.ToDouble(buffer, 12);
+					double y = BitConverter.ToDouble(buffer, 20);
+					return new Envelope(x, x, y, y);
+
+				default:
+					if (bytesRead < 44)
+					{
+						break;
+					}
+
+					return new Envelope(BitConverter.ToDouble(buffer, 12), BitConverter.ToDouble(buffer, 28),
+										BitConverter.ToDouble(buffer, 20), BitConverter.ToDouble(buffer, 36));
+			}
+
+			throw new ShapefileException("Shape record at offset " + shapeOffset + " extends beyond the end of the shape file");
+		}
+
+		/// <summary>
+		/// Reads a shape from the memory-mapped view.
+		/// Each thread decodes straight from a view stream and with a handler of its own,
+		/// so no state is shared between concurrent calls and nothing is copied per record.
+		/// </summary>
+		private IGeometry ReadMappedShapeAtOffset(long shapeOffset, IGeometryFactory geoFactory)
+		{
+			if (shapeOffset < HEADER_LENGTH || shapeOffset + 8 > m_MappedLength)
+			{
+				throw new IndexOutOfRangeException("Shape offset cannot be lower than header length (100) or higher than shape file size");
+			}
+
+			MappedRecordReader recordReader = m_MappedRecordReaders.Value;
+			BigEndianBinaryReader reader = recordReader.Reader;
+
+			// Skip to shape size location in file.
+			reader.BaseStream.Seek(shapeOffset + 4, SeekOrigin.Begin);
+			int currShapeLengthInWords = reader.ReadInt32BE();
+
+			if (currShapeLengthInWords < 0 || shapeOffset + 8 + 2L * currShapeLengthInWords > m_MappedLength)
+			{
+				throw new ShapefileException("Shape record at offset " + shapeOffset + " extends beyond the end of the shape file");
+			}
+
+			return recordReader.Handler.Read(reader, currShapeLengthInWords, geoFactory);
+		}
+
+		private MappedRecordReader CreateMappedRecordReader()
+		{
+			// The views share the pages of the mapped file, only address space is taken per thread.
+			MemoryMappedViewStream stream = m_MappedFile.CreateViewStream(0, 0, MemoryMappedFileAccess.Read);
+			MappedRecordReader recordReader = new MappedRecordReader(new BigEndianBinaryReader(stream), Shapefile.GetShapeHandler(ShapefileHeader.ShapeType));
+
+			lock (m_AllMappedRecordReaders)
+			{
+				m_AllMappedRecordReaders.Add(recordReader);
+			}
+
+			return recordReader;
+		}
+
 		private long[] BuildOffsetCache()
 		{
 			FileStream stream = new FileStream(m_ShapeFilePath, FileMode.Open, FileAccess.Read, FileShare.Read);
@@ -189,6 +343,39 @@ namespace NetTopologySuite.IO.ShapeFile.Extended
 
 			m_IsDisposed = true;
 			CloseShapeFileHandle();
+
+			if (m_MappedView != null)
+			{
+				m_MappedRecordReaders.Dispose();
+
+				lock (m_AllMappedRecordReaders)
+				{
+					foreach (MappedRecordReader recordReader in m_AllMappedRecordReaders)
+					{
+						recordReader.Reader.Close();
+					}
+
+					m_AllMappedRecordReaders.Clear();
+				}
+
+				m_MappedView.Dispose();
+				m_MappedFile.Dispose();
+			}
+		}
+
+		/// <summary>
+		/// The reader and the handler that one thread decodes mapped shapes with.
+		/// </summary>
+		private class MappedRecordReader
+		{
+			public MappedRecordReader(BigEndianBinaryReader reader, ShapeHandler handler)
+			{
+				Reader = reader;
+				Handler = handler;
+			}
+
+			public BigEndianBinaryReader Reader { get; private set; }
+			public ShapeHandler Handler { get; private set; }
 		}
 	}
 }
@@ -0,0 +1,467 @@
+using System;
+using System.Collections.Generic;
+using System.Globalization;
+using System.IO;
+using GeoAPI.Geometries;
+using NetTopologySuite.Features;
+using NetTopologySuite.Geometries;
+using Newtonsoft.Json;
+
+namespace NetTopologySuite.IO
+{
+    /// <summary>
+    /// Reads the features of a GeoJSON FeatureCollection one at a time.
+    /// </summary>
+    /// <remarks>
+    /// Unlike <see cref="GeoJsonReader"/>, the collection is never held in memory: the text is
+    /// walked with a forward-only <see cref="JsonTextReader"/>, every feature is returned as soon
+    /// as its closing brace has been read, and the positions of a geometry are collected directly
+    /// into the coordinate sequences of the <see cref="IGeometryFactory"/>.
+    /// <para>
+    /// Members of the collection other than "features", like "crs" or "bbox", are skipped.
+    /// </para>
+    /// </remarks>
+    public class GeoJsonFeatureReader
+    {
+        private readonly IGeometryFactory _factory;
+
+        /// <summary>
+        /// Initializes a new instance of the <see cref="GeoJsonFeatureReader"/> class.
+        /// </summary>
+        public GeoJsonFeatureReader() : this(GeometryFactory.Default) { }
+
+        /// <summary>
+        /// Initializes a new instance of the <see cref="GeoJsonFeatureReader"/> class.
+        /// </summary>
+        /// <param name="geometryFactory">The factory to create the geometries with.</param>
+        public GeoJsonFeatureReader(IGeometryFactory geometryFactory)
+        {
+            if (geometryFactory == null)
+                throw new ArgumentNullException("geometryFactory");
+            _factory = geometryFactory;
+        }
+
+        /// <summary>
+        /// Reads the features of a FeatureCollection.
+        /// </summary>
+        /// <param name="reader">The reader of the GeoJSON text. It is not closed by this method.</param>
+        /// <returns>The features, in the order of the "features" array.</returns>
+        /// <exception cref="ArgumentException">If the text is not a GeoJSON FeatureCollection.</exception>
+        public IEnumerable<IFeature> Read(TextReader reader)
+        {
+            if (reader == null)
+                throw new ArgumentNullException("reader");
+            return ReadFeatures(new JsonTextReader(reader));
+        }
+
+        private IEnumerable<IFeature> ReadFeatures(JsonReader reader)
+        {
+            Next(reader);
+            if (reader.TokenType != JsonToken.StartObject)
+                throw new ArgumentException("Expected token '{' not found.");
+
+            Next(reader);
+            while (reader.TokenType != JsonToken.EndObject)
+            {
+                string name = PropertyName(reader);
+                Next(reader);
+                if (name == "type")
+                {
+                    if (reader.TokenType != JsonToken.String || (string)reader.Value != "FeatureCollection")
+                        throw new ArgumentException("Expected value 'FeatureCollection' not found.");
+                }
+                else if (name == "features")
+                {
+                    if (reader.TokenType != JsonToken.StartArray)
+                        throw new ArgumentException("Expected token '[' not found.");
+
+                    Next(reader);
+                    while (reader.TokenType != JsonToken.EndArray)
+                    {
+                        yield return ReadFeature(reader);
+                        Next(reader);
+                    }
+                }
+                else
+                {
+                    Skip(reader);
+                }
+                Next(reader);
+            }
+        }
+
+        /// <summary>
+        /// Reads a feature, from its opening brace to its closing brace.
+        /// </summary>
+        private IFeature ReadFeature(JsonReader reader)
+        {
+            if (reader.TokenType != JsonToken.StartObject)
+                throw new ArgumentException("Expected token '{' not found.");
+
+            var feature = new Feature();
+            Next(reader);
+            while (reader.TokenType != JsonToken.EndObject)
+            {
+                string name = PropertyName(reader);
+                Next(reader);
+                switch (name)
+                {
+                    case "type":
+                        if (reader.TokenType != JsonToken.String || (string)reader.Value != "Feature")
+                            throw new ArgumentException("Expected value 'Feature' not found.");
+                        break;
+                    case "geometry":
+                        feature.Geometry = reader.TokenType == JsonToken.Null ? null : ReadGeometry(reader);
+                        break;
+                    case "properties":
+                        if (reader.TokenType != JsonToken.Null)
+                            feature.Attributes = ReadAttributes(reader);
+                        break;
+                    default:
+                        Skip(reader);
+                        break;
+                }
+                Next(reader);
+            }
+            return feature;
+        }
+
+        /// <summary>
+        /// Reads a geometry object. The members may come in any order,
+        /// so the geometry is only built once the closing brace has been read.
+        /// </summary>
+        private IGeometry ReadGeometry(JsonReader reader)
+        {
+            if (reader.TokenType != JsonToken.StartObject)
+                throw new ArgumentException("Expected token '{' not found.");
+
+            string type = null;
+            object coordinates = null;
+            List<IGeometry> geometries = null;
+
+            Next(reader);
+            while (reader.TokenType != JsonToken.EndObject)
+            {
+                string name = PropertyName(reader);
+                Next(reader);
+                switch (name)
+                {
+                    case "type":
+                        if (reader.TokenType != JsonToken.String)
+                            throw new ArgumentException("invalid tokentype: " + reader.TokenType);
+                        type = (string)reader.Value;
+                        break;
+                    case "coordinates":
+                        if (reader.TokenType != JsonToken.StartArray)
+                            throw new ArgumentException("Expected token '[' not found.");
+                        Next(reader);
+                        coordinates = ReadCoordinates(reader);
+                        break;
+                    case "geometries":
+                        if (reader.TokenType != JsonToken.StartArray)
+                            throw new ArgumentException("Expected token '[' not found.");
+                        geometries = new List<IGeometry>();
+                        Next(reader);
+                        while (reader.TokenType != JsonToken.EndArray)
+                        {
+                            geometries.Add(ReadGeometry(reader));
+                            Next(reader);
+                        }
+                        break;
+                    default:
+                        Skip(reader);
+                        break;
+                }
+                Next(reader);
+            }
+
+            if (type == null)
+                throw new ArgumentException("Expected token 'type' not found.");
+            return CreateGeometry(type, coordinates, geometries);
+        }
+
+        private IGeometry CreateGeometry(string type, object coordinates, List<IGeometry> geometries)
+        {
+            GeoJsonObjectType geometryType = (GeoJsonObjectType)Enum.Parse(typeof(GeoJsonObjectType), type);
+            if (geometryType == GeoJsonObjectType.GeometryCollection)
+            {
+                return _factory.CreateGeometryCollection(geometries != null ? geometries.ToArray() : new IGeometry[0]);
+            }
+
+            if (coordinates == null)
+                throw new ArgumentException("Expected token 'coordinates' not found.");
+
+            switch (geometryType)
+            {
+                case GeoJsonObjectType.Point:
+                    var position = coordinates as double[];
+                    if (position != null)
+                        return _factory.CreatePoint(new Coordinate(position[0], position[1], position[2]));
+                    if (Children(coordinates).Count > 0)
+                        throw new ArgumentException("Expected a single position.");
+                    return _factory.CreatePoint((Coordinate)null);
+
+                case GeoJsonObjectType.LineString:
+                    return _factory.CreateLineString(ToSequence(coordinates));
+
+                case GeoJsonObjectType.MultiPoint:
+                    return _factory.CreateMultiPoint(ToSequence(coordinates));
+
+                case GeoJsonObjectType.Polygon:
+                    return CreatePolygon(coordinates);
+
+                case GeoJsonObjectType.MultiLineString:
+                    var lines = Children(coordinates);
+                    var lineStrings = new ILineString[lines.Count];
+                    for (int i = 0; i < lineStrings.Length; i++)
+                        lineStrings[i] = _factory.CreateLineString(ToSequence(lines[i]));
+                    return _factory.CreateMultiLineString(lineStrings);
+
+                case GeoJsonObjectType.MultiPolygon:
+                    var children = Children(coordinates);
+                    var polygons = new IPolygon[children.Count];
+                    for (int i = 0; i < polygons.Length; i++)
+                        polygons[i] = CreatePolygon(children[i]);
+                    return _factory.CreateMultiPolygon(polygons);
+            }
+            throw new ArgumentException("Unsupported geometry type: " + type);
+        }
+
+        private IPolygon CreatePolygon(object coordinates)
+        {
+            var rings = Children(coordinates);
+            if (rings.Count == 0)
+                return _factory.CreatePolygon(_factory.CreateLinearRing(ToSequence(rings)), new ILinearRing[] { });
+
+            ILinearRing shell = _factory.CreateLinearRing(ToSequence(rings[0]));
+            var holes = new ILinearRing[rings.Count - 1];
+            for (int i = 0; i < holes.Length; i++)
+                holes[i] = _factory.CreateLinearRing(ToSequence(rings[i + 1]));
+            return _factory.CreatePolygon(shell, holes);
+        }
+
+        /// <summary>
+        /// Reads the content of a "coordinates" array, starting at its first token.
+        /// The reader is left on the closing bracket of the array.
+        /// </summary>
+        /// <returns>
+        /// A position as a <c>double[3]</c>, the positions of an array of positions as an <see cref="OrdinateBuffer"/>,
+        /// or the contents of any other array as a list.
+        /// </returns>
+        private static object ReadCoordinates(JsonReader reader)
+        {
+            if (IsNumber(reader.TokenType))
+            {
+                var position = new[] { 0d, 0d, Double.NaN };
+                ReadPosition(reader, position);
+                return position;
+            }
+
+            var children = new List<object>();
+            if (reader.TokenType == JsonToken.EndArray)
+                return children;
+            if (reader.TokenType != JsonToken.StartArray)
+                throw new ArgumentException("Expected token '[' not found.");
+
+            Next(reader);
+            if (IsNumber(reader.TokenType))
+            {
+                // an array of positions, which is read straight into the buffer of a sequence
+                var buffer = new OrdinateBuffer();
+                var position = new double[3];
+                while (true)
+                {
+                    position[2] = Double.NaN;
+                    ReadPosition(reader, position);
+                    buffer.Add(position);
+
+                    Next(reader);
+                    if (reader.TokenType == JsonToken.EndArray)
+                        return buffer;
+                    if (reader.TokenType != JsonToken.StartArray)
+                        throw new ArgumentException("Expected token '[' not found.");
+                    Next(reader);
+                }
+            }
+
+            while (true)
+            {
+                children.Add(ReadCoordinates(reader));
+
+                Next(reader);
+                if (reader.TokenType == JsonToken.EndArray)
+                    return children;
+                if (reader.TokenType != JsonToken.StartArray)
+                    throw new ArgumentException("Expected token '[' not found.");
+                Next(reader);
+            }
+        }
+
+        /// <summary>
+        /// Reads the ordinates of a position, starting at the first one.
+        /// Ordinates beyond the third one are ignored.
+        /// </summary>
+        private static void ReadPosition(JsonReader reader, double[] position)
+        {
+            int count = 0;
+            while (reader.TokenType != JsonToken.EndArray)
+            {
+                if (!IsNumber(reader.TokenType))
+                    throw new ArgumentException("invalid tokentype: " + reader.TokenType);
+                if (count < 3)
+                    position[count] = Convert.ToDouble(reader.Value, CultureInfo.InvariantCulture);
+                count++;
+                Next(reader);
+            }
+
+            if (count < 2)
+                throw new ArgumentException("A position must have at least two ordinates.");
+        }
+
+        private ICoordinateSequence ToSequence(object coordinates)
+        {
+            var buffer = coordinates as OrdinateBuffer;
+            if (buffer == null)
+            {
+                if (Children(coordinates).Count > 0)
+                    throw new ArgumentException("Expected an array of positions.");
+                return _factory.CoordinateSequenceFactory.Create(0, 2);
+            }
+            return buffer.ToSequence(_factory.CoordinateSequenceFactory);
+        }
+
+        private static List<object> Children(object coordinates)
+        {
+            var children = coordinates as List<object>;
+            if (children == null)
+                throw new ArgumentException("Expected an array of arrays.");
+            return children;
+        }
+
+        /// <summary>
+        /// Reads a "properties" object like the <see cref="Converters.AttributesTableConverter"/> does,
+        /// with arrays read as lists of values.
+        /// </summary>
+        private static IAttributesTable ReadAttributes(JsonReader reader)
+        {
+            if (reader.TokenType != JsonToken.StartObject)
+                throw new ArgumentException("Expected token '{' not found.");
+
+            var attributes = new AttributesTable();
+            Next(reader);
+            while (reader.TokenType != JsonToken.EndObject)
+            {
+                string name = PropertyName(reader);
+                Next(reader);
+                attributes.AddAttribute(name, ReadValue(reader));
+                Next(reader);
+            }
+            return attributes;
+        }
+
+        private static object ReadValue(JsonReader reader)
+        {
+            switch (reader.TokenType)
+            {
+                case JsonToken.StartObject:
+                    return ReadAttributes(reader);
+                case JsonToken.StartArray:
+                    var values = new List<object>();
+                    Next(reader);
+                    while (reader.TokenType != JsonToken.EndArray)
+                    {
+                        values.Add(ReadValue(reader));
+                        Next(reader);
+                    }
+                    return values;
+                default:
+                    return reader.Value;
+            }
+        }
+
+        /// <summary>
+        /// Skips a value; for an object or an array the reader is left on its closing token.
+        /// </summary>
+        private static void Skip(JsonReader reader)
+        {
+            int depth = 0;
+            do
+            {
+                switch (reader.TokenType)
+                {
+                    case JsonToken.StartObject:
+                    case JsonToken.StartArray:
+                    case JsonToken.StartConstructor:
+                        depth++;
+                        break;
+                    case JsonToken.EndObject:
+                    case JsonToken.EndArray:
+                    case JsonToken.EndConstructor:
+                        depth--;
+                        break;
+                }
+                if (depth > 0)
+                    Next(reader);
+            }
+            while (depth > 0);
+        }
+
+        private static string PropertyName(JsonReader reader)
+        {
+            if (reader.TokenType != JsonToken.PropertyName)
+                throw new ArgumentException("Expected a property name.");
+            return (string)reader.Value;
+        }
+
+        private static void Next(JsonReader reader)
+        {
+            do
+            {
+                if (!reader.Read())
+                    throw new ArgumentException("Unexpected end of GeoJSON text.");
+            }
+            while (reader.TokenType == JsonToken.Comment);
+        }
+
+        private static bool IsNumber(JsonToken token)
+        {
+            return token == JsonToken.Integer || token == JsonToken.Float;
+        }
+
+        /// <summary>
+        /// A growable buffer of x, y and z ordinates.
+        /// </summary>
+        private class OrdinateBuffer
+        {
+            private double[] _ordinates = new double[3 * 16];
+            private int _count;
+            private bool _hasZ;
+
+            public void Add(double[] position)
+            {
+                if (3 * _count == _ordinates.Length)
+                    Array.Resize(ref _ordinates, 2 * _ordinates.Length);
+
+                int offset = 3 * _count++;
+                _ordinates[offset] = position[0];
+                _ordinates[offset + 1] = position[1];
+                _ordinates[offset + 2] = position[2];
+                if (!Double.IsNaN(position[2]))
+                    _hasZ = true;
+            }
+
+            public ICoordinateSequence ToSequence(ICoordinateSequenceFactory factory)
+            {
+                ICoordinateSequence sequence = factory.Create(_count, _hasZ ? 3 : 2);
+                for (int i = 0, offset = 0; i < _count; i++, offset += 3)
+                {
+                    sequence.SetOrdinate(i, Ordinate.X, _ordinates[offset]);
+                    sequence.SetOrdinate(i, Ordinate.Y, _ordinates[offset + 1]);
+                    if (_hasZ)
+                        sequence.SetOrdinate(i, Ordinate.Z, _ordinates[offset + 2]);
+                }
+                return sequence;
+            }
+        }
+    }
+}
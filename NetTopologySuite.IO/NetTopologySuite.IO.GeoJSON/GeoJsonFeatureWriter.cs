@@ -0,0 +1,349 @@
+using System;
+using System.Collections.Generic;
+using System.Globalization;
+using System.IO;
+using System.Text;
+using GeoAPI.Geometries;
+using NetTopologySuite.Features;
+using Newtonsoft.Json;
+
+namespace NetTopologySuite.IO
+{
+    /// <summary>
+    /// Writes features to a GeoJSON FeatureCollection one at a time.
+    /// </summary>
+    /// <remarks>
+    /// Unlike <see cref="GeoJsonWriter"/>, no string is built for the whole collection:
+    /// the features are serialized to the <see cref="TextWriter"/> as they are enumerated.
+    /// <para>
+    /// Ordinates are written with the fewest digits that read back to the same value,
+    /// or rounded to <see cref="CoordinatePrecision"/> decimal places. Integral values are
+    /// written without a decimal point, and NaN Z values are left out.
+    /// </para>
+    /// </remarks>
+    public class GeoJsonFeatureWriter
+    {
+        /// <summary>
+        /// The powers of ten that are exactly representable as doubles.
+        /// </summary>
+        private static readonly double[] PowersOf10 =
+        {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+        };
+
+        /// <summary>
+        /// 2^53, above which not every integer is representable as a double.
+        /// </summary>
+        private const double MaxExactInteger = 9007199254740992d;
+
+        private readonly JsonSerializer _serializer = new GeoJsonSerializer();
+        private readonly StringBuilder _coordinates = new StringBuilder();
+        private readonly char[] _digits = new char[32];
+        private int _coordinatePrecision = -1;
+
+        /// <summary>
+        /// Gets or sets the number of decimal places the ordinates are rounded to,
+        /// or -1 to write them with full precision. The default is -1.
+        /// </summary>
+        public int CoordinatePrecision
+        {
+            get { return _coordinatePrecision; }
+            set
+            {
+                if (value < -1 || value > 15)
+                    throw new ArgumentOutOfRangeException("value", "CoordinatePrecision must be between 0 and 15, or -1");
+                _coordinatePrecision = value;
+            }
+        }
+
+        /// <summary>
+        /// Writes the features as a FeatureCollection to a stream, encoded in UTF-8.
+        /// </summary>
+        /// <param name="stream">The stream to write to. It is flushed, but not closed.</param>
+        /// <param name="features">The features to write.</param>
+        public void Write(Stream stream, IEnumerable<IFeature> features)
+        {
+            if (stream == null)
+                throw new ArgumentNullException("stream");
+
+            var writer = new StreamWriter(stream, new UTF8Encoding(false));
+            Write(writer, features);
+        }
+
+        /// <summary>
+        /// Writes the features as a FeatureCollection.
+        /// </summary>
+        /// <param name="writer">The writer to write to. It is flushed, but not closed.</param>
+        /// <param name="features">The features to write. They are enumerated once.</param>
+        public void Write(TextWriter writer, IEnumerable<IFeature> features)
+        {
+            if (writer == null)
+                throw new ArgumentNullException("writer");
+            if (features == null)
+                throw new ArgumentNullException("features");
+
+            var json = new JsonTextWriter(writer);
+            json.WriteStartObject();
+            json.WritePropertyName("type");
+            json.WriteValue("FeatureCollection");
+            json.WritePropertyName("features");
+            json.WriteStartArray();
+            foreach (IFeature feature in features)
+                WriteFeature(json, feature);
+            json.WriteEndArray();
+            json.WriteEndObject();
+            json.Flush();
+        }
+
+        /// <summary>
+        /// Writes a single feature.
+        /// </summary>
+        /// <param name="writer">The writer to write to. It is flushed, but not closed.</param>
+        /// <param name="feature">The feature to write.</param>
+        public void Write(TextWriter writer, IFeature feature)
+        {
+            if (writer == null)
+                throw new ArgumentNullException("writer");
+            if (feature == null)
+                throw new ArgumentNullException("feature");
+
+            var json = new JsonTextWriter(writer);
+            WriteFeature(json, feature);
+            json.Flush();
+        }
+
+        private void WriteFeature(JsonWriter json, IFeature feature)
+        {
+            json.WriteStartObject();
+            json.WritePropertyName("type");
+            json.WriteValue("Feature");
+            json.WritePropertyName("geometry");
+            if (feature.Geometry == null)
+                json.WriteNull();
+            else
+                WriteGeometry(json, feature.Geometry);
+            json.WritePropertyName("properties");
+            if (feature.Attributes == null)
+                json.WriteNull();
+            else
+                WriteAttributes(json, feature.Attributes);
+            json.WriteEndObject();
+        }
+
+        private void WriteAttributes(JsonWriter json, IAttributesTable attributes)
+        {
+            json.WriteStartObject();
+            foreach (string name in attributes.GetNames())
+            {
+                json.WritePropertyName(name);
+                object value = attributes[name];
+                var table = value as IAttributesTable;
+                if (table != null)
+                    WriteAttributes(json, table);
+                else
+                    _serializer.Serialize(json, value);
+            }
+            json.WriteEndObject();
+        }
+
+        private void WriteGeometry(JsonWriter json, IGeometry geometry)
+        {
+            json.WriteStartObject();
+            json.WritePropertyName("type");
+
+            var collection = geometry as IGeometryCollection;
+            if (collection != null && !(collection is IMultiPoint || collection is IMultiLineString || collection is IMultiPolygon))
+            {
+                json.WriteValue("GeometryCollection");
+                json.WritePropertyName("geometries");
+                json.WriteStartArray();
+                for (int i = 0; i < collection.NumGeometries; i++)
+                    WriteGeometry(json, collection.GetGeometryN(i));
+                json.WriteEndArray();
+                json.WriteEndObject();
+                return;
+            }
+
+            _coordinates.Length = 0;
+            if (geometry is IPoint)
+            {
+                json.WriteValue("Point");
+                if (geometry.IsEmpty)
+                    _coordinates.Append("[]");
+                else
+                    AppendPosition(((IPoint)geometry).CoordinateSequence, 0);
+            }
+            else if (geometry is ILineString)
+            {
+                json.WriteValue("LineString");
+                AppendPositions(((ILineString)geometry).CoordinateSequence);
+            }
+            else if (geometry is IPolygon)
+            {
+                json.WriteValue("Polygon");
+                AppendRings((IPolygon)geometry);
+            }
+            else if (geometry is IMultiPoint)
+            {
+                json.WriteValue("MultiPoint");
+                _coordinates.Append('[');
+                for (int i = 0; i < geometry.NumGeometries; i++)
+                {
+                    if (i > 0) _coordinates.Append(',');
+                    AppendPosition(((IPoint)geometry.GetGeometryN(i)).CoordinateSequence, 0);
+                }
+                _coordinates.Append(']');
+            }
+            else if (geometry is IMultiLineString)
+            {
+                json.WriteValue("MultiLineString");
+                _coordinates.Append('[');
+                for (int i = 0; i < geometry.NumGeometries; i++)
+                {
+                    if (i > 0) _coordinates.Append(',');
+                    AppendPositions(((ILineString)geometry.GetGeometryN(i)).CoordinateSequence);
+                }
+                _coordinates.Append(']');
+            }
+            else if (geometry is IMultiPolygon)
+            {
+                json.WriteValue("MultiPolygon");
+                _coordinates.Append('[');
+                for (int i = 0; i < geometry.NumGeometries; i++)
+                {
+                    if (i > 0) _coordinates.Append(',');
+                    AppendRings((IPolygon)geometry.GetGeometryN(i));
+                }
+                _coordinates.Append(']');
+            }
+            else
+            {
+                throw new ArgumentException("Unsupported geometry type: " + geometry.GeometryType, "geometry");
+            }
+
+            json.WritePropertyName("coordinates");
+            json.WriteRawValue(_coordinates.ToString());
+            json.WriteEndObject();
+        }
+
+        private void AppendRings(IPolygon polygon)
+        {
+            _coordinates.Append('[');
+            if (!polygon.IsEmpty)
+            {
+                AppendPositions(polygon.ExteriorRing.CoordinateSequence);
+                for (int i = 0; i < polygon.NumInteriorRings; i++)
+                {
+                    _coordinates.Append(',');
+                    AppendPositions(polygon.GetInteriorRingN(i).CoordinateSequence);
+                }
+            }
+            _coordinates.Append(']');
+        }
+
+        private void AppendPositions(ICoordinateSequence sequence)
+        {
+            _coordinates.Append('[');
+            for (int i = 0; i < sequence.Count; i++)
+            {
+                if (i > 0) _coordinates.Append(',');
+                AppendPosition(sequence, i);
+            }
+            _coordinates.Append(']');
+        }
+
+        private void AppendPosition(ICoordinateSequence sequence, int index)
+        {
+            _coordinates.Append('[');
+            AppendNumber(sequence.GetOrdinate(index, Ordinate.X));
+            _coordinates.Append(',');
+            AppendNumber(sequence.GetOrdinate(index, Ordinate.Y));
+            if (sequence.Dimension > 2)
+            {
+                double z = sequence.GetOrdinate(index, Ordinate.Z);
+                if (!Double.IsNaN(z))
+                {
+                    _coordinates.Append(',');
+                    AppendNumber(z);
+                }
+            }
+            _coordinates.Append(']');
+        }
+
+        /// <summary>
+        /// Appends an ordinate, rounded to <see cref="CoordinatePrecision"/> decimal places if set.
+        /// </summary>
+        private void AppendNumber(double value)
+        {
+            if (_coordinatePrecision >= 0)
+                value = Math.Round(value, _coordinatePrecision, MidpointRounding.AwayFromZero);
+
+            if (TryAppendShortest(value))
+                return;
+
+            // "R" does not always round-trip on the .NET Framework
+            string text = value.ToString("R", CultureInfo.InvariantCulture);
+            if (!Double.IsNaN(value) && Double.Parse(text, CultureInfo.InvariantCulture) != value)
+                text = value.ToString("G17", CultureInfo.InvariantCulture);
+            _coordinates.Append(text);
+        }
+
+        /// <summary>
+        /// Appends a value in fixed-point notation with as few decimal places as possible.
+        /// </summary>
+        /// <remarks>
+        /// The value is written as <c>n / 10^k</c> for the smallest <c>k</c> for which this division
+        /// gives back the value. As both <c>n</c> and <c>10^k</c> are exact doubles and the division is
+        /// correctly rounded, any correctly rounding parser reads the digits back to the same value.
+        /// </remarks>
+        /// <returns><c>false</c> if the value is too large, too small or too precise for this method.</returns>
+        private bool TryAppendShortest(double value)
+        {
+            if (Double.IsNaN(value) || Double.IsInfinity(value))
+                return false;
+
+            double magnitude = Math.Abs(value);
+            for (int k = 0; k < PowersOf10.Length; k++)
+            {
+                double scaled = magnitude * PowersOf10[k];
+                if (scaled >= MaxExactInteger)
+                    return false;
+
+                // the product is rounded, so the closest integer may be off by one
+                double n = Math.Round(scaled);
+                if (n / PowersOf10[k] != magnitude)
+                {
+                    if ((n - 1) / PowersOf10[k] == magnitude)
+                        n = n - 1;
+                    else if ((n + 1) / PowersOf10[k] == magnitude)
+                        n = n + 1;
+                    else
+                        continue;
+                }
+
+                AppendDigits((long)n, k, value < 0);
+                return true;
+            }
+            return false;
+        }
+
+        private void AppendDigits(long n, int decimals, bool negative)
+        {
+            int position = _digits.Length;
+            int count = 0;
+            do
+            {
+                _digits[--position] = (char)('0' + (int)(n % 10));
+                n /= 10;
+                if (++count == decimals)
+                    _digits[--position] = '.';
+            }
+            while (n != 0 || count <= decimals);
+
+            if (negative)
+                _digits[--position] = '-';
+            _coordinates.Append(_digits, position, _digits.Length - position);
+        }
+    }
+}
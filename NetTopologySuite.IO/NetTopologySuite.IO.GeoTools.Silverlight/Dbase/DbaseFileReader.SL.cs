@@ -7,7 +7,7 @@ namespace NetTopologySuite.IO
 {
     public partial class DbaseFileReader
     {
-        private partial class DbaseFileEnumerator
+        internal partial class DbaseFileEnumerator
         {
             private IsolatedStorageFile _isolatedStorageFile;
 
@@ -44,7 +44,7 @@ namespace NetTopologySuite.IO
         /// <summary>
         /// Summary description for ShapefileEnumerator.
         /// </summary>
-        private partial class ShapefileEnumerator
+        internal partial class ShapefileEnumerator
         {
             private IsolatedStorageFile _isolatedStorageFile;
             /// <summary>
@@ -5,7 +5,7 @@ namespace NetTopologySuite.IO
 {
     public partial class DbaseFileReader
     {
-        private partial class DbaseFileEnumerator
+        internal partial class DbaseFileEnumerator
         {
             /// <summary>
             /// Initializes a new instance of the <see cref="DbaseFileEnumerator"/> class.
@@ -71,5 +71,15 @@ namespace NetTopologySuite.IO
             }
             return _header;
         }
+
+        /// <summary>
+        /// Creates a reader that decodes only the given columns, without boxing the values.
+        /// </summary>
+        /// <param name="columnNames">The names of the columns to read. If none are given, all columns are read.</param>
+        /// <returns>A new reader positioned before the first record, which has to be disposed by the caller.</returns>
+        public DbaseProjectedReader GetProjectedReader(params string[] columnNames)
+        {
+            return new DbaseProjectedReader(_filename, columnNames);
+        }
     }
 }
@@ -13,7 +13,7 @@ namespace NetTopologySuite.IO
         /// <summary>
         /// 
         /// </summary>
-        private partial class DbaseFileEnumerator : IEnumerator, IDisposable
+        internal partial class DbaseFileEnumerator : IEnumerator, IDisposable
         {
             DbaseFileReader _parent;
             ArrayList _arrayList;
@@ -64,6 +64,34 @@ namespace NetTopologySuite.IO
                 return more;
             }
 
+            /// <summary>
+            /// Advances the enumerator to the record with the given 0-based index.
+            /// </summary>
+            /// <remarks>
+            /// Unlike <see cref="MoveNext"/>, a deleted record is not skipped, so that the
+            /// record stays paired with the shape of the same index.
+            /// </remarks>
+            /// <param name="recordIndex">The index of the record.</param>
+            /// <returns>true if the record exists and is not deleted; otherwise, false.</returns>
+            public bool MoveTo(int recordIndex)
+            {
+                if (recordIndex < 0 || recordIndex >= _header.NumRecords)
+                    return false;
+
+                _dbfStream.BaseStream.Seek(_header.HeaderLength + (long)recordIndex * _header.RecordLength, SeekOrigin.Begin);
+                _iCurrentRecord = recordIndex + 1;
+
+                char deleted;
+                ArrayList attrs = ReadRecord(_dbfStream, _header, out deleted);
+                if (deleted == '*')
+                {
+                    _arrayList = null;
+                    return false;
+                }
+                _arrayList = attrs;
+                return true;
+            }
+
             /// <summary>
             /// Gets the current element in the collection.
             /// </summary>
@@ -108,117 +136,134 @@ namespace NetTopologySuite.IO
                 bool foundRecord = false;
                 while (!foundRecord)
                 {
-                    // retrieve the record length
-                    int tempNumFields = _header.NumFields;
+                    char tempDeleted;
+                    attrs = ReadRecord(_dbfStream, _header, out tempDeleted);
+
+                    // add the row if it is not deleted.
+                    if (tempDeleted != '*')
+                    {
+                        foundRecord = true;
+                    }
+                }
+                return attrs;
+            }
+
+            /// <summary>
+            /// Read the values of a single dbase record, including deleted ones.
+            /// </summary>
+            /// <param name="dbfStream">The reader, positioned at the start of the record.</param>
+            /// <param name="header">The header of the dbase file.</param>
+            /// <param name="deleted">The deleted flag of the record, '*' for deleted records.</param>
+            /// <returns>The values of the fields.</returns>
+            internal static ArrayList ReadRecord(BinaryReader dbfStream, DbaseFileHeader header, out char deleted)
+            {
+                ArrayList attrs = null;
 
-                    // storage for the actual values
-                    attrs = new ArrayList(tempNumFields);
+                // retrieve the record length
+                int tempNumFields = header.NumFields;
 
-                    // read the deleted flag
-                    char tempDeleted = (char)_dbfStream.ReadChar();
+                // storage for the actual values
+                attrs = new ArrayList(tempNumFields);
 
-                    // read the record length
-                    int tempRecordLength = 1; // for the deleted character just read.
+                // read the deleted flag
+                deleted = (char)dbfStream.ReadChar();
 
-                    // read the Fields
-                    for (int j = 0; j < tempNumFields; j++)
-                    {
-                        // find the length of the field.
-                        int tempFieldLength = _header.Fields[j].Length;
-                        tempRecordLength = tempRecordLength + tempFieldLength;
-
-                        // find the field type
-                        char tempFieldType = _header.Fields[j].DbaseType;
-
-                        // read the data.
-                        object tempObject = null;
-                        switch (tempFieldType)
-                        {
-                            case 'L':   // logical data type, one character (T,t,F,f,Y,y,N,n)
-                                char tempChar = (char)_dbfStream.ReadByte();
-                                if ((tempChar == 'T') || (tempChar == 't') || (tempChar == 'Y') || (tempChar == 'y'))
-                                    tempObject = true;
-                                else tempObject = false;
-                                break;
+                // read the record length
+                int tempRecordLength = 1; // for the deleted character just read.
 
-                            case 'C':   // character record.
-
-                                if (_header.Encoding == null)
-                                {
-                                    char[] sbuffer = _dbfStream.ReadChars(tempFieldLength);
-                                    tempObject = new string(sbuffer).Trim().Replace("\0", String.Empty);   //.ToCharArray();
-                                }
-                                else
-                                {
-                                    var buf = _dbfStream.ReadBytes(tempFieldLength);
-                                    tempObject = _header.Encoding.GetString(buf, 0, buf.Length).Trim();
-                                }                                
-                                break;
+                // read the Fields
+                for (int j = 0; j < tempNumFields; j++)
+                {
+                    // find the length of the field.
+                    int tempFieldLength = header.Fields[j].Length;
+                    tempRecordLength = tempRecordLength + tempFieldLength;
+
+                    // find the field type
+                    char tempFieldType = header.Fields[j].DbaseType;
 
-                            case 'D':   // date data type.
-                                char[] ebuffer = new char[8];
-                                ebuffer = _dbfStream.ReadChars(8);
-                                string tempString = new string(ebuffer, 0, 4);
-
-                                int year;
-                                if (!Int32.TryParse(tempString, NumberStyles.Integer, CultureInfo.InvariantCulture, out year))
-                                    break;
-                                tempString = new string(ebuffer, 4, 2);
-
-                                int month;
-                                if (!Int32.TryParse(tempString, NumberStyles.Integer, CultureInfo.InvariantCulture, out month))
-                                    break;
-                                tempString = new string(ebuffer, 6, 2);
-
-                                int day;
-                                if (!Int32.TryParse(tempString, NumberStyles.Integer, CultureInfo.InvariantCulture, out day))
-                                    break;
-
-                                try
-                                {
-                                    if (day>0 && year>0 && month>0 && month<=12) // don't try to parse date when day is invalid - it will be useless and slow for large files
-                                        tempObject = new DateTime(year, month, day);
-                                }
-                                catch (Exception) { }
-                                
+                    // read the data.
+                    object tempObject = null;
+                    switch (tempFieldType)
+                    {
+                        case 'L':   // logical data type, one character (T,t,F,f,Y,y,N,n)
+                            char tempChar = (char)dbfStream.ReadByte();
+                            if ((tempChar == 'T') || (tempChar == 't') || (tempChar == 'Y') || (tempChar == 'y'))
+                                tempObject = true;
+                            else tempObject = false;
+                            break;
+
+                        case 'C':   // character record.
+
+                            if (header.Encoding == null)
+                            {
+                                char[] sbuffer = dbfStream.ReadChars(tempFieldLength);
+                                tempObject = new string(sbuffer).Trim().Replace("\0", String.Empty);   //.ToCharArray();
+                            }
+                            else
+                            {
+                                var buf = dbfStream.ReadBytes(tempFieldLength);
+                                tempObject = header.Encoding.GetString(buf, 0, buf.Length).Trim();
+                            }                                
+                            break;
+
+                        case 'D':   // date data type.
+                            char[] ebuffer = new char[8];
+                            ebuffer = dbfStream.ReadChars(8);
+                            string tempString = new string(ebuffer, 0, 4);
+
+                            int year;
+                            if (!Int32.TryParse(tempString, NumberStyles.Integer, CultureInfo.InvariantCulture, out year))
                                 break;
+                            tempString = new string(ebuffer, 4, 2);
 
-                            case 'N': // number
-                            case 'F': // floating point number
-                                char[] fbuffer = new char[tempFieldLength];
-                                fbuffer = _dbfStream.ReadChars(tempFieldLength);
-                                tempString = new string(fbuffer);
-                                double val;
-                                if (Double.TryParse(tempString.Trim(), NumberStyles.Float, CultureInfo.InvariantCulture, out val))
-                                {
-                                    tempObject = val;
-                                }
-                                else
-                                {
-                                    // if we can't format the number, just save it as a string
-                                    tempObject = tempString;
-                                }
+                            int month;
+                            if (!Int32.TryParse(tempString, NumberStyles.Integer, CultureInfo.InvariantCulture, out month))
                                 break;
+                            tempString = new string(ebuffer, 6, 2);
 
-                            default:
-                                throw new NotSupportedException("Do not know how to parse Field type " + tempFieldType);
-                        }
-                        attrs.Add(tempObject);
-                    }
+                            int day;
+                            if (!Int32.TryParse(tempString, NumberStyles.Integer, CultureInfo.InvariantCulture, out day))
+                                break;
 
-                    // ensure that the full record has been read.
-                    if (tempRecordLength < _header.RecordLength)
-                    {
-                        byte[] tempbuff = new byte[_header.RecordLength - tempRecordLength];
-                        tempbuff = _dbfStream.ReadBytes(_header.RecordLength - tempRecordLength);
+                            try
+                            {
+                                if (day>0 && year>0 && month>0 && month<=12) // don't try to parse date when day is invalid - it will be useless and slow for large files
+                                    tempObject = new DateTime(year, month, day);
+                            }
+                            catch (Exception) { }
+                            
+                            break;
+
+                        case 'N': // number
+                        case 'F': // floating point number
+                            char[] fbuffer = new char[tempFieldLength];
+                            fbuffer = dbfStream.ReadChars(tempFieldLength);
+                            tempString = new string(fbuffer);
+                            double val;
+                            if (Double.TryParse(tempString.Trim(), NumberStyles.Float, CultureInfo.InvariantCulture, out val))
+                            {
+                                tempObject = val;
+                            }
+                            else
+                            {
+                                // if we can't format the number, just save it as a string
+                                tempObject = tempString;
+                            }
+                            break;
+
+                        default:
+                            throw new NotSupportedException("Do not know how to parse Field type " + tempFieldType);
                     }
+                    attrs.Add(tempObject);
+                }
 
-                    // add the row if it is not deleted.
-                    if (tempDeleted != '*')
-                    {
-                        foundRecord = true;
-                    }
+                // ensure that the full record has been read.
+                if (tempRecordLength < header.RecordLength)
+                {
+                    byte[] tempbuff = new byte[header.RecordLength - tempRecordLength];
+                    tempbuff = dbfStream.ReadBytes(header.RecordLength - tempRecordLength);
                 }
+
                 return attrs;
             }
 
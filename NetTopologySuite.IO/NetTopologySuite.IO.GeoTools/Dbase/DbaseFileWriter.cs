@@ -15,8 +15,11 @@ namespace NetTopologySuite.IO
     /// </remarks>
     public class DbaseFileWriter
     {
+        private const int BufferSize = 65536;
+
         readonly BinaryWriter _writer;
         private bool _headerWritten;
+        private int _recordsWritten;
         //private bool _recordsWritten;
         private DbaseFileHeader _header;
         private readonly Encoding _encoding;
@@ -38,7 +41,7 @@ namespace NetTopologySuite.IO
             if (enc == null) 
                 throw new ArgumentNullException("enc");
 
-            var filestream = new FileStream(filename, FileMode.Create, FileAccess.Write, FileShare.Write);
+            var filestream = new FileStream(filename, FileMode.Create, FileAccess.Write, FileShare.Write, BufferSize);
             _encoding = enc;
             _writer = new BinaryWriter(filestream, _encoding);
         }
@@ -106,6 +109,7 @@ namespace NetTopologySuite.IO
 
                 i++;
             }
+            _recordsWritten++;
         }
 
         /// <summary>
@@ -287,10 +291,23 @@ namespace NetTopologySuite.IO
         }
 
         /// <summary>
-        /// 
+        /// Closes the file.
         /// </summary>
+        /// <remarks>
+        /// If the number of records written with <see cref="Write(IList)"/> differs from
+        /// the one given in the header, the header is updated before the file is closed.
+        /// This allows writing a stream of records whose length is not known in advance.
+        /// </remarks>
         public void Close()
         {
+            if (_headerWritten && _recordsWritten > 0 && _recordsWritten != _header.NumRecords)
+            {
+                // the number of records is stored right after the file type and the update date
+                _writer.Seek(4, SeekOrigin.Begin);
+                _writer.Write(_recordsWritten);
+                _writer.Seek(0, SeekOrigin.End);
+                _header.NumRecords = _recordsWritten;
+            }
             _writer.Close();
         }
     }
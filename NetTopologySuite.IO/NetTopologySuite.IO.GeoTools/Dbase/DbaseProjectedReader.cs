@@ -0,0 +1,515 @@
+using System;
+using System.Globalization;
+using System.IO;
+using System.Text;
+
+namespace NetTopologySuite.IO
+{
+    /// <summary>
+    /// Reads a subset of the columns of a dbase file, decoding values straight from the raw record bytes.
+    /// </summary>
+    /// <remarks>
+    /// Each record is read into a single reused buffer, and a column is only decoded when one of the
+    /// accessors asks for it. Numbers, dates and logicals are returned without boxing.
+    /// <para>
+    /// Unlike <see cref="DbaseFileReader"/>, deleted records are not skipped, so that record numbers
+    /// stay aligned with the shapes of the shapefile. Use <see cref="IsDeleted"/> to test for them.
+    /// </para>
+    /// </remarks>
+    public class DbaseProjectedReader : IDisposable
+    {
+        private const int StreamBufferSize = 65536;
+
+        // Powers of ten that are exactly representable as doubles.
+        private static readonly double[] PowersOf10 =
+        {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+        };
+
+        private readonly Stream _stream;
+        private readonly DbaseFileHeader _header;
+        private readonly Encoding _encoding;
+        private readonly DbaseFieldDescriptor[] _fields;
+        private readonly int[] _offsets;
+        private readonly byte[] _record;
+        private int _recordIndex = -1;
+
+        /// <summary>
+        /// Initializes a new instance of the DbaseProjectedReader class.
+        /// </summary>
+        /// <param name="filename">The path to the dbase file.</param>
+        /// <param name="columnNames">
+        /// The names of the columns to read, compared ignoring case. If none are given, all columns are read.
+        /// </param>
+        public DbaseProjectedReader(string filename, params string[] columnNames)
+        {
+            if (filename == null)
+                throw new ArgumentNullException("filename");
+            if (!File.Exists(filename))
+                throw new FileNotFoundException(String.Format("Could not find file \"{0}\"", filename));
+
+            _stream = new FileStream(filename, FileMode.Open, FileAccess.Read, FileShare.Read, StreamBufferSize);
+            try
+            {
+                _header = new DbaseFileHeader();
+                _header.ReadHeader(new BinaryReader(_stream), filename);
+                _encoding = _header.Encoding ?? Encoding.UTF8;
+
+                var recordOffsets = new int[_header.NumFields];
+                int offset = 1; // the deleted flag comes first
+                for (int i = 0; i < recordOffsets.Length; i++)
+                {
+                    recordOffsets[i] = offset;
+                    offset += _header.Fields[i].Length;
+                }
+
+                if (columnNames == null || columnNames.Length == 0)
+                {
+                    _fields = (DbaseFieldDescriptor[])_header.Fields.Clone();
+                    _offsets = recordOffsets;
+                }
+                else
+                {
+                    _fields = new DbaseFieldDescriptor[columnNames.Length];
+                    _offsets = new int[columnNames.Length];
+                    for (int i = 0; i < columnNames.Length; i++)
+                    {
+                        int field = FindField(columnNames[i]);
+                        _fields[i] = _header.Fields[field];
+                        _offsets[i] = recordOffsets[field];
+                    }
+                }
+
+                _record = new byte[Math.Max(_header.RecordLength, offset)];
+                _stream.Seek(_header.HeaderLength, SeekOrigin.Begin);
+            }
+            catch
+            {
+                _stream.Dispose();
+                throw;
+            }
+        }
+
+        /// <summary>
+        /// Gets the header of the dbase file.
+        /// </summary>
+        public DbaseFileHeader Header
+        {
+            get { return _header; }
+        }
+
+        /// <summary>
+        /// Gets the number of columns that are read.
+        /// </summary>
+        public int FieldCount
+        {
+            get { return _fields.Length; }
+        }
+
+        /// <summary>
+        /// Gets the 0-based number of the current record, or -1 before the first call to <see cref="Read"/>.
+        /// </summary>
+        public int RecordIndex
+        {
+            get { return _recordIndex; }
+        }
+
+        /// <summary>
+        /// Gets a value indicating whether the current record is marked as deleted.
+        /// </summary>
+        public bool IsDeleted
+        {
+            get
+            {
+                EnsureRecord();
+                return _record[0] == '*';
+            }
+        }
+
+        /// <summary>
+        /// Gets the descriptor of a column.
+        /// </summary>
+        /// <param name="i">The index of the column among the columns that are read.</param>
+        /// <returns>The field descriptor.</returns>
+        public DbaseFieldDescriptor GetField(int i)
+        {
+            return _fields[i];
+        }
+
+        /// <summary>
+        /// Gets the index of a column among the columns that are read.
+        /// </summary>
+        /// <param name="name">The name of the column, compared ignoring case.</param>
+        /// <returns>The index of the column, or -1 if it is not read.</returns>
+        public int GetOrdinal(string name)
+        {
+            for (int i = 0; i < _fields.Length; i++)
+            {
+                if (String.Equals(_fields[i].Name, name, StringComparison.OrdinalIgnoreCase))
+                    return i;
+            }
+            return -1;
+        }
+
+        /// <summary>
+        /// Advances to the next record.
+        /// </summary>
+        /// <returns>true if there is another record; otherwise, false.</returns>
+        public bool Read()
+        {
+            if (_recordIndex + 1 >= _header.NumRecords)
+                return false;
+
+            if (!ReadRecord())
+                return false;
+
+            _recordIndex++;
+            return true;
+        }
+
+        /// <summary>
+        /// Moves to the record with the given 0-based index.
+        /// </summary>
+        /// <param name="recordIndex">The index of the record.</param>
+        /// <returns>true if the record exists; otherwise, false.</returns>
+        public bool MoveTo(int recordIndex)
+        {
+            if (recordIndex < 0 || recordIndex >= _header.NumRecords)
+                return false;
+
+            if (recordIndex != _recordIndex + 1)
+                _stream.Seek(_header.HeaderLength + (long)recordIndex * _header.RecordLength, SeekOrigin.Begin);
+
+            if (!ReadRecord())
+                return false;
+
+            _recordIndex = recordIndex;
+            return true;
+        }
+
+        /// <summary>
+        /// Tests whether a column of the current record is empty.
+        /// </summary>
+        /// <param name="i">The index of the column among the columns that are read.</param>
+        /// <returns>true if the column holds no value.</returns>
+        public bool IsDBNull(int i)
+        {
+            EnsureRecord();
+
+            int start, length;
+            Trim(i, out start, out length);
+            switch (_fields[i].DbaseType)
+            {
+                case 'C':
+                    return false;
+                case 'L':
+                    return length == 0 || _record[start] == '?';
+                case 'D':
+                    return length != 8 || !IsValidDate(start);
+                default:
+                    return length == 0 || _record[start] == '*';
+            }
+        }
+
+        /// <summary>
+        /// Gets the value of a numeric column.
+        /// </summary>
+        /// <param name="i">The index of the column among the columns that are read.</param>
+        /// <returns>The value, or <see cref="double.NaN"/> if the column is empty or not a number.</returns>
+        public double GetDouble(int i)
+        {
+            EnsureRecord();
+            EnsureType(i, 'N', 'F');
+
+            int start, length;
+            Trim(i, out start, out length);
+            double value;
+            return TryParseDouble(start, length, out value) ? value : double.NaN;
+        }
+
+        /// <summary>
+        /// Gets the value of a numeric column as an integer. Decimals are truncated.
+        /// </summary>
+        /// <param name="i">The index of the column among the columns that are read.</param>
+        /// <returns>The value, or 0 if the column is empty or not a number.</returns>
+        public int GetInt32(int i)
+        {
+            long value = GetInt64(i);
+            if (value < int.MinValue || value > int.MaxValue)
+                throw new OverflowException("Value of column " + _fields[i].Name + " does not fit in an Int32");
+            return (int)value;
+        }
+
+        /// <summary>
+        /// Gets the value of a numeric column as a long integer. Decimals are truncated.
+        /// </summary>
+        /// <param name="i">The index of the column among the columns that are read.</param>
+        /// <returns>The value, or 0 if the column is empty or not a number.</returns>
+        public long GetInt64(int i)
+        {
+            EnsureRecord();
+            EnsureType(i, 'N', 'F');
+
+            int start, length;
+            Trim(i, out start, out length);
+
+            int pos = start, end = start + length;
+            bool negative = false;
+            if (pos < end && (_record[pos] == '-' || _record[pos] == '+'))
+                negative = _record[pos++] == '-';
+
+            long value = 0;
+            int digits = 0;
+            while (pos < end && _record[pos] >= '0' && _record[pos] <= '9' && digits < 18)
+            {
+                value = value * 10 + (_record[pos++] - '0');
+                digits++;
+            }
+
+            if (digits > 0 && (pos == end || _record[pos] == '.' && AreDigits(pos + 1, end)))
+                return negative ? -value : value;
+
+            // exponents and long numbers
+            double result;
+            if (!TryParseDouble(start, length, out result))
+                return 0;
+            return checked((long)result);
+        }
+
+        /// <summary>
+        /// Gets the value of a character column, without leading and trailing blanks.
+        /// </summary>
+        /// <param name="i">The index of the column among the columns that are read.</param>
+        /// <returns>The value.</returns>
+        public string GetString(int i)
+        {
+            EnsureRecord();
+
+            int start, length;
+            Trim(i, out start, out length);
+            if (length == 0)
+                return String.Empty;
+
+            string value = _encoding.GetString(_record, start, length);
+            if (value.IndexOf('\0') >= 0)
+                value = value.Replace("\0", String.Empty);
+            return value;
+        }
+
+        /// <summary>
+        /// Gets the value of a date column.
+        /// </summary>
+        /// <param name="i">The index of the column among the columns that are read.</param>
+        /// <returns>The value, or <see cref="DateTime.MinValue"/> if the column is empty or not a valid date.</returns>
+        public DateTime GetDateTime(int i)
+        {
+            EnsureRecord();
+            EnsureType(i, 'D');
+
+            int start, length;
+            Trim(i, out start, out length);
+            if (length != 8 || !IsValidDate(start))
+                return DateTime.MinValue;
+
+            return new DateTime(ParseDigits(start, 4), ParseDigits(start + 4, 2), ParseDigits(start + 6, 2));
+        }
+
+        /// <summary>
+        /// Gets the value of a logical column.
+        /// </summary>
+        /// <param name="i">The index of the column among the columns that are read.</param>
+        /// <returns>true for T, t, Y or y; otherwise, false.</returns>
+        public bool GetBoolean(int i)
+        {
+            EnsureRecord();
+            EnsureType(i, 'L');
+
+            byte value = _record[_offsets[i]];
+            return value == 'T' || value == 't' || value == 'Y' || value == 'y';
+        }
+
+        /// <summary>
+        /// Gets the value of a column as an object, in the same way <see cref="DbaseFileReader"/> returns it.
+        /// </summary>
+        /// <param name="i">The index of the column among the columns that are read.</param>
+        /// <returns>The value.</returns>
+        public object GetValue(int i)
+        {
+            EnsureRecord();
+
+            switch (_fields[i].DbaseType)
+            {
+                case 'L':
+                    return GetBoolean(i);
+                case 'C':
+                    return GetString(i);
+                case 'D':
+                    return IsDBNull(i) ? null : (object)GetDateTime(i);
+                case 'N':
+                case 'F':
+                    int start, length;
+                    Trim(i, out start, out length);
+                    double value;
+                    if (TryParseDouble(start, length, out value))
+                        return value;
+                    // if we can't format the number, just return it as a string
+                    return _encoding.GetString(_record, _offsets[i], _fields[i].Length);
+                default:
+                    throw new NotSupportedException("Do not know how to parse Field type " + _fields[i].DbaseType);
+            }
+        }
+
+        /// <summary>
+        /// Closes the dbase file.
+        /// </summary>
+        public void Dispose()
+        {
+            _stream.Dispose();
+        }
+
+        private int FindField(string name)
+        {
+            if (name == null)
+                throw new ArgumentNullException("columnNames");
+
+            for (int i = 0; i < _header.NumFields; i++)
+            {
+                if (String.Equals(_header.Fields[i].Name, name, StringComparison.OrdinalIgnoreCase))
+                    return i;
+            }
+            throw new ArgumentException("Column not found in dbase file: " + name, "columnNames");
+        }
+
+        private bool ReadRecord()
+        {
+            int count = _header.RecordLength;
+            int read = 0;
+            while (read < count)
+            {
+                int n = _stream.Read(_record, read, count - read);
+                if (n == 0)
+                    return false;
+                read += n;
+            }
+            return true;
+        }
+
+        private void EnsureRecord()
+        {
+            if (_recordIndex < 0)
+                throw new InvalidOperationException("No current record, call Read first");
+        }
+
+        private void EnsureType(int i, char type1, char type2 = '\0')
+        {
+            char type = _fields[i].DbaseType;
+            if (type != type1 && type != type2)
+                throw new InvalidCastException("Column " + _fields[i].Name + " is of type " + type);
+        }
+
+        /// <summary>
+        /// Finds the value of a column without leading and trailing blanks and zero bytes.
+        /// </summary>
+        private void Trim(int i, out int start, out int length)
+        {
+            start = _offsets[i];
+            int end = start + _fields[i].Length;
+            while (start < end && (_record[start] == ' ' || _record[start] == 0))
+                start++;
+            while (end > start && (_record[end - 1] == ' ' || _record[end - 1] == 0))
+                end--;
+            length = end - start;
+        }
+
+        private bool AreDigits(int start, int end)
+        {
+            for (int pos = start; pos < end; pos++)
+            {
+                if (_record[pos] < '0' || _record[pos] > '9')
+                    return false;
+            }
+            return true;
+        }
+
+        private bool IsValidDate(int start)
+        {
+            if (!AreDigits(start, start + 8))
+                return false;
+
+            int year = ParseDigits(start, 4), month = ParseDigits(start + 4, 2), day = ParseDigits(start + 6, 2);
+            return year > 0 && month > 0 && month <= 12 && day > 0 && day <= DateTime.DaysInMonth(year, month);
+        }
+
+        private int ParseDigits(int start, int count)
+        {
+            int value = 0;
+            for (int pos = start; pos < start + count; pos++)
+                value = value * 10 + (_record[pos] - '0');
+            return value;
+        }
+
+        /// <summary>
+        /// Parses a number without going through a string.
+        /// </summary>
+        /// <remarks>
+        /// Numbers with at most 15 significant digits and a small exponent are computed exactly
+        /// from the digits; anything else is handed to <see cref="double.TryParse(string, NumberStyles, IFormatProvider, out double)"/>.
+        /// </remarks>
+        private bool TryParseDouble(int start, int length, out double value)
+        {
+            value = 0;
+            if (length == 0)
+                return false;
+
+            int pos = start, end = start + length;
+            bool negative = false;
+            if (_record[pos] == '-' || _record[pos] == '+')
+                negative = _record[pos++] == '-';
+
+            long mantissa = 0;
+            int digits = 0, scale = 0;
+            bool anyDigit = false, fast = true;
+            for (; pos < end && _record[pos] >= '0' && _record[pos] <= '9'; pos++, anyDigit = true)
+            {
+                if (mantissa == 0 && _record[pos] == '0')
+                    continue;
+                if (++digits > 15)
+                    fast = false;
+                else
+                    mantissa = mantissa * 10 + (_record[pos] - '0');
+            }
+            if (pos < end && _record[pos] == '.')
+            {
+                for (pos++; pos < end && _record[pos] >= '0' && _record[pos] <= '9'; pos++, anyDigit = true)
+                {
+                    if (mantissa == 0 && _record[pos] == '0')
+                    {
+                        scale--;
+                        continue;
+                    }
+                    if (++digits > 15)
+                        fast = false;
+                    else
+                    {
+                        mantissa = mantissa * 10 + (_record[pos] - '0');
+                        scale--;
+                    }
+                }
+            }
+
+            if (fast && anyDigit && pos == end && -scale < PowersOf10.Length)
+            {
+                value = mantissa / PowersOf10[-scale];
+                if (negative)
+                    value = -value;
+                return true;
+            }
+
+            // exponents, thousand separators and numbers with many digits
+            const NumberStyles numberStyle = NumberStyles.AllowLeadingWhite | NumberStyles.AllowTrailingWhite | NumberStyles.AllowLeadingSign | NumberStyles.AllowDecimalPoint | NumberStyles.AllowThousands | NumberStyles.AllowExponent;
+            string text = Encoding.ASCII.GetString(_record, start, length);
+            return Double.TryParse(text, numberStyle, CultureInfo.InvariantCulture, out value);
+        }
+    }
+}
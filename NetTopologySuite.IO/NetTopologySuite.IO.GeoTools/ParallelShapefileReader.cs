@@ -0,0 +1,295 @@
+using System;
+using System.Collections;
+using System.Collections.Concurrent;
+using System.Collections.Generic;
+using System.IO;
+using System.Threading;
+using System.Threading.Tasks;
+using GeoAPI.Geometries;
+using NetTopologySuite.Features;
+using NetTopologySuite.IO.Handlers;
+
+namespace NetTopologySuite.IO
+{
+    /// <summary>
+    /// Reads the records of a shapefile in a pipeline.
+    /// </summary>
+    /// <remarks>
+    /// A single thread reads the .shp file, and the .dbf file if given, sequentially.
+    /// It slices them into batches of raw records, and a number of workers decode
+    /// the geometries and attributes of these batches concurrently.
+    /// <para>
+    /// Unlike <see cref="DbaseFileReader"/>, deleted dbase records are not skipped,
+    /// so that the attributes always stay with the shape of the same record number.
+    /// </para>
+    /// </remarks>
+    internal class ParallelShapefileReader
+    {
+        private const int BatchSize = 128;
+        private const int StreamBufferSize = 65536;
+
+        private readonly string _shpFile;
+        private readonly string _dbfFile;
+        private readonly IGeometryFactory _geometryFactory;
+        private readonly int _workerCount;
+        private readonly bool _preserveOrder;
+
+        /// <summary>
+        /// Creates a reader for a shapefile.
+        /// </summary>
+        /// <param name="shpFile">The path to the .shp file.</param>
+        /// <param name="dbfFile">The path to the .dbf file, or <c>null</c> to read the geometries only.</param>
+        /// <param name="geometryFactory">The factory to create the geometries with.</param>
+        /// <param name="maxDegreeOfParallelism">The number of decoding workers, or -1 for one per processor.</param>
+        /// <param name="preserveOrder">True to return the records in file order.</param>
+        public ParallelShapefileReader(string shpFile, string dbfFile, IGeometryFactory geometryFactory, int maxDegreeOfParallelism, bool preserveOrder)
+        {
+            if (shpFile == null)
+                throw new ArgumentNullException("shpFile");
+            if (geometryFactory == null)
+                throw new ArgumentNullException("geometryFactory");
+            if (maxDegreeOfParallelism == 0 || maxDegreeOfParallelism < -1)
+                throw new ArgumentOutOfRangeException("maxDegreeOfParallelism", "MaxDegreeOfParallelism must be positive or -1");
+            if (!File.Exists(shpFile))
+                throw new FileNotFoundException(String.Format("Could not find file \"{0}\"", shpFile));
+            if (dbfFile != null && !File.Exists(dbfFile))
+                throw new FileNotFoundException(String.Format("Could not find file \"{0}\"", dbfFile));
+
+            _shpFile = shpFile;
+            _dbfFile = dbfFile;
+            _geometryFactory = geometryFactory;
+            _workerCount = maxDegreeOfParallelism == -1 ? Environment.ProcessorCount : maxDegreeOfParallelism;
+            _preserveOrder = preserveOrder;
+        }
+
+        /// <summary>
+        /// Reads the records as features. The attributes are <c>null</c> if no .dbf file was given.
+        /// </summary>
+        /// <remarks>
+        /// The files are opened when the enumeration starts, and the pipeline is stopped
+        /// as soon as the enumeration is disposed. An exception thrown by the pipeline
+        /// is rethrown at the end of the enumeration, wrapped in an <see cref="AggregateException"/>.
+        /// </remarks>
+        public IEnumerable<IFeature> Read()
+        {
+            var cancellation = new CancellationTokenSource();
+            var batches = new BlockingCollection<RecordBatch>(2 * _workerCount);
+            var decoded = new BlockingCollection<RecordBatch>(2 * _workerCount);
+            var tasks = new List<Task>(_workerCount + 1);
+
+            FileStream shpStream = null, dbfStream = null;
+            try
+            {
+                shpStream = new FileStream(_shpFile, FileMode.Open, FileAccess.Read, FileShare.Read, StreamBufferSize);
+                var shpReader = new BigEndianBinaryReader(shpStream);
+                var shpHeader = new ShapefileHeader(shpReader);
+                shpStream.Seek(100, SeekOrigin.Begin);
+
+                BinaryReader dbfReader = null;
+                DbaseFileHeader dbfHeader = null;
+                if (_dbfFile != null)
+                {
+                    dbfStream = new FileStream(_dbfFile, FileMode.Open, FileAccess.Read, FileShare.Read, StreamBufferSize);
+                    dbfReader = new BinaryReader(dbfStream);
+                    dbfHeader = new DbaseFileHeader();
+                    dbfHeader.ReadHeader(dbfReader, _dbfFile);
+                    dbfStream.Seek(dbfHeader.HeaderLength, SeekOrigin.Begin);
+                }
+
+                tasks.Add(Task.Factory.StartNew(
+                    () => Slice(shpReader, dbfReader, dbfHeader, batches, cancellation),
+                    CancellationToken.None, TaskCreationOptions.LongRunning, TaskScheduler.Default));
+
+                var workers = new Task[_workerCount];
+                for (int i = 0; i < workers.Length; i++)
+                {
+                    workers[i] = Task.Factory.StartNew(
+                        () => Decode(shpHeader.ShapeType, dbfHeader, batches, decoded, cancellation),
+                        CancellationToken.None, TaskCreationOptions.LongRunning, TaskScheduler.Default);
+                }
+                tasks.AddRange(workers);
+                Task.Factory.ContinueWhenAll(workers, delegate { decoded.CompleteAdding(); });
+
+                // batches that arrived ahead of their turn, by sequence number
+                var pending = new Dictionary<int, RecordBatch>();
+                int next = 0;
+                foreach (RecordBatch batch in decoded.GetConsumingEnumerable())
+                {
+                    if (!_preserveOrder)
+                    {
+                        foreach (IFeature feature in batch.Features)
+                            yield return feature;
+                        continue;
+                    }
+
+                    pending.Add(batch.Sequence, batch);
+                    RecordBatch ready;
+                    while (pending.TryGetValue(next, out ready))
+                    {
+                        pending.Remove(next++);
+                        foreach (IFeature feature in ready.Features)
+                            yield return feature;
+                    }
+                }
+
+                // rethrows the exceptions of the reader and the workers
+                Task.WaitAll(tasks.ToArray());
+            }
+            finally
+            {
+                // stops the pipeline if the enumeration has been abandoned
+                cancellation.Cancel();
+                WaitQuietly(tasks);
+
+                if (dbfStream != null)
+                    dbfStream.Dispose();
+                if (shpStream != null)
+                    shpStream.Dispose();
+                cancellation.Dispose();
+            }
+        }
+
+        private static void WaitQuietly(List<Task> tasks)
+        {
+            try
+            {
+                Task.WaitAll(tasks.ToArray());
+            }
+            catch (AggregateException)
+            {
+                // already reported, or of no interest once the enumeration has been abandoned
+            }
+        }
+
+        /// <summary>
+        /// Reads the raw records sequentially and hands them out in batches.
+        /// </summary>
+        private static void Slice(BigEndianBinaryReader shpReader, BinaryReader dbfReader, DbaseFileHeader dbfHeader,
+            BlockingCollection<RecordBatch> batches, CancellationTokenSource cancellation)
+        {
+            CancellationToken token = cancellation.Token;
+            try
+            {
+                Stream shpStream = shpReader.BaseStream;
+                int sequence = 0;
+                int recordIndex = 0;
+                var batch = new RecordBatch(sequence++);
+
+                while (shpStream.Position + 8 <= shpStream.Length)
+                {
+                    // like ShapefileDataReader, stop at the end of the shorter file
+                    if (dbfReader != null && recordIndex >= dbfHeader.NumRecords)
+                        break;
+
+                    shpReader.ReadInt32BE(); // record number
+                    int contentLength = 2 * shpReader.ReadInt32BE();
+                    if (contentLength < 0)
+                        break;
+
+                    byte[] shape = shpReader.ReadBytes(contentLength);
+                    if (shape.Length < contentLength)
+                        break; // truncated record
+
+                    batch.Shapes.Add(shape);
+                    batch.Rows.Add(dbfReader != null ? dbfReader.ReadBytes(dbfHeader.RecordLength) : null);
+                    recordIndex++;
+
+                    if (batch.Shapes.Count == BatchSize)
+                    {
+                        batches.Add(batch, token);
+                        batch = new RecordBatch(sequence++);
+                    }
+                }
+
+                if (batch.Shapes.Count > 0)
+                    batches.Add(batch, token);
+            }
+            catch (OperationCanceledException)
+            {
+                if (!token.IsCancellationRequested)
+                    throw;
+            }
+            catch (Exception)
+            {
+                cancellation.Cancel();
+                throw;
+            }
+            finally
+            {
+                batches.CompleteAdding();
+            }
+        }
+
+        /// <summary>
+        /// Decodes batches of raw records into features.
+        /// </summary>
+        private void Decode(ShapeGeometryType shapeType, DbaseFileHeader dbfHeader,
+            BlockingCollection<RecordBatch> batches, BlockingCollection<RecordBatch> decoded, CancellationTokenSource cancellation)
+        {
+            CancellationToken token = cancellation.Token;
+            try
+            {
+                // Shape handlers keep the state of the record being read, so every worker needs its own.
+                ShapeHandler handler = Shapefile.GetShapeHandler(shapeType);
+
+                foreach (RecordBatch batch in batches.GetConsumingEnumerable(token))
+                {
+                    var features = new IFeature[batch.Shapes.Count];
+                    for (int i = 0; i < features.Length; i++)
+                    {
+                        byte[] shape = batch.Shapes[i];
+                        IGeometry geometry;
+                        using (var shpReader = new BigEndianBinaryReader(new MemoryStream(shape, false)))
+                            geometry = handler.Read(shpReader, shape.Length / 2, _geometryFactory);
+
+                        byte[] row = batch.Rows[i];
+                        features[i] = new Feature(geometry, row != null ? ReadAttributes(row, dbfHeader) : null);
+                    }
+
+                    batch.Features = features;
+                    batch.Shapes = null;
+                    batch.Rows = null;
+                    decoded.Add(batch, token);
+                }
+            }
+            catch (OperationCanceledException)
+            {
+                if (!token.IsCancellationRequested)
+                    throw;
+            }
+            catch (Exception)
+            {
+                cancellation.Cancel();
+                throw;
+            }
+        }
+
+        private static IAttributesTable ReadAttributes(byte[] row, DbaseFileHeader dbfHeader)
+        {
+            ArrayList values;
+            char deleted;
+            using (var dbfReader = new BinaryReader(new MemoryStream(row, false), dbfHeader.Encoding))
+                values = DbaseFileReader.DbaseFileEnumerator.ReadRecord(dbfReader, dbfHeader, out deleted);
+
+            var attributes = new AttributesTable();
+            for (int i = 0; i < values.Count; i++)
+                attributes.AddAttribute(dbfHeader.Fields[i].Name, values[i]);
+            return attributes;
+        }
+
+        private class RecordBatch
+        {
+            public RecordBatch(int sequence)
+            {
+                Sequence = sequence;
+                Shapes = new List<byte[]>(BatchSize);
+                Rows = new List<byte[]>(BatchSize);
+            }
+
+            public readonly int Sequence;
+            public List<byte[]> Shapes;
+            public List<byte[]> Rows;
+            public IFeature[] Features;
+        }
+    }
+}
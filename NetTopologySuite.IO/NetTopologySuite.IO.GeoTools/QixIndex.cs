@@ -0,0 +1,498 @@
+using System;
+using System.Collections.Generic;
+using System.IO;
+using GeoAPI.Geometries;
+using NetTopologySuite.IO.Handlers;
+
+namespace NetTopologySuite.IO
+{
+    /// <summary>
+    /// A quadtree spatial index over the records of a shapefile,
+    /// stored in the ".qix" sidecar format written by the <c>shptree</c> utility of shapelib and MapServer.
+    /// </summary>
+    /// <remarks>
+    /// The index holds the 0-based record numbers of the shapes. Each shape is stored in the deepest node
+    /// whose bounds cover the shape's bounding box, so a query returns candidates that still have to be
+    /// checked against the bounding boxes of the shapes themselves.
+    /// <para>
+    /// Files are written in little-endian byte order, both byte orders are read.
+    /// The old header-less format of MapServer versions prior to 4.0 is not supported.
+    /// </para>
+    /// </remarks>
+    public class QixIndex
+    {
+        /// <summary>
+        /// The file extension of quadtree index files.
+        /// </summary>
+        public const string Extension = ".qix";
+
+        private const byte LsbOrder = 1;
+        private const byte MsbOrder = 2;
+        private const byte FormatVersion = 1;
+
+        // Quadrants overlap, so that shapes lying across a split line can still go one level deeper.
+        private const double SplitRatio = 0.55;
+
+        // Deeper trees need a lot of memory while they are built; shapelib applies the same limit.
+        private const int MaxAutomaticDepth = 12;
+
+        private readonly Node _root;
+        private readonly int _numShapes;
+        private readonly int _maxDepth;
+
+        private QixIndex(Node root, int numShapes, int maxDepth)
+        {
+            _root = root;
+            _numShapes = numShapes;
+            _maxDepth = maxDepth;
+        }
+
+        /// <summary>
+        /// Gets the number of records of the shapefile the index was built for.
+        /// </summary>
+        public int NumShapes
+        {
+            get { return _numShapes; }
+        }
+
+        /// <summary>
+        /// Gets the maximum depth of the quadtree.
+        /// </summary>
+        public int MaxDepth
+        {
+            get { return _maxDepth; }
+        }
+
+        /// <summary>
+        /// Gets the bounds of the root node.
+        /// </summary>
+        public Envelope Bounds
+        {
+            get { return new Envelope(_root.Bounds); }
+        }
+
+        /// <summary>
+        /// Gets the path of the index file that belongs to a shapefile.
+        /// </summary>
+        /// <param name="filename">The path to the shapefile, with or without the .shp extension.</param>
+        /// <returns>The path to the .qix file.</returns>
+        public static string GetIndexFilename(string filename)
+        {
+            if (filename == null)
+                throw new ArgumentNullException("filename");
+            return Path.ChangeExtension(filename, Extension);
+        }
+
+        /// <summary>
+        /// Builds an index from the bounding boxes of the records of a shapefile.
+        /// </summary>
+        /// <param name="shapes">The bounding boxes and record numbers of the non-null shapes.</param>
+        /// <param name="bounds">The bounds of the shapefile, usually taken from its header.</param>
+        /// <param name="numShapes">The number of records in the shapefile, null shapes included.</param>
+        /// <param name="maxDepth">The maximum depth of the tree, or 0 to derive it from <paramref name="numShapes"/>.</param>
+        /// <returns>The index.</returns>
+        public static QixIndex Build(IEnumerable<MBRInfo> shapes, Envelope bounds, int numShapes, int maxDepth)
+        {
+            if (shapes == null)
+                throw new ArgumentNullException("shapes");
+            if (bounds == null)
+                throw new ArgumentNullException("bounds");
+            if (numShapes < 0)
+                throw new ArgumentOutOfRangeException("numShapes", "Number of shapes must not be negative");
+            if (maxDepth < 0)
+                throw new ArgumentOutOfRangeException("maxDepth", "Maximum depth must not be negative");
+
+            if (maxDepth == 0)
+                maxDepth = GetDefaultMaxDepth(numShapes);
+
+            var shapeList = new List<MBRInfo>(shapes);
+
+            // Shapes outside the header bounds would be unreachable, so make sure the root covers them.
+            var rootBounds = new Envelope(bounds);
+            foreach (MBRInfo shape in shapeList)
+                rootBounds.ExpandToInclude(shape.ShapeMBR);
+
+            var root = new Node(rootBounds);
+            foreach (MBRInfo shape in shapeList)
+                Insert(root, shape.ShapeFileDetails.ShapeIndex, shape.ShapeMBR, maxDepth);
+
+            Trim(root);
+            return new QixIndex(root, numShapes, maxDepth);
+        }
+
+        /// <summary>
+        /// Builds an index for a shapefile and writes it next to it.
+        /// </summary>
+        /// <param name="filename">The path to the shapefile, with or without the .shp extension.</param>
+        /// <returns>The index that has been written.</returns>
+        public static QixIndex Create(string filename)
+        {
+            return Create(filename, 0);
+        }
+
+        /// <summary>
+        /// Builds an index for a shapefile and writes it next to it.
+        /// </summary>
+        /// <param name="filename">The path to the shapefile, with or without the .shp extension.</param>
+        /// <param name="maxDepth">The maximum depth of the tree, or 0 to derive it from the number of records.</param>
+        /// <returns>The index that has been written.</returns>
+        public static QixIndex Create(string filename, int maxDepth)
+        {
+            if (filename == null)
+                throw new ArgumentNullException("filename");
+
+            string shpFile = Path.ChangeExtension(filename, "shp");
+            int numShapes = Shapefile.ReadRecordOffsets(shpFile).Length;
+
+            QixIndex index;
+            using (var stream = new FileStream(shpFile, FileMode.Open, FileAccess.Read, FileShare.Read))
+            {
+                var reader = new BigEndianBinaryReader(stream);
+                var header = new ShapefileHeader(reader);
+                ShapeHandler handler = Shapefile.GetShapeHandler(header.ShapeType);
+                index = Build(handler.ReadMBRs(reader), header.Bounds, numShapes, maxDepth);
+            }
+
+            index.Write(GetIndexFilename(filename));
+            return index;
+        }
+
+        /// <summary>
+        /// Reads an index from a .qix file.
+        /// </summary>
+        /// <param name="filename">The path to the .qix file.</param>
+        /// <returns>The index.</returns>
+        public static QixIndex Read(string filename)
+        {
+            if (filename == null)
+                throw new ArgumentNullException("filename");
+
+            using (var stream = new FileStream(filename, FileMode.Open, FileAccess.Read, FileShare.Read))
+                return Read(stream);
+        }
+
+        /// <summary>
+        /// Reads the index file of a shapefile, if there is one that still matches the shapefile.
+        /// </summary>
+        /// <remarks>
+        /// An index is stale if it was written before the .shp or .shx file was last changed,
+        /// or if it was built for another number of records.
+        /// </remarks>
+        /// <param name="filename">The path to the shapefile, with or without the .shp extension.</param>
+        /// <param name="numRecords">The number of records in the shapefile, null shapes included.</param>
+        /// <returns>The index, or <c>null</c> if there is no index file or it is stale.</returns>
+        public static QixIndex ReadIfCurrent(string filename, int numRecords)
+        {
+            string indexFile = GetIndexFilename(filename);
+            if (!File.Exists(indexFile))
+                return null;
+
+            DateTime indexTime = File.GetLastWriteTimeUtc(indexFile);
+            foreach (string extension in new[] { ".shp", ".shx" })
+            {
+                string file = Path.ChangeExtension(filename, extension);
+                if (File.Exists(file) && File.GetLastWriteTimeUtc(file) > indexTime)
+                    return null;
+            }
+
+            QixIndex index = Read(indexFile);
+            return index.NumShapes == numRecords ? index : null;
+        }
+
+        /// <summary>
+        /// Reads an index from a stream holding the contents of a .qix file.
+        /// </summary>
+        /// <param name="stream">The stream to read from.</param>
+        /// <returns>The index.</returns>
+        public static QixIndex Read(Stream stream)
+        {
+            if (stream == null)
+                throw new ArgumentNullException("stream");
+
+            byte[] data;
+            using (var buffer = new MemoryStream())
+            {
+                var chunk = new byte[81920];
+                int read;
+                while ((read = stream.Read(chunk, 0, chunk.Length)) > 0)
+                    buffer.Write(chunk, 0, read);
+                data = buffer.ToArray();
+            }
+
+            if (data.Length < 16 || data[0] != 'S' || data[1] != 'Q' || data[2] != 'T')
+                throw new ShapefileException("The first bytes of this file indicate this is not a quadtree index file.");
+            if (data[3] != LsbOrder && data[3] != MsbOrder)
+                throw new ShapefileException("Unknown byte order in quadtree index file: " + data[3]);
+            if (data[4] != FormatVersion)
+                throw new ShapefileException("Unsupported quadtree index file version: " + data[4]);
+
+            var reader = new NodeReader(data, data[3] == MsbOrder);
+            reader.Position = 8;
+            int numShapes = reader.ReadInt32();
+            int maxDepth = reader.ReadInt32();
+            Node root = reader.ReadNode();
+
+            return new QixIndex(root, numShapes, maxDepth);
+        }
+
+        /// <summary>
+        /// Writes the index to a .qix file.
+        /// </summary>
+        /// <param name="filename">The path to the .qix file.</param>
+        public void Write(string filename)
+        {
+            if (filename == null)
+                throw new ArgumentNullException("filename");
+
+            using (var stream = new FileStream(filename, FileMode.Create, FileAccess.Write))
+                Write(stream);
+        }
+
+        /// <summary>
+        /// Writes the index in the .qix format to a stream.
+        /// </summary>
+        /// <param name="stream">The stream to write to.</param>
+        public void Write(Stream stream)
+        {
+            if (stream == null)
+                throw new ArgumentNullException("stream");
+
+            // BinaryWriter always writes little-endian values, whatever the platform.
+            var writer = new BinaryWriter(stream);
+            writer.Write(new[] { (byte)'S', (byte)'Q', (byte)'T', LsbOrder, FormatVersion, (byte)0, (byte)0, (byte)0 });
+            writer.Write(_numShapes);
+            writer.Write(_maxDepth);
+            WriteNode(writer, _root);
+            writer.Flush();
+        }
+
+        /// <summary>
+        /// Queries the index for the records whose shapes may intersect an envelope.
+        /// </summary>
+        /// <param name="searchEnv">The envelope to query.</param>
+        /// <returns>The 0-based record numbers of the candidate shapes, in ascending order.</returns>
+        public int[] Query(Envelope searchEnv)
+        {
+            if (searchEnv == null)
+                throw new ArgumentNullException("searchEnv");
+
+            var result = new List<int>();
+            var stack = new Stack<Node>();
+            stack.Push(_root);
+            while (stack.Count > 0)
+            {
+                Node node = stack.Pop();
+                if (!node.Bounds.Intersects(searchEnv))
+                    continue;
+
+                result.AddRange(node.ShapeIds);
+                foreach (Node child in node.Children)
+                    stack.Push(child);
+            }
+
+            // Reading the records in file order keeps the seeks in the shapefile going forward.
+            result.Sort();
+            return result.ToArray();
+        }
+
+        private static int GetDefaultMaxDepth(int numShapes)
+        {
+            // Aim for an average of 8 shapes per leaf node.
+            int maxDepth = 0;
+            int maxNodeCount = 1;
+            while (maxNodeCount * 4 < numShapes)
+            {
+                maxDepth++;
+                maxNodeCount *= 2;
+            }
+            return Math.Max(1, Math.Min(maxDepth, MaxAutomaticDepth));
+        }
+
+        private static void Insert(Node node, int shapeId, Envelope shapeBounds, int maxDepth)
+        {
+            for (int depth = maxDepth; depth > 1; depth--)
+            {
+                if (node.Children.Count == 0)
+                {
+                    Envelope[] quadrants = SplitQuadrants(node.Bounds);
+                    if (!Array.Exists(quadrants, quadrant => quadrant.Covers(shapeBounds)))
+                        break;
+                    foreach (Envelope quadrant in quadrants)
+                        node.Children.Add(new Node(quadrant));
+                }
+
+                Node next = node.Children.Find(child => child.Bounds.Covers(shapeBounds));
+                if (next == null)
+                    break;
+                node = next;
+            }
+            node.ShapeIds.Add(shapeId);
+        }
+
+        private static Envelope[] SplitQuadrants(Envelope bounds)
+        {
+            Envelope half1, half2, quad1, quad2, quad3, quad4;
+            SplitBounds(bounds, out half1, out half2);
+            SplitBounds(half1, out quad1, out quad2);
+            SplitBounds(half2, out quad3, out quad4);
+            return new[] { quad1, quad2, quad3, quad4 };
+        }
+
+        private static void SplitBounds(Envelope bounds, out Envelope first, out Envelope second)
+        {
+            if (bounds.Width > bounds.Height)
+            {
+                double range = bounds.Width * SplitRatio;
+                first = new Envelope(bounds.MinX, bounds.MinX + range, bounds.MinY, bounds.MaxY);
+                second = new Envelope(bounds.MaxX - range, bounds.MaxX, bounds.MinY, bounds.MaxY);
+            }
+            else
+            {
+                double range = bounds.Height * SplitRatio;
+                first = new Envelope(bounds.MinX, bounds.MaxX, bounds.MinY, bounds.MinY + range);
+                second = new Envelope(bounds.MinX, bounds.MaxX, bounds.MaxY - range, bounds.MaxY);
+            }
+        }
+
+        /// <summary>
+        /// Removes empty nodes and replaces nodes that only lead to a single child with that child.
+        /// </summary>
+        /// <returns><c>true</c> if the node itself is empty.</returns>
+        private static bool Trim(Node node)
+        {
+            node.Children.RemoveAll(Trim);
+
+            if (node.Children.Count == 1 && node.ShapeIds.Count == 0)
+            {
+                Node child = node.Children[0];
+                node.Bounds = child.Bounds;
+                node.ShapeIds = child.ShapeIds;
+                node.Children = child.Children;
+            }
+
+            return node.Children.Count == 0 && node.ShapeIds.Count == 0;
+        }
+
+        private static void WriteNode(BinaryWriter writer, Node node)
+        {
+            writer.Write(GetSubNodeSize(node));
+            writer.Write(node.Bounds.MinX);
+            writer.Write(node.Bounds.MinY);
+            writer.Write(node.Bounds.MaxX);
+            writer.Write(node.Bounds.MaxY);
+            writer.Write(node.ShapeIds.Count);
+            foreach (int shapeId in node.ShapeIds)
+                writer.Write(shapeId);
+            writer.Write(node.Children.Count);
+            foreach (Node child in node.Children)
+                WriteNode(writer, child);
+        }
+
+        /// <summary>
+        /// Computes the number of bytes taken by the descendants of a node,
+        /// which is stored in front of each node so that readers can skip whole subtrees.
+        /// </summary>
+        private static int GetSubNodeSize(Node node)
+        {
+            int size = 0;
+            foreach (Node child in node.Children)
+            {
+                // offset, bounds, shape count, shape ids and sub node count
+                size += 4 + 4 * 8 + 4 + 4 * child.ShapeIds.Count + 4;
+                size += GetSubNodeSize(child);
+            }
+            return size;
+        }
+
+        private class Node
+        {
+            public Node(Envelope bounds)
+            {
+                Bounds = bounds;
+                ShapeIds = new List<int>();
+                Children = new List<Node>();
+            }
+
+            public Envelope Bounds;
+            public List<int> ShapeIds;
+            public List<Node> Children;
+        }
+
+        /// <summary>
+        /// Decodes nodes from the contents of a .qix file in either byte order.
+        /// </summary>
+        private class NodeReader
+        {
+            private readonly byte[] _data;
+            private readonly bool _swap;
+
+            public NodeReader(byte[] data, bool bigEndian)
+            {
+                _data = data;
+                _swap = bigEndian == BitConverter.IsLittleEndian;
+            }
+
+            public int Position;
+
+            public Node ReadNode()
+            {
+                // The size of the sub nodes is only needed to skip them, here all of them are read.
+                ReadInt32();
+                double minX = ReadDouble();
+                double minY = ReadDouble();
+                double maxX = ReadDouble();
+                double maxY = ReadDouble();
+                var node = new Node(new Envelope(minX, maxX, minY, maxY));
+
+                int numShapes = ReadCount();
+                node.ShapeIds.Capacity = numShapes;
+                for (int i = 0; i < numShapes; i++)
+                    node.ShapeIds.Add(ReadInt32());
+
+                int numSubNodes = ReadCount();
+                for (int i = 0; i < numSubNodes; i++)
+                    node.Children.Add(ReadNode());
+
+                return node;
+            }
+
+            public int ReadInt32()
+            {
+                EnsureAvailable(4);
+                if (_swap)
+                    Array.Reverse(_data, Position, 4);
+                int value = BitConverter.ToInt32(_data, Position);
+                if (_swap)
+                    Array.Reverse(_data, Position, 4);
+                Position += 4;
+                return value;
+            }
+
+            private double ReadDouble()
+            {
+                EnsureAvailable(8);
+                if (_swap)
+                    Array.Reverse(_data, Position, 8);
+                double value = BitConverter.ToDouble(_data, Position);
+                if (_swap)
+                    Array.Reverse(_data, Position, 8);
+                Position += 8;
+                return value;
+            }
+
+            private int ReadCount()
+            {
+                int count = ReadInt32();
+                if (count < 0 || count > (_data.Length - Position) / 4)
+                    throw new ShapefileException("Corrupt quadtree index file: invalid count " + count + " at offset " + (Position - 4));
+                return count;
+            }
+
+            private void EnsureAvailable(int count)
+            {
+                if (Position + count > _data.Length)
+                    throw new ShapefileException("Unexpected end of quadtree index file");
+            }
+        }
+    }
+}
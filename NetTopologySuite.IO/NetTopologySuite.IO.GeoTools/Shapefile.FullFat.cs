@@ -1,7 +1,9 @@
 ﻿using System;
 using System.Collections;
+using System.Collections.Generic;
 using System.ComponentModel;
 using System.Diagnostics;
+using System.IO;
 using System.Text;
 using System.Data;
 using System.Data.SqlClient;
@@ -122,6 +124,54 @@ namespace NetTopologySuite.IO
             }
         }
 
+        /// <summary>
+        /// Reads the byte offsets of all records of a shapefile.
+        /// </summary>
+        /// <remarks>
+        /// The offsets are taken from the .shx file. If there is none, the record headers
+        /// of the .shp file are scanned instead.
+        /// </remarks>
+        /// <param name="filename">The path to the shapefile, with or without the .shp extension.</param>
+        /// <returns>The offsets from the start of the .shp file, indexed by the 0-based record number.</returns>
+        public static long[] ReadRecordOffsets(string filename)
+        {
+            if (filename == null)
+                throw new ArgumentNullException("filename");
+
+            string shxFile = Path.ChangeExtension(filename, "shx");
+            if (File.Exists(shxFile))
+            {
+                using (var stream = new FileStream(shxFile, FileMode.Open, FileAccess.Read, FileShare.Read))
+                using (var reader = new BigEndianBinaryReader(stream))
+                {
+                    // every index record holds the offset and the content length in 16-bit words
+                    var offsets = new long[(stream.Length - 100) / 8];
+                    stream.Seek(100, SeekOrigin.Begin);
+                    for (int i = 0; i < offsets.Length; i++)
+                    {
+                        offsets[i] = 2L * reader.ReadInt32BE();
+                        reader.ReadInt32BE();
+                    }
+                    return offsets;
+                }
+            }
+
+            string shpFile = Path.ChangeExtension(filename, "shp");
+            using (var stream = new FileStream(shpFile, FileMode.Open, FileAccess.Read, FileShare.Read))
+            using (var reader = new BigEndianBinaryReader(stream))
+            {
+                var offsets = new List<long>();
+                long position = 100;
+                while (position + 8 <= stream.Length)
+                {
+                    offsets.Add(position);
+                    stream.Seek(position + 4, SeekOrigin.Begin);
+                    position += 8 + 2L * reader.ReadInt32BE();
+                }
+                return offsets.ToArray();
+            }
+        }
+
         /// <summary>
         /// 
         /// </summary>
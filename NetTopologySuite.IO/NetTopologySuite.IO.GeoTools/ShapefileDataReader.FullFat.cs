@@ -1,15 +1,22 @@
 ﻿using System;
 using System.Collections;
+using System.Collections.Generic;
 using System.Data;
 using System.Diagnostics;
 using System.Globalization;
+using System.IO;
 using GeoAPI.Geometries;
+using NetTopologySuite.Features;
 
 namespace NetTopologySuite.IO
 {
     public partial class ShapefileDataReader : IEnumerable, IDataReader, IDataRecord
     {
         ArrayList _columnValues;
+        Envelope _spatialFilter;
+        int[] _filterCandidates;
+        long[] _filterOffsets;
+        int _filterPosition;
 
 
         /// <summary>
@@ -79,11 +86,98 @@ namespace NetTopologySuite.IO
 
 
 
+        /// <summary>
+        /// Gets or sets an envelope that restricts <see cref="Read"/> to the records whose shapes intersect it.
+        /// </summary>
+        /// <remarks>
+        /// If a .qix spatial index file exists next to the shapefile, only the records it returns are read.
+        /// Otherwise, or if the index is older than the shapefile or was built for another number of
+        /// records, all records are read and those outside the envelope are skipped.
+        /// Setting the filter restarts the reader; set it to <c>null</c> to read all records again.
+        /// </remarks>
+        public Envelope SpatialFilter
+        {
+            get { return _spatialFilter; }
+            set
+            {
+                _spatialFilter = value;
+                _filterCandidates = null;
+                _filterOffsets = null;
+                Reset();
+            }
+        }
+
+        partial void ResetFilter()
+        {
+            _filterPosition = 0;
+        }
+
         /// <summary>
         /// Advances the IDataReader to the next record.
         /// </summary>
         /// <returns>true if there are more rows; otherwise, false.</returns>
         public bool Read()
+        {
+            if (_spatialFilter != null)
+                return ReadFiltered();
+            return ReadNext();
+        }
+
+        private bool ReadFiltered()
+        {
+            if (_filterCandidates == null)
+            {
+                if (File.Exists(QixIndex.GetIndexFilename(_filename)))
+                {
+                    long[] offsets = Shapefile.ReadRecordOffsets(_filename);
+                    QixIndex index = QixIndex.ReadIfCurrent(_filename, offsets.Length);
+                    if (index != null)
+                    {
+                        _filterCandidates = index.Query(_spatialFilter);
+                        _filterOffsets = offsets;
+                    }
+                }
+                if (_filterCandidates == null)
+                    _filterCandidates = new int[0];
+            }
+
+            if (_filterOffsets == null)
+            {
+                // no index, so every record has to be checked
+                while (ReadNext())
+                {
+                    if (geometry != null && geometry.EnvelopeInternal.Intersects(_spatialFilter))
+                        return true;
+                }
+                return false;
+            }
+
+            var shpEnumerator = (ShapefileReader.ShapefileEnumerator)_shpEnumerator;
+            var dbfEnumerator = (DbaseFileReader.DbaseFileEnumerator)_dbfEnumerator;
+            while (_filterPosition < _filterCandidates.Length)
+            {
+                int recordIndex = _filterCandidates[_filterPosition++];
+                if (recordIndex < 0 || recordIndex >= _filterOffsets.Length)
+                    continue;
+                if (!shpEnumerator.MoveTo(_filterOffsets[recordIndex]) || !dbfEnumerator.MoveTo(recordIndex))
+                    continue;
+
+                geometry = (IGeometry)shpEnumerator.Current;
+                _columnValues = (ArrayList)dbfEnumerator.Current;
+
+                // the index only narrows down the candidates, their own bounds still have to be tested
+                if (geometry != null && geometry.EnvelopeInternal.Intersects(_spatialFilter))
+                {
+                    _moreRecords = true;
+                    return true;
+                }
+            }
+
+            _moreRecords = false;
+            return false;
+        }
+
+        private bool ReadNext()
         {
             bool moreDbfRecords = _dbfEnumerator.MoveNext();
             bool moreShpRecords = _shpEnumerator.MoveNext();
@@ -110,6 +204,25 @@ namespace NetTopologySuite.IO
         }
 
 
+        /// <summary>
+        /// Reads all records of the shapefile as features, decoding them on several threads.
+        /// </summary>
+        /// <remarks>
+        /// The files are read sequentially by a single thread, while the shapes and attributes
+        /// are decoded by <paramref name="maxDegreeOfParallelism"/> workers.
+        /// The enumeration is independent of <see cref="Read"/> and of the <see cref="SpatialFilter"/>;
+        /// deleted dbase records are returned as well, so the attributes always match their shape.
+        /// </remarks>
+        /// <param name="maxDegreeOfParallelism">The number of decoding threads, or -1 to use one per processor.</param>
+        /// <param name="preserveOrder">True to return the features in file order; false to return them as soon as they are decoded.</param>
+        /// <returns>The features of the shapefile.</returns>
+        public IEnumerable<IFeature> ReadFeaturesParallel(int maxDegreeOfParallelism, bool preserveOrder)
+        {
+            var reader = new ParallelShapefileReader(Path.ChangeExtension(_filename, "shp"),
+                Path.ChangeExtension(_filename, "dbf"), _geometryFactory, maxDegreeOfParallelism, preserveOrder);
+            return reader.Read();
+        }
+
         /// <summary>
         /// Returns a DataTable that describes the column metadata of the IDataReader.
         /// </summary>
@@ -14,6 +14,8 @@ namespace NetTopologySuite.IO
     public partial class ShapefileDataReader : IDisposable
     {
         bool _open = false;
+        readonly string _filename;
+        readonly IGeometryFactory _geometryFactory;
         readonly DbaseFieldDescriptor[] _dbaseFields;
         readonly DbaseFileReader _dbfReader;
         readonly ShapefileReader _shpReader;
@@ -36,6 +38,8 @@ namespace NetTopologySuite.IO
             if (geometryFactory == null)
                 throw new ArgumentNullException("geometryFactory");
             _open = true;
+            _filename = filename;
+            _geometryFactory = geometryFactory;
 
             string dbfFile = Path.ChangeExtension(filename, "dbf");
             _dbfReader = new DbaseFileReader(dbfFile);
@@ -64,8 +68,14 @@ namespace NetTopologySuite.IO
         {
             _dbfEnumerator.Reset();
             _shpEnumerator.Reset();
+            ResetFilter();
         }
 
+        /// <summary>
+        /// Restarts the spatial filter, on platforms that have one.
+        /// </summary>
+        partial void ResetFilter();
+
         /// <summary>
         /// 
         /// </summary>
@@ -1,5 +1,6 @@
 using System;
 using System.Collections;
+using System.Collections.Generic;
 using System.IO;
 using GeoAPI.Geometries;
 using NetTopologySuite.Features;
@@ -180,5 +181,112 @@ namespace NetTopologySuite.IO
                 _dbaseWriter.Close();
             }
         }
+
+        /// <summary>
+        /// Writes a stream of features, whose number does not need to be known in advance.
+        /// </summary>
+        /// <remarks>
+        /// The features are written one at a time as they are enumerated, so the memory used
+        /// does not depend on their number. The record counts and the extent are written to the
+        /// file headers when all features have been written.
+        /// <para>
+        /// The shape type is taken from the first feature that has a geometry; features without
+        /// one that come before it are kept until it is found. If <see cref="Header"/> is not set,
+        /// it is created from the attributes of the first feature.
+        /// </para>
+        /// </remarks>
+        /// <param name="features">The features to write.</param>
+        public void WriteFeatures(IEnumerable<IFeature> features)
+        {
+            if (features == null)
+                throw new ArgumentNullException("features");
+
+            using (IEnumerator<IFeature> enumerator = features.GetEnumerator())
+            {
+                var leading = new List<IFeature>();
+                ShapeGeometryType shapeType = ShapeGeometryType.NullShape;
+                while (shapeType == ShapeGeometryType.NullShape && enumerator.MoveNext())
+                {
+                    leading.Add(enumerator.Current);
+                    shapeType = Shapefile.GetShapeType(enumerator.Current.Geometry);
+                }
+
+                WriteFeatures(leading, enumerator, shapeType);
+            }
+        }
+
+        /// <summary>
+        /// Writes a stream of features of the given shape type, whose number does not need to be known in advance.
+        /// </summary>
+        /// <remarks>
+        /// The features are written one at a time as they are enumerated, so the memory used
+        /// does not depend on their number. The record counts and the extent are written to the
+        /// file headers when all features have been written.
+        /// If <see cref="Header"/> is not set, it is created from the attributes of the first feature.
+        /// </remarks>
+        /// <param name="features">The features to write.</param>
+        /// <param name="shapeType">The shape type of the shapefile.</param>
+        public void WriteFeatures(IEnumerable<IFeature> features, ShapeGeometryType shapeType)
+        {
+            if (features == null)
+                throw new ArgumentNullException("features");
+
+            using (IEnumerator<IFeature> enumerator = features.GetEnumerator())
+                WriteFeatures(new IFeature[0], enumerator, shapeType);
+        }
+
+        private void WriteFeatures(IList<IFeature> leading, IEnumerator<IFeature> remaining, ShapeGeometryType shapeType)
+        {
+            try
+            {
+                using (var shpWriter = new ShapefileWriter(_geometryFactory, _shpFile, shapeType))
+                {
+                    bool started = false;
+                    var values = new ArrayList();
+
+                    foreach (IFeature feature in leading)
+                        WriteFeature(feature, shpWriter, values, ref started);
+                    while (remaining.MoveNext())
+                        WriteFeature(remaining.Current, shpWriter, values, ref started);
+
+                    if (!started)
+                        WriteDbaseHeader();
+                }
+            }
+            finally
+            {
+                // Close dbf writer, which updates the number of records
+                _dbaseWriter.Close();
+            }
+        }
+
+        private void WriteFeature(IFeature feature, ShapefileWriter shpWriter, ArrayList values, ref bool started)
+        {
+            if (!started)
+            {
+                if (Header == null)
+                    Header = GetHeader(feature, 0);
+                WriteDbaseHeader();
+                started = true;
+            }
+
+            shpWriter.Write(feature.Geometry);
+
+            IAttributesTable attribs = feature.Attributes;
+            values.Clear();
+            for (int i = 0; i < Header.NumFields; i++)
+                values.Add(attribs[Header.Fields[i].Name]);
+            _dbaseWriter.Write(values);
+        }
+
+        private void WriteDbaseHeader()
+        {
+            if (Header == null)
+                throw new ApplicationException("Header must be set first!");
+
+            // the actual number is written when the file is closed
+            Header.NumRecords = 0;
+            _dbaseWriter.Write(Header);
+        }
     }
 }
@@ -1,6 +1,8 @@
 ﻿using System;
+using System.Collections.Generic;
 using System.IO;
 using GeoAPI.Geometries;
+using NetTopologySuite.Features;
 
 namespace NetTopologySuite.IO
 {
@@ -33,12 +35,34 @@ namespace NetTopologySuite.IO
             }
         }
 
+        /// <summary>
+        /// Reads all geometries of the shapefile, decoding them on several threads.
+        /// </summary>
+        /// <remarks>
+        /// The file is read sequentially by a single thread, while the shapes are decoded
+        /// by <paramref name="maxDegreeOfParallelism"/> workers.
+        /// </remarks>
+        /// <param name="maxDegreeOfParallelism">The number of decoding threads, or -1 to use one per processor.</param>
+        /// <param name="preserveOrder">True to return the geometries in file order; false to return them as soon as they are decoded.</param>
+        /// <returns>The geometries of the shapefile.</returns>
+        public IEnumerable<IGeometry> ReadParallel(int maxDegreeOfParallelism, bool preserveOrder)
+        {
+            var reader = new ParallelShapefileReader(_filename, null, _geometryFactory, maxDegreeOfParallelism, preserveOrder);
+            return ReadGeometries(reader.Read());
+        }
+
+        private static IEnumerable<IGeometry> ReadGeometries(IEnumerable<IFeature> features)
+        {
+            foreach (IFeature feature in features)
+                yield return feature.Geometry;
+        }
+
         #region Nested type: ShapefileEnumerator
 
         /// <summary>
         /// Summary description for ShapefileEnumerator.
         /// </summary>
-        private partial class ShapefileEnumerator
+        internal partial class ShapefileEnumerator
         {
             /// <summary>
             /// Initializes a new instance of the <see cref="ShapefileEnumerator"/> class.
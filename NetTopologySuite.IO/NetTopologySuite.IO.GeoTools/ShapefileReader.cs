@@ -80,7 +80,7 @@ namespace NetTopologySuite.IO
         /// <summary>
         /// Summary description for ShapefileEnumerator.
         /// </summary>
-        private partial class ShapefileEnumerator : IEnumerator, IDisposable
+        internal partial class ShapefileEnumerator : IEnumerator, IDisposable
         {
             private readonly ShapeHandler _handler;
             private readonly ShapefileReader _parent;
@@ -141,6 +141,17 @@ namespace NetTopologySuite.IO
                 return false;
             }
 
+            /// <summary>
+            /// Advances the enumerator to the record that starts at the given offset.
+            /// </summary>
+            /// <param name="recordOffset">The offset of the record from the start of the file.</param>
+            /// <returns>true if a record could be read at that offset; otherwise, false.</returns>
+            public bool MoveTo(long recordOffset)
+            {
+                _shpBinaryReader.BaseStream.Seek(recordOffset, SeekOrigin.Begin);
+                return MoveNext();
+            }
+
             /// <summary>
             /// Gets the current element in the collection.
             /// </summary>
@@ -14,6 +14,8 @@ namespace NetTopologySuite.IO
 	{
 	    public IGeometryFactory Factory { get; set; }
 
+        private const int BufferSize = 65536;
+
         private FileStream _shpStream;
         private BigEndianBinaryWriter _shpBinaryWriter;
         private FileStream _shxStream;
@@ -43,8 +45,8 @@ namespace NetTopologySuite.IO
                 throw new ArgumentException(string.Format("Filename '{0}' is not valid", filename), "filename");
             filename = Path.Combine(folder, file);
 
-            _shpStream = new FileStream(filename + ".shp", FileMode.Create);
-            _shxStream = new FileStream(filename + ".shx", FileMode.Create);
+            _shpStream = new FileStream(filename + ".shp", FileMode.Create, FileAccess.ReadWrite, FileShare.Read, BufferSize);
+            _shxStream = new FileStream(filename + ".shx", FileMode.Create, FileAccess.ReadWrite, FileShare.Read, BufferSize);
 
             _geometryType = geomType;
 
@@ -78,8 +80,11 @@ namespace NetTopologySuite.IO
                 var shpLenWords = (int)_shpBinaryWriter.BaseStream.Length / 2;
                 var shxLenWords = (int)_shxBinaryWriter.BaseStream.Length / 2;
 
-                WriteShpHeader(_shpBinaryWriter, shpLenWords, _totalEnvelope, _geometryType);
-                WriteShxHeader(_shxBinaryWriter, shxLenWords, _totalEnvelope, _geometryType);
+                // no shape with an extent has been written
+                var bounds = _totalEnvelope ?? new Envelope(0, 0, 0, 0);
+
+                WriteShpHeader(_shpBinaryWriter, shpLenWords, bounds, _geometryType);
+                WriteShxHeader(_shxBinaryWriter, shxLenWords, bounds, _geometryType);
 
                 _shpStream.Seek(0, SeekOrigin.End);
                 _shxStream.Seek(0, SeekOrigin.End);
@@ -120,6 +125,10 @@ namespace NetTopologySuite.IO
             WriteRecordToFile(_shpBinaryWriter, _shxBinaryWriter, _shapeHandler, geometry, _numFeaturesWritten + 1);
             _numFeaturesWritten++;
 
+            // null shapes do not contribute to the extent of the file
+            if (geometry == null || geometry.IsEmpty)
+                return;
+
             var env = geometry.EnvelopeInternal;
             var bounds = ShapeHandler.GetEnvelopeExternal(geometry.PrecisionModel, env);
             if (_totalEnvelope == null)
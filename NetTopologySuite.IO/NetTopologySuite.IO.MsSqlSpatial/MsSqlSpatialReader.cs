@@ -6,6 +6,13 @@ namespace NetTopologySuite.IO
 {
     public class MsSqlSpatialReader : WKBReader
     {
+        public override IGeometry Read(byte[] data, int offset, int count)
+        {
+            // the SRID trails the geometry, so the stream based reading is kept
+            using (Stream stream = new MemoryStream(data, offset, count))
+                return Read(stream);
+        }
+
         public override IGeometry Read(Stream stream)
         {
             BinaryReader reader = null;
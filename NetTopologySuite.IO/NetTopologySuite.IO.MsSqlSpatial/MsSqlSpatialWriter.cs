@@ -18,6 +18,14 @@ namespace NetTopologySuite.IO
 			return bytes;
 		}
 
+		public override int Write(IGeometry geometry, byte[] buffer, int offset)
+		{
+			// the SRID trails the geometry, so the stream based writing is kept
+			int size = SetByteStream(geometry);
+			Write(geometry, new MemoryStream(buffer, offset, size));
+			return size;
+		}
+
 		public override void Write(IGeometry geometry, Stream stream)
 		{
 			BinaryWriter writer = null;
@@ -0,0 +1,43 @@
+using System;
+
+namespace NetTopologySuite.IO
+{
+    /// <summary>
+    /// A column of a PostgreSQL binary COPY stream.
+    /// </summary>
+    public class PostGisCopyColumn
+    {
+        private readonly string _name;
+        private readonly PostGisCopyType _type;
+
+        /// <summary>
+        /// Initializes a new instance of the <see cref="PostGisCopyColumn"/> class.
+        /// </summary>
+        /// <param name="name">The name of the attribute the column holds. It is ignored for the geometry column.</param>
+        /// <param name="type">The type of the column.</param>
+        public PostGisCopyColumn(string name, PostGisCopyType type)
+        {
+            if (name == null && type != PostGisCopyType.Geometry)
+                throw new ArgumentNullException("name");
+
+            _name = name;
+            _type = type;
+        }
+
+        /// <summary>
+        /// Gets the name of the attribute.
+        /// </summary>
+        public string Name
+        {
+            get { return _name; }
+        }
+
+        /// <summary>
+        /// Gets the type of the column.
+        /// </summary>
+        public PostGisCopyType Type
+        {
+            get { return _type; }
+        }
+    }
+}
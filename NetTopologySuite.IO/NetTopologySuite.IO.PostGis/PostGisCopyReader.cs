@@ -0,0 +1,176 @@
+using System;
+using System.Collections.Generic;
+using System.IO;
+using System.Text;
+using GeoAPI.Geometries;
+using GeoAPI.IO;
+using NetTopologySuite.Features;
+
+namespace NetTopologySuite.IO
+{
+    /// <summary>
+    /// Reads features from the binary format of PostgreSQL's <c>COPY ... TO STDOUT (FORMAT binary)</c>.
+    /// </summary>
+    /// <remarks>
+    /// Each row is read as a feature: the geometry column is decoded by a <see cref="PostGisReader"/>,
+    /// and the other columns are added to the attributes, NULL fields as <c>null</c>.
+    /// The columns must be given in the order of the COPY command.
+    /// </remarks>
+    public class PostGisCopyReader
+    {
+        private readonly PostGisCopyColumn[] _columns;
+        private readonly PostGisReader _geometryReader;
+
+        /// <summary>
+        /// Initializes a new instance of the <see cref="PostGisCopyReader"/> class.
+        /// </summary>
+        /// <param name="columns">The columns of the rows.</param>
+        public PostGisCopyReader(IList<PostGisCopyColumn> columns)
+            : this(columns, new PostGisReader())
+        {
+        }
+
+        /// <summary>
+        /// Initializes a new instance of the <see cref="PostGisCopyReader"/> class.
+        /// </summary>
+        /// <param name="columns">The columns of the rows.</param>
+        /// <param name="geometryReader">The reader of the geometry fields.</param>
+        public PostGisCopyReader(IList<PostGisCopyColumn> columns, PostGisReader geometryReader)
+        {
+            if (columns == null)
+                throw new ArgumentNullException("columns");
+            if (geometryReader == null)
+                throw new ArgumentNullException("geometryReader");
+
+            _columns = new PostGisCopyColumn[columns.Count];
+            columns.CopyTo(_columns, 0);
+            _geometryReader = geometryReader;
+        }
+
+        /// <summary>
+        /// Reads the rows of a binary COPY stream as features.
+        /// </summary>
+        /// <param name="stream">The stream to read. It is not closed.</param>
+        /// <returns>The features, read as they are enumerated.</returns>
+        public IEnumerable<IFeature> Read(Stream stream)
+        {
+            if (stream == null)
+                throw new ArgumentNullException("stream");
+
+            return ReadFeatures(stream);
+        }
+
+        private IEnumerable<IFeature> ReadFeatures(Stream stream)
+        {
+            var reader = new BEBinaryReader(stream);
+            ReadHeader(reader);
+
+            while (true)
+            {
+                short fieldCount = reader.ReadInt16();
+                if (fieldCount == -1)
+                    yield break;
+                if (fieldCount != _columns.Length)
+                    throw new ParseException("Row has " + fieldCount + " fields, expected " + _columns.Length);
+
+                IGeometry geometry = null;
+                var attributes = new AttributesTable();
+                foreach (PostGisCopyColumn column in _columns)
+                {
+                    int length = reader.ReadInt32();
+                    if (column.Type == PostGisCopyType.Geometry)
+                    {
+                        if (length >= 0)
+                            geometry = _geometryReader.Read(ReadBytes(reader, length));
+                    }
+                    else
+                    {
+                        attributes.AddAttribute(column.Name, length < 0 ? null : ReadValue(reader, column, length));
+                    }
+                }
+                yield return new Feature(geometry, attributes);
+            }
+        }
+
+        private static void ReadHeader(BinaryReader reader)
+        {
+            byte[] signature = ReadBytes(reader, PostGisCopyWriter.Signature.Length);
+            for (int i = 0; i < signature.Length; i++)
+            {
+                if (signature[i] != PostGisCopyWriter.Signature[i])
+                    throw new ParseException("Stream is not in the binary COPY format");
+            }
+
+            int flags = reader.ReadInt32();
+            if ((flags & 0x10000) != 0)
+                throw new ParseException("Rows with OIDs are not supported");
+
+            int extensionLength = reader.ReadInt32();
+            if (extensionLength < 0)
+                throw new ParseException("Invalid header extension length: " + extensionLength);
+            ReadBytes(reader, extensionLength);
+        }
+
+        private static object ReadValue(BinaryReader reader, PostGisCopyColumn column, int length)
+        {
+            switch (column.Type)
+            {
+                case PostGisCopyType.Boolean:
+                    CheckLength(column, length, 1);
+                    return reader.ReadByte() != 0;
+                case PostGisCopyType.SmallInt:
+                    CheckLength(column, length, 2);
+                    return reader.ReadInt16();
+                case PostGisCopyType.Integer:
+                    CheckLength(column, length, 4);
+                    return reader.ReadInt32();
+                case PostGisCopyType.BigInt:
+                    CheckLength(column, length, 8);
+                    return reader.ReadInt64();
+                case PostGisCopyType.Real:
+                    CheckLength(column, length, 4);
+                    return reader.ReadSingle();
+                case PostGisCopyType.DoublePrecision:
+                    CheckLength(column, length, 8);
+                    return reader.ReadDouble();
+                case PostGisCopyType.Text:
+                    return Encoding.UTF8.GetString(ReadBytes(reader, length));
+                case PostGisCopyType.Bytea:
+                    return ReadBytes(reader, length);
+                case PostGisCopyType.Date:
+                    CheckLength(column, length, 4);
+                    int days = reader.ReadInt32();
+                    // PostgreSQL's infinite dates
+                    if (days == Int32.MaxValue)
+                        return DateTime.MaxValue;
+                    if (days == Int32.MinValue)
+                        return DateTime.MinValue;
+                    return PostGisCopyWriter.Epoch.AddDays(days);
+                case PostGisCopyType.Timestamp:
+                    CheckLength(column, length, 8);
+                    long microseconds = reader.ReadInt64();
+                    if (microseconds == Int64.MaxValue)
+                        return DateTime.MaxValue;
+                    if (microseconds == Int64.MinValue)
+                        return DateTime.MinValue;
+                    return PostGisCopyWriter.Epoch.AddTicks(10 * microseconds);
+                default:
+                    throw new ArgumentException("Unsupported column type: " + column.Type);
+            }
+        }
+
+        private static void CheckLength(PostGisCopyColumn column, int length, int expected)
+        {
+            if (length != expected)
+                throw new ParseException("Field of column " + column.Name + " has " + length + " bytes, expected " + expected);
+        }
+
+        private static byte[] ReadBytes(BinaryReader reader, int length)
+        {
+            byte[] bytes = reader.ReadBytes(length);
+            if (bytes.Length < length)
+                throw new ParseException("Unexpected end of stream");
+            return bytes;
+        }
+    }
+}
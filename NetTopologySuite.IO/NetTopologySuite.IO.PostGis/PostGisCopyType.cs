@@ -0,0 +1,63 @@
+namespace NetTopologySuite.IO
+{
+    /// <summary>
+    /// The PostgreSQL column types supported by <see cref="PostGisCopyWriter"/> and <see cref="PostGisCopyReader"/>.
+    /// </summary>
+    public enum PostGisCopyType
+    {
+        /// <summary>
+        /// A PostGIS geometry, taken from the geometry of the feature.
+        /// </summary>
+        Geometry,
+
+        /// <summary>
+        /// boolean, read as <see cref="bool"/>.
+        /// </summary>
+        Boolean,
+
+        /// <summary>
+        /// smallint, read as <see cref="short"/>.
+        /// </summary>
+        SmallInt,
+
+        /// <summary>
+        /// integer, read as <see cref="int"/>.
+        /// </summary>
+        Integer,
+
+        /// <summary>
+        /// bigint, read as <see cref="long"/>.
+        /// </summary>
+        BigInt,
+
+        /// <summary>
+        /// real, read as <see cref="float"/>.
+        /// </summary>
+        Real,
+
+        /// <summary>
+        /// double precision, read as <see cref="double"/>.
+        /// </summary>
+        DoublePrecision,
+
+        /// <summary>
+        /// text or varchar, read as <see cref="string"/>.
+        /// </summary>
+        Text,
+
+        /// <summary>
+        /// bytea, read as an array of bytes.
+        /// </summary>
+        Bytea,
+
+        /// <summary>
+        /// date, read as <see cref="System.DateTime"/>.
+        /// </summary>
+        Date,
+
+        /// <summary>
+        /// timestamp without time zone, read as <see cref="System.DateTime"/>.
+        /// </summary>
+        Timestamp
+    }
+}
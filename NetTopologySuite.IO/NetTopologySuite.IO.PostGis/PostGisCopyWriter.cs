@@ -0,0 +1,182 @@
+using System;
+using System.Collections.Generic;
+using System.Globalization;
+using System.IO;
+using System.Text;
+using GeoAPI.Geometries;
+using NetTopologySuite.Features;
+
+namespace NetTopologySuite.IO
+{
+    /// <summary>
+    /// Writes features in the binary format of PostgreSQL's <c>COPY ... FROM STDIN (FORMAT binary)</c>.
+    /// </summary>
+    /// <remarks>
+    /// Each feature is a row, whose fields are given by the columns: the geometry is written
+    /// as EWKB by a <see cref="PostGisWriter"/>, and the attributes in the binary format of
+    /// their column type. Missing attributes and geometries are written as NULL.
+    /// <para>
+    /// The columns must be listed in the COPY command in the same order, e.g.
+    /// <c>COPY roads (geom, name, lanes) FROM STDIN (FORMAT binary)</c>.
+    /// </para>
+    /// </remarks>
+    public class PostGisCopyWriter
+    {
+        /// <summary>
+        /// The signature that starts a binary COPY stream.
+        /// </summary>
+        internal static readonly byte[] Signature = { (byte)'P', (byte)'G', (byte)'C', (byte)'O', (byte)'P', (byte)'Y', (byte)'\n', 0xFF, (byte)'\r', (byte)'\n', 0 };
+
+        /// <summary>
+        /// The origin of PostgreSQL's dates and timestamps.
+        /// </summary>
+        internal static readonly DateTime Epoch = new DateTime(2000, 1, 1);
+
+        private readonly PostGisCopyColumn[] _columns;
+        private readonly PostGisWriter _geometryWriter;
+
+        /// <summary>
+        /// Initializes a new instance of the <see cref="PostGisCopyWriter"/> class.
+        /// </summary>
+        /// <param name="columns">The columns of the rows.</param>
+        public PostGisCopyWriter(IList<PostGisCopyColumn> columns)
+            : this(columns, new PostGisWriter())
+        {
+        }
+
+        /// <summary>
+        /// Initializes a new instance of the <see cref="PostGisCopyWriter"/> class.
+        /// </summary>
+        /// <param name="columns">The columns of the rows.</param>
+        /// <param name="geometryWriter">The writer of the geometry fields.</param>
+        public PostGisCopyWriter(IList<PostGisCopyColumn> columns, PostGisWriter geometryWriter)
+        {
+            if (columns == null)
+                throw new ArgumentNullException("columns");
+            if (geometryWriter == null)
+                throw new ArgumentNullException("geometryWriter");
+
+            _columns = new PostGisCopyColumn[columns.Count];
+            columns.CopyTo(_columns, 0);
+            _geometryWriter = geometryWriter;
+        }
+
+        /// <summary>
+        /// Writes the features as a binary COPY stream.
+        /// </summary>
+        /// <param name="stream">The stream to write to. It is flushed, but not closed.</param>
+        /// <param name="features">The features to write. They are enumerated once.</param>
+        /// <returns>The number of rows written.</returns>
+        public long Write(Stream stream, IEnumerable<IFeature> features)
+        {
+            if (stream == null)
+                throw new ArgumentNullException("stream");
+            if (features == null)
+                throw new ArgumentNullException("features");
+
+            var writer = new BEBinaryWriter(stream);
+            writer.Write(Signature);
+            writer.Write(0); // flags
+            writer.Write(0); // header extension length
+
+            long rows = 0;
+            foreach (IFeature feature in features)
+            {
+                writer.Write((short)_columns.Length);
+                foreach (PostGisCopyColumn column in _columns)
+                {
+                    if (column.Type == PostGisCopyType.Geometry)
+                    {
+                        WriteGeometry(writer, feature.Geometry);
+                    }
+                    else
+                    {
+                        object value = feature.Attributes != null && feature.Attributes.Exists(column.Name)
+                            ? feature.Attributes[column.Name]
+                            : null;
+                        WriteValue(writer, column, value);
+                    }
+                }
+                rows++;
+            }
+
+            writer.Write((short)-1); // trailer
+            writer.Flush();
+            return rows;
+        }
+
+        private void WriteGeometry(BinaryWriter writer, IGeometry geometry)
+        {
+            if (geometry == null)
+            {
+                writer.Write(-1);
+                return;
+            }
+
+            byte[] bytes = _geometryWriter.Write(geometry);
+            writer.Write(bytes.Length);
+            writer.Write(bytes);
+        }
+
+        private static void WriteValue(BinaryWriter writer, PostGisCopyColumn column, object value)
+        {
+            if (value == null || value is DBNull)
+            {
+                writer.Write(-1);
+                return;
+            }
+
+            CultureInfo culture = CultureInfo.InvariantCulture;
+            switch (column.Type)
+            {
+                case PostGisCopyType.Boolean:
+                    writer.Write(1);
+                    writer.Write((byte)(Convert.ToBoolean(value, culture) ? 1 : 0));
+                    break;
+                case PostGisCopyType.SmallInt:
+                    writer.Write(2);
+                    writer.Write(Convert.ToInt16(value, culture));
+                    break;
+                case PostGisCopyType.Integer:
+                    writer.Write(4);
+                    writer.Write(Convert.ToInt32(value, culture));
+                    break;
+                case PostGisCopyType.BigInt:
+                    writer.Write(8);
+                    writer.Write(Convert.ToInt64(value, culture));
+                    break;
+                case PostGisCopyType.Real:
+                    writer.Write(4);
+                    writer.Write(Convert.ToSingle(value, culture));
+                    break;
+                case PostGisCopyType.DoublePrecision:
+                    writer.Write(8);
+                    writer.Write(Convert.ToDouble(value, culture));
+                    break;
+                case PostGisCopyType.Text:
+                    byte[] text = Encoding.UTF8.GetBytes(Convert.ToString(value, culture));
+                    writer.Write(text.Length);
+                    writer.Write(text);
+                    break;
+                case PostGisCopyType.Bytea:
+                    var bytes = value as byte[];
+                    if (bytes == null)
+                        throw new ArgumentException("Value of column " + column.Name + " is not an array of bytes");
+                    writer.Write(bytes.Length);
+                    writer.Write(bytes);
+                    break;
+                case PostGisCopyType.Date:
+                    writer.Write(4);
+                    writer.Write((Convert.ToDateTime(value, culture).Date - Epoch).Days);
+                    break;
+                case PostGisCopyType.Timestamp:
+                    // microseconds
+                    writer.Write(8);
+                    writer.Write((Convert.ToDateTime(value, culture) - Epoch).Ticks / 10);
+                    break;
+                default:
+                    throw new ArgumentException("Unsupported column type: " + column.Type);
+            }
+        }
+    }
+}
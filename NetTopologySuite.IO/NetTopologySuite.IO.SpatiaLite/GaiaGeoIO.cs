@@ -30,12 +30,11 @@ namespace NetTopologySuite.IO
             //Debug.Assert(geometryTypeFlag != GaiaGeoGeometry.GAIA_UNKNOWN);
             //Debug.Assert(geometryTypeFlag > 0);
 
+            // the flag is set for each geometry, as a collection may mix compressed and uncompressed parts
             var cflag = ((int)geometryTypeFlag);
-            if (cflag > 1000000)
-            {
-                Compressed = true;
+            Compressed = cflag > 1000000;
+            if (Compressed)
                 cflag -= 1000000;
-            }
 
             if (cflag > 3000)
                 cflag = 3000;
@@ -67,14 +66,14 @@ namespace NetTopologySuite.IO
             if (cflag == CoordinateFlag)
                 return;
 
-            Dimension = GaiaDimensionModels.GAIA_XY;
-            if (HasZ) Dimension |= GaiaDimensionModels.GAIA_Z;
-            if (HasM) Dimension |= GaiaDimensionModels.GAIA_M;
-
             HasZ = hasZ;
             HasM = hasM;
             Compressed = useCompression;
 
+            Dimension = GaiaDimensionModels.GAIA_XY;
+            if (HasZ) Dimension |= GaiaDimensionModels.GAIA_Z;
+            if (HasM) Dimension |= GaiaDimensionModels.GAIA_M;
+
             CoordinateFlag = cflag;
         }
 
@@ -194,6 +193,7 @@ namespace NetTopologySuite.IO
             {
                 val[j++] = BitConverter.ToDouble(tmp, i);
             }
+            offset += tmp.Length;
             return val;
         }
 
@@ -237,9 +237,9 @@ namespace NetTopologySuite.IO
             var j = 0;
             for (var i = (size - 1) * 4; i >= 0; i -= 4)
             {
-                val[j++] = BitConverter.ToSingle(tmp, 0);
-                //offset += 4;
+                val[j++] = BitConverter.ToSingle(tmp, i);
             }
+            offset += tmp.Length;
             return val;
         }
 
@@ -161,13 +161,7 @@ namespace NetTopologySuite.IO
                 return ReadXY;
             }
 
-            if (gaiaImport.HasZ && gaiaImport.HasM)
-                return ReadCompressedXYZM;
-            if (gaiaImport.HasM)
-                return ReadCompressedXYM;
-            if (gaiaImport.HasZ)
-                return ReadCompressedXYZ;
-            return ReadCompressedXY;
+            return ReadCompressed;
         }
 
         private static GaiaGeoGeometry ToBaseGeometryType(GaiaGeoGeometry geometry)
@@ -413,156 +407,47 @@ namespace NetTopologySuite.IO
             return ret;
         }
 
-        private static ICoordinateSequence ReadCompressedXY(byte[] buffer, ref int offset, int number, GaiaImport import, ICoordinateSequenceFactory factory, IPrecisionModel precisionModel)
+        /// <summary>
+        /// Reads the points of a compressed linestring or ring: the first and the last point
+        /// are stored as doubles, the points in between as float differences to their predecessor.
+        /// </summary>
+        private static ICoordinateSequence ReadCompressed(byte[] buffer, ref int offset, int number, GaiaImport import, ICoordinateSequenceFactory factory, IPrecisionModel precisionModel)
         {
-            var startOrdinateValues = import.GetDoubles(buffer, ref offset, 2);
             var ret = factory.Create(number, import.HandleOrdinates);
+            if (number == 0) return ret;
 
-            var x = startOrdinateValues[0];
-            var y = startOrdinateValues[1];
-            ret.SetOrdinate(0, Ordinate.X, precisionModel.MakePrecise(x));
-            ret.SetOrdinate(0, Ordinate.Y, precisionModel.MakePrecise(y));
-
-            if (number == 1) return ret;
-
-            var ordinateValues = import.GetSingles(buffer, ref offset, (number - 2) * 2);
-
-            var j = 0;
-            int i;
-            for (i = 1; i < number - 1; i++)
-            {
-                x = x + ordinateValues[j++];
-                y = y + ordinateValues[j++];
-                ret.SetOrdinate(i, Ordinate.X, precisionModel.MakePrecise(x));
-                ret.SetOrdinate(i, Ordinate.Y, precisionModel.MakePrecise(y));
-            }
-
-            startOrdinateValues = import.GetDoubles(buffer, ref offset, 2);
-            ret.SetOrdinate(i, Ordinate.X, precisionModel.MakePrecise(startOrdinateValues[0]));
-            ret.SetOrdinate(i, Ordinate.Y, precisionModel.MakePrecise(startOrdinateValues[1]));
-
-            return ret;
-        }
-
-        private static ICoordinateSequence ReadCompressedXYZ(byte[] buffer, ref int offset, int number, GaiaImport import, ICoordinateSequenceFactory factory, IPrecisionModel precisionModel)
-        {
-            var startOrdinateValues = import.GetDoubles(buffer, ref offset, 3);
-            var ret = factory.Create(number, Ordinates.XYZ);
-
-            var handleZ = (ret.Ordinates & Ordinates.Z) == Ordinates.Z;
-
-            var x = startOrdinateValues[0];
-            ret.SetOrdinate(0, Ordinate.X, precisionModel.MakePrecise(x));
-            var y = startOrdinateValues[1];
-            ret.SetOrdinate(0, Ordinate.Y, precisionModel.MakePrecise(y));
-            var z = handleZ ? startOrdinateValues[2] : Coordinate.NullOrdinate;
-            ret.SetOrdinate(0, Ordinate.Z, z);
+            // the number of values stored for each point, and the positions of z and m among them
+            var dimension = 2;
+            var zIndex = import.HasZ ? dimension++ : -1;
+            var mIndex = import.HasM ? dimension++ : -1;
+            if ((ret.Ordinates & Ordinates.Z) != Ordinates.Z) zIndex = -1;
+            if ((ret.Ordinates & Ordinates.M) != Ordinates.M) mIndex = -1;
 
+            var values = import.GetDoubles(buffer, ref offset, dimension);
+            SetCompressedPoint(ret, 0, values, zIndex, mIndex, precisionModel);
             if (number == 1) return ret;
 
-            var ordinateValues = import.GetSingles(buffer, ref offset, (number - 2) * 3);
-
+            // all differences are read at once, and added up in place
+            var differences = import.GetSingles(buffer, ref offset, (number - 2) * dimension);
             var j = 0;
-            int i;
-            for (i = 1; i < number - 1; i++)
+            for (var i = 1; i < number - 1; i++)
             {
-                x += ordinateValues[j++];
-                ret.SetOrdinate(i, Ordinate.X, precisionModel.MakePrecise(x));
-                y += ordinateValues[j++];
-                ret.SetOrdinate(i, Ordinate.Y, precisionModel.MakePrecise(y));
-                if (handleZ) z += ordinateValues[j++];
-                ret.SetOrdinate(i, Ordinate.Z, z);
+                for (var k = 0; k < dimension; k++)
+                    values[k] += differences[j++];
+                SetCompressedPoint(ret, i, values, zIndex, mIndex, precisionModel);
             }
 
-            startOrdinateValues = import.GetDoubles(buffer, ref offset, 3);
-            ret.SetOrdinate(i, Ordinate.X, precisionModel.MakePrecise(startOrdinateValues[0]));
-            ret.SetOrdinate(i, Ordinate.Y, precisionModel.MakePrecise(startOrdinateValues[1]));
-            z = handleZ ? startOrdinateValues[2] : Coordinate.NullOrdinate;
-            ret.SetOrdinate(i, Ordinate.Z, z);
+            values = import.GetDoubles(buffer, ref offset, dimension);
+            SetCompressedPoint(ret, number - 1, values, zIndex, mIndex, precisionModel);
             return ret;
         }
 
-        private static ICoordinateSequence ReadCompressedXYM(byte[] buffer, ref int offset, int number, GaiaImport import, ICoordinateSequenceFactory factory, IPrecisionModel precisionModel)
+        private static void SetCompressedPoint(ICoordinateSequence sequence, int index, double[] values, int zIndex, int mIndex, IPrecisionModel precisionModel)
         {
-            var startOrdinateValues = import.GetDoubles(buffer, ref offset, 3);
-            var ret = factory.Create(number, Ordinates.XYM);
-
-            var handleM = (ret.Ordinates & Ordinates.M) == Ordinates.M;
-
-            var x = startOrdinateValues[0];
-            ret.SetOrdinate(0, Ordinate.X, precisionModel.MakePrecise(x));
-            var y = startOrdinateValues[1];
-            ret.SetOrdinate(0, Ordinate.Y, precisionModel.MakePrecise(y));
-            var m = handleM ? startOrdinateValues[2] : Coordinate.NullOrdinate;
-            ret.SetOrdinate(0, Ordinate.M, m);
-
-            if (number == 1) return ret;
-
-            var ordinateValues = import.GetSingles(buffer, ref offset, (number - 2) * 3);
-
-            var j = 0;
-            int i;
-            for (i = 1; i < number - 1; i++)
-            {
-                x += ordinateValues[j++];
-                ret.SetOrdinate(i, Ordinate.X, precisionModel.MakePrecise(x));
-                y += ordinateValues[j++];
-                ret.SetOrdinate(i, Ordinate.Y, precisionModel.MakePrecise(y));
-                if (handleM) m += ordinateValues[j++];
-                ret.SetOrdinate(i, Ordinate.M, m);
-            }
-
-            startOrdinateValues = import.GetDoubles(buffer, ref offset, 3);
-            ret.SetOrdinate(i, Ordinate.X, precisionModel.MakePrecise(startOrdinateValues[0]));
-            ret.SetOrdinate(i, Ordinate.Y, precisionModel.MakePrecise(startOrdinateValues[1]));
-            m = handleM ? startOrdinateValues[2] : Coordinate.NullOrdinate;
-            ret.SetOrdinate(i, Ordinate.M, m);
-            return ret;
-        }
-
-        private static ICoordinateSequence ReadCompressedXYZM(byte[] buffer, ref int offset, int number, GaiaImport import, ICoordinateSequenceFactory factory, IPrecisionModel precisionModel)
-        {
-            var startOrdinateValues = import.GetDoubles(buffer, ref offset, 4);
-            var ret = factory.Create(number, Ordinates.XYM);
-
-            var handleZ = (ret.Ordinates & Ordinates.Z) == Ordinates.Z;
-            var handleM = (ret.Ordinates & Ordinates.M) == Ordinates.M;
-
-            var x = startOrdinateValues[0];
-            ret.SetOrdinate(0, Ordinate.X, precisionModel.MakePrecise(x));
-            var y = startOrdinateValues[1];
-            ret.SetOrdinate(0, Ordinate.Y, precisionModel.MakePrecise(y));
-            var z = handleZ ? startOrdinateValues[2] : Coordinate.NullOrdinate;
-            ret.SetOrdinate(0, Ordinate.Z, z);
-            var m = handleM ? startOrdinateValues[3] : Coordinate.NullOrdinate;
-            ret.SetOrdinate(0, Ordinate.M, m);
-
-            if (number == 1) return ret;
-
-            var ordinateValues = import.GetSingles(buffer, ref offset, (number - 2) * 4);
-
-            var j = 0;
-            int i;
-            for (i = 1; i < number - 1; i++)
-            {
-                x += ordinateValues[j++];
-                ret.SetOrdinate(i, Ordinate.X, precisionModel.MakePrecise(x));
-                y += ordinateValues[j++];
-                ret.SetOrdinate(i, Ordinate.Y, precisionModel.MakePrecise(y));
-                if (handleZ) z += ordinateValues[j++];
-                ret.SetOrdinate(i, Ordinate.Z, z);
-                if (handleM) m += ordinateValues[j++];
-                ret.SetOrdinate(i, Ordinate.M, m);
-            }
-
-            startOrdinateValues = import.GetDoubles(buffer, ref offset, 4);
-            ret.SetOrdinate(i, Ordinate.X, precisionModel.MakePrecise(startOrdinateValues[0]));
-            ret.SetOrdinate(i, Ordinate.Y, precisionModel.MakePrecise(startOrdinateValues[1]));
-            z = handleZ ? startOrdinateValues[2] : Coordinate.NullOrdinate;
-            ret.SetOrdinate(i, Ordinate.Z, z);
-            m = handleM ? startOrdinateValues[3] : Coordinate.NullOrdinate;
-            ret.SetOrdinate(i, Ordinate.M, m);
-            return ret;
+            sequence.SetOrdinate(index, Ordinate.X, precisionModel.MakePrecise(values[0]));
+            sequence.SetOrdinate(index, Ordinate.Y, precisionModel.MakePrecise(values[1]));
+            if (zIndex > 0) sequence.SetOrdinate(index, Ordinate.Z, values[zIndex]);
+            if (mIndex > 0) sequence.SetOrdinate(index, Ordinate.M, values[mIndex]);
         }
 
         public bool HandleSRID { get; set; }
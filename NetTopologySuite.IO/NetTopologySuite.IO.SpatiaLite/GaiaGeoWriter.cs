@@ -78,31 +78,30 @@ namespace NetTopologySuite.IO
         private static WriteCoordinates SetWriteCoordinatesFunction(GaiaExport gaiaExport)
         {
             if (gaiaExport.Uncompressed)
-            {
-                if (gaiaExport.HasZ && gaiaExport.HasM)
-                    return WriteXYZM;
-                if (gaiaExport.HasM)
-                    return WriteXYM;
-                if (gaiaExport.HasZ)
-                    return WriteXYZ;
-
-                return WriteXY;
-            }
+                return SetWriteUncompressedCoordinatesFunction(gaiaExport);
+
+            return WriteCompressed;
+        }
 
+        private static WriteCoordinates SetWriteUncompressedCoordinatesFunction(GaiaExport gaiaExport)
+        {
             if (gaiaExport.HasZ && gaiaExport.HasM)
-                return WriteCompressedXYZM;
+                return WriteXYZM;
             if (gaiaExport.HasM)
-                return WriteCompressedXYM;
+                return WriteXYM;
             if (gaiaExport.HasZ)
-                return WriteCompressedXYZ;
+                return WriteXYZ;
 
-            return WriteCompressedXY;
+            return WriteXY;
         }
 
         private static void WriteGeometry(IGeometry geom, GaiaExport gaiaExport, BinaryWriter bw)
         {
             WriteCoordinates writeCoordinates = SetWriteCoordinatesFunction(gaiaExport);
 
+            // SpatiaLite only compresses linestrings and rings, points are always written in full
+            WriteCoordinates writePointCoordinates = SetWriteUncompressedCoordinatesFunction(gaiaExport);
+
             //Geometry type
             int coordinateFlag = gaiaExport.CoordinateFlag;
             int coordinateFlagNotValidForCompression = coordinateFlag > 1000000
@@ -112,7 +111,7 @@ namespace NetTopologySuite.IO
             {
                 case "POINT":
                     gaiaExport.WriteInt32(bw, (int)(GaiaGeoGeometry.GAIA_POINT) | coordinateFlagNotValidForCompression);
-                    WritePoint((IPoint)geom, writeCoordinates, gaiaExport, bw);
+                    WritePoint((IPoint)geom, writePointCoordinates, gaiaExport, bw);
                     break;
                 case "LINESTRING":
                     gaiaExport.WriteInt32(bw, (int)GaiaGeoGeometry.GAIA_LINESTRING | coordinateFlag);
@@ -124,7 +123,7 @@ namespace NetTopologySuite.IO
                     break;
                 case "MULTIPOINT":
                     gaiaExport.WriteInt32(bw, (int)GaiaGeoGeometry.GAIA_MULTIPOINT | coordinateFlagNotValidForCompression);
-                    WriteMultiPoint((IMultiPoint)geom, writeCoordinates, gaiaExport, bw);
+                    WriteMultiPoint((IMultiPoint)geom, writePointCoordinates, gaiaExport, bw);
                     break;
                 case "MULTILINESTRING":
                     gaiaExport.WriteInt32(bw, (int)GaiaGeoGeometry.GAIA_MULTILINESTRING | coordinateFlag);
@@ -270,7 +269,7 @@ namespace NetTopologySuite.IO
             for (var i = 0; i < coordinateSequence.Count; i++)
             {
                 var c = coordinateSequence.GetCoordinate(i);
-                wd(bw, c.X, c.Y, 0d);
+                wd(bw, c.X, c.Y, GetM(coordinateSequence, i));
             }
         }
 
@@ -280,110 +279,72 @@ namespace NetTopologySuite.IO
             for (var i = 0; i < coordinateSequence.Count; i++)
             {
                 var c = coordinateSequence.GetCoordinate(i);
-                wd(bw, c.X, c.Y, c.Z, 0d);
+                wd(bw, c.X, c.Y, c.Z, GetM(coordinateSequence, i));
             }
         }
 
-        private static void WriteCompressedXY(ICoordinateSequence coordinateSequence, GaiaExport export, BinaryWriter bw)
+        /// <summary>
+        /// Writes the points of a linestring or ring compressed: the first and the last point
+        /// as doubles, the points in between as float differences to their predecessor.
+        /// </summary>
+        private static void WriteCompressed(ICoordinateSequence coordinateSequence, GaiaExport export, BinaryWriter bw)
         {
-            var wd = export.WriteDouble;
-
-            // Write initial coordinate
-            var cprev = coordinateSequence.GetCoordinate(0);
-            wd(bw, cprev.X, cprev.Y);
+            var count = coordinateSequence.Count;
+            if (count == 0) return;
 
-            var ws = export.WriteSingle;
-            var maxIndex = coordinateSequence.Count - 1;
-            if (maxIndex <= 0) return;
+            var dimension = 2;
+            var zIndex = export.HasZ ? dimension++ : -1;
+            var mIndex = export.HasM ? dimension++ : -1;
 
-            for (var i = 1; i < maxIndex; i++)
+            // Write initial coordinate
+            var values = new double[dimension];
+            GetCompressedPoint(coordinateSequence, 0, values, zIndex, mIndex);
+            export.WriteDouble(bw, values);
+            if (count == 1) return;
+
+            var point = new double[dimension];
+            var differences = new float[dimension];
+            for (var i = 1; i < count - 1; i++)
             {
-                var c = coordinateSequence.GetCoordinate(i);
-                var fx = (float)(c.X - cprev.X);
-                var fy = (float)(c.Y - cprev.Y);
-                ws(bw, fx, fy);
-                cprev = c;
+                GetCompressedPoint(coordinateSequence, i, point, zIndex, mIndex);
+                for (var k = 0; k < dimension; k++)
+                {
+                    differences[k] = (float)(point[k] - values[k]);
+
+                    // continue from the value a reader restores, not from the exact one,
+                    // so that the rounding of the differences does not add up along the line
+                    values[k] += differences[k];
+                }
+                export.WriteSingle(bw, differences);
             }
 
             // Write last coordinate
-            cprev = coordinateSequence.GetCoordinate(maxIndex);
-            wd(bw, cprev.X, cprev.Y);
-        }
-
-        private static void WriteCompressedXYZ(ICoordinateSequence coordinateSequence, GaiaExport export, BinaryWriter bw)
-        {
-            var wd = export.WriteDouble;
-
-            // Write initial coordinate
-            var cprev = coordinateSequence.GetCoordinate(0);
-            wd(bw, cprev.X, cprev.Y, cprev.Z);
-
-            var maxIndex = coordinateSequence.Count - 1;
-            if (maxIndex <= 0) return;
-
-            var ws = export.WriteSingle;
-            for (var i = 1; i < maxIndex; i++)
-            {
-                var c = coordinateSequence.GetCoordinate(i);
-                var fx = (float)(c.X - cprev.X);
-                var fy = (float)(c.Y - cprev.Y);
-                var fz = (float)(c.Z - cprev.Z);
-                ws(bw, fx, fy, fz);
-                cprev = c;
-            }
-            cprev = coordinateSequence.GetCoordinate(maxIndex);
-            wd(bw, cprev.X, cprev.Y, cprev.Z);
+            GetCompressedPoint(coordinateSequence, count - 1, values, zIndex, mIndex);
+            export.WriteDouble(bw, values);
         }
 
-        private static void WriteCompressedXYM(ICoordinateSequence coordinateSequence, GaiaExport export, BinaryWriter bw)
+        private static void GetCompressedPoint(ICoordinateSequence coordinateSequence, int index, double[] values, int zIndex, int mIndex)
         {
-            var wd = export.WriteDouble;
-
-            // Write initial coordinate
-            var cprev = coordinateSequence.GetCoordinate(0);
-            wd(bw, cprev.X, cprev.Y, 0d/*cprev.M*/);
+            values[0] = coordinateSequence.GetOrdinate(index, Ordinate.X);
+            values[1] = coordinateSequence.GetOrdinate(index, Ordinate.Y);
 
-            var maxIndex = coordinateSequence.Count - 1;
-            if (maxIndex <= 0) return;
-
-            var ws = export.WriteSingle;
-            for (var i = 1; i < maxIndex; i++)
+            // a missing value would turn all following differences into NaN
+            if (zIndex > 0)
             {
-                var c = coordinateSequence.GetCoordinate(i);
-                var fx = (float)(c.X - cprev.X);
-                var fy = (float)(c.Y - cprev.Y);
-                var fm = 0f;// (float)(c.M - cprev.M);
-                ws(bw, fx, fy, fm);
-                cprev = c;
+                var z = coordinateSequence.GetOrdinate(index, Ordinate.Z);
+                values[zIndex] = double.IsNaN(z) ? 0d : z;
             }
-            cprev = coordinateSequence.GetCoordinate(maxIndex);
-            wd(bw, cprev.X, cprev.Y, 0d/*cprev.M*/);
+            if (mIndex > 0)
+                values[mIndex] = GetM(coordinateSequence, index);
         }
 
-        private static void WriteCompressedXYZM(ICoordinateSequence coordinateSequence, GaiaExport export, BinaryWriter bw)
+        /// <summary>
+        /// Gets the measure of a point, or 0 if the sequence has none.
+        /// </summary>
+        private static double GetM(ICoordinateSequence coordinateSequence, int index)
         {
-            var wd = export.WriteDouble;
-
-            // Write initial coordinate
-            var cprev = coordinateSequence.GetCoordinate(0);
-            wd(bw, cprev.X, cprev.Y, cprev.Z, 0d/*cprev.M*/);
-
-            var maxIndex = coordinateSequence.Count - 1;
-            if (maxIndex <= 0) return;
-
-            var ws = export.WriteSingle;
-            for (var i = 1; i < maxIndex; i++)
-            {
-                var c = coordinateSequence.GetCoordinate(i);
-                var fx = (float)(c.X - cprev.X);
-                var fy = (float)(c.Y - cprev.Y);
-                var fz = (float)(c.Z - cprev.Z);
-                var fm = 0f;// (float)(c.M - cprev.M);
-                ws(bw, fx, fy, fz, fm);
-                cprev = c;
-            }
-            cprev = coordinateSequence.GetCoordinate(maxIndex);
-            wd(bw, cprev.X, cprev.Y, cprev.Z, 0d/*cprev.M*/);
+            var m = coordinateSequence.GetOrdinate(index, Ordinate.M);
+            return double.IsNaN(m) ? 0d : m;
         }
 
         public bool HandleSRID
@@ -422,8 +383,13 @@ namespace NetTopologySuite.IO
         }
 
         /// <summary>
-        /// Gets or sets whether geometries should be written in compressed form
+        /// Gets or sets whether geometries should be written in compressed form.
         /// </summary>
+        /// <remarks>
+        /// Compression applies to linestrings and polygon rings, whose inner points are stored
+        /// as float differences, which takes about half the space. The first and the last point
+        /// of each line keep their full precision, points are never compressed.
+        /// </remarks>
         public bool UseCompressed { get; set; }
     }
 }
\ No newline at end of file
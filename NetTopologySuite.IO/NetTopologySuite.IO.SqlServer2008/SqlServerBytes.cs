@@ -0,0 +1,41 @@
+﻿namespace NetTopologySuite.IO
+{
+    /// <summary>
+    /// Constants of the serialization format of SQL Server's geometry and geography types.
+    /// </summary>
+    internal static class SqlServerBytes
+    {
+        // serialization properties
+        public const byte HasZ = 0x01;
+        public const byte HasM = 0x02;
+        public const byte IsValid = 0x04;
+        public const byte IsSinglePoint = 0x08;
+        public const byte IsSingleLineSegment = 0x10;
+
+        // figure attributes of version 1
+        public const byte InteriorRing = 0x00;
+        public const byte Stroke = 0x01;
+        public const byte ExteriorRing = 0x02;
+
+        // figure attributes of version 2
+        public const byte Arc = 0x02;
+        public const byte CompositeCurve = 0x03;
+
+        // segment types of version 2
+        public const byte ArcSegment = 0x01;
+        public const byte FirstArcSegment = 0x03;
+
+        // shape types
+        public const byte Point = 1;
+        public const byte LineString = 2;
+        public const byte Polygon = 3;
+        public const byte MultiPoint = 4;
+        public const byte MultiLineString = 5;
+        public const byte MultiPolygon = 6;
+        public const byte GeometryCollection = 7;
+        public const byte CircularString = 8;
+        public const byte CompoundCurve = 9;
+        public const byte CurvePolygon = 10;
+        public const byte FullGlobe = 11;
+    }
+}
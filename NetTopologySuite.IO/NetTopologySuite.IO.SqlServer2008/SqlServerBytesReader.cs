@@ -0,0 +1,395 @@
+﻿using System;
+using System.IO;
+using GeoAPI;
+using GeoAPI.Geometries;
+using GeoAPI.IO;
+
+namespace NetTopologySuite.IO
+{
+    /// <summary>
+    /// Reads geometries from the binary serialization of SQL Server's geometry and geography types.
+    /// </summary>
+    /// <remarks>
+    /// Unlike <see cref="MsSql2008GeometryReader"/> and <see cref="MsSql2008GeographyReader"/>,
+    /// this reader does not need Microsoft.SqlServer.Types: the bytes are decoded straight into
+    /// coordinate sequences. Versions 1 and 2 of the format are read. Curves of version 2 are
+    /// read as lines if all their segments are straight; circular arcs are not supported.
+    /// </remarks>
+    public class SqlServerBytesReader : IBinaryGeometryReader
+    {
+        private readonly IGeometryServices _geometryServices;
+
+        /// <summary>
+        /// Initializes a new instance of the <see cref="SqlServerBytesReader"/> class.
+        /// </summary>
+        public SqlServerBytesReader()
+            : this(GeometryServiceProvider.Instance)
+        {
+        }
+
+        /// <summary>
+        /// Initializes a new instance of the <see cref="SqlServerBytesReader"/> class.
+        /// </summary>
+        /// <param name="geometryServices">The services to create the geometry factories with.</param>
+        public SqlServerBytesReader(IGeometryServices geometryServices)
+        {
+            if (geometryServices == null)
+                throw new ArgumentNullException("geometryServices");
+            _geometryServices = geometryServices;
+        }
+
+        /// <summary>
+        /// Gets or sets whether the bytes are of the geography type, which stores latitude before longitude.
+        /// </summary>
+        public bool IsGeography { get; set; }
+
+        /// <summary>
+        /// Gets or sets whether invalid linear rings should be fixed
+        /// </summary>
+        public bool RepairRings { get; set; }
+
+        public IGeometry Read(Stream stream)
+        {
+            if (stream == null)
+                throw new ArgumentNullException("stream");
+
+            using (var buffer = new MemoryStream())
+            {
+                stream.CopyTo(buffer);
+                return Read(buffer.ToArray());
+            }
+        }
+
+        public IGeometry Read(byte[] bytes)
+        {
+            if (bytes == null)
+                throw new ArgumentNullException("bytes");
+
+            var decoder = new Decoder(bytes, IsGeography, HandleOrdinates);
+            return decoder.Read(_geometryServices);
+        }
+
+        #region Implementation of IGeometryIOSettings
+
+        public bool HandleSRID
+        {
+            get { return true; }
+            set { }
+        }
+
+        public Ordinates AllowedOrdinates
+        {
+            get { return Ordinates.XYZM; }
+        }
+
+        private Ordinates _handleOrdinates = Ordinates.XYZM;
+        public Ordinates HandleOrdinates
+        {
+            get { return _handleOrdinates; }
+            set { _handleOrdinates = Ordinates.XY | (AllowedOrdinates & value); }
+        }
+
+        #endregion
+
+        /// <summary>
+        /// The sections of one serialized instance.
+        /// </summary>
+        private class Decoder
+        {
+            private readonly byte[] _bytes;
+            private readonly bool _isGeography;
+            private readonly Ordinates _handleOrdinates;
+            private int _position;
+
+            private int _version;
+            private double[] _xy;
+            private double[] _z;
+            private double[] _m;
+            private byte[] _figureAttributes;
+            private int[] _pointOffsets;
+            private int[] _parentOffsets;
+            private int[] _figureOffsets;
+            private byte[] _shapeTypes;
+
+            private IGeometryFactory _factory;
+            private Ordinates _ordinates;
+
+            public Decoder(byte[] bytes, bool isGeography, Ordinates handleOrdinates)
+            {
+                _bytes = bytes;
+                _isGeography = isGeography;
+                _handleOrdinates = handleOrdinates;
+            }
+
+            public IGeometry Read(IGeometryServices geometryServices)
+            {
+                int srid = ReadInt32();
+                _version = ReadByte();
+                if (_version != 1 && _version != 2)
+                    throw new ParseException("Unsupported serialization version: " + _version);
+
+                byte properties = ReadByte();
+                bool hasZ = (properties & SqlServerBytes.HasZ) != 0;
+                bool hasM = (properties & SqlServerBytes.HasM) != 0;
+
+                bool singlePoint = (properties & SqlServerBytes.IsSinglePoint) != 0;
+                bool singleLineSegment = (properties & SqlServerBytes.IsSingleLineSegment) != 0;
+
+                int pointCount;
+                if (singlePoint)
+                    pointCount = 1;
+                else if (singleLineSegment)
+                    pointCount = 2;
+                else
+                    pointCount = ReadCount(16);
+
+                _xy = ReadDoubles(2 * pointCount);
+                if (hasZ)
+                    _z = ReadDoubles(pointCount);
+                if (hasM)
+                    _m = ReadDoubles(pointCount);
+
+                if (singlePoint || singleLineSegment)
+                {
+                    // a single point or segment has no figures and shapes
+                    _figureAttributes = new[] { SqlServerBytes.Stroke };
+                    _pointOffsets = new[] { 0 };
+                    _parentOffsets = new[] { -1 };
+                    _figureOffsets = new[] { 0 };
+                    _shapeTypes = new[] { singlePoint ? SqlServerBytes.Point : SqlServerBytes.LineString };
+                }
+                else
+                {
+                    int figureCount = ReadCount(5);
+                    _figureAttributes = new byte[figureCount];
+                    _pointOffsets = new int[figureCount];
+                    for (int i = 0; i < figureCount; i++)
+                    {
+                        _figureAttributes[i] = ReadByte();
+                        _pointOffsets[i] = ReadOffset(pointCount);
+                    }
+
+                    int shapeCount = ReadCount(9);
+                    if (shapeCount == 0)
+                        throw new ParseException("Serialized instance has no shapes");
+                    _parentOffsets = new int[shapeCount];
+                    _figureOffsets = new int[shapeCount];
+                    _shapeTypes = new byte[shapeCount];
+                    for (int i = 0; i < shapeCount; i++)
+                    {
+                        _parentOffsets[i] = ReadInt32();
+                        _figureOffsets[i] = ReadOffset(figureCount);
+                        _shapeTypes[i] = ReadByte();
+                    }
+
+                    // the segments of composite curves follow in version 2
+                    if (_version == 2 && _position < _bytes.Length)
+                    {
+                        int segmentCount = ReadCount(1);
+                        for (int i = 0; i < segmentCount; i++)
+                        {
+                            byte segment = ReadByte();
+                            if (segment == SqlServerBytes.ArcSegment || segment == SqlServerBytes.FirstArcSegment)
+                                throw new NotSupportedException("Circular arcs are not supported");
+                        }
+                    }
+                }
+
+                _factory = geometryServices.CreateGeometryFactory(srid);
+                _ordinates = Ordinates.XY;
+                if (hasZ && (_handleOrdinates & Ordinates.Z) != 0)
+                    _ordinates |= Ordinates.Z;
+                if (hasM && (_handleOrdinates & Ordinates.M) != 0)
+                    _ordinates |= Ordinates.M;
+
+                int shape = 0;
+                return ReadShape(ref shape);
+            }
+
+            /// <summary>
+            /// Creates the geometry of a shape, and of the shapes it contains.
+            /// </summary>
+            /// <param name="shape">The index of the shape, moved past its last descendant.</param>
+            private IGeometry ReadShape(ref int shape)
+            {
+                int index = shape++;
+                int firstFigure = _figureOffsets[index];
+                int endFigure = firstFigure < 0 ? firstFigure : EndOfFigures(index);
+
+                switch (_shapeTypes[index])
+                {
+                    case SqlServerBytes.Point:
+                        return firstFigure < 0
+                            ? _factory.CreatePoint((ICoordinateSequence)null)
+                            : _factory.CreatePoint(ReadFigure(firstFigure));
+
+                    case SqlServerBytes.LineString:
+                    case SqlServerBytes.CompoundCurve:
+                        return firstFigure < 0
+                            ? _factory.CreateLineString((ICoordinateSequence)null)
+                            : _factory.CreateLineString(ReadFigure(firstFigure));
+
+                    case SqlServerBytes.Polygon:
+                    case SqlServerBytes.CurvePolygon:
+                        if (firstFigure < 0 || endFigure == firstFigure)
+                            return _factory.CreatePolygon(null, null);
+
+                        var holes = new ILinearRing[endFigure - firstFigure - 1];
+                        for (int i = 0; i < holes.Length; i++)
+                            holes[i] = _factory.CreateLinearRing(ReadFigure(firstFigure + 1 + i));
+                        return _factory.CreatePolygon(_factory.CreateLinearRing(ReadFigure(firstFigure)), holes);
+
+                    case SqlServerBytes.MultiPoint:
+                        {
+                            var points = new IPoint[CountChildren(index, shape)];
+                            for (int i = 0; i < points.Length; i++)
+                                points[i] = (IPoint)ReadShape(ref shape);
+                            return _factory.CreateMultiPoint(points);
+                        }
+
+                    case SqlServerBytes.MultiLineString:
+                        {
+                            var lines = new ILineString[CountChildren(index, shape)];
+                            for (int i = 0; i < lines.Length; i++)
+                                lines[i] = (ILineString)ReadShape(ref shape);
+                            return _factory.CreateMultiLineString(lines);
+                        }
+
+                    case SqlServerBytes.MultiPolygon:
+                        {
+                            var polygons = new IPolygon[CountChildren(index, shape)];
+                            for (int i = 0; i < polygons.Length; i++)
+                                polygons[i] = (IPolygon)ReadShape(ref shape);
+                            return _factory.CreateMultiPolygon(polygons);
+                        }
+
+                    case SqlServerBytes.GeometryCollection:
+                        {
+                            var geometries = new IGeometry[CountChildren(index, shape)];
+                            for (int i = 0; i < geometries.Length; i++)
+                                geometries[i] = ReadShape(ref shape);
+                            return _factory.CreateGeometryCollection(geometries);
+                        }
+
+                    case SqlServerBytes.CircularString:
+                        throw new NotSupportedException("Circular arcs are not supported");
+
+                    default:
+                        throw new ParseException("Unsupported shape type: " + _shapeTypes[index]);
+                }
+            }
+
+            /// <summary>
+            /// Counts the direct children of a shape; they are followed by their own descendants.
+            /// </summary>
+            private int CountChildren(int parent, int first)
+            {
+                int count = 0;
+                for (int i = first; i < _parentOffsets.Length; i++)
+                {
+                    if (_parentOffsets[i] == parent)
+                        count++;
+                    else if (_parentOffsets[i] < parent)
+                        break;
+                }
+                return count;
+            }
+
+            /// <summary>
+            /// Gets the index after the last figure of a shape, which is the first figure of the next non-empty shape.
+            /// </summary>
+            private int EndOfFigures(int shape)
+            {
+                for (int i = shape + 1; i < _figureOffsets.Length; i++)
+                {
+                    if (_figureOffsets[i] >= 0)
+                        return _figureOffsets[i];
+                }
+                return _pointOffsets.Length;
+            }
+
+            private ICoordinateSequence ReadFigure(int figure)
+            {
+                if (_version == 2 && _figureAttributes[figure] == SqlServerBytes.Arc)
+                    throw new NotSupportedException("Circular arcs are not supported");
+
+                int first = _pointOffsets[figure];
+                int end = figure + 1 < _pointOffsets.Length ? _pointOffsets[figure + 1] : _xy.Length / 2;
+                if (end < first)
+                    throw new ParseException("Figure offsets are not ascending");
+
+                ICoordinateSequence sequence = _factory.CoordinateSequenceFactory.Create(end - first, _ordinates);
+                bool setZ = (_ordinates & sequence.Ordinates & Ordinates.Z) != 0;
+                bool setM = (_ordinates & sequence.Ordinates & Ordinates.M) != 0;
+                for (int i = 0, p = first; p < end; i++, p++)
+                {
+                    // geography stores latitude first
+                    sequence.SetOrdinate(i, Ordinate.X, _xy[2 * p + (_isGeography ? 1 : 0)]);
+                    sequence.SetOrdinate(i, Ordinate.Y, _xy[2 * p + (_isGeography ? 0 : 1)]);
+                    if (setZ)
+                        sequence.SetOrdinate(i, Ordinate.Z, _z[p]);
+                    if (setM)
+                        sequence.SetOrdinate(i, Ordinate.M, _m[p]);
+                }
+                return sequence;
+            }
+
+            private byte ReadByte()
+            {
+                if (_position >= _bytes.Length)
+                    throw new ParseException("Unexpected end of serialized instance");
+                return _bytes[_position++];
+            }
+
+            private int ReadInt32()
+            {
+                if (_position + 4 > _bytes.Length)
+                    throw new ParseException("Unexpected end of serialized instance");
+                int value = _bytes[_position] | _bytes[_position + 1] << 8 | _bytes[_position + 2] << 16 | _bytes[_position + 3] << 24;
+                _position += 4;
+                return value;
+            }
+
+            /// <summary>
+            /// Reads a count of elements of the given size, checking that they fit in the remaining bytes.
+            /// </summary>
+            private int ReadCount(int elementSize)
+            {
+                int count = ReadInt32();
+                if (count < 0 || count > (_bytes.Length - _position) / elementSize)
+                    throw new ParseException("Invalid element count: " + count);
+                return count;
+            }
+
+            /// <summary>
+            /// Reads an offset into a section of the given length, -1 meaning none.
+            /// </summary>
+            private int ReadOffset(int length)
+            {
+                int offset = ReadInt32();
+                if (offset < -1 || offset >= length)
+                    throw new ParseException("Invalid offset: " + offset);
+                return offset;
+            }
+
+            private double[] ReadDoubles(int count)
+            {
+                if (_position + 8L * count > _bytes.Length)
+                    throw new ParseException("Unexpected end of serialized instance");
+
+                var values = new double[count];
+                for (int i = 0; i < count; i++)
+                {
+                    long bits = (long)ReadUInt32() | (long)ReadUInt32() << 32;
+                    values[i] = BitConverter.Int64BitsToDouble(bits);
+                }
+                return values;
+            }
+
+            private uint ReadUInt32()
+            {
+                return (uint)ReadInt32();
+            }
+        }
+    }
+}
@@ -0,0 +1,446 @@
+﻿using System;
+using System.IO;
+using GeoAPI.Geometries;
+using GeoAPI.IO;
+
+namespace NetTopologySuite.IO
+{
+    /// <summary>
+    /// Writes geometries in the binary serialization of SQL Server's geometry and geography types.
+    /// </summary>
+    /// <remarks>
+    /// Unlike <see cref="MsSql2008GeometryWriter"/> and <see cref="MsSql2008GeographyWriter"/>,
+    /// this writer does not need Microsoft.SqlServer.Types: the coordinate sequences are copied
+    /// straight into a byte array of the exact size. Version 1 of the format is written, which
+    /// covers all geometries without circular arcs.
+    /// <para>
+    /// SQL Server treats an instance without the valid flag as invalid until <c>MakeValid()</c> is
+    /// called, so the flag is set from <see cref="IGeometry.IsValid"/>, unless
+    /// <see cref="CheckValidity"/> is turned off. Points and segments are known to be valid
+    /// without that check.
+    /// </para>
+    /// <para>
+    /// For geography, the rings of polygons are written with the interior on their left, like
+    /// <see cref="MsSql2008GeographyWriter"/> does: shells counter-clockwise, holes clockwise.
+    /// The planar check does not cover the other rule of SQL Server 2008 for geography, that an
+    /// instance must fit in a hemisphere, so such instances are only flagged as valid if they
+    /// span less than 180 degrees of longitude and do not touch a pole.
+    /// </para>
+    /// </remarks>
+    public class SqlServerBytesWriter : IBinaryGeometryWriter
+    {
+        /// <summary>
+        /// Gets or sets whether the bytes are of the geography type, which stores latitude before longitude.
+        /// </summary>
+        public bool IsGeography { get; set; }
+
+        private bool _checkValidity = true;
+
+        /// <summary>
+        /// Gets or sets whether polygons, lines and collections are checked to set the valid flag.
+        /// </summary>
+        /// <remarks>
+        /// The check is the costly part of writing large polygons. When it is turned off, only
+        /// points and segments are flagged as valid, and SQL Server reports the other instances as
+        /// invalid until <c>MakeValid()</c> is called on them. The default is <c>true</c>.
+        /// </remarks>
+        public bool CheckValidity
+        {
+            get { return _checkValidity; }
+            set { _checkValidity = value; }
+        }
+
+        public byte[] Write(IGeometry geometry)
+        {
+            if (geometry == null)
+                throw new ArgumentNullException("geometry");
+
+            var encoder = new Encoder(IsGeography, CheckValidity, HandleOrdinates);
+            return encoder.Write(geometry);
+        }
+
+        public void Write(IGeometry geometry, Stream stream)
+        {
+            if (stream == null)
+                throw new ArgumentNullException("stream");
+
+            byte[] bytes = Write(geometry);
+            stream.Write(bytes, 0, bytes.Length);
+        }
+
+        #region Implementation of IGeometryIOSettings
+
+        public bool HandleSRID
+        {
+            get { return true; }
+            set { }
+        }
+
+        public Ordinates AllowedOrdinates
+        {
+            get { return Ordinates.XYZM; }
+        }
+
+        private Ordinates _handleOrdinates = Ordinates.XYZM;
+        public Ordinates HandleOrdinates
+        {
+            get { return _handleOrdinates; }
+            set { _handleOrdinates = Ordinates.XY | (AllowedOrdinates & value); }
+        }
+
+        #endregion
+
+        #region Implementation of IBinaryGeometryWriter
+
+        public ByteOrder ByteOrder
+        {
+            get { return ByteOrder.LittleEndian; }
+            set { }
+        }
+
+        #endregion
+
+        /// <summary>
+        /// The sections of one serialized instance.
+        /// </summary>
+        /// <remarks>
+        /// A first pass over the geometry counts the points, figures and shapes, and finds
+        /// out if there are any Z or M values. A second pass writes each of them at its
+        /// place in the sections.
+        /// </remarks>
+        private class Encoder
+        {
+            private readonly bool _isGeography;
+            private readonly bool _checkValidity;
+            private readonly Ordinates _handleOrdinates;
+
+            private int _pointCount;
+            private int _figureCount;
+            private int _shapeCount;
+            private bool _hasZ;
+            private bool _hasM;
+
+            private byte[] _bytes;
+            private int _pointsStart;
+            private int _zStart;
+            private int _mStart;
+            private int _figuresStart;
+            private int _shapesStart;
+
+            private int _pointIndex;
+            private int _figureIndex;
+            private int _shapeIndex;
+
+            public Encoder(bool isGeography, bool checkValidity, Ordinates handleOrdinates)
+            {
+                _isGeography = isGeography;
+                _checkValidity = checkValidity;
+                _handleOrdinates = handleOrdinates;
+            }
+
+            public byte[] Write(IGeometry geometry)
+            {
+                Count(geometry);
+
+                byte properties = 0;
+                if (_hasZ)
+                    properties |= SqlServerBytes.HasZ;
+                if (_hasM)
+                    properties |= SqlServerBytes.HasM;
+                if (IsValid(geometry))
+                    properties |= SqlServerBytes.IsValid;
+
+                // a single point or segment is written without figures and shapes
+                bool single = false;
+                if (geometry is IPoint && !geometry.IsEmpty)
+                {
+                    properties |= SqlServerBytes.IsSinglePoint;
+                    single = true;
+                }
+                else if (geometry is ILineString && _pointCount == 2)
+                {
+                    properties |= SqlServerBytes.IsSingleLineSegment;
+                    single = true;
+                }
+
+                int size = 6 + 16 * _pointCount;
+                if (_hasZ)
+                    size += 8 * _pointCount;
+                if (_hasM)
+                    size += 8 * _pointCount;
+                if (!single)
+                    size += 12 + 5 * _figureCount + 9 * _shapeCount;
+                _bytes = new byte[size];
+
+                WriteInt32(0, geometry.SRID);
+                _bytes[4] = 1;
+                _bytes[5] = properties;
+
+                int position = 6;
+                if (!single)
+                {
+                    WriteInt32(position, _pointCount);
+                    position += 4;
+                }
+                _pointsStart = position;
+                _zStart = _pointsStart + 16 * _pointCount;
+                _mStart = _zStart + (_hasZ ? 8 * _pointCount : 0);
+                position = _mStart + (_hasM ? 8 * _pointCount : 0);
+
+                if (!single)
+                {
+                    WriteInt32(position, _figureCount);
+                    _figuresStart = position + 4;
+                    position = _figuresStart + 5 * _figureCount;
+                    WriteInt32(position, _shapeCount);
+                    _shapesStart = position + 4;
+                }
+
+                Fill(geometry, -1, single);
+                return _bytes;
+            }
+
+            private void Count(IGeometry geometry)
+            {
+                _shapeCount++;
+                if (geometry is IPoint)
+                {
+                    if (!geometry.IsEmpty)
+                        CountFigure(((IPoint)geometry).CoordinateSequence);
+                }
+                else if (geometry is ILineString)
+                {
+                    if (!geometry.IsEmpty)
+                        CountFigure(((ILineString)geometry).CoordinateSequence);
+                }
+                else if (geometry is IPolygon)
+                {
+                    var polygon = (IPolygon)geometry;
+                    if (polygon.IsEmpty)
+                        return;
+                    CountFigure(polygon.ExteriorRing.CoordinateSequence);
+                    for (int i = 0; i < polygon.NumInteriorRings; i++)
+                        CountFigure(polygon.GetInteriorRingN(i).CoordinateSequence);
+                }
+                else if (geometry is IGeometryCollection)
+                {
+                    for (int i = 0; i < geometry.NumGeometries; i++)
+                        Count(geometry.GetGeometryN(i));
+                }
+                else
+                {
+                    throw new ArgumentException("Unsupported geometry type: " + geometry.GeometryType, "geometry");
+                }
+            }
+
+            /// <summary>
+            /// Gets whether the geometry is valid in SQL Server's sense.
+            /// </summary>
+            private bool IsValid(IGeometry geometry)
+            {
+                bool valid;
+                if (IsKnownValid(geometry, out valid))
+                    return valid;
+                if (!_checkValidity || !geometry.IsValid)
+                    return false;
+                return !_isGeography || FitsInHemisphere(geometry.EnvelopeInternal);
+            }
+
+            /// <summary>
+            /// Gets whether the geometry is valid in SQL Server's sense without a full validity check.
+            /// </summary>
+            /// <returns><c>false</c> if the full check is needed.</returns>
+            private bool IsKnownValid(IGeometry geometry, out bool valid)
+            {
+                valid = false;
+                if (geometry is IPoint || geometry is IMultiPoint)
+                {
+                    for (int i = 0; i < geometry.NumGeometries; i++)
+                    {
+                        var point = (IPoint)geometry.GetGeometryN(i);
+                        if (!point.IsEmpty && !IsInRange(point.X, point.Y))
+                            return true;
+                    }
+                    valid = true;
+                    return true;
+                }
+
+                // a segment between two distinct points, which is only that simple on a plane
+                var line = geometry as ILineString;
+                if (!_isGeography && line != null && line.NumPoints == 2)
+                {
+                    ICoordinateSequence sequence = line.CoordinateSequence;
+                    double x0 = sequence.GetOrdinate(0, Ordinate.X), y0 = sequence.GetOrdinate(0, Ordinate.Y);
+                    double x1 = sequence.GetOrdinate(1, Ordinate.X), y1 = sequence.GetOrdinate(1, Ordinate.Y);
+                    valid = IsInRange(x0, y0) && IsInRange(x1, y1) && (x0 != x1 || y0 != y1);
+                    return true;
+                }
+                return false;
+            }
+
+            /// <summary>
+            /// Gets whether an extent of longitudes and latitudes is within the hemisphere centered on
+            /// the equator at its middle longitude, so that great circle edges between its points and
+            /// the smaller sides of its rings stay in it too.
+            /// </summary>
+            private static bool FitsInHemisphere(Envelope extent)
+            {
+                return extent.Width < 180 && extent.MinY > -90 && extent.MaxY < 90;
+            }
+
+            private bool IsInRange(double x, double y)
+            {
+                if (Double.IsNaN(x) || Double.IsInfinity(x) || Double.IsNaN(y) || Double.IsInfinity(y))
+                    return false;
+                return !_isGeography || (Math.Abs(y) <= 90 && Math.Abs(x) <= 15069);
+            }
+
+            private void CountFigure(ICoordinateSequence sequence)
+            {
+                _figureCount++;
+                _pointCount += sequence.Count;
+
+                if (!_hasZ && (_handleOrdinates & sequence.Ordinates & Ordinates.Z) != 0)
+                    _hasZ = HasValues(sequence, Ordinate.Z);
+                if (!_hasM && (_handleOrdinates & sequence.Ordinates & Ordinates.M) != 0)
+                    _hasM = HasValues(sequence, Ordinate.M);
+            }
+
+            private static bool HasValues(ICoordinateSequence sequence, Ordinate ordinate)
+            {
+                for (int i = 0; i < sequence.Count; i++)
+                {
+                    if (!Double.IsNaN(sequence.GetOrdinate(i, ordinate)))
+                        return true;
+                }
+                return false;
+            }
+
+            private void Fill(IGeometry geometry, int parent, bool single)
+            {
+                int shape = _shapeIndex++;
+                int firstFigure = _figureIndex;
+                byte type;
+                if (geometry is IPoint)
+                {
+                    type = SqlServerBytes.Point;
+                    if (!geometry.IsEmpty)
+                        AddFigure(SqlServerBytes.Stroke, ((IPoint)geometry).CoordinateSequence, single, false);
+                }
+                else if (geometry is ILineString)
+                {
+                    type = SqlServerBytes.LineString;
+                    if (!geometry.IsEmpty)
+                        AddFigure(SqlServerBytes.Stroke, ((ILineString)geometry).CoordinateSequence, single, false);
+                }
+                else if (geometry is IPolygon)
+                {
+                    type = SqlServerBytes.Polygon;
+                    var polygon = (IPolygon)geometry;
+                    if (!polygon.IsEmpty)
+                    {
+                        AddRing(SqlServerBytes.ExteriorRing, polygon.ExteriorRing.CoordinateSequence, true);
+                        for (int i = 0; i < polygon.NumInteriorRings; i++)
+                            AddRing(SqlServerBytes.InteriorRing, polygon.GetInteriorRingN(i).CoordinateSequence, false);
+                    }
+                }
+                else
+                {
+                    if (geometry is IMultiPoint)
+                        type = SqlServerBytes.MultiPoint;
+                    else if (geometry is IMultiLineString)
+                        type = SqlServerBytes.MultiLineString;
+                    else if (geometry is IMultiPolygon)
+                        type = SqlServerBytes.MultiPolygon;
+                    else
+                        type = SqlServerBytes.GeometryCollection;
+
+                    for (int i = 0; i < geometry.NumGeometries; i++)
+                        Fill(geometry.GetGeometryN(i), shape, false);
+                }
+
+                // an empty shape has no figure
+                if (!single)
+                    WriteShape(shape, parent, _figureIndex > firstFigure ? firstFigure : -1, type);
+            }
+
+            private void AddRing(byte attribute, ICoordinateSequence sequence, bool ccw)
+            {
+                // a geography ring the wrong way round would stand for the rest of the globe
+                bool reverse = _isGeography && sequence.Count >= 4 && IsCCW(sequence) != ccw;
+                AddFigure(attribute, sequence, false, reverse);
+            }
+
+            /// <summary>
+            /// Gets whether a closed ring runs counter-clockwise, by the sign of its area.
+            /// </summary>
+            private static bool IsCCW(ICoordinateSequence ring)
+            {
+                double area = 0;
+                double x0 = ring.GetOrdinate(0, Ordinate.X);
+                double y0 = ring.GetOrdinate(0, Ordinate.Y);
+                for (int i = 1; i < ring.Count; i++)
+                {
+                    double x1 = ring.GetOrdinate(i, Ordinate.X);
+                    double y1 = ring.GetOrdinate(i, Ordinate.Y);
+                    area += x0 * y1 - x1 * y0;
+                    x0 = x1;
+                    y0 = y1;
+                }
+                return area > 0;
+            }
+
+            private void AddFigure(byte attribute, ICoordinateSequence sequence, bool single, bool reverse)
+            {
+                if (!single)
+                {
+                    int figure = _figuresStart + 5 * _figureIndex;
+                    _bytes[figure] = attribute;
+                    WriteInt32(figure + 1, _pointIndex);
+                }
+                _figureIndex++;
+
+                int last = sequence.Count - 1;
+                for (int j = 0; j <= last; j++, _pointIndex++)
+                {
+                    int i = reverse ? last - j : j;
+                    double x = sequence.GetOrdinate(i, Ordinate.X);
+                    double y = sequence.GetOrdinate(i, Ordinate.Y);
+
+                    // geography stores latitude first
+                    int point = _pointsStart + 16 * _pointIndex;
+                    WriteDouble(point, _isGeography ? y : x);
+                    WriteDouble(point + 8, _isGeography ? x : y);
+
+                    if (_hasZ)
+                        WriteDouble(_zStart + 8 * _pointIndex, sequence.GetOrdinate(i, Ordinate.Z));
+                    if (_hasM)
+                        WriteDouble(_mStart + 8 * _pointIndex, sequence.GetOrdinate(i, Ordinate.M));
+                }
+            }
+
+            private void WriteShape(int shape, int parent, int firstFigure, byte type)
+            {
+                int position = _shapesStart + 9 * shape;
+                WriteInt32(position, parent);
+                WriteInt32(position + 4, firstFigure);
+                _bytes[position + 8] = type;
+            }
+
+            private void WriteInt32(int position, int value)
+            {
+                _bytes[position] = (byte)value;
+                _bytes[position + 1] = (byte)(value >> 8);
+                _bytes[position + 2] = (byte)(value >> 16);
+                _bytes[position + 3] = (byte)(value >> 24);
+            }
+
+            private void WriteDouble(int position, double value)
+            {
+                long bits = BitConverter.DoubleToInt64Bits(value);
+                WriteInt32(position, (int)bits);
+                WriteInt32(position + 4, (int)(bits >> 32));
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+﻿using System;
+using GeoAPI.Geometries;
+using NetTopologySuite.Geometries;
+using NetTopologySuite.Geometries.Implementation;
+using NUnit.Framework;
+
+namespace NetTopologySuite.IO.Tests
+{
+    [TestFixture]
+    public class GaiaGeoCompressionFixture
+    {
+        // the geometry types of a compressed linestring and polygon
+        private const int CompressedLineString = 1000002;
+        private const int CompressedPolygon = 1000003;
+
+        private readonly IGeometryFactory _factory = new GeometryFactory(new PrecisionModel(), 4326);
+
+        private ILineString CreateLine(int count, double originX, double originY)
+        {
+            var coordinates = new Coordinate[count];
+            for (var i = 0; i < count; i++)
+                coordinates[i] = new Coordinate(originX + i * 0.37, originY + Math.Sin(i) * 3.1);
+            return _factory.CreateLineString(coordinates);
+        }
+
+        private static byte[] Write(IGeometry geometry, bool compressed)
+        {
+            var writer = new GaiaGeoWriter();
+            writer.UseCompressed = compressed;
+            return writer.Write(geometry);
+        }
+
+        private IGeometry Read(byte[] blob)
+        {
+            var reader = new GaiaGeoReader(_factory.CoordinateSequenceFactory, _factory.PrecisionModel);
+            return reader.Read(blob);
+        }
+
+        [Test]
+        public void CompressedLineIsSmaller()
+        {
+            var line = CreateLine(100, 0, 0);
+            var uncompressed = Write(line, false);
+            var compressed = Write(line, true);
+
+            Assert.AreEqual(uncompressed.Length - 98 * 8, compressed.Length);
+            Assert.AreEqual(CompressedLineString, BitConverter.ToInt32(compressed, 39));
+        }
+
+        [Test]
+        public void CompressedLineKeepsEndsExact()
+        {
+            var line = CreateLine(10, 1234567.891, 7654321.123);
+            var read = (ILineString)Read(Write(line, true));
+
+            Assert.AreEqual(line.NumPoints, read.NumPoints);
+            Assert.IsTrue(line.StartPoint.EqualsExact(read.StartPoint));
+            Assert.IsTrue(line.EndPoint.EqualsExact(read.EndPoint));
+            Assert.IsTrue(line.EqualsExact(read, 1e-3));
+        }
+
+        [Test]
+        public void CompressedLineDoesNotDrift()
+        {
+            // far from the origin, and long enough for the rounding of each difference to add up
+            var line = CreateLine(10000, 500000, 5000000);
+            var read = (ILineString)Read(Write(line, true));
+
+            for (var i = 0; i < line.NumPoints; i++)
+            {
+                Assert.AreEqual(line.GetCoordinateN(i).X, read.GetCoordinateN(i).X, 1e-6);
+                Assert.AreEqual(line.GetCoordinateN(i).Y, read.GetCoordinateN(i).Y, 1e-6);
+            }
+        }
+
+        [Test]
+        public void CompressedPolygonKeepsRingsClosed()
+        {
+            var polygon = (IPolygon)_factory.CreatePoint(new Coordinate(350000.5, 5600000.25)).Buffer(100, 32);
+            var compressed = Write(polygon, true);
+            var read = (IPolygon)Read(compressed);
+
+            Assert.AreEqual(CompressedPolygon, BitConverter.ToInt32(compressed, 39));
+            Assert.IsTrue(read.Shell.IsClosed);
+            Assert.IsTrue(polygon.EqualsExact(read, 1e-5));
+        }
+
+        [Test]
+        public void PointsAreNotCompressed()
+        {
+            var point = _factory.CreatePoint(new Coordinate(1.1, 2.2));
+            Assert.AreEqual(Write(point, false), Write(point, true));
+
+            var multiPoint = _factory.CreateMultiPoint(new[] { new Coordinate(1, 2), new Coordinate(3, 4) });
+            Assert.AreEqual(Write(multiPoint, false), Write(multiPoint, true));
+        }
+
+        [Test]
+        public void CompressedCollection()
+        {
+            var collection = _factory.CreateGeometryCollection(new IGeometry[]
+                {
+                    _factory.CreatePoint(new Coordinate(1, 2)),
+                    CreateLine(5, 10, 20),
+                    _factory.CreateMultiLineString(new[] { CreateLine(3, 0, 0), CreateLine(4, 5, 5) })
+                });
+            var read = Read(Write(collection, true));
+
+            Assert.IsTrue(collection.EqualsExact(read, 1e-6));
+        }
+
+        [Test]
+        public void CompressedLineWithMeasures()
+        {
+            var factory = new GeometryFactory(new PrecisionModel(), 4326, DotSpatialAffineCoordinateSequenceFactory.Instance);
+            var sequence = factory.CoordinateSequenceFactory.Create(5, Ordinates.XYM);
+            for (var i = 0; i < sequence.Count; i++)
+            {
+                sequence.SetOrdinate(i, Ordinate.X, i);
+                sequence.SetOrdinate(i, Ordinate.Y, 2 * i);
+                sequence.SetOrdinate(i, Ordinate.M, 10.5 * i);
+            }
+
+            var writer = new GaiaGeoWriter();
+            writer.UseCompressed = true;
+            writer.HandleOrdinates = Ordinates.XYM;
+            var blob = writer.Write(factory.CreateLineString(sequence));
+
+            var reader = new GaiaGeoReader(factory.CoordinateSequenceFactory, factory.PrecisionModel);
+            var read = ((ILineString)reader.Read(blob)).CoordinateSequence;
+
+            Assert.AreEqual(sequence.Count, read.Count);
+            for (var i = 0; i < sequence.Count; i++)
+                Assert.AreEqual(sequence.GetOrdinate(i, Ordinate.M), read.GetOrdinate(i, Ordinate.M), 1e-6);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+﻿using System.Collections.Generic;
+using System.IO;
+using System.Linq;
+using GeoAPI.Geometries;
+using NetTopologySuite.Features;
+using NetTopologySuite.Geometries;
+using NUnit.Framework;
+
+namespace NetTopologySuite.IO.Tests.GeoJSON
+{
+    ///<summary>
+    ///    This is a test class for GeoJsonFeatureReaderTest and is intended
+    ///    to contain all GeoJsonFeatureReaderTest Unit Tests
+    ///</summary>
+    [TestFixture]
+    public class GeoJsonFeatureReaderTest
+    {
+        ///<summary>
+        ///    A test for GeoJsonFeatureReader Read method
+        ///</summary>
+        [Test]
+        public void GeoJsonFeatureReaderReadFeatureCollectionTest()
+        {
+            const string json = "{\"type\":\"FeatureCollection\",\"crs\":{\"type\":\"name\",\"properties\":{\"name\":\"name1\"}},\"features\":[" +
+                                "{\"type\":\"Feature\",\"geometry\":{\"type\":\"Point\",\"coordinates\":[23.0,56.0]},\"properties\":{\"test1\":\"value1\"}}," +
+                                "{\"properties\":{\"test2\":2,\"nested\":{\"a\":true}},\"geometry\":{\"coordinates\":[[0,0,1],[10,0,2],[10,10,3]],\"type\":\"LineString\"},\"type\":\"Feature\"}," +
+                                "{\"type\":\"Feature\",\"geometry\":null,\"properties\":null}]}";
+
+            List<IFeature> features = new GeoJsonFeatureReader().Read(new StringReader(json)).ToList();
+            Assert.AreEqual(3, features.Count);
+
+            Point p = (Point)features[0].Geometry;
+            Assert.AreEqual(23, p.X);
+            Assert.AreEqual(56, p.Y);
+            Assert.AreEqual("value1", features[0].Attributes["test1"]);
+
+            ILineString line = (ILineString)features[1].Geometry;
+            Assert.AreEqual(3, line.NumPoints);
+            Assert.AreEqual(new Coordinate(10, 10, 3), line.GetCoordinateN(2));
+            Assert.AreEqual(3, line.GetCoordinateN(2).Z);
+            Assert.AreEqual(2L, features[1].Attributes["test2"]);
+            Assert.AreEqual(true, ((IAttributesTable)features[1].Attributes["nested"])["a"]);
+
+            Assert.IsNull(features[2].Geometry);
+            Assert.IsNull(features[2].Attributes);
+        }
+
+        ///<summary>
+        ///    A test for GeoJsonFeatureReader Read method with all geometry types
+        ///</summary>
+        [Test]
+        public void GeoJsonFeatureReaderReadGeometriesTest()
+        {
+            WKTReader wktReader = new WKTReader();
+            string[] wkts =
+                {
+                    "MULTIPOINT ((1 2), (3 4))",
+                    "POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (1 1, 2 1, 2 2, 1 1))",
+                    "MULTILINESTRING ((0 0, 1 1), (2 2, 3 3))",
+                    "MULTIPOLYGON (((0 0, 1 0, 1 1, 0 0)), ((5 5, 6 5, 6 6, 5 5)))",
+                    "GEOMETRYCOLLECTION (POINT (1 1), LINESTRING (0 0, 2 2))",
+                    "LINESTRING EMPTY"
+                };
+
+            GeoJsonWriter writer = new GeoJsonWriter();
+            FeatureCollection collection = new FeatureCollection();
+            foreach (string wkt in wkts)
+                collection.Add(new Feature(wktReader.Read(wkt), new AttributesTable()));
+            string json = writer.Write(collection);
+
+            List<IFeature> features = new GeoJsonFeatureReader().Read(new StringReader(json)).ToList();
+            Assert.AreEqual(wkts.Length, features.Count);
+            for (int i = 0; i < wkts.Length; i++)
+                Assert.IsTrue(collection[i].Geometry.EqualsExact(features[i].Geometry), wkts[i]);
+        }
+
+        ///<summary>
+        ///    A test for GeoJsonFeatureReader Read method, checking that features are read lazily
+        ///</summary>
+        [Test]
+        public void GeoJsonFeatureReaderReadIsIncrementalTest()
+        {
+            // the text is cut off after the first feature
+            const string json = "{\"type\":\"FeatureCollection\",\"features\":[" +
+                                "{\"type\":\"Feature\",\"geometry\":{\"type\":\"Point\",\"coordinates\":[1,2]},\"properties\":{}}," +
+                                "{\"type\":\"Feature\",\"geometry\":{\"type\":\"Point\",\"coord";
+
+            IFeature first = new GeoJsonFeatureReader().Read(new StringReader(json)).First();
+            Assert.AreEqual(new Coordinate(1, 2), first.Geometry.Coordinate);
+
+            Assert.Throws(Is.InstanceOf<System.Exception>(),
+                () => new GeoJsonFeatureReader().Read(new StringReader(json)).ToList());
+        }
+    }
+}
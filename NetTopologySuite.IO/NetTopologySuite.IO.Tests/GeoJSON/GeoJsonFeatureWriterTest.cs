@@ -0,0 +1,89 @@
+﻿using System;
+using System.Collections.Generic;
+using System.IO;
+using System.Linq;
+using GeoAPI.Geometries;
+using NetTopologySuite.Features;
+using NetTopologySuite.Geometries;
+using NUnit.Framework;
+
+namespace NetTopologySuite.IO.Tests.GeoJSON
+{
+    ///<summary>
+    ///    This is a test class for GeoJsonFeatureWriterTest and is intended
+    ///    to contain all GeoJsonFeatureWriterTest Unit Tests
+    ///</summary>
+    [TestFixture]
+    public class GeoJsonFeatureWriterTest
+    {
+        ///<summary>
+        ///    A test for GeoJsonFeatureWriter Write method
+        ///</summary>
+        [Test]
+        public void GeoJsonFeatureWriterWriteFeatureCollectionTest()
+        {
+            AttributesTable attributes = new AttributesTable();
+            attributes.AddAttribute("test1", "value1");
+            IFeature[] features =
+                {
+                    new Feature(new Point(23, 56), attributes),
+                    new Feature(new WKTReader().Read("LINESTRING (0.1 -2.5, 1E-05 1234567.125 3)"), null),
+                    new Feature(null, new AttributesTable())
+                };
+
+            StringWriter sw = new StringWriter();
+            new GeoJsonFeatureWriter().Write(sw, features);
+            Assert.AreEqual("{\"type\":\"FeatureCollection\",\"features\":[" +
+                            "{\"type\":\"Feature\",\"geometry\":{\"type\":\"Point\",\"coordinates\":[23,56]},\"properties\":{\"test1\":\"value1\"}}," +
+                            "{\"type\":\"Feature\",\"geometry\":{\"type\":\"LineString\",\"coordinates\":[[0.1,-2.5],[0.00001,1234567.125,3]]},\"properties\":null}," +
+                            "{\"type\":\"Feature\",\"geometry\":null,\"properties\":{}}]}", sw.ToString());
+        }
+
+        ///<summary>
+        ///    A test for GeoJsonFeatureWriter CoordinatePrecision property
+        ///</summary>
+        [Test]
+        public void GeoJsonFeatureWriterCoordinatePrecisionTest()
+        {
+            GeoJsonFeatureWriter writer = new GeoJsonFeatureWriter { CoordinatePrecision = 2 };
+            StringWriter sw = new StringWriter();
+            writer.Write(sw, new Feature(new Point(12.34567, -0.004), null));
+            Assert.AreEqual("{\"type\":\"Feature\",\"geometry\":{\"type\":\"Point\",\"coordinates\":[12.35,0]},\"properties\":null}", sw.ToString());
+
+            Assert.Throws<ArgumentOutOfRangeException>(() => writer.CoordinatePrecision = 16);
+        }
+
+        ///<summary>
+        ///    A test for GeoJsonFeatureWriter Write method, reading the output back
+        ///</summary>
+        [Test]
+        public void GeoJsonFeatureWriterRoundTripTest()
+        {
+            Random random = new Random(17);
+            List<IFeature> features = new List<IFeature>();
+            for (int i = 0; i < 100; i++)
+            {
+                Coordinate[] coordinates = new Coordinate[10];
+                for (int j = 0; j < coordinates.Length; j++)
+                    coordinates[j] = new Coordinate((random.NextDouble() - 0.5) * 360, Math.Round((random.NextDouble() - 0.5) * 180, j), random.NextDouble() * Math.Pow(10, j - 5));
+                features.Add(new Feature(GeometryFactory.Default.CreateLineString(coordinates), null));
+            }
+            features.Add(new Feature(new WKTReader().Read("GEOMETRYCOLLECTION (MULTIPOINT ((1 2), (3 4)), POLYGON ((0 0, 10 0, 10 10, 0 0), (1 1, 2 1, 2 2, 1 1)), MULTIPOLYGON (((0 0, 1 0, 1 1, 0 0))), MULTILINESTRING ((0 0, 1 1), (2 2, 3 3)))"), null));
+
+            MemoryStream stream = new MemoryStream();
+            new GeoJsonFeatureWriter().Write(stream, features);
+            stream.Position = 0;
+
+            List<IFeature> read = new GeoJsonFeatureReader().Read(new StreamReader(stream)).ToList();
+            Assert.AreEqual(features.Count, read.Count);
+            for (int i = 0; i < features.Count; i++)
+            {
+                Assert.IsTrue(features[i].Geometry.EqualsExact(read[i].Geometry));
+                Coordinate[] expected = features[i].Geometry.Coordinates;
+                Coordinate[] actual = read[i].Geometry.Coordinates;
+                for (int j = 0; j < expected.Length; j++)
+                    Assert.IsTrue(expected[j].Z.Equals(actual[j].Z));
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+﻿using System;
+using System.Collections.Generic;
+using System.IO;
+using GeoAPI.Geometries;
+using NetTopologySuite.Features;
+using NetTopologySuite.Geometries;
+using NUnit.Framework;
+
+namespace NetTopologySuite.IO.Tests
+{
+    [TestFixture]
+    public class PostGisCopyFixture
+    {
+        private static readonly PostGisCopyColumn[] Columns =
+        {
+            new PostGisCopyColumn("geom", PostGisCopyType.Geometry),
+            new PostGisCopyColumn("name", PostGisCopyType.Text),
+            new PostGisCopyColumn("lanes", PostGisCopyType.SmallInt),
+            new PostGisCopyColumn("id", PostGisCopyType.BigInt),
+            new PostGisCopyColumn("length", PostGisCopyType.DoublePrecision),
+            new PostGisCopyColumn("paved", PostGisCopyType.Boolean),
+            new PostGisCopyColumn("opened", PostGisCopyType.Date),
+            new PostGisCopyColumn("modified", PostGisCopyType.Timestamp)
+        };
+
+        [Test]
+        public void WriteAndReadFile()
+        {
+            var factory = new GeometryFactory(new PrecisionModel(), 4326);
+            var wktReader = new WKTReader(factory);
+
+            var features = new List<IFeature>();
+            var attributes = new AttributesTable();
+            attributes.AddAttribute("name", "Rue de l'\u00C9glise");
+            attributes.AddAttribute("lanes", 2);
+            attributes.AddAttribute("id", 10000000000L);
+            attributes.AddAttribute("length", 1.5);
+            attributes.AddAttribute("paved", true);
+            attributes.AddAttribute("opened", new DateTime(1998, 5, 17));
+            attributes.AddAttribute("modified", new DateTime(2013, 2, 3, 4, 5, 6, 789));
+            features.Add(new Feature(wktReader.Read("LINESTRING (1 2, 3 4, 5 6)"), attributes));
+
+            // missing attributes and geometry are written as NULL
+            attributes = new AttributesTable();
+            attributes.AddAttribute("name", "unnamed");
+            features.Add(new Feature(null, attributes));
+            features.Add(new Feature(wktReader.Read("POINT (7 8)"), null));
+
+            string path = Path.GetTempFileName();
+            try
+            {
+                using (var stream = File.Create(path))
+                    Assert.AreEqual(3, new PostGisCopyWriter(Columns).Write(stream, features));
+
+                byte[] bytes = File.ReadAllBytes(path);
+                Assert.AreEqual("PGCOPY\n\xFF\r\n\0", new string(Array.ConvertAll(bytes, b => (char)b), 0, 11));
+                Assert.AreEqual(0xFF, bytes[bytes.Length - 1]);
+                Assert.AreEqual(0xFF, bytes[bytes.Length - 2]);
+
+                var read = new List<IFeature>();
+                using (var stream = File.OpenRead(path))
+                    read.AddRange(new PostGisCopyReader(Columns, new PostGisReader(factory)).Read(stream));
+
+                Assert.AreEqual(3, read.Count);
+                IFeature first = read[0];
+                Assert.IsTrue(features[0].Geometry.EqualsExact(first.Geometry));
+                Assert.AreEqual(4326, first.Geometry.SRID);
+                Assert.AreEqual("Rue de l'\u00C9glise", first.Attributes["name"]);
+                Assert.AreEqual((short)2, first.Attributes["lanes"]);
+                Assert.AreEqual(10000000000L, first.Attributes["id"]);
+                Assert.AreEqual(1.5, first.Attributes["length"]);
+                Assert.AreEqual(true, first.Attributes["paved"]);
+                Assert.AreEqual(new DateTime(1998, 5, 17), first.Attributes["opened"]);
+                Assert.AreEqual(new DateTime(2013, 2, 3, 4, 5, 6, 789), first.Attributes["modified"]);
+
+                Assert.IsNull(read[1].Geometry);
+                Assert.AreEqual("unnamed", read[1].Attributes["name"]);
+                Assert.IsNull(read[1].Attributes["lanes"]);
+
+                Assert.AreEqual("POINT (7 8)", read[2].Geometry.AsText());
+                Assert.IsNull(read[2].Attributes["name"]);
+            }
+            finally
+            {
+                File.Delete(path);
+            }
+        }
+    }
+}
@@ -246,6 +246,75 @@ namespace NetTopologySuite.IO.Tests.ShapeFile.Extended
             }
         }
 
+        [Test]
+        public void GetProjectedReader_ReadTypedValues_ShouldReturnCorrectValues()
+        {
+            // Arrange
+            m_TmpFile = new TempFileWriter("data.dbf", DbfFiles.Read("point_ed50_geo"));
+            m_Reader = new DbaseReader(m_TmpFile.Path);
+
+            // Act.
+            using (DbaseProjectedReader projected = m_Reader.GetProjectedReader("DT", "decNum", "str"))
+            {
+                // Assert.
+                Assert.AreEqual(3, projected.FieldCount);
+                Assert.AreEqual(1, projected.GetOrdinal("DECNUM"));
+                Assert.AreEqual(-1, projected.GetOrdinal("id"));
+
+                int expected = 3;
+                while (projected.Read())
+                {
+                    Assert.AreEqual(3 - expected, projected.RecordIndex);
+                    Assert.IsFalse(projected.IsDeleted);
+                    Assert.AreEqual(DATE_SAVED_IN_DBF, projected.GetDateTime(0));
+                    Assert.AreEqual((double)expected, projected.GetDouble(1));
+                    Assert.AreEqual(expected, projected.GetInt32(1));
+                    Assert.AreEqual("str" + expected, projected.GetString(2));
+                    expected--;
+                }
+
+                Assert.AreEqual(0, expected);
+            }
+        }
+
+        [Test]
+        public void GetProjectedReader_ReadAllColumns_ShouldMatchReadEntry()
+        {
+            // Arrange
+            m_TmpFile = new TempFileWriter("data.dbf", DbfFiles.Read("Strade"));
+            m_Reader = new DbaseReader(m_TmpFile.Path);
+
+            // Act.
+            using (DbaseProjectedReader projected = m_Reader.GetProjectedReader())
+            {
+                // Assert.
+                for (int record = m_Reader.NumOfRecords - 1; record >= 0; record -= 7)
+                {
+                    Assert.IsTrue(projected.MoveTo(record));
+                    IAttributesTable expected = m_Reader.ReadEntry(record);
+
+                    for (int i = 0; i < projected.FieldCount; i++)
+                    {
+                        Assert.AreEqual(expected[projected.GetField(i).Name], projected.GetValue(i), "Column " + projected.GetField(i).Name + " of record " + record);
+                    }
+                }
+
+                Assert.IsFalse(projected.MoveTo(m_Reader.NumOfRecords));
+            }
+        }
+
+        [Test]
+        [ExpectedException(typeof(ArgumentException))]
+        public void GetProjectedReader_SendUnknownColumn_ShouldThrowException()
+        {
+            // Arrange
+            m_TmpFile = new TempFileWriter("data.dbf", DbfFiles.Read("point_ed50_geo"));
+            m_Reader = new DbaseReader(m_TmpFile.Path);
+
+            // Act.
+            m_Reader.GetProjectedReader("noSuchColumn");
+        }
+
         [TearDown]
         public void TestCleanup()
         {
@@ -0,0 +1,315 @@
+﻿using System;
+using System.Collections.Generic;
+using System.IO;
+using System.Linq;
+using GeoAPI.Geometries;
+using NetTopologySuite.Geometries;
+using NetTopologySuite.Index.Strtree;
+using NetTopologySuite.IO.Handlers;
+using NetTopologySuite.IO.ShapeFile.Extended;
+using NetTopologySuite.IO.ShapeFile.Extended.Entities;
+using NUnit.Framework;
+
+namespace NetTopologySuite.IO.Tests.ShapeFile.Extended
+{
+    [TestFixture]
+    public class QixIndexTests
+    {
+        private TempFileWriter[] m_TempFiles;
+        private ShapeDataReader m_ShapeDataReader;
+
+        [Test]
+        [ExpectedException(typeof(ShapefileException))]
+        public void Read_SendFileWithoutSignature_ShouldThrowException()
+        {
+            // Act.
+            QixIndex.Read(new MemoryStream(new byte[64]));
+        }
+
+        [Test]
+        public void Create_ReadBack_ShouldReturnSameIndex()
+        {
+            // Arrange.
+            CreateTempShapefile("Strade");
+
+            // Act.
+            QixIndex created = QixIndex.Create(m_TempFiles[0].Path);
+            QixIndex read = QixIndex.Read(QixIndex.GetIndexFilename(m_TempFiles[0].Path));
+
+            // Assert.
+            Assert.AreEqual(703, created.NumShapes);
+            Assert.AreEqual(created.NumShapes, read.NumShapes);
+            Assert.AreEqual(created.MaxDepth, read.MaxDepth);
+            HelperMethods.AssertEnvelopesEqual(created.Bounds, read.Bounds);
+            CollectionAssert.AreEqual(created.Query(created.Bounds), read.Query(read.Bounds));
+            CollectionAssert.AreEqual(Enumerable.Range(0, created.NumShapes).ToArray(), read.Query(read.Bounds));
+        }
+
+        [Test]
+        public void Query_ShouldReturnAllShapesIntersectingEnvelope()
+        {
+            // Arrange.
+            CreateTempShapefile("Strade");
+            QixIndex index = QixIndex.Create(m_TempFiles[0].Path);
+
+            MBRInfo[] shapes;
+            using (var reader = new IO.ShapeFile.Extended.ShapeReader(m_TempFiles[0].Path))
+            {
+                shapes = reader.ReadMBRs().ToArray();
+            }
+
+            // Act & Assert.
+            foreach (Envelope searchEnv in GetSearchEnvelopes(index.Bounds))
+            {
+                int[] candidates = index.Query(searchEnv);
+                IEnumerable<int> expected = shapes.Where(shape => shape.ShapeMBR.Intersects(searchEnv))
+                                                  .Select(shape => shape.ShapeFileDetails.ShapeIndex);
+
+                CollectionAssert.IsSubsetOf(expected, candidates);
+                CollectionAssert.IsOrdered(candidates);
+            }
+
+            Envelope corner = GetSearchEnvelopes(index.Bounds).First();
+            Assert.Less(index.Query(corner).Length, shapes.Length / 2, "Index does not narrow down the candidates");
+        }
+
+        [Test]
+        public void ReadRecordOffsets_WithoutShx_ShouldScanShapefile()
+        {
+            // Arrange.
+            CreateTempShapefile("Strade");
+            long[] fromShx = Shapefile.ReadRecordOffsets(m_TempFiles[0].Path);
+            m_TempFiles[2].Dispose();
+
+            // Act.
+            long[] fromShp = Shapefile.ReadRecordOffsets(m_TempFiles[0].Path);
+
+            // Assert.
+            Assert.AreEqual(703, fromShx.Length);
+            CollectionAssert.AreEqual(fromShx, fromShp);
+        }
+
+        [Test]
+        public void ReadByMBRFilter_WithQixFile_ShouldReturnSameFeaturesAsWithout()
+        {
+            // Arrange.
+            CreateTempShapefile("Strade");
+
+            List<int[]> expected = new List<int[]>();
+            using (var reader = new ShapeDataReader(m_TempFiles[0].Path, new STRtree<ShapeLocationInFileInfo>(), new GeometryFactory(), false))
+            {
+                foreach (Envelope searchEnv in GetSearchEnvelopes(reader.ShapefileBounds))
+                {
+                    expected.Add(reader.ReadByMBRFilter(searchEnv).Select(feature => (int)feature.FeatureId).OrderBy(id => id).ToArray());
+                }
+            }
+
+            QixIndex.Create(m_TempFiles[0].Path);
+
+            // Act.
+            var index = new STRtree<ShapeLocationInFileInfo>();
+            m_ShapeDataReader = new ShapeDataReader(m_TempFiles[0].Path, index, new GeometryFactory(), false, false, true);
+
+            // Assert.
+            Assert.AreEqual(0, index.Count, "The shapefile should not have been scanned");
+
+            int i = 0;
+            foreach (Envelope searchEnv in GetSearchEnvelopes(m_ShapeDataReader.ShapefileBounds))
+            {
+                IShapefileFeature[] features = m_ShapeDataReader.ReadByMBRFilter(searchEnv).ToArray();
+                CollectionAssert.AreEqual(expected[i++], features.Select(feature => (int)feature.FeatureId).OrderBy(id => id).ToArray());
+                foreach (IShapefileFeature feature in features)
+                {
+                    Assert.IsTrue(feature.Geometry.EnvelopeInternal.Intersects(searchEnv));
+                }
+            }
+        }
+
+        [Test]
+        public void ShapeDataReader_WithQixFileNotOptedIn_ShouldFillGivenIndex()
+        {
+            // Arrange.
+            CreateTempShapefile("Strade");
+            QixIndex.Create(m_TempFiles[0].Path);
+
+            // Act.
+            var index = new STRtree<ShapeLocationInFileInfo>();
+            m_ShapeDataReader = new ShapeDataReader(m_TempFiles[0].Path, index, new GeometryFactory(), false);
+
+            // Assert.
+            Assert.Greater(index.Count, 0);
+        }
+
+        [Test]
+        public void ShapeDataReader_WithStaleQixFile_ShouldFillGivenIndex()
+        {
+            // Arrange.
+            CreateTempShapefile("Strade");
+            MakeQixFileStale();
+
+            // Act.
+            var index = new STRtree<ShapeLocationInFileInfo>();
+            m_ShapeDataReader = new ShapeDataReader(m_TempFiles[0].Path, index, new GeometryFactory(), false, false, true);
+
+            // Assert.
+            Assert.Greater(index.Count, 0);
+            Assert.Greater(m_ShapeDataReader.ReadByMBRFilter(m_ShapeDataReader.ShapefileBounds).Count(), 0);
+        }
+
+        [Test]
+        public void ReadIfCurrent_WithStaleQixFile_ShouldReturnNull()
+        {
+            // Arrange.
+            CreateTempShapefile("Strade");
+            QixIndex.Create(m_TempFiles[0].Path);
+
+            // Act & Assert.
+            Assert.IsNotNull(QixIndex.ReadIfCurrent(m_TempFiles[0].Path, 703));
+            Assert.IsNull(QixIndex.ReadIfCurrent(m_TempFiles[0].Path, 702), "Index built for another number of records");
+
+            MakeQixFileStale();
+            Assert.IsNull(QixIndex.ReadIfCurrent(m_TempFiles[0].Path, 703), "Index older than the shapefile");
+        }
+
+        [Test]
+        public void ShapefileDataReader_SpatialFilterWithStaleQixFile_ShouldReturnSameRecordsAsWithout()
+        {
+            // Arrange.
+            CreateTempShapefile("Strade");
+            Envelope searchEnv = GetSearchEnvelopes(new ShapefileReader(m_TempFiles[0].Path).Header.Bounds).Last();
+
+            List<string> expected = ReadFiltered(searchEnv);
+
+            // an index of another shapefile would return the wrong records
+            using (var stream = File.Create(QixIndex.GetIndexFilename(m_TempFiles[0].Path)))
+            {
+                QixIndex.Build(new MBRInfo[0], searchEnv, 10, 0).Write(stream);
+            }
+            File.SetLastWriteTimeUtc(QixIndex.GetIndexFilename(m_TempFiles[0].Path), DateTime.UtcNow.AddHours(1));
+
+            // Act.
+            List<string> actual = ReadFiltered(searchEnv);
+
+            // Assert.
+            CollectionAssert.AreEqual(expected, actual);
+        }
+
+        [Test]
+        public void ShapefileDataReader_SpatialFilterWithQixFile_ShouldReturnSameRecordsAsWithout()
+        {
+            // Arrange.
+            CreateTempShapefile("Strade");
+            Envelope searchEnv = GetSearchEnvelopes(new ShapefileReader(m_TempFiles[0].Path).Header.Bounds).Last();
+
+            List<string> expected = ReadFiltered(searchEnv);
+            QixIndex.Create(m_TempFiles[0].Path);
+
+            // Act.
+            List<string> actual = ReadFiltered(searchEnv);
+
+            // Assert.
+            Assert.Greater(expected.Count, 0);
+            CollectionAssert.AreEqual(expected, actual);
+        }
+
+        [Test]
+        public void ShapefileDataReader_SpatialFilterWithQixFileAndDeletedRecord_ShouldSkipDeletedRecord()
+        {
+            // Arrange.
+            CreateTempShapefile("Strade");
+            Envelope searchEnv = GetSearchEnvelopes(new ShapefileReader(m_TempFiles[0].Path).Header.Bounds).Last();
+
+            List<string> expected = ReadFiltered(searchEnv);
+
+            int deletedRecord;
+            using (var reader = new IO.ShapeFile.Extended.ShapeReader(m_TempFiles[0].Path))
+            {
+                deletedRecord = reader.ReadMBRs().First(mbr => mbr.ShapeMBR.Intersects(searchEnv)).ShapeFileDetails.ShapeIndex;
+            }
+
+            // the deleted flag is the first byte of the record
+            byte[] dbf = File.ReadAllBytes(m_TempFiles[1].Path);
+            int headerLength = BitConverter.ToInt16(dbf, 8);
+            int recordLength = BitConverter.ToInt16(dbf, 10);
+            dbf[headerLength + deletedRecord * recordLength] = (byte)'*';
+            File.WriteAllBytes(m_TempFiles[1].Path, dbf);
+
+            QixIndex.Create(m_TempFiles[0].Path);
+
+            // Act.
+            List<string> actual = ReadFiltered(searchEnv);
+
+            // Assert.
+            CollectionAssert.AreEqual(expected.Skip(1).ToList(), actual);
+        }
+
+        private List<string> ReadFiltered(Envelope searchEnv)
+        {
+            List<string> records = new List<string>();
+            using (var reader = new ShapefileDataReader(m_TempFiles[0].Path, new GeometryFactory()))
+            {
+                reader.SpatialFilter = searchEnv;
+                while (reader.Read())
+                {
+                    Assert.IsTrue(reader.Geometry.EnvelopeInternal.Intersects(searchEnv));
+
+                    object[] values = new object[reader.FieldCount];
+                    reader.GetValues(values);
+                    records.Add(reader.Geometry.AsText() + "|" + string.Join("|", values.Skip(1)));
+                }
+            }
+            return records;
+        }
+
+        private void MakeQixFileStale()
+        {
+            // the shapefile is changed after the index was written
+            QixIndex.Create(m_TempFiles[0].Path);
+            File.SetLastWriteTimeUtc(QixIndex.GetIndexFilename(m_TempFiles[0].Path), DateTime.UtcNow.AddHours(-1));
+        }
+
+        private static IEnumerable<Envelope> GetSearchEnvelopes(Envelope bounds)
+        {
+            double width = bounds.Width;
+            double height = bounds.Height;
+            yield return new Envelope(bounds.MinX, bounds.MinX + width / 10, bounds.MinY, bounds.MinY + height / 10);
+            yield return new Envelope(bounds.Centre.X - width / 20, bounds.Centre.X + width / 20, bounds.Centre.Y - height / 20, bounds.Centre.Y + height / 20);
+            yield return new Envelope(bounds.MinX + width / 3, bounds.MaxX, bounds.MinY + height / 2, bounds.MinY + height / 2);
+            yield return new Envelope(bounds.MinX + width / 4, bounds.MinX + width / 2, bounds.MinY + height / 4, bounds.MaxY);
+        }
+
+        private void CreateTempShapefile(string sampleName)
+        {
+            string folder = Path.Combine(AppDomain.CurrentDomain.BaseDirectory, String.Format("..{0}..{0}..{0}NetTopologySuite.Samples.Shapefiles", Path.DirectorySeparatorChar));
+
+            m_TempFiles = new TempFileWriter[]
+            {
+                new TempFileWriter("qixtest.shp", ShpFiles.Read(sampleName)),
+                new TempFileWriter("qixtest.dbf", DbfFiles.Read(sampleName)),
+                new TempFileWriter("qixtest.shx", File.ReadAllBytes(Path.Combine(folder, sampleName + ".shx"))),
+            };
+        }
+
+        [TearDown]
+        public void TestCleanup()
+        {
+            if (m_ShapeDataReader != null)
+            {
+                m_ShapeDataReader.Dispose();
+                m_ShapeDataReader = null;
+            }
+
+            if (m_TempFiles != null)
+            {
+                File.Delete(QixIndex.GetIndexFilename(m_TempFiles[0].Path));
+
+                foreach (TempFileWriter tempFile in m_TempFiles)
+                {
+                    tempFile.Dispose();
+                }
+
+                m_TempFiles = null;
+            }
+        }
+    }
+}
@@ -1200,6 +1200,65 @@ namespace NetTopologySuite.IO.Tests.ShapeFile.Extended
             m_Reader.ReadShapeAtIndex(0, factory);
         }
 
+        [Test]
+        [ExpectedException(typeof(IndexOutOfRangeException))]
+        public void ReadShapeAtOffset_MemoryMappedSendOffsetAtEndOfFile_shouldThrowException()
+        {
+            // Arrange.
+            IGeometryFactory factory = new GeometryFactory();
+            m_TmpFile = new TempFileWriter("polygon_intersecting_line.shp", ShpFiles.Read("polygon intersecting line"));
+            m_Reader = new IO.ShapeFile.Extended.ShapeReader(m_TmpFile.Path, true);
+
+            // Act.
+            m_Reader.ReadShapeAtOffset(ShpFiles.Read("polygon intersecting line").Length, factory);
+        }
+
+        [Test]
+        public void ReadAllShapes_MemoryMapped_ShouldReturnSameShapesAsStream()
+        {
+            // Arrange.
+            IGeometryFactory factory = new GeometryFactory();
+            m_TmpFile = new TempFileWriter("shape.shp", ShpFiles.Read("UnifiedChecksMaterialNullInMiddle"));
+            m_Reader = new IO.ShapeFile.Extended.ShapeReader(m_TmpFile.Path);
+
+            // Act.
+            IGeometry[] expected = m_Reader.ReadAllShapes(factory).ToArray();
+            IGeometry[] actual;
+            using (var mappedReader = new IO.ShapeFile.Extended.ShapeReader(m_TmpFile.Path, true))
+            {
+                Assert.IsTrue(mappedReader.IsMemoryMapped);
+                actual = mappedReader.ReadAllShapes(factory).ToArray();
+            }
+
+            // Assert.
+            Assert.AreEqual(expected.Length, actual.Length);
+            for (int i = 0; i < expected.Length; i++)
+            {
+                Assert.IsTrue(expected[i].EqualsExact(actual[i]));
+            }
+        }
+
+        [Test]
+        public void ReadShapeAtIndex_MemoryMappedFromManyThreads_ShouldReturnCorrectShapes()
+        {
+            // Arrange.
+            IGeometryFactory factory = new GeometryFactory();
+            m_TmpFile = new TempFileWriter("shape.shp", ShpFiles.Read("line_wgs84_geo"));
+            m_Reader = new IO.ShapeFile.Extended.ShapeReader(m_TmpFile.Path, true);
+            IGeometry[] expected = { m_Reader.ReadShapeAtIndex(0, factory), m_Reader.ReadShapeAtIndex(1, factory) };
+
+            // Act.
+            bool[] results = new bool[2000];
+            System.Threading.Tasks.Parallel.For(0, results.Length, i =>
+                {
+                    IGeometry geo = m_Reader.ReadShapeAtIndex(i % 2, factory);
+                    results[i] = geo.EqualsExact(expected[i % 2]);
+                });
+
+            // Assert.
+            Assert.IsTrue(results.All(r => r));
+        }
+
         [TearDown]
         public void TestCleanup()
         {
@@ -0,0 +1,139 @@
+﻿using GeoAPI.Geometries;
+using NetTopologySuite.Geometries;
+using NUnit.Framework;
+
+namespace NetTopologySuite.IO.Tests
+{
+    [TestFixture]
+    public class SqlServerBytesFixture
+    {
+        // captured from SQL Server
+        private const string PointGeometry = "E6100000010C000000000000F03F0000000000000040";
+        private const string PointGeography = "E6100000010C0000000000000040000000000000F03F";
+        private const string LineSegment = "000000000114" +
+            "0000000000000000" + "0000000000000000" + "000000000000F03F" + "000000000000F03F";
+        private const string Polygon = "000000000104" + "04000000" +
+            "0000000000000000" + "0000000000000000" + "0000000000000000" + "000000000000F03F" +
+            "000000000000F03F" + "000000000000F03F" + "0000000000000000" + "0000000000000000" +
+            "01000000" + "02" + "00000000" +
+            "01000000" + "FFFFFFFF" + "00000000" + "03";
+        // version 2, COMPOUNDCURVE ((0 0, 1 1), (1 1, 2 0))
+        private const string CompoundCurve = "000000000204" + "03000000" +
+            "0000000000000000" + "0000000000000000" + "000000000000F03F" + "000000000000F03F" +
+            "0000000000000040" + "0000000000000000" +
+            "01000000" + "03" + "00000000" +
+            "01000000" + "FFFFFFFF" + "00000000" + "09" +
+            "02000000" + "02" + "00";
+
+        private static readonly IGeometryFactory Factory = new GeometryFactory(new PrecisionModel(), 4326);
+
+        [Test]
+        public void ReadCapturedBytes()
+        {
+            var reader = new SqlServerBytesReader(NtsGeometryServices.Instance);
+
+            IGeometry point = reader.Read(WKBReader.HexToBytes(PointGeometry));
+            Assert.AreEqual("POINT (1 2)", point.AsText());
+            Assert.AreEqual(4326, point.SRID);
+            Assert.AreEqual("LINESTRING (0 0, 1 1)", reader.Read(WKBReader.HexToBytes(LineSegment)).AsText());
+            Assert.AreEqual("POLYGON ((0 0, 0 1, 1 1, 0 0))", reader.Read(WKBReader.HexToBytes(Polygon)).AsText());
+            Assert.AreEqual("LINESTRING (0 0, 1 1, 2 0)", reader.Read(WKBReader.HexToBytes(CompoundCurve)).AsText());
+
+            reader.IsGeography = true;
+            Assert.AreEqual("POINT (1 2)", reader.Read(WKBReader.HexToBytes(PointGeography)).AsText());
+        }
+
+        [Test]
+        public void WriteCapturedBytes()
+        {
+            var wktReader = new WKTReader(new GeometryFactory());
+            var writer = new SqlServerBytesWriter();
+
+            Assert.AreEqual(PointGeometry, WKBWriter.ToHex(writer.Write(new WKTReader(Factory).Read("POINT (1 2)"))));
+            Assert.AreEqual(LineSegment, WKBWriter.ToHex(writer.Write(wktReader.Read("LINESTRING (0 0, 1 1)"))));
+            Assert.AreEqual(Polygon, WKBWriter.ToHex(writer.Write(wktReader.Read("POLYGON ((0 0, 0 1, 1 1, 0 0))"))));
+
+            writer.IsGeography = true;
+            Assert.AreEqual(PointGeography, WKBWriter.ToHex(writer.Write(new WKTReader(Factory).Read("POINT (1 2)"))));
+        }
+
+        [TestCase("POINT EMPTY")]
+        [TestCase("LINESTRING (0 0, 1 1, 2 0)")]
+        [TestCase("POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (1 1, 1 2, 2 2, 2 1, 1 1))")]
+        [TestCase("MULTIPOINT ((1 1), (2 2))")]
+        [TestCase("MULTILINESTRING ((0 0, 1 1), (2 2, 3 3, 4 4))")]
+        [TestCase("MULTIPOLYGON (((0 0, 1 0, 1 1, 0 0)), ((5 5, 6 5, 6 6, 5 5)))")]
+        [TestCase("GEOMETRYCOLLECTION (POINT EMPTY, LINESTRING (0 0, 1 1), GEOMETRYCOLLECTION (POINT (3 4), POLYGON EMPTY), POLYGON ((0 0, 1 0, 1 1, 0 0)))")]
+        [TestCase("LINESTRING (0 0 1, 1 1 2, 2 0 3)")]
+        public void RoundTrip(string wkt)
+        {
+            IGeometry geometry = new WKTReader(Factory).Read(wkt);
+            foreach (bool isGeography in new[] { false, true })
+            {
+                var writer = new SqlServerBytesWriter { IsGeography = isGeography };
+                var reader = new SqlServerBytesReader(NtsGeometryServices.Instance) { IsGeography = isGeography };
+
+                IGeometry result = reader.Read(writer.Write(geometry));
+                Assert.AreEqual(geometry.GeometryType, result.GeometryType);
+                Assert.IsTrue(geometry.EqualsExact(result), result.AsText());
+                Assert.AreEqual(4326, result.SRID);
+                Assert.AreEqual(geometry.Coordinate == null ? double.NaN : geometry.Coordinate.Z,
+                    result.Coordinate == null ? double.NaN : result.Coordinate.Z);
+            }
+        }
+
+        [Test]
+        public void GeographyRingsAreOriented()
+        {
+            // a clockwise shell and a counter-clockwise hole, which NTS considers valid
+            IGeometry polygon = new WKTReader(Factory).Read(
+                "POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0), (1 1, 2 1, 2 2, 1 2, 1 1))");
+            Assert.IsTrue(polygon.IsValid);
+
+            var writer = new SqlServerBytesWriter { IsGeography = true };
+            byte[] bytes = writer.Write(polygon);
+            // the IsValid flag
+            Assert.AreEqual(0x04, bytes[5] & 0x04);
+
+            var reader = new SqlServerBytesReader(NtsGeometryServices.Instance) { IsGeography = true };
+            var result = (IPolygon)reader.Read(bytes);
+            Assert.IsTrue(result.Shell.IsCCW);
+            Assert.IsFalse(((ILinearRing)result.GetInteriorRingN(0)).IsCCW);
+            Assert.AreEqual(polygon.Area, result.Area);
+
+            // the geometry type keeps the rings as they are
+            writer.IsGeography = false;
+            reader.IsGeography = false;
+            Assert.IsTrue(polygon.EqualsExact(reader.Read(writer.Write(polygon))));
+        }
+
+        [Test]
+        public void ValidFlagIsSetFromValidityCheck()
+        {
+            var wktReader = new WKTReader(new GeometryFactory());
+            var writer = new SqlServerBytesWriter();
+
+            Assert.AreEqual(0x04, writer.Write(wktReader.Read("MULTIPOLYGON (((0 0, 0 1, 1 1, 0 0)), ((5 5, 5 6, 6 6, 5 5)))"))[5] & 0x04);
+            Assert.AreEqual(0x04, writer.Write(wktReader.Read("LINESTRING (0 0, 1 1, 2 0)"))[5] & 0x04);
+            // a self-intersecting shell
+            Assert.AreEqual(0, writer.Write(wktReader.Read("POLYGON ((0 0, 1 1, 1 0, 0 1, 0 0))"))[5] & 0x04);
+
+            // without the check, only points and segments are known to be valid
+            writer.CheckValidity = false;
+            Assert.AreEqual(0, writer.Write(wktReader.Read("POLYGON ((0 0, 0 1, 1 1, 0 0))"))[5] & 0x04);
+            Assert.AreEqual(0x04, writer.Write(wktReader.Read("LINESTRING (0 0, 1 1)"))[5] & 0x04);
+            Assert.AreEqual(0x04, writer.Write(wktReader.Read("POINT (1 2)"))[5] & 0x04);
+        }
+
+        [Test]
+        public void GeographyLargerThanHemisphereIsNotFlaggedValid()
+        {
+            var wktReader = new WKTReader(new GeometryFactory());
+            var writer = new SqlServerBytesWriter { IsGeography = true };
+
+            Assert.AreEqual(0x04, writer.Write(wktReader.Read("LINESTRING (-80 0, 0 10, 80 0)"))[5] & 0x04);
+            Assert.AreEqual(0, writer.Write(wktReader.Read("LINESTRING (-100 0, 0 10, 100 0)"))[5] & 0x04);
+            Assert.AreEqual(0, writer.Write(wktReader.Read("POLYGON ((0 0, 10 90, 20 0, 0 0))"))[5] & 0x04);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+﻿using System.Collections.Generic;
+using System.Linq;
+using GeoAPI.Geometries;
+using NetTopologySuite.Features;
+using NetTopologySuite.Geometries;
+using Newtonsoft.Json.Linq;
+using NUnit.Framework;
+
+namespace NetTopologySuite.IO.TopoJSON.Fixtures
+{
+    [TestFixture]
+    public class TopoJsonWriterFixture
+    {
+        private static readonly IGeometryFactory Factory = GeometryFactory.Fixed;
+
+        [Test]
+        public void write_shares_common_border()
+        {
+            IDictionary<string, FeatureCollection> data = new Dictionary<string, FeatureCollection>();
+            data.Add("squares", CreateData()["squares"]);
+            TopoJsonWriter writer = new TopoJsonWriter { Quantization = 0 };
+            string json = writer.Write(data);
+
+            JObject topology = JObject.Parse(json);
+            Assert.That((string)topology["type"], Is.EqualTo("Topology"));
+            Assert.That(topology["transform"], Is.Null);
+            // the border of the squares is written once
+            JArray arcs = (JArray)topology["arcs"];
+            Assert.That(arcs.Count, Is.EqualTo(3));
+
+            JArray geometries = (JArray)topology["objects"]["squares"]["geometries"];
+            int[] left = geometries[0]["arcs"][0].Values<int>().ToArray();
+            int[] right = geometries[1]["arcs"][0].Values<int>().ToArray();
+            Assert.That(left, Has.Some.EqualTo(0));
+            Assert.That(right, Has.Some.EqualTo(~0));
+        }
+
+        [Test]
+        public void write_and_read_back()
+        {
+            IDictionary<string, FeatureCollection> data = CreateData();
+            TopoJsonWriter writer = new TopoJsonWriter { Quantization = 0 };
+            ValidateRoundTrip(data, writer.Write(data));
+        }
+
+        [Test]
+        public void write_quantized_and_read_back()
+        {
+            IDictionary<string, FeatureCollection> data = CreateData();
+            // a grid of 3 x 3 values has a step of 1 over the extent of the squares
+            TopoJsonWriter writer = new TopoJsonWriter { Quantization = 3 };
+            string json = writer.Write(data);
+
+            JObject topology = JObject.Parse(json);
+            Assert.That(topology["transform"]["scale"].Values<double>(), Is.EqualTo(new[] { 1d, 1d }));
+            Assert.That(topology["transform"]["translate"].Values<double>(), Is.EqualTo(new[] { 100d, 0d }));
+            foreach (JToken arc in topology["arcs"])
+            {
+                // all positions after the first are deltas to the previous one
+                foreach (JToken position in arc.Skip(1))
+                {
+                    Assert.That(position.Values<int>().Min(), Is.GreaterThanOrEqualTo(-2));
+                    Assert.That(position.Values<int>().Max(), Is.LessThanOrEqualTo(2));
+                }
+            }
+            ValidateRoundTrip(data, json);
+        }
+
+        private static IDictionary<string, FeatureCollection> CreateData()
+        {
+            WKTReader reader = new WKTReader(Factory);
+            FeatureCollection squares = new FeatureCollection();
+            AttributesTable attributes = new AttributesTable();
+            attributes.AddAttribute("name", "left");
+            squares.Add(new Feature(reader.Read("POLYGON ((100 0, 100 1, 101 1, 101 0, 100 0))"), attributes));
+            attributes = new AttributesTable();
+            attributes.AddAttribute("name", "right");
+            squares.Add(new Feature(reader.Read("POLYGON ((101 0, 101 1, 102 1, 102 0, 101 0))"), attributes));
+
+            FeatureCollection others = new FeatureCollection();
+            others.Add(new Feature(reader.Read("POINT (102 0)"), new AttributesTable()));
+            others.Add(new Feature(reader.Read("LINESTRING (100 0, 101 1, 102 2)"), new AttributesTable()));
+
+            IDictionary<string, FeatureCollection> data = new Dictionary<string, FeatureCollection>();
+            data.Add("squares", squares);
+            data.Add("others", others);
+            return data;
+        }
+
+        private static void ValidateRoundTrip(IDictionary<string, FeatureCollection> expected, string json)
+        {
+            TopoJsonReader reader = new TopoJsonReader(Factory);
+            IDictionary<string, FeatureCollection> actual = reader.
+                Read<IDictionary<string, FeatureCollection>>(json);
+
+            Assert.That(actual.Keys, Is.EquivalentTo(expected.Keys));
+            foreach (string key in expected.Keys)
+            {
+                FeatureCollection fc = actual[key];
+                Assert.That(fc.Count, Is.EqualTo(expected[key].Count));
+                for (int i = 0; i < fc.Count; i++)
+                {
+                    IGeometry geometry = expected[key][i].Geometry;
+                    Assert.That(fc[i].Geometry.GeometryType, Is.EqualTo(geometry.GeometryType));
+                    Assert.That(fc[i].Geometry.EqualsTopologically(geometry), Is.True, fc[i].Geometry.AsText());
+                    Assert.That(fc[i].Attributes.Count, Is.EqualTo(expected[key][i].Attributes.Count));
+                }
+            }
+            Assert.That(actual["squares"][0].Attributes["name"], Is.EqualTo("left"));
+            Assert.That(actual["squares"][1].Attributes["name"], Is.EqualTo("right"));
+        }
+    }
+}
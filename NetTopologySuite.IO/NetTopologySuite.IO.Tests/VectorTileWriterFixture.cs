@@ -0,0 +1,333 @@
+﻿using System.Collections.Generic;
+using System.Text;
+using GeoAPI.Geometries;
+using NetTopologySuite.Features;
+using NetTopologySuite.Geometries;
+using NUnit.Framework;
+
+namespace NetTopologySuite.IO.Tests
+{
+    [TestFixture]
+    public class VectorTileWriterFixture
+    {
+        // a tile whose grid units are the units of the geometries, with y pointing up
+        private static readonly Envelope Tile = new Envelope(0, 4096, 0, 4096);
+
+        private readonly WKTReader _reader = new WKTReader(new GeometryFactory());
+
+        private byte[] Write(VectorTileWriter writer, params IFeature[] features)
+        {
+            var layers = new Dictionary<string, IEnumerable<IFeature>>();
+            layers.Add("layer", features);
+            return writer.Write(Tile, layers);
+        }
+
+        private IFeature CreateFeature(string wkt)
+        {
+            return new Feature(_reader.Read(wkt), new AttributesTable());
+        }
+
+        [Test]
+        public void PointIsEncodedWithCommands()
+        {
+            DecodedLayer layer = DecodeSingleLayer(Write(new VectorTileWriter(), CreateFeature("POINT (25 4079)")));
+
+            Assert.AreEqual("layer", layer.Name);
+            Assert.AreEqual(4096, layer.Extent);
+            Assert.AreEqual(1, layer.Features.Count);
+            Assert.AreEqual(1, layer.Features[0].Type);
+            CollectionAssert.AreEqual(new uint[] { 9, 50, 34 }, layer.Features[0].Geometry);
+        }
+
+        [Test]
+        public void LineIsClippedToBuffer()
+        {
+            DecodedLayer layer = DecodeSingleLayer(Write(new VectorTileWriter(), CreateFeature("LINESTRING (-1000 2048, 5000 2048)")));
+
+            Assert.AreEqual(2, layer.Features[0].Type);
+            // from (-64, 2048) to (4160, 2048)
+            CollectionAssert.AreEqual(new uint[] { 9, 127, 4096, 10, 8448, 0 }, layer.Features[0].Geometry);
+        }
+
+        [Test]
+        public void LineLeavingAndEnteringIsSplit()
+        {
+            var writer = new VectorTileWriter();
+            writer.Buffer = 0;
+            DecodedLayer layer = DecodeSingleLayer(Write(writer, CreateFeature("LINESTRING (100 100, 100 5000, 200 5000, 200 100)")));
+
+            CollectionAssert.AreEqual(new uint[] { 9, 200, 7992, 10, 0, 7991, 9, 200, 0, 10, 0, 7992 }, layer.Features[0].Geometry);
+        }
+
+        [Test]
+        public void RingsAreOrientedAndClosed()
+        {
+            var expected = new uint[] { 9, 20, 8172, 26, 0, 19, 20, 0, 0, 20, 15 };
+            foreach (string wkt in new[]
+                {
+                    "POLYGON ((10 10, 10 20, 20 20, 20 10, 10 10))",
+                    "POLYGON ((10 10, 20 10, 20 20, 10 20, 10 10))"
+                })
+            {
+                DecodedLayer layer = DecodeSingleLayer(Write(new VectorTileWriter(), CreateFeature(wkt)));
+                Assert.AreEqual(3, layer.Features[0].Type);
+                CollectionAssert.AreEqual(expected, layer.Features[0].Geometry, wkt);
+            }
+        }
+
+        [Test]
+        public void HoleIsOrientedOppositeToShell()
+        {
+            DecodedLayer layer = DecodeSingleLayer(Write(new VectorTileWriter(),
+                CreateFeature("POLYGON ((0 0, 0 100, 100 100, 100 0, 0 0), (10 10, 10 20, 20 20, 20 10, 10 10))")));
+
+            List<int[]> rings = DecodeRings(layer.Features[0].Geometry);
+            Assert.AreEqual(2, rings.Count);
+            Assert.Greater(SignedArea(rings[0]), 0);
+            Assert.Less(SignedArea(rings[1]), 0);
+        }
+
+        [Test]
+        public void PolygonIsClippedToBuffer()
+        {
+            DecodedLayer layer = DecodeSingleLayer(Write(new VectorTileWriter(),
+                CreateFeature("POLYGON ((-1000 -1000, -1000 5000, 5000 5000, 5000 -1000, -1000 -1000))")));
+
+            List<int[]> rings = DecodeRings(layer.Features[0].Geometry);
+            Assert.AreEqual(1, rings.Count);
+            Assert.AreEqual(8, rings[0].Length);
+            foreach (int value in rings[0])
+                Assert.IsTrue(value == -64 || value == 4160);
+            Assert.AreEqual(2L * 4224 * 4224, SignedArea(rings[0]));
+        }
+
+        [Test]
+        public void DegenerateGeometriesAreDropped()
+        {
+            byte[] tile = Write(new VectorTileWriter(),
+                CreateFeature("POLYGON ((100 100, 100.3 100, 100.3 100.3, 100 100))"),
+                CreateFeature("LINESTRING (5 5, 5.2 5.2)"),
+                CreateFeature("POINT (10000 10000)"),
+                CreateFeature("POINT EMPTY"));
+
+            // layers without features are left out
+            Assert.AreEqual(0, tile.Length);
+        }
+
+        [Test]
+        public void DegenerateHoleIsDropped()
+        {
+            DecodedLayer layer = DecodeSingleLayer(Write(new VectorTileWriter(),
+                CreateFeature("POLYGON ((0 0, 0 100, 100 100, 100 0, 0 0), (50 50, 50 50.2, 50.2 50.2, 50 50))")));
+
+            Assert.AreEqual(1, DecodeRings(layer.Features[0].Geometry).Count);
+        }
+
+        [Test]
+        public void LinesAreSimplifiedOnGrid()
+        {
+            const string wkt = "LINESTRING (0 100, 50 100.8, 100 100)";
+
+            DecodedLayer layer = DecodeSingleLayer(Write(new VectorTileWriter(), CreateFeature(wkt)));
+            CollectionAssert.AreEqual(new uint[] { 9, 0, 7992, 10, 200, 0 }, layer.Features[0].Geometry);
+
+            var writer = new VectorTileWriter();
+            writer.SimplificationTolerance = 0;
+            layer = DecodeSingleLayer(Write(writer, CreateFeature(wkt)));
+            CollectionAssert.AreEqual(new uint[] { 9, 0, 7992, 18, 100, 1, 100, 2 }, layer.Features[0].Geometry);
+        }
+
+        [Test]
+        public void AttributesAreSharedByFeatures()
+        {
+            var first = CreateFeature("POINT (1 1)");
+            first.Attributes.AddAttribute("name", "a");
+            first.Attributes.AddAttribute("height", 10);
+            var second = CreateFeature("POINT (2 2)");
+            second.Attributes.AddAttribute("name", "b");
+            second.Attributes.AddAttribute("height", 10);
+            second.Attributes.AddAttribute("empty", null);
+
+            DecodedLayer layer = DecodeSingleLayer(Write(new VectorTileWriter(), first, second));
+
+            Assert.AreEqual(2, layer.Keys.Count);
+            CollectionAssert.AreEquivalent(new[] { "name", "height" }, layer.Keys);
+            Assert.AreEqual(3, layer.ValueCount);
+            Assert.AreEqual(4, layer.Features[0].Tags.Count);
+            Assert.AreEqual(4, layer.Features[1].Tags.Count);
+        }
+
+        [Test]
+        public void IdAttributeIsWrittenAsId()
+        {
+            var feature = CreateFeature("POINT (1 1)");
+            feature.Attributes.AddAttribute("id", 42);
+
+            var writer = new VectorTileWriter();
+            writer.IdAttributeName = "id";
+            DecodedLayer layer = DecodeSingleLayer(Write(writer, feature));
+
+            Assert.AreEqual(42UL, layer.Features[0].Id);
+            Assert.AreEqual(0, layer.Features[0].Tags.Count);
+            Assert.AreEqual(0, layer.Keys.Count);
+        }
+
+        [Test]
+        public void CollectionIsWrittenAsFeatures()
+        {
+            DecodedLayer layer = DecodeSingleLayer(Write(new VectorTileWriter(),
+                CreateFeature("GEOMETRYCOLLECTION (POINT (1 1), LINESTRING (0 0, 10 10))")));
+
+            Assert.AreEqual(2, layer.Features.Count);
+            Assert.AreEqual(1, layer.Features[0].Type);
+            Assert.AreEqual(2, layer.Features[1].Type);
+        }
+
+        #region decoding
+
+        private class DecodedLayer
+        {
+            public string Name;
+            public ulong Extent = 4096;
+            public readonly List<string> Keys = new List<string>();
+            public int ValueCount;
+            public readonly List<DecodedFeature> Features = new List<DecodedFeature>();
+        }
+
+        private class DecodedFeature
+        {
+            public ulong Id;
+            public readonly List<uint> Tags = new List<uint>();
+            public int Type;
+            public readonly List<uint> Geometry = new List<uint>();
+        }
+
+        private static DecodedLayer DecodeSingleLayer(byte[] tile)
+        {
+            int position = 0;
+            Assert.AreEqual((3 << 3) | 2, (int)ReadVarint(tile, ref position));
+            int end = (int)ReadVarint(tile, ref position) + position;
+            Assert.AreEqual(tile.Length, end, "one layer");
+
+            var layer = new DecodedLayer();
+            while (position < end)
+            {
+                int key = (int)ReadVarint(tile, ref position);
+                if ((key & 7) == 0)
+                {
+                    ulong value = ReadVarint(tile, ref position);
+                    if (key >> 3 == 5)
+                        layer.Extent = value;
+                    else
+                        Assert.AreEqual(15, key >> 3);
+                    continue;
+                }
+
+                int length = (int)ReadVarint(tile, ref position);
+                switch (key >> 3)
+                {
+                    case 1:
+                        layer.Name = Encoding.UTF8.GetString(tile, position, length);
+                        break;
+                    case 2:
+                        layer.Features.Add(DecodeFeature(tile, position, position + length));
+                        break;
+                    case 3:
+                        layer.Keys.Add(Encoding.UTF8.GetString(tile, position, length));
+                        break;
+                    case 4:
+                        layer.ValueCount++;
+                        break;
+                }
+                position += length;
+            }
+            return layer;
+        }
+
+        private static DecodedFeature DecodeFeature(byte[] tile, int position, int end)
+        {
+            var feature = new DecodedFeature();
+            while (position < end)
+            {
+                int key = (int)ReadVarint(tile, ref position);
+                switch (key >> 3)
+                {
+                    case 1:
+                        feature.Id = ReadVarint(tile, ref position);
+                        break;
+                    case 3:
+                        feature.Type = (int)ReadVarint(tile, ref position);
+                        break;
+                    default:
+                        List<uint> values = key >> 3 == 2 ? feature.Tags : feature.Geometry;
+                        int packedEnd = (int)ReadVarint(tile, ref position) + position;
+                        while (position < packedEnd)
+                            values.Add((uint)ReadVarint(tile, ref position));
+                        break;
+                }
+            }
+            return feature;
+        }
+
+        private static ulong ReadVarint(byte[] bytes, ref int position)
+        {
+            ulong value = 0;
+            for (int shift = 0; ; shift += 7)
+            {
+                byte b = bytes[position++];
+                value |= (ulong)(b & 0x7F) << shift;
+                if (b < 0x80)
+                    return value;
+            }
+        }
+
+        /// <summary>
+        /// Decodes the rings of a polygon geometry into absolute x and y values, without closing points.
+        /// </summary>
+        private static List<int[]> DecodeRings(List<uint> geometry)
+        {
+            var rings = new List<int[]>();
+            var ring = new List<int>();
+            int x = 0, y = 0;
+            int index = 0;
+            while (index < geometry.Count)
+            {
+                uint command = geometry[index++];
+                uint count = command >> 3;
+                if ((command & 7) == 7)
+                {
+                    rings.Add(ring.ToArray());
+                    ring.Clear();
+                    continue;
+                }
+                for (int i = 0; i < count; i++)
+                {
+                    x += UnZigZag(geometry[index++]);
+                    y += UnZigZag(geometry[index++]);
+                    ring.Add(x);
+                    ring.Add(y);
+                }
+            }
+            return rings;
+        }
+
+        private static long SignedArea(int[] ring)
+        {
+            long area = 0;
+            int count = ring.Length / 2;
+            for (int i = 0; i < count; i++)
+            {
+                int j = (i + 1) % count;
+                area += (long)ring[2 * i] * ring[2 * j + 1] - (long)ring[2 * j] * ring[2 * i + 1];
+            }
+            return area;
+        }
+
+        private static int UnZigZag(uint value)
+        {
+            return (int)(value >> 1) ^ -(int)(value & 1);
+        }
+
+        #endregion
+    }
+}
@@ -0,0 +1,315 @@
+using System;
+using System.Collections.Generic;
+using GeoAPI.Geometries;
+using NetTopologySuite.IO.Helpers;
+
+namespace NetTopologySuite.IO.Builders
+{
+    /// <summary>
+    /// Builds the shared arcs of a topology from the lines and rings of a set of geometries.
+    /// </summary>
+    /// <remarks>
+    /// The points are quantized first, if the transform asks for it. Every line and ring is then
+    /// cut at its junctions: the ends of lines, and the points where lines running along each
+    /// other part. Arcs that follow the same points, in either direction, are stored once;
+    /// a reversed use of an arc is referenced by the one's complement of its index.
+    /// </remarks>
+    internal class ArcBuilder
+    {
+        private readonly ITransform _transform;
+        private readonly List<Line> _lines = new List<Line>();
+        private readonly List<Vertex[]> _arcs = new List<Vertex[]>();
+
+        // the indices of the arcs, by their first and last points
+        private readonly Dictionary<Vertex, List<int>> _arcsByEnd = new Dictionary<Vertex, List<int>>();
+
+        public ArcBuilder(ITransform transform)
+        {
+            if (transform == null)
+                throw new ArgumentNullException("transform");
+            _transform = transform;
+        }
+
+        /// <summary>
+        /// Gets the arcs, available once <see cref="Build"/> has been called.
+        /// </summary>
+        public IList<Vertex[]> Arcs
+        {
+            get { return _arcs; }
+        }
+
+        /// <summary>
+        /// Gets a point, quantized if the transform is.
+        /// </summary>
+        public Vertex Quantize(double x, double y)
+        {
+            if (!_transform.Quantized)
+                return new Vertex(x, y);
+
+            double[] scale = _transform.Scale;
+            double[] translate = _transform.Translate;
+            return new Vertex(
+                Math.Round((x - translate[0]) / scale[0]),
+                Math.Round((y - translate[1]) / scale[1]));
+        }
+
+        /// <summary>
+        /// Adds a line or a ring.
+        /// </summary>
+        /// <param name="sequence">The points of the line.</param>
+        /// <param name="ring">True if the line is the ring of a polygon.</param>
+        /// <returns>The line, whose <see cref="Line.Arcs"/> are set by <see cref="Build"/>.</returns>
+        public Line Add(ICoordinateSequence sequence, bool ring)
+        {
+            var points = new List<Vertex>(sequence.Count);
+            for (int i = 0; i < sequence.Count; i++)
+            {
+                Vertex point = Quantize(sequence.GetOrdinate(i, Ordinate.X), sequence.GetOrdinate(i, Ordinate.Y));
+                // quantization may collapse consecutive points
+                if (points.Count == 0 || !points[points.Count - 1].Equals(point))
+                    points.Add(point);
+            }
+            if (points.Count == 1)
+                points.Add(points[0]);
+
+            ring = ring && points.Count > 0 && points[0].Equals(points[points.Count - 1]);
+            var line = new Line(points.ToArray(), ring);
+            _lines.Add(line);
+            return line;
+        }
+
+        /// <summary>
+        /// Cuts the lines added into arcs.
+        /// </summary>
+        public void Build()
+        {
+            HashSet<Vertex> junctions = FindJunctions();
+            foreach (Line line in _lines)
+                line.Arcs = Cut(line, junctions);
+        }
+
+        /// <summary>
+        /// Finds the points where an arc has to start or end.
+        /// </summary>
+        /// <remarks>
+        /// An inner point of a line is a junction if it is visited with different
+        /// neighbours by another line, or elsewhere on the same line.
+        /// </remarks>
+        private HashSet<Vertex> FindJunctions()
+        {
+            var junctions = new HashSet<Vertex>();
+            var neighbours = new Dictionary<Vertex, Neighbours>();
+            foreach (Line line in _lines)
+            {
+                Vertex[] points = line.Points;
+                if (points.Length == 0)
+                    continue;
+
+                int last = points.Length - 1;
+                if (!line.IsRing)
+                {
+                    junctions.Add(points[0]);
+                    junctions.Add(points[last]);
+                }
+
+                // the first point of a ring is also its last, so its previous point is the one before the last
+                for (int i = line.IsRing ? 0 : 1; i < last; i++)
+                {
+                    var pair = new Neighbours(i > 0 ? points[i - 1] : points[last - 1], points[i + 1]);
+                    Neighbours seen;
+                    if (!neighbours.TryGetValue(points[i], out seen))
+                        neighbours.Add(points[i], pair);
+                    else if (!seen.Equals(pair))
+                        junctions.Add(points[i]);
+                }
+            }
+            return junctions;
+        }
+
+        private int[] Cut(Line line, HashSet<Vertex> junctions)
+        {
+            Vertex[] points = line.Points;
+            if (points.Length == 0)
+                return new int[0];
+
+            if (line.IsRing)
+            {
+                // start a ring at a junction, or else at its smallest point,
+                // so that equal rings give equal arcs whatever point they started at
+                int count = points.Length - 1;
+                int start = -1;
+                for (int i = 0; i < count && start < 0; i++)
+                {
+                    if (junctions.Contains(points[i]))
+                        start = i;
+                }
+                if (start < 0)
+                {
+                    start = 0;
+                    for (int i = 1; i < count; i++)
+                    {
+                        if (points[i].CompareTo(points[start]) < 0)
+                            start = i;
+                    }
+                }
+
+                var rotated = new Vertex[points.Length];
+                for (int i = 0; i < count; i++)
+                    rotated[i] = points[(start + i) % count];
+                rotated[count] = rotated[0];
+                points = rotated;
+            }
+
+            var arcs = new List<int>();
+            int from = 0;
+            for (int i = 1; i < points.Length; i++)
+            {
+                if (i == points.Length - 1 || junctions.Contains(points[i]))
+                {
+                    arcs.Add(IndexOf(points, from, i));
+                    from = i;
+                }
+            }
+            return arcs.ToArray();
+        }
+
+        /// <summary>
+        /// Gets the index of the arc through the given points, adding it if there is none yet.
+        /// </summary>
+        /// <returns>The index of the arc, or its one's complement if the arc runs the other way.</returns>
+        private int IndexOf(Vertex[] points, int from, int to)
+        {
+            int length = to - from + 1;
+            List<int> candidates;
+            if (_arcsByEnd.TryGetValue(points[from], out candidates))
+            {
+                foreach (int candidate in candidates)
+                {
+                    Vertex[] arc = _arcs[candidate];
+                    if (arc.Length != length)
+                        continue;
+                    if (Matches(arc, points, from, false))
+                        return candidate;
+                    if (Matches(arc, points, from, true))
+                        return ~candidate;
+                }
+            }
+
+            var created = new Vertex[length];
+            Array.Copy(points, from, created, 0, length);
+            int index = _arcs.Count;
+            _arcs.Add(created);
+
+            AddEnd(points[from], index);
+            if (!points[to].Equals(points[from]))
+                AddEnd(points[to], index);
+            return index;
+        }
+
+        private void AddEnd(Vertex point, int index)
+        {
+            List<int> indices;
+            if (!_arcsByEnd.TryGetValue(point, out indices))
+            {
+                indices = new List<int>(2);
+                _arcsByEnd.Add(point, indices);
+            }
+            indices.Add(index);
+        }
+
+        private static bool Matches(Vertex[] arc, Vertex[] points, int from, bool reversed)
+        {
+            int last = arc.Length - 1;
+            for (int i = 0; i <= last; i++)
+            {
+                if (!arc[reversed ? last - i : i].Equals(points[from + i]))
+                    return false;
+            }
+            return true;
+        }
+
+        /// <summary>
+        /// A line or ring, and the arcs it has been cut into.
+        /// </summary>
+        internal class Line
+        {
+            public Line(Vertex[] points, bool isRing)
+            {
+                Points = points;
+                IsRing = isRing;
+            }
+
+            public readonly Vertex[] Points;
+            public readonly bool IsRing;
+            public int[] Arcs;
+        }
+
+        /// <summary>
+        /// The unordered pair of points next to a point of a line.
+        /// </summary>
+        private struct Neighbours : IEquatable<Neighbours>
+        {
+            private readonly Vertex _first;
+            private readonly Vertex _second;
+
+            public Neighbours(Vertex a, Vertex b)
+            {
+                bool ordered = a.CompareTo(b) <= 0;
+                _first = ordered ? a : b;
+                _second = ordered ? b : a;
+            }
+
+            public bool Equals(Neighbours other)
+            {
+                return _first.Equals(other._first) && _second.Equals(other._second);
+            }
+
+            public override bool Equals(object obj)
+            {
+                return obj is Neighbours && Equals((Neighbours)obj);
+            }
+
+            public override int GetHashCode()
+            {
+                return _first.GetHashCode() * 31 + _second.GetHashCode();
+            }
+        }
+    }
+
+    /// <summary>
+    /// A point of an arc, quantized or not.
+    /// </summary>
+    internal struct Vertex : IEquatable<Vertex>, IComparable<Vertex>
+    {
+        public readonly double X;
+        public readonly double Y;
+
+        public Vertex(double x, double y)
+        {
+            // -0 equals 0, but does not have the same hash code
+            X = x == 0 ? 0 : x;
+            Y = y == 0 ? 0 : y;
+        }
+
+        public bool Equals(Vertex other)
+        {
+            return X == other.X && Y == other.Y;
+        }
+
+        public override bool Equals(object obj)
+        {
+            return obj is Vertex && Equals((Vertex)obj);
+        }
+
+        public override int GetHashCode()
+        {
+            return X.GetHashCode() * 31 + Y.GetHashCode();
+        }
+
+        public int CompareTo(Vertex other)
+        {
+            int result = X.CompareTo(other.X);
+            return result != 0 ? result : Y.CompareTo(other.Y);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+using System;
+using System.Collections.Generic;
+using System.Globalization;
+using System.IO;
+using GeoAPI.Geometries;
+using NetTopologySuite.Features;
+using NetTopologySuite.IO.Builders;
+using NetTopologySuite.IO.Helpers;
+using Newtonsoft.Json;
+
+namespace NetTopologySuite.IO
+{
+    /// <summary>
+    /// Represents a TopoJSON Writer, which writes named feature collections as a single topology.
+    /// </summary>
+    /// <remarks>
+    /// The lines and rings of all geometries are cut into arcs at their junctions, and an edge
+    /// shared by several geometries, like the common border of two polygons, is written once.
+    /// If <see cref="Quantization"/> is set, the positions are snapped to a grid described by the
+    /// <see cref="Transform"/> of the topology, and the arcs are delta-encoded.
+    /// <para>
+    /// Only X and Y are written. Each collection is written as a GeometryCollection, which
+    /// <see cref="TopoJsonReader"/> reads back as a <see cref="FeatureCollection"/>.
+    /// </para>
+    /// </remarks>
+    public class TopoJsonWriter
+    {
+        private readonly JsonSerializer _serializer = new GeoJsonSerializer();
+        private int _quantization = 10000;
+
+        /// <summary>
+        /// Gets or sets the number of distinct values along each axis of the quantization grid,
+        /// or 0 to write the positions unquantized. The default is 10000.
+        /// </summary>
+        public int Quantization
+        {
+            get { return _quantization; }
+            set
+            {
+                if (value < 0 || value == 1)
+                    throw new ArgumentOutOfRangeException("value", "Quantization must be 0 or at least 2");
+                _quantization = value;
+            }
+        }
+
+        /// <summary>
+        /// Writes the specified feature collections.
+        /// </summary>
+        /// <param name="objects">The feature collections, by name.</param>
+        /// <returns>The TopoJSON text.</returns>
+        public string Write(IDictionary<string, FeatureCollection> objects)
+        {
+            using (var writer = new StringWriter(CultureInfo.InvariantCulture))
+            {
+                Write(writer, objects);
+                return writer.ToString();
+            }
+        }
+
+        /// <summary>
+        /// Writes the specified feature collections.
+        /// </summary>
+        /// <param name="writer">The writer to write to. It is flushed, but not closed.</param>
+        /// <param name="objects">The feature collections, by name.</param>
+        public void Write(TextWriter writer, IDictionary<string, FeatureCollection> objects)
+        {
+            if (writer == null)
+                throw new ArgumentNullException("writer");
+            if (objects == null)
+                throw new ArgumentNullException("objects");
+
+            ITransform transform = CreateTransform(objects);
+            var builder = new ArcBuilder(transform);
+
+            // the lines of all geometries, in the order they are written
+            var lines = new List<ArcBuilder.Line>();
+            foreach (FeatureCollection collection in objects.Values)
+            {
+                foreach (IFeature feature in collection.Features)
+                {
+                    if (feature.Geometry != null)
+                        AddLines(builder, feature.Geometry, lines);
+                }
+            }
+            builder.Build();
+
+            var json = new JsonTextWriter(writer);
+            json.WriteStartObject();
+            json.WritePropertyName("type");
+            json.WriteValue("Topology");
+
+            if (transform.Quantized)
+            {
+                json.WritePropertyName("transform");
+                json.WriteStartObject();
+                json.WritePropertyName("scale");
+                WritePair(json, transform.Scale[0], transform.Scale[1]);
+                json.WritePropertyName("translate");
+                WritePair(json, transform.Translate[0], transform.Translate[1]);
+                json.WriteEndObject();
+            }
+
+            json.WritePropertyName("objects");
+            json.WriteStartObject();
+            int next = 0;
+            foreach (KeyValuePair<string, FeatureCollection> pair in objects)
+            {
+                json.WritePropertyName(pair.Key);
+                json.WriteStartObject();
+                json.WritePropertyName("type");
+                json.WriteValue("GeometryCollection");
+                json.WritePropertyName("geometries");
+                json.WriteStartArray();
+                foreach (IFeature feature in pair.Value.Features)
+                    WriteGeometry(json, builder, feature.Geometry, feature.Attributes, lines, ref next);
+                json.WriteEndArray();
+                json.WriteEndObject();
+            }
+            json.WriteEndObject();
+
+            json.WritePropertyName("arcs");
+            json.WriteStartArray();
+            foreach (Vertex[] arc in builder.Arcs)
+                WriteArc(json, arc, transform.Quantized);
+            json.WriteEndArray();
+
+            json.WriteEndObject();
+            json.Flush();
+        }
+
+        /// <summary>
+        /// Creates the transform that maps the extent of all geometries onto the quantization grid.
+        /// </summary>
+        private ITransform CreateTransform(IDictionary<string, FeatureCollection> objects)
+        {
+            if (_quantization == 0)
+                return new Transform();
+
+            var extent = new Envelope();
+            foreach (FeatureCollection collection in objects.Values)
+            {
+                foreach (IFeature feature in collection.Features)
+                {
+                    if (feature.Geometry != null)
+                        extent.ExpandToInclude(feature.Geometry.EnvelopeInternal);
+                }
+            }
+            if (extent.IsNull)
+                return new Transform();
+
+            double kx = extent.Width > 0 ? extent.Width / (_quantization - 1) : 1;
+            double ky = extent.Height > 0 ? extent.Height / (_quantization - 1) : 1;
+            return new Transform(new[] { kx, ky }, new[] { extent.MinX, extent.MinY });
+        }
+
+        private static void AddLines(ArcBuilder builder, IGeometry geometry, List<ArcBuilder.Line> lines)
+        {
+            if (geometry.IsEmpty)
+                return;
+
+            if (geometry is ILineString)
+            {
+                lines.Add(builder.Add(((ILineString)geometry).CoordinateSequence, false));
+            }
+            else if (geometry is IPolygon)
+            {
+                var polygon = (IPolygon)geometry;
+                lines.Add(builder.Add(polygon.ExteriorRing.CoordinateSequence, true));
+                for (int i = 0; i < polygon.NumInteriorRings; i++)
+                    lines.Add(builder.Add(polygon.GetInteriorRingN(i).CoordinateSequence, true));
+            }
+            else if (geometry is IGeometryCollection)
+            {
+                for (int i = 0; i < geometry.NumGeometries; i++)
+                    AddLines(builder, geometry.GetGeometryN(i), lines);
+            }
+        }
+
+        private void WriteGeometry(JsonWriter json, ArcBuilder builder, IGeometry geometry, IAttributesTable attributes,
+            List<ArcBuilder.Line> lines, ref int next)
+        {
+            json.WriteStartObject();
+            json.WritePropertyName("type");
+            if (geometry == null || geometry.IsEmpty)
+            {
+                json.WriteNull();
+                WriteProperties(json, attributes);
+                json.WriteEndObject();
+                return;
+            }
+
+            var collection = geometry as IGeometryCollection;
+            if (collection != null && !(collection is IMultiPoint || collection is IMultiLineString || collection is IMultiPolygon))
+            {
+                json.WriteValue("GeometryCollection");
+                WriteProperties(json, attributes);
+                json.WritePropertyName("geometries");
+                json.WriteStartArray();
+                for (int i = 0; i < collection.NumGeometries; i++)
+                    WriteGeometry(json, builder, collection.GetGeometryN(i), null, lines, ref next);
+                json.WriteEndArray();
+                json.WriteEndObject();
+                return;
+            }
+
+            json.WriteValue(GetTypeName(geometry));
+            WriteProperties(json, attributes);
+            if (geometry is IPoint || geometry is IMultiPoint)
+            {
+                json.WritePropertyName("coordinates");
+                if (geometry is IPoint)
+                {
+                    WritePosition(json, builder, geometry.Coordinate);
+                }
+                else
+                {
+                    json.WriteStartArray();
+                    for (int i = 0; i < geometry.NumGeometries; i++)
+                    {
+                        if (!geometry.GetGeometryN(i).IsEmpty)
+                            WritePosition(json, builder, geometry.GetGeometryN(i).Coordinate);
+                    }
+                    json.WriteEndArray();
+                }
+            }
+            else if (geometry is ILineString)
+            {
+                json.WritePropertyName("arcs");
+                WriteArcs(json, lines[next++]);
+            }
+            else if (geometry is IPolygon)
+            {
+                json.WritePropertyName("arcs");
+                WriteRings(json, (IPolygon)geometry, lines, ref next);
+            }
+            else if (geometry is IMultiLineString)
+            {
+                json.WritePropertyName("arcs");
+                json.WriteStartArray();
+                for (int i = 0; i < geometry.NumGeometries; i++)
+                {
+                    if (geometry.GetGeometryN(i).IsEmpty)
+                        continue;
+                    WriteArcs(json, lines[next++]);
+                }
+                json.WriteEndArray();
+            }
+            else if (geometry is IMultiPolygon)
+            {
+                json.WritePropertyName("arcs");
+                json.WriteStartArray();
+                for (int i = 0; i < geometry.NumGeometries; i++)
+                {
+                    if (geometry.GetGeometryN(i).IsEmpty)
+                        continue;
+                    WriteRings(json, (IPolygon)geometry.GetGeometryN(i), lines, ref next);
+                }
+                json.WriteEndArray();
+            }
+            json.WriteEndObject();
+        }
+
+        private static string GetTypeName(IGeometry geometry)
+        {
+            if (geometry is IPoint)
+                return "Point";
+            if (geometry is ILineString)
+                return "LineString";
+            if (geometry is IPolygon)
+                return "Polygon";
+            if (geometry is IMultiPoint)
+                return "MultiPoint";
+            if (geometry is IMultiLineString)
+                return "MultiLineString";
+            if (geometry is IMultiPolygon)
+                return "MultiPolygon";
+            throw new ArgumentException("Unsupported geometry type: " + geometry.GeometryType, "geometry");
+        }
+
+        private static void WriteRings(JsonWriter json, IPolygon polygon, List<ArcBuilder.Line> lines, ref int next)
+        {
+            json.WriteStartArray();
+            for (int i = 0; i <= polygon.NumInteriorRings; i++)
+                WriteArcs(json, lines[next++]);
+            json.WriteEndArray();
+        }
+
+        private static void WriteArcs(JsonWriter json, ArcBuilder.Line line)
+        {
+            json.WriteStartArray();
+            foreach (int arc in line.Arcs)
+                json.WriteValue(arc);
+            json.WriteEndArray();
+        }
+
+        private void WriteProperties(JsonWriter json, IAttributesTable attributes)
+        {
+            if (attributes == null || attributes.Count == 0)
+                return;
+            json.WritePropertyName("properties");
+            WriteAttributes(json, attributes);
+        }
+
+        private void WriteAttributes(JsonWriter json, IAttributesTable attributes)
+        {
+            json.WriteStartObject();
+            foreach (string name in attributes.GetNames())
+            {
+                json.WritePropertyName(name);
+                object value = attributes[name];
+                var table = value as IAttributesTable;
+                if (table != null)
+                    WriteAttributes(json, table);
+                else
+                    _serializer.Serialize(json, value);
+            }
+            json.WriteEndObject();
+        }
+
+        /// <summary>
+        /// Writes a position of a point, quantized but not delta-encoded.
+        /// </summary>
+        private static void WritePosition(JsonWriter json, ArcBuilder builder, Coordinate coordinate)
+        {
+            Vertex position = builder.Quantize(coordinate.X, coordinate.Y);
+            WritePair(json, position.X, position.Y);
+        }
+
+        /// <summary>
+        /// Writes the positions of an arc, as differences to the previous position if quantized.
+        /// </summary>
+        private static void WriteArc(JsonWriter json, Vertex[] arc, bool quantized)
+        {
+            json.WriteStartArray();
+            double x = 0, y = 0;
+            foreach (Vertex position in arc)
+            {
+                if (quantized)
+                {
+                    WritePair(json, position.X - x, position.Y - y);
+                    x = position.X;
+                    y = position.Y;
+                }
+                else
+                {
+                    WritePair(json, position.X, position.Y);
+                }
+            }
+            json.WriteEndArray();
+        }
+
+        /// <summary>
+        /// Writes two numbers, integral ones without a decimal point.
+        /// </summary>
+        private static void WritePair(JsonWriter json, double x, double y)
+        {
+            json.WriteStartArray();
+            WriteNumber(json, x);
+            WriteNumber(json, y);
+            json.WriteEndArray();
+        }
+
+        private static void WriteNumber(JsonWriter json, double value)
+        {
+            if (value == Math.Floor(value) && Math.Abs(value) < 1e15)
+                json.WriteValue((long)value);
+            else
+                json.WriteValue(value);
+        }
+    }
+}
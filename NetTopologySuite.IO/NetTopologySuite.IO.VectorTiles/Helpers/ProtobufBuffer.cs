@@ -0,0 +1,173 @@
+using System;
+using System.Collections.Generic;
+using System.IO;
+using System.Text;
+
+namespace NetTopologySuite.IO.Helpers
+{
+    /// <summary>
+    /// A growing byte buffer that protocol buffer fields are written to.
+    /// </summary>
+    /// <remarks>
+    /// A nested message is prefixed with its length, so it is either built in a buffer of its
+    /// own, or its length is computed with the <c>Size</c> methods before its fields are written.
+    /// </remarks>
+    internal class ProtobufBuffer
+    {
+        public const int Varint = 0;
+        public const int Fixed64 = 1;
+        public const int LengthDelimited = 2;
+        public const int Fixed32 = 5;
+
+        private static readonly Encoding Utf8 = new UTF8Encoding(false);
+
+        private byte[] _bytes = new byte[4096];
+        private int _length;
+
+        /// <summary>
+        /// Gets the number of bytes written.
+        /// </summary>
+        public int Length
+        {
+            get { return _length; }
+        }
+
+        /// <summary>
+        /// Empties the buffer, keeping its memory.
+        /// </summary>
+        public void Clear()
+        {
+            _length = 0;
+        }
+
+        /// <summary>
+        /// Copies the bytes written to a stream.
+        /// </summary>
+        public void WriteTo(Stream stream)
+        {
+            stream.Write(_bytes, 0, _length);
+        }
+
+        public void WriteTag(int field, int wireType)
+        {
+            WriteVarint((uint)((field << 3) | wireType));
+        }
+
+        public void WriteVarint(ulong value)
+        {
+            Reserve(10);
+            while (value >= 0x80)
+            {
+                _bytes[_length++] = (byte)(value | 0x80);
+                value >>= 7;
+            }
+            _bytes[_length++] = (byte)value;
+        }
+
+        public void WriteVarint(int field, ulong value)
+        {
+            WriteTag(field, Varint);
+            WriteVarint(value);
+        }
+
+        public void WriteString(int field, string value)
+        {
+            int count = Utf8.GetByteCount(value);
+            WriteTag(field, LengthDelimited);
+            WriteVarint((uint)count);
+            Reserve(count);
+            _length += Utf8.GetBytes(value, 0, value.Length, _bytes, _length);
+        }
+
+        public void WriteDouble(int field, double value)
+        {
+            WriteTag(field, Fixed64);
+            WriteFixed(BitConverter.DoubleToInt64Bits(value), 8);
+        }
+
+        public void WriteFloat(int field, float value)
+        {
+            WriteTag(field, Fixed32);
+            WriteFixed(BitConverter.ToInt32(BitConverter.GetBytes(value), 0), 4);
+        }
+
+        /// <summary>
+        /// Writes a repeated field of unsigned integers in packed form.
+        /// </summary>
+        public void WritePacked(int field, List<uint> values)
+        {
+            WriteTag(field, LengthDelimited);
+            WriteVarint((uint)PackedSize(values));
+            for (int i = 0; i < values.Count; i++)
+                WriteVarint(values[i]);
+        }
+
+        private void WriteFixed(long value, int count)
+        {
+            // protocol buffers are little-endian, whatever the machine
+            Reserve(count);
+            for (int i = 0; i < count; i++)
+            {
+                _bytes[_length++] = (byte)value;
+                value >>= 8;
+            }
+        }
+
+        private void Reserve(int count)
+        {
+            if (_length + count <= _bytes.Length)
+                return;
+            var bytes = new byte[Math.Max(_length + count, 2 * _bytes.Length)];
+            Buffer.BlockCopy(_bytes, 0, bytes, 0, _length);
+            _bytes = bytes;
+        }
+
+        /// <summary>
+        /// Gets the number of bytes of a varint.
+        /// </summary>
+        public static int VarintSize(ulong value)
+        {
+            int size = 1;
+            while (value >= 0x80)
+            {
+                value >>= 7;
+                size++;
+            }
+            return size;
+        }
+
+        /// <summary>
+        /// Gets the number of bytes of a string field, including its tag.
+        /// </summary>
+        public static int StringSize(int field, string value)
+        {
+            int count = Utf8.GetByteCount(value);
+            return TagSize(field) + VarintSize((uint)count) + count;
+        }
+
+        /// <summary>
+        /// Gets the number of bytes of the values of a packed field, without its tag and length.
+        /// </summary>
+        public static int PackedSize(List<uint> values)
+        {
+            int size = 0;
+            for (int i = 0; i < values.Count; i++)
+                size += VarintSize(values[i]);
+            return size;
+        }
+
+        /// <summary>
+        /// Gets the number of bytes of a packed field, including its tag and length.
+        /// </summary>
+        public static int PackedFieldSize(int field, List<uint> values)
+        {
+            int size = PackedSize(values);
+            return TagSize(field) + VarintSize((uint)size) + size;
+        }
+
+        public static int TagSize(int field)
+        {
+            return VarintSize((uint)(field << 3));
+        }
+    }
+}
@@ -0,0 +1,547 @@
+using System;
+using System.Collections.Generic;
+using GeoAPI.Geometries;
+
+namespace NetTopologySuite.IO.Helpers
+{
+    /// <summary>
+    /// Turns geometries into the geometry commands of vector tile features.
+    /// </summary>
+    /// <remarks>
+    /// The points are mapped onto the tile grid, with y pointing down. Lines and rings are clipped
+    /// to the tile and its buffer, rounded to the grid, and simplified there; parts that collapse
+    /// to less than a line or a ring of some area are dropped. The working buffers are kept from one
+    /// geometry to the next, so that encoding a tile allocates little once they have grown.
+    /// </remarks>
+    internal class TileGeometryEncoder
+    {
+        public const int Unknown = 0;
+        public const int Point = 1;
+        public const int LineString = 2;
+        public const int Polygon = 3;
+
+        private const uint MoveTo = 1;
+        private const uint LineTo = 2;
+        private const uint ClosePath = 7;
+
+        private readonly Envelope _clipEnvelope;
+        private readonly double _minX;
+        private readonly double _maxY;
+        private readonly double _scaleX;
+        private readonly double _scaleY;
+        private readonly double _clipMin;
+        private readonly double _clipMax;
+        private readonly double _toleranceSquared;
+
+        private readonly List<uint> _commands = new List<uint>();
+        private int _cursorX;
+        private int _cursorY;
+
+        // x and y interleaved, in tile units before and after rounding
+        private double[] _input = new double[256];
+        private double[] _output = new double[256];
+        private int[] _points = new int[256];
+        private bool[] _keep = new bool[128];
+        private int[] _stack = new int[256];
+
+        /// <summary>
+        /// Creates an encoder for a tile.
+        /// </summary>
+        /// <param name="tile">The extent of the tile, in the coordinates of the geometries.</param>
+        /// <param name="extent">The number of grid units along each side of the tile.</param>
+        /// <param name="buffer">The number of grid units geometries are kept beyond each side.</param>
+        /// <param name="tolerance">The simplification tolerance, in grid units.</param>
+        public TileGeometryEncoder(Envelope tile, int extent, int buffer, double tolerance)
+        {
+            _minX = tile.MinX;
+            _maxY = tile.MaxY;
+            _scaleX = extent / tile.Width;
+            _scaleY = extent / tile.Height;
+            _clipMin = -buffer;
+            _clipMax = extent + buffer;
+            _toleranceSquared = tolerance * tolerance;
+
+            double bufferX = buffer / _scaleX;
+            double bufferY = buffer / _scaleY;
+            _clipEnvelope = new Envelope(tile.MinX - bufferX, tile.MaxX + bufferX, tile.MinY - bufferY, tile.MaxY + bufferY);
+        }
+
+        /// <summary>
+        /// Gets the commands of the geometry last encoded.
+        /// </summary>
+        public List<uint> Commands
+        {
+            get { return _commands; }
+        }
+
+        /// <summary>
+        /// Encodes a point, line or polygon geometry, or a multi-geometry of them.
+        /// </summary>
+        /// <returns>The type of the feature, or <see cref="Unknown"/> if nothing of the geometry is left in the tile.</returns>
+        public int Encode(IGeometry geometry)
+        {
+            _commands.Clear();
+            _cursorX = 0;
+            _cursorY = 0;
+
+            if (geometry.IsEmpty || !_clipEnvelope.Intersects(geometry.EnvelopeInternal))
+                return Unknown;
+
+            int type;
+            if (geometry is IPoint || geometry is IMultiPoint)
+            {
+                EncodePoints(geometry);
+                type = Point;
+            }
+            else if (geometry is ILineString || geometry is IMultiLineString)
+            {
+                for (int i = 0; i < geometry.NumGeometries; i++)
+                    EncodeLine(((ILineString)geometry.GetGeometryN(i)).CoordinateSequence);
+                type = LineString;
+            }
+            else if (geometry is IPolygon || geometry is IMultiPolygon)
+            {
+                for (int i = 0; i < geometry.NumGeometries; i++)
+                    EncodePolygon((IPolygon)geometry.GetGeometryN(i));
+                type = Polygon;
+            }
+            else
+            {
+                throw new ArgumentException("Unsupported geometry type: " + geometry.GeometryType, "geometry");
+            }
+            return _commands.Count > 0 ? type : Unknown;
+        }
+
+        private void EncodePoints(IGeometry geometry)
+        {
+            int command = _commands.Count;
+            _commands.Add(0);
+            uint count = 0;
+            for (int i = 0; i < geometry.NumGeometries; i++)
+            {
+                var point = (IPoint)geometry.GetGeometryN(i);
+                if (point.IsEmpty)
+                    continue;
+
+                double x = (point.X - _minX) * _scaleX;
+                double y = (_maxY - point.Y) * _scaleY;
+                if (x < _clipMin || x > _clipMax || y < _clipMin || y > _clipMax)
+                    continue;
+
+                AddParameters((int)Math.Round(x), (int)Math.Round(y));
+                count++;
+            }
+
+            if (count == 0)
+                _commands.RemoveAt(command);
+            else
+                _commands[command] = Command(MoveTo, count);
+        }
+
+        private void EncodeLine(ICoordinateSequence sequence)
+        {
+            int count = sequence.Count;
+            if (count < 2)
+                return;
+
+            // the line is cut where it leaves the tile, and each piece is encoded on its own
+            double[] piece = Reserve(ref _output, 2 * count);
+            int length = 0;
+            double x0 = ToTileX(sequence, 0);
+            double y0 = ToTileY(sequence, 0);
+            for (int i = 1; i < count; i++)
+            {
+                double x1 = ToTileX(sequence, i);
+                double y1 = ToTileY(sequence, i);
+
+                double t0 = 0, t1 = 1;
+                if (ClipSegment(x0, y0, x1, y1, ref t0, ref t1))
+                {
+                    if (length == 0)
+                    {
+                        piece[length++] = x0 + t0 * (x1 - x0);
+                        piece[length++] = y0 + t0 * (y1 - y0);
+                    }
+                    piece[length++] = x0 + t1 * (x1 - x0);
+                    piece[length++] = y0 + t1 * (y1 - y0);
+
+                    if (t1 < 1)
+                    {
+                        EncodeLinePiece(piece, length / 2);
+                        length = 0;
+                    }
+                }
+                else if (length > 0)
+                {
+                    EncodeLinePiece(piece, length / 2);
+                    length = 0;
+                }
+
+                x0 = x1;
+                y0 = y1;
+            }
+
+            if (length > 0)
+                EncodeLinePiece(piece, length / 2);
+        }
+
+        private void EncodeLinePiece(double[] piece, int count)
+        {
+            count = Round(piece, count, false);
+            count = Simplify(count);
+            if (count < 2)
+                return;
+
+            _commands.Add(Command(MoveTo, 1));
+            AddParameters(_points[0], _points[1]);
+            _commands.Add(Command(LineTo, (uint)(count - 1)));
+            for (int i = 1; i < count; i++)
+                AddParameters(_points[2 * i], _points[2 * i + 1]);
+        }
+
+        private void EncodePolygon(IPolygon polygon)
+        {
+            if (polygon.IsEmpty)
+                return;
+
+            // without its shell, the holes of a polygon are dropped as well
+            if (!EncodeRing(polygon.ExteriorRing.CoordinateSequence, true))
+                return;
+            for (int i = 0; i < polygon.NumInteriorRings; i++)
+                EncodeRing(polygon.GetInteriorRingN(i).CoordinateSequence, false);
+        }
+
+        private bool EncodeRing(ICoordinateSequence sequence, bool exterior)
+        {
+            // the closing point is left out while clipping
+            int count = sequence.Count - 1;
+            if (count < 3)
+                return false;
+
+            double[] ring = Reserve(ref _input, 2 * count);
+            bool inside = true;
+            for (int i = 0; i < count; i++)
+            {
+                double x = ToTileX(sequence, i);
+                double y = ToTileY(sequence, i);
+                ring[2 * i] = x;
+                ring[2 * i + 1] = y;
+                inside = inside && x >= _clipMin && x <= _clipMax && y >= _clipMin && y <= _clipMax;
+            }
+
+            if (!inside)
+                count = ClipRing(count);
+            if (count < 3)
+                return false;
+
+            count = Round(_input, count, true);
+            if (count < 4)
+                return false;
+            count = Simplify(count);
+            if (count < 4)
+                return false;
+
+            long area = SignedArea(count);
+            if (area == 0)
+                return false;
+
+            // shells run with positive area with y pointing down, holes with negative area
+            if ((area > 0) != exterior)
+                Reverse(count);
+
+            _commands.Add(Command(MoveTo, 1));
+            AddParameters(_points[0], _points[1]);
+            _commands.Add(Command(LineTo, (uint)(count - 2)));
+            for (int i = 1; i < count - 1; i++)
+                AddParameters(_points[2 * i], _points[2 * i + 1]);
+            _commands.Add(Command(ClosePath, 1));
+            return true;
+        }
+
+        /// <summary>
+        /// Clips the ring in the input buffer to the tile and its buffer, one side after the other.
+        /// </summary>
+        /// <returns>The number of points of the clipped ring, which is again in the input buffer.</returns>
+        private int ClipRing(int count)
+        {
+            for (int side = 0; side < 4 && count > 0; side++)
+            {
+                // each side adds at most one point per edge
+                double[] input = _input;
+                double[] output = Reserve(ref _output, 4 * count);
+                int length = 0;
+
+                double px = input[2 * count - 2];
+                double py = input[2 * count - 1];
+                bool pInside = IsInside(side, px, py);
+                for (int i = 0; i < count; i++)
+                {
+                    double x = input[2 * i];
+                    double y = input[2 * i + 1];
+                    bool inside = IsInside(side, x, y);
+                    if (inside != pInside)
+                    {
+                        double t = Intersect(side, px, py, x, y);
+                        output[length++] = px + t * (x - px);
+                        output[length++] = py + t * (y - py);
+                    }
+                    if (inside)
+                    {
+                        output[length++] = x;
+                        output[length++] = y;
+                    }
+                    px = x;
+                    py = y;
+                    pInside = inside;
+                }
+
+                _output = input;
+                _input = output;
+                count = length / 2;
+            }
+            return count;
+        }
+
+        private bool IsInside(int side, double x, double y)
+        {
+            switch (side)
+            {
+                case 0:
+                    return x >= _clipMin;
+                case 1:
+                    return x <= _clipMax;
+                case 2:
+                    return y >= _clipMin;
+                default:
+                    return y <= _clipMax;
+            }
+        }
+
+        private double Intersect(int side, double x0, double y0, double x1, double y1)
+        {
+            switch (side)
+            {
+                case 0:
+                    return (_clipMin - x0) / (x1 - x0);
+                case 1:
+                    return (_clipMax - x0) / (x1 - x0);
+                case 2:
+                    return (_clipMin - y0) / (y1 - y0);
+                default:
+                    return (_clipMax - y0) / (y1 - y0);
+            }
+        }
+
+        /// <summary>
+        /// Clips a segment to the tile and its buffer (Liang-Barsky).
+        /// </summary>
+        /// <returns><c>false</c> if the segment is outside.</returns>
+        private bool ClipSegment(double x0, double y0, double x1, double y1, ref double t0, ref double t1)
+        {
+            double dx = x1 - x0;
+            double dy = y1 - y0;
+            return ClipEdge(-dx, x0 - _clipMin, ref t0, ref t1)
+                && ClipEdge(dx, _clipMax - x0, ref t0, ref t1)
+                && ClipEdge(-dy, y0 - _clipMin, ref t0, ref t1)
+                && ClipEdge(dy, _clipMax - y0, ref t0, ref t1);
+        }
+
+        private static bool ClipEdge(double p, double q, ref double t0, ref double t1)
+        {
+            if (p == 0)
+                return q >= 0;
+
+            double r = q / p;
+            if (p < 0)
+            {
+                if (r > t1)
+                    return false;
+                if (r > t0)
+                    t0 = r;
+            }
+            else
+            {
+                if (r < t0)
+                    return false;
+                if (r < t1)
+                    t1 = r;
+            }
+            return true;
+        }
+
+        /// <summary>
+        /// Rounds points to the grid, into the point buffer, dropping those equal to their predecessor.
+        /// </summary>
+        /// <returns>The number of points left, including the closing point of a ring.</returns>
+        private int Round(double[] values, int count, bool ring)
+        {
+            int[] points = Reserve(ref _points, 2 * count + 2);
+            int length = 0;
+            for (int i = 0; i < count; i++)
+            {
+                int x = (int)Math.Round(values[2 * i]);
+                int y = (int)Math.Round(values[2 * i + 1]);
+                if (length > 0 && points[length - 2] == x && points[length - 1] == y)
+                    continue;
+                points[length++] = x;
+                points[length++] = y;
+            }
+
+            if (ring && length > 0)
+            {
+                // the last point may have been rounded onto the first one
+                if (length > 2 && points[length - 2] == points[0] && points[length - 1] == points[1])
+                    length -= 2;
+                points[length++] = points[0];
+                points[length++] = points[1];
+            }
+            return length / 2;
+        }
+
+        /// <summary>
+        /// Simplifies the points in the point buffer (Douglas-Peucker), keeping the first and the last one.
+        /// </summary>
+        /// <returns>The number of points left.</returns>
+        private int Simplify(int count)
+        {
+            if (_toleranceSquared <= 0 || count < 3)
+                return count;
+
+            int[] points = _points;
+            bool[] keep = Reserve(ref _keep, count);
+            Array.Clear(keep, 0, count);
+            keep[0] = true;
+            keep[count - 1] = true;
+
+            int[] stack = Reserve(ref _stack, 2 * count);
+            int top = 0;
+            stack[top++] = 0;
+            stack[top++] = count - 1;
+            while (top > 0)
+            {
+                int last = stack[--top];
+                int first = stack[--top];
+
+                double maxDistance = 0;
+                int farthest = -1;
+                for (int i = first + 1; i < last; i++)
+                {
+                    double distance = DistanceSquared(points, i, first, last);
+                    if (distance > maxDistance)
+                    {
+                        maxDistance = distance;
+                        farthest = i;
+                    }
+                }
+
+                if (farthest >= 0 && maxDistance > _toleranceSquared)
+                {
+                    keep[farthest] = true;
+                    stack[top++] = first;
+                    stack[top++] = farthest;
+                    stack[top++] = farthest;
+                    stack[top++] = last;
+                }
+            }
+
+            int length = 0;
+            for (int i = 0; i < count; i++)
+            {
+                if (!keep[i])
+                    continue;
+                points[length++] = points[2 * i];
+                points[length++] = points[2 * i + 1];
+            }
+            return length / 2;
+        }
+
+        private static double DistanceSquared(int[] points, int index, int first, int last)
+        {
+            double x = points[2 * index], y = points[2 * index + 1];
+            double x0 = points[2 * first], y0 = points[2 * first + 1];
+            double dx = points[2 * last] - x0, dy = points[2 * last + 1] - y0;
+
+            double lengthSquared = dx * dx + dy * dy;
+            if (lengthSquared > 0)
+            {
+                double t = ((x - x0) * dx + (y - y0) * dy) / lengthSquared;
+                if (t > 1)
+                {
+                    x0 += dx;
+                    y0 += dy;
+                }
+                else if (t > 0)
+                {
+                    x0 += t * dx;
+                    y0 += t * dy;
+                }
+            }
+            dx = x - x0;
+            dy = y - y0;
+            return dx * dx + dy * dy;
+        }
+
+        /// <summary>
+        /// Gets twice the area of the ring in the point buffer, positive if it is clockwise with y pointing down.
+        /// </summary>
+        private long SignedArea(int count)
+        {
+            int[] points = _points;
+            long area = 0;
+            for (int i = 0; i < count - 1; i++)
+                area += (long)points[2 * i] * points[2 * i + 3] - (long)points[2 * i + 2] * points[2 * i + 1];
+            return area;
+        }
+
+        private void Reverse(int count)
+        {
+            int[] points = _points;
+            for (int i = 0, j = count - 1; i < j; i++, j--)
+            {
+                int x = points[2 * i], y = points[2 * i + 1];
+                points[2 * i] = points[2 * j];
+                points[2 * i + 1] = points[2 * j + 1];
+                points[2 * j] = x;
+                points[2 * j + 1] = y;
+            }
+        }
+
+        private double ToTileX(ICoordinateSequence sequence, int index)
+        {
+            return (sequence.GetOrdinate(index, Ordinate.X) - _minX) * _scaleX;
+        }
+
+        private double ToTileY(ICoordinateSequence sequence, int index)
+        {
+            return (_maxY - sequence.GetOrdinate(index, Ordinate.Y)) * _scaleY;
+        }
+
+        /// <summary>
+        /// Adds the parameters of a point, as zigzag encoded differences to the previous point.
+        /// </summary>
+        private void AddParameters(int x, int y)
+        {
+            _commands.Add(ZigZag(x - _cursorX));
+            _commands.Add(ZigZag(y - _cursorY));
+            _cursorX = x;
+            _cursorY = y;
+        }
+
+        private static uint Command(uint id, uint count)
+        {
+            return (id & 0x7) | (count << 3);
+        }
+
+        private static uint ZigZag(int value)
+        {
+            return (uint)((value << 1) ^ (value >> 31));
+        }
+
+        private static T[] Reserve<T>(ref T[] buffer, int length)
+        {
+            if (buffer.Length < length)
+                buffer = new T[Math.Max(length, 2 * buffer.Length)];
+            return buffer;
+        }
+    }
+}
@@ -0,0 +1,414 @@
+using System;
+using System.Collections.Generic;
+using System.Globalization;
+using System.IO;
+using GeoAPI.Geometries;
+using NetTopologySuite.Features;
+using NetTopologySuite.IO.Helpers;
+
+namespace NetTopologySuite.IO
+{
+    /// <summary>
+    /// Represents a Mapbox Vector Tile writer, which writes named layers of features as one tile.
+    /// </summary>
+    /// <remarks>
+    /// The geometries must be in the coordinate system of the tile envelope they are written for;
+    /// reprojecting them is up to the caller. Each geometry is clipped to the tile and its
+    /// <see cref="Buffer"/>, snapped to a grid of <see cref="Extent"/> units along each side of the
+    /// tile, and simplified on that grid. Lines and rings that collapse on the grid are dropped, as
+    /// are features with nothing left in the tile, and layers without any feature.
+    /// <para>
+    /// The attributes of the features are written as tags, with the keys and values shared by the
+    /// features of a layer. A <see cref="IGeometryCollection"/> is written as one feature per part.
+    /// </para>
+    /// </remarks>
+    public class VectorTileWriter
+    {
+        // the fields of the tile, layer, feature and value messages
+        private const int TileLayers = 3;
+        private const int LayerVersion = 15;
+        private const int LayerName = 1;
+        private const int LayerFeatures = 2;
+        private const int LayerKeys = 3;
+        private const int LayerValues = 4;
+        private const int LayerExtent = 5;
+        private const int FeatureId = 1;
+        private const int FeatureTags = 2;
+        private const int FeatureType = 3;
+        private const int FeatureGeometry = 4;
+        private const int ValueString = 1;
+        private const int ValueFloat = 2;
+        private const int ValueDouble = 3;
+        private const int ValueUInt = 5;
+        private const int ValueSInt = 6;
+        private const int ValueBool = 7;
+
+        private const int Version = 2;
+
+        private int _extent = 4096;
+        private int _buffer = 64;
+        private double _tolerance = 1;
+
+        /// <summary>
+        /// Gets or sets the number of grid units along each side of the tile. The default is 4096.
+        /// </summary>
+        public int Extent
+        {
+            get { return _extent; }
+            set
+            {
+                if (value <= 0)
+                    throw new ArgumentOutOfRangeException("value", "Extent must be positive");
+                _extent = value;
+            }
+        }
+
+        /// <summary>
+        /// Gets or sets the number of grid units geometries are kept beyond each side of the tile,
+        /// so that lines and polygon outlines are not cut at the tile border when rendered.
+        /// The default is 64.
+        /// </summary>
+        public int Buffer
+        {
+            get { return _buffer; }
+            set
+            {
+                if (value < 0)
+                    throw new ArgumentOutOfRangeException("value", "Buffer must not be negative");
+                _buffer = value;
+            }
+        }
+
+        /// <summary>
+        /// Gets or sets the distance tolerance, in grid units, lines and rings are simplified with,
+        /// or 0 to only drop repeated points. The default is 1.
+        /// </summary>
+        public double SimplificationTolerance
+        {
+            get { return _tolerance; }
+            set
+            {
+                if (value < 0 || double.IsNaN(value))
+                    throw new ArgumentOutOfRangeException("value", "Tolerance must not be negative");
+                _tolerance = value;
+            }
+        }
+
+        /// <summary>
+        /// Gets or sets the name of the attribute written as the id of the features, if any.
+        /// </summary>
+        /// <remarks>
+        /// Only non-negative integer values are written as ids, any other value is written as a tag.
+        /// </remarks>
+        public string IdAttributeName { get; set; }
+
+        /// <summary>
+        /// Writes the specified layers.
+        /// </summary>
+        /// <param name="tile">The extent of the tile, in the coordinates of the geometries.</param>
+        /// <param name="layers">The features of each layer, by name.</param>
+        /// <returns>The encoded tile.</returns>
+        public byte[] Write(Envelope tile, IDictionary<string, IEnumerable<IFeature>> layers)
+        {
+            using (var stream = new MemoryStream())
+            {
+                Write(stream, tile, layers);
+                return stream.ToArray();
+            }
+        }
+
+        /// <summary>
+        /// Writes the specified layers.
+        /// </summary>
+        /// <param name="stream">The stream to write to. It is not closed.</param>
+        /// <param name="tile">The extent of the tile, in the coordinates of the geometries.</param>
+        /// <param name="layers">The features of each layer, by name.</param>
+        public void Write(Stream stream, Envelope tile, IDictionary<string, IEnumerable<IFeature>> layers)
+        {
+            if (stream == null)
+                throw new ArgumentNullException("stream");
+            if (tile == null)
+                throw new ArgumentNullException("tile");
+            if (tile.Width <= 0 || tile.Height <= 0)
+                throw new ArgumentException("The tile must have a positive width and height", "tile");
+            if (layers == null)
+                throw new ArgumentNullException("layers");
+
+            var context = new LayerContext(new TileGeometryEncoder(tile, _extent, _buffer, _tolerance));
+            var header = new ProtobufBuffer();
+            foreach (KeyValuePair<string, IEnumerable<IFeature>> layer in layers)
+            {
+                if (String.IsNullOrEmpty(layer.Key))
+                    throw new ArgumentException("Layers must have a name", "layers");
+
+                context.Clear();
+                if (!WriteLayer(context, layer.Key, layer.Value))
+                    continue;
+
+                header.Clear();
+                header.WriteTag(TileLayers, ProtobufBuffer.LengthDelimited);
+                header.WriteVarint((uint)context.Layer.Length);
+                header.WriteTo(stream);
+                context.Layer.WriteTo(stream);
+            }
+        }
+
+        /// <summary>
+        /// Builds a layer message in the layer buffer of the context.
+        /// </summary>
+        /// <returns><c>false</c> if none of the features is in the tile.</returns>
+        private bool WriteLayer(LayerContext context, string name, IEnumerable<IFeature> features)
+        {
+            ProtobufBuffer layer = context.Layer;
+            layer.WriteVarint(LayerVersion, Version);
+            layer.WriteString(LayerName, name);
+
+            bool written = false;
+            if (features != null)
+            {
+                foreach (IFeature feature in features)
+                {
+                    if (feature == null || feature.Geometry == null)
+                        continue;
+                    if (WriteFeature(context, feature.Geometry, feature.Attributes))
+                        written = true;
+                }
+            }
+            if (!written)
+                return false;
+
+            foreach (string key in context.Keys)
+                layer.WriteString(LayerKeys, key);
+            foreach (object value in context.Values)
+                WriteValue(layer, value);
+            layer.WriteVarint(LayerExtent, (uint)_extent);
+            return true;
+        }
+
+        private bool WriteFeature(LayerContext context, IGeometry geometry, IAttributesTable attributes)
+        {
+            if (geometry.OgcGeometryType == OgcGeometryType.GeometryCollection)
+            {
+                bool written = false;
+                for (int i = 0; i < geometry.NumGeometries; i++)
+                {
+                    if (WriteFeature(context, geometry.GetGeometryN(i), attributes))
+                        written = true;
+                }
+                return written;
+            }
+
+            int type = context.Encoder.Encode(geometry);
+            if (type == TileGeometryEncoder.Unknown)
+                return false;
+
+            ulong id;
+            bool hasId = WriteTags(context, attributes, out id);
+
+            List<uint> tags = context.Tags;
+            List<uint> commands = context.Encoder.Commands;
+            int size = ProtobufBuffer.TagSize(FeatureType) + 1 + ProtobufBuffer.PackedFieldSize(FeatureGeometry, commands);
+            if (hasId)
+                size += ProtobufBuffer.TagSize(FeatureId) + ProtobufBuffer.VarintSize(id);
+            if (tags.Count > 0)
+                size += ProtobufBuffer.PackedFieldSize(FeatureTags, tags);
+
+            ProtobufBuffer layer = context.Layer;
+            layer.WriteTag(LayerFeatures, ProtobufBuffer.LengthDelimited);
+            layer.WriteVarint((uint)size);
+            if (hasId)
+                layer.WriteVarint(FeatureId, id);
+            if (tags.Count > 0)
+                layer.WritePacked(FeatureTags, tags);
+            layer.WriteVarint(FeatureType, (uint)type);
+            layer.WritePacked(FeatureGeometry, commands);
+            return true;
+        }
+
+        /// <summary>
+        /// Collects the key and value indices of the attributes in the tags of the context.
+        /// </summary>
+        /// <returns><c>true</c> if the id attribute has been found.</returns>
+        private bool WriteTags(LayerContext context, IAttributesTable attributes, out ulong id)
+        {
+            context.Tags.Clear();
+            id = 0;
+            if (attributes == null)
+                return false;
+
+            bool hasId = false;
+            foreach (string name in attributes.GetNames())
+            {
+                object value = attributes[name];
+                if (value == null)
+                    continue;
+                if (!hasId && name == IdAttributeName && TryGetId(value, out id))
+                {
+                    hasId = true;
+                    continue;
+                }
+
+                if (!IsValueType(value))
+                    value = Convert.ToString(value, CultureInfo.InvariantCulture);
+                context.Tags.Add(context.GetKeyIndex(name));
+                context.Tags.Add(context.GetValueIndex(value));
+            }
+            return hasId;
+        }
+
+        private static bool TryGetId(object value, out ulong id)
+        {
+            switch (Type.GetTypeCode(value.GetType()))
+            {
+                case TypeCode.Byte:
+                case TypeCode.UInt16:
+                case TypeCode.UInt32:
+                case TypeCode.UInt64:
+                    id = Convert.ToUInt64(value);
+                    return true;
+                case TypeCode.SByte:
+                case TypeCode.Int16:
+                case TypeCode.Int32:
+                case TypeCode.Int64:
+                    long signed = Convert.ToInt64(value);
+                    id = (ulong)signed;
+                    return signed >= 0;
+                default:
+                    id = 0;
+                    return false;
+            }
+        }
+
+        /// <summary>
+        /// Gets whether a value has a type of its own in a tile, rather than being written as a string.
+        /// </summary>
+        private static bool IsValueType(object value)
+        {
+            switch (Type.GetTypeCode(value.GetType()))
+            {
+                case TypeCode.String:
+                case TypeCode.Boolean:
+                case TypeCode.Single:
+                case TypeCode.Double:
+                case TypeCode.Decimal:
+                case TypeCode.Byte:
+                case TypeCode.UInt16:
+                case TypeCode.UInt32:
+                case TypeCode.UInt64:
+                case TypeCode.SByte:
+                case TypeCode.Int16:
+                case TypeCode.Int32:
+                case TypeCode.Int64:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private static void WriteValue(ProtobufBuffer layer, object value)
+        {
+            string text = value as string;
+            if (text != null)
+            {
+                layer.WriteTag(LayerValues, ProtobufBuffer.LengthDelimited);
+                layer.WriteVarint((uint)ProtobufBuffer.StringSize(ValueString, text));
+                layer.WriteString(ValueString, text);
+                return;
+            }
+
+            // every other value is a single field with a one byte tag
+            layer.WriteTag(LayerValues, ProtobufBuffer.LengthDelimited);
+            switch (Type.GetTypeCode(value.GetType()))
+            {
+                case TypeCode.Boolean:
+                    layer.WriteVarint(2);
+                    layer.WriteVarint(ValueBool, (bool)value ? 1UL : 0UL);
+                    break;
+                case TypeCode.Single:
+                    layer.WriteVarint(5);
+                    layer.WriteFloat(ValueFloat, (float)value);
+                    break;
+                case TypeCode.Double:
+                case TypeCode.Decimal:
+                    layer.WriteVarint(9);
+                    layer.WriteDouble(ValueDouble, Convert.ToDouble(value, CultureInfo.InvariantCulture));
+                    break;
+                case TypeCode.Byte:
+                case TypeCode.UInt16:
+                case TypeCode.UInt32:
+                case TypeCode.UInt64:
+                    ulong unsigned = Convert.ToUInt64(value);
+                    layer.WriteVarint((uint)(1 + ProtobufBuffer.VarintSize(unsigned)));
+                    layer.WriteVarint(ValueUInt, unsigned);
+                    break;
+                default:
+                    long signed = Convert.ToInt64(value);
+                    if (signed >= 0)
+                    {
+                        layer.WriteVarint((uint)(1 + ProtobufBuffer.VarintSize((ulong)signed)));
+                        layer.WriteVarint(ValueUInt, (ulong)signed);
+                    }
+                    else
+                    {
+                        ulong zigZag = (ulong)((signed << 1) ^ (signed >> 63));
+                        layer.WriteVarint((uint)(1 + ProtobufBuffer.VarintSize(zigZag)));
+                        layer.WriteVarint(ValueSInt, zigZag);
+                    }
+                    break;
+            }
+        }
+
+        /// <summary>
+        /// The state of the layer being written, kept from one layer to the next.
+        /// </summary>
+        private class LayerContext
+        {
+            public readonly TileGeometryEncoder Encoder;
+            public readonly ProtobufBuffer Layer = new ProtobufBuffer();
+            public readonly List<uint> Tags = new List<uint>();
+            public readonly List<string> Keys = new List<string>();
+            public readonly List<object> Values = new List<object>();
+
+            private readonly Dictionary<string, uint> _keyIndices = new Dictionary<string, uint>();
+            private readonly Dictionary<object, uint> _valueIndices = new Dictionary<object, uint>();
+
+            public LayerContext(TileGeometryEncoder encoder)
+            {
+                Encoder = encoder;
+            }
+
+            public void Clear()
+            {
+                Layer.Clear();
+                Keys.Clear();
+                Values.Clear();
+                _keyIndices.Clear();
+                _valueIndices.Clear();
+            }
+
+            public uint GetKeyIndex(string key)
+            {
+                uint index;
+                if (!_keyIndices.TryGetValue(key, out index))
+                {
+                    index = (uint)Keys.Count;
+                    Keys.Add(key);
+                    _keyIndices.Add(key, index);
+                }
+                return index;
+            }
+
+            public uint GetValueIndex(object value)
+            {
+                uint index;
+                if (!_valueIndices.TryGetValue(value, out index))
+                {
+                    index = (uint)Values.Count;
+                    Values.Add(value);
+                    _valueIndices.Add(value, index);
+                }
+                return index;
+            }
+        }
+    }
+}
@@ -215,5 +215,60 @@ namespace NetTopologySuite.Samples.Tests.Operation.IO
             }
             Assert.That(i, Is.EqualTo(201));
         }
+
+        [Test]
+        public void TestReadingShapeFileParallelPreservesOrder()
+        {
+            var expected = new List<IGeometry>();
+            var expectedAttributes = new List<object>();
+            using (ShapefileDataReader reader = new ShapefileDataReader("Strade", Factory))
+            {
+                while (reader.Read())
+                {
+                    expected.Add(reader.Geometry);
+                    expectedAttributes.Add(reader.GetValue(0));
+                }
+            }
+
+            using (ShapefileDataReader reader = new ShapefileDataReader("Strade", Factory))
+            {
+                var features = reader.ReadFeaturesParallel(4, true).ToList();
+                Assert.That(features.Count, Is.EqualTo(expected.Count));
+                string firstField = reader.DbaseHeader.Fields[0].Name;
+                for (int i = 0; i < features.Count; i++)
+                {
+                    Assert.That(features[i].Geometry.EqualsExact(expected[i]), "geometry {0} differs", i);
+                    Assert.That(features[i].Attributes[firstField], Is.EqualTo(expectedAttributes[i]));
+                }
+            }
+        }
+
+        [Test]
+        public void TestReadingShapeFileParallelUnordered()
+        {
+            var expected = new ShapefileReader("Strade.shp", Factory).ReadAll();
+
+            var actual = new ShapefileReader("Strade.shp", Factory).ReadParallel(-1, false).ToList();
+            Assert.That(actual.Count, Is.EqualTo(expected.NumGeometries));
+            foreach (IGeometry geom in expected.Geometries)
+                Assert.That(actual.Any(g => g.EqualsExact(geom)), "{0} not read", geom);
+        }
+
+        [Test]
+        public void TestReadingShapeFileParallelAbandoned()
+        {
+            var reader = new ShapefileReader("Strade.shp", Factory);
+            var first = reader.ReadParallel(2, true).Take(10).ToList();
+            Assert.That(first.Count, Is.EqualTo(10));
+
+            // the pipeline has been stopped and the file closed
+            using (new FileStream("Strade.shp", FileMode.Open, FileAccess.ReadWrite, FileShare.None)) { }
+        }
+
+        [Test, ExpectedException(typeof(ArgumentOutOfRangeException))]
+        public void TestReadingShapeFileParallelRejectsZeroWorkers()
+        {
+            new ShapefileReader("Strade.shp", Factory).ReadParallel(0, true);
+        }
     }
 }
@@ -1,4 +1,5 @@
 using System;
+using System.Collections.Generic;
 using System.Collections.ObjectModel;
 using System.IO;
 using GeoAPI.Geometries;
@@ -93,6 +94,57 @@ namespace NetTopologySuite.Samples.Tests.Operation.IO
             }
         }   
 
+        [Test]
+        public void TestWriteFeatureStream()
+        {
+            const int count = 5000;
+            var writer = new ShapefileDataWriter("stream_test", Factory);
+            writer.WriteFeatures(CreateFeatureStream(count));
+
+            using (var reader = new ShapefileDataReader("stream_test", Factory))
+            {
+                Assert.AreEqual(count, reader.RecordCount);
+                Assert.AreEqual(ShapeGeometryType.Point, reader.ShapeHeader.ShapeType);
+                Assert.AreEqual(new Envelope(0, count - 1, 0, 2 * (count - 1)), reader.ShapeHeader.Bounds);
+
+                int i = 0;
+                while (reader.Read())
+                {
+                    Assert.AreEqual(i, reader.GetInt32(0));
+                    Assert.AreEqual("feature " + i, reader.GetString(1));
+                    Assert.AreEqual(new Coordinate(i, 2 * i), reader.Geometry.Coordinate);
+                    i++;
+                }
+                Assert.AreEqual(count, i);
+            }
+        }
+
+        [Test]
+        public void TestWriteEmptyFeatureStream()
+        {
+            var writer = new ShapefileDataWriter("empty_stream_test", Factory);
+            writer.Header = new DbaseFileHeader();
+            writer.Header.AddColumn("ID", 'N', 10, 0);
+            writer.WriteFeatures(new IFeature[0], ShapeGeometryType.Point);
+
+            using (var reader = new ShapefileDataReader("empty_stream_test", Factory))
+            {
+                Assert.AreEqual(0, reader.RecordCount);
+                Assert.IsFalse(reader.Read());
+            }
+        }
+
+        private IEnumerable<IFeature> CreateFeatureStream(int count)
+        {
+            for (var i = 0; i < count; i++)
+            {
+                var attributes = new AttributesTable();
+                attributes.AddAttribute("ID", i);
+                attributes.AddAttribute("NAME", "feature " + i);
+                yield return new Feature(Factory.CreatePoint(new Coordinate(i, 2 * i)), attributes);
+            }
+        }
+
         [Test]
         public void TestWriteSimpleShapeFile()
         {
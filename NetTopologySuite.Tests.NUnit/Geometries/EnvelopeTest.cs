@@ -259,5 +259,36 @@ namespace NetTopologySuite.Tests.NUnit.Geometries
             var envFromString = Envelope.Parse(envString);
             Assert.IsTrue(env.Equals(envFromString));
         }
+
+        [Test]
+        public void TestSharedEnvelope()
+        {
+            var g = reader.Read("LINESTRING (10 10, 20 30)");
+
+            var shared = SharedEnvelope.Get(g);
+            Assert.AreSame(shared, SharedEnvelope.Get(g));
+            Assert.AreNotSame(shared, g.EnvelopeInternal);
+            Assert.IsTrue(shared.Equals(g.EnvelopeInternal));
+
+            g.Apply(new CoordinateTranslateFilter(5));
+            g.GeometryChanged();
+            Assert.IsTrue(new Envelope(15, 25, 15, 35).Equals(SharedEnvelope.Get(g)));
+        }
+
+        private class CoordinateTranslateFilter : ICoordinateFilter
+        {
+            private readonly double _offset;
+
+            public CoordinateTranslateFilter(double offset)
+            {
+                _offset = offset;
+            }
+
+            public void Filter(Coordinate coord)
+            {
+                coord.X += _offset;
+                coord.Y += _offset;
+            }
+        }
     }
 }
@@ -0,0 +1,183 @@
+﻿using System;
+using System.IO;
+using GeoAPI.Geometries;
+using NetTopologySuite.Geometries;
+using NetTopologySuite.Geometries.Implementation;
+using NetTopologySuite.IO;
+using NUnit.Framework;
+
+namespace NetTopologySuite.Tests.NUnit.IO
+{
+    /// <summary>
+    /// Tests the <see cref="TWKBReader"/> and <see cref="TWKBWriter"/>.
+    /// </summary>
+    [TestFixtureAttribute]
+    public class TWKBTest
+    {
+        private static readonly GeometryFactory GeomFactory = new GeometryFactory();
+        private static readonly WKTReader Rdr = new WKTReader(GeomFactory);
+        private readonly TWKBReader _twkbReader = new TWKBReader(NtsGeometryServices.Instance);
+
+        [TestAttribute]
+        public void TestPoint()
+        {
+            CheckTwkb("POINT (1 2)", new TWKBWriter(0, 0, 0), "01000204");
+            CheckTwkb("POINT (-1 -2)", new TWKBWriter(0, 0, 0), "01000103");
+            CheckTwkb("POINT (1.12 2.34)", new TWKBWriter(2, 0, 0), "4100E001D403");
+        }
+
+        [TestAttribute]
+        public void TestEmpty()
+        {
+            CheckTwkb("POINT EMPTY", new TWKBWriter(0, 0, 0), "0110");
+            CheckTwkb("POLYGON EMPTY", new TWKBWriter(0, 0, 0), "0310");
+            CheckTwkb("GEOMETRYCOLLECTION EMPTY", new TWKBWriter(0, 0, 0), "0710");
+        }
+
+        [TestAttribute]
+        public void TestLineStringWithSizeAndBBox()
+        {
+            var writer = new TWKBWriter(0, 0, 0);
+            CheckTwkb("LINESTRING (1 1, 5 5)", writer, "02000202020808");
+
+            writer.IncludeSize = true;
+            CheckTwkb("LINESTRING (1 1, 5 5)", writer, "0202050202020808");
+
+            writer.IncludeSize = false;
+            writer.IncludeBBox = true;
+            CheckTwkb("LINESTRING (1 1, 5 5)", writer, "0201020802080202020808");
+        }
+
+        [TestAttribute]
+        public void TestPointZ()
+        {
+            IPoint point = GeomFactory.CreatePoint(new Coordinate(1, 2, 3));
+            byte[] bytes = new TWKBWriter(0, 0, 0).Write(point);
+            Assert.AreEqual("010801020406", WKBWriter.ToHex(bytes));
+
+            var read = (IPoint)_twkbReader.Read(bytes);
+            Assert.AreEqual(3, read.Coordinate.Z);
+        }
+
+        [TestAttribute]
+        public void TestZNotWrittenIfNotHandled()
+        {
+            IPoint point = GeomFactory.CreatePoint(new Coordinate(1, 2, 3));
+            var writer = new TWKBWriter(0, 0, 0);
+            writer.HandleOrdinates = Ordinates.XY;
+            Assert.AreEqual("01000204", WKBWriter.ToHex(writer.Write(point)));
+        }
+
+        [TestAttribute]
+        public void TestRoundTrip()
+        {
+            var writer = new TWKBWriter(3, 0, 0);
+            writer.IncludeBBox = true;
+            writer.IncludeSize = true;
+            foreach (string wkt in new[]
+                {
+                    "POINT (10.125 -20.5)",
+                    "LINESTRING (1 2, 10 20, 100 200)",
+                    "POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (2 2, 2 4, 4 4, 4 2, 2 2))",
+                    "MULTIPOINT ((0 0), (1 4), (-3.5 2.25))",
+                    "MULTILINESTRING ((0 0, 1 1), (5 5, 6 7, 8 9))",
+                    "MULTIPOLYGON (((0 0, 10 0, 10 10, 0 10, 0 0)), ((20 20, 30 20, 30 30, 20 20)))",
+                    "GEOMETRYCOLLECTION (POINT (1 1), LINESTRING (2 2, 3 3), POLYGON EMPTY)"
+                })
+            {
+                IGeometry expected = Rdr.Read(wkt);
+                IGeometry actual = _twkbReader.Read(writer.Write(expected));
+                Assert.IsTrue(expected.EqualsExact(actual), wkt);
+            }
+        }
+
+        [TestAttribute]
+        public void TestPrecision()
+        {
+            IGeometry line = Rdr.Read("LINESTRING (1234.5678 8765.4321, 1250.1234 8800.9876)");
+
+            var read = _twkbReader.Read(new TWKBWriter(2, 0, 0).Write(line));
+            Assert.IsTrue(Rdr.Read("LINESTRING (1234.57 8765.43, 1250.12 8800.99)").EqualsExact(read, 1e-9));
+
+            // a negative precision rounds to tens
+            read = _twkbReader.Read(new TWKBWriter(-1, 0, 0).Write(line));
+            Assert.IsTrue(Rdr.Read("LINESTRING (1230 8770, 1250 8800)").EqualsExact(read, 1e-9));
+        }
+
+        [TestAttribute]
+        public void TestZAndM()
+        {
+            var services = new NtsGeometryServices(DotSpatialAffineCoordinateSequenceFactory.Instance,
+                new PrecisionModel(PrecisionModels.Floating), 0);
+            var factory = new GeometryFactory(new PrecisionModel(), 0, DotSpatialAffineCoordinateSequenceFactory.Instance);
+            ICoordinateSequence sequence = factory.CoordinateSequenceFactory.Create(3, Ordinates.XYZM);
+            for (int i = 0; i < sequence.Count; i++)
+            {
+                sequence.SetOrdinate(i, Ordinate.X, 1.5 * i);
+                sequence.SetOrdinate(i, Ordinate.Y, -2.25 * i);
+                sequence.SetOrdinate(i, Ordinate.Z, 100.1 + i);
+                sequence.SetOrdinate(i, Ordinate.M, 0.001 * i);
+            }
+
+            byte[] bytes = new TWKBWriter(2, 1, 3).Write(factory.CreateLineString(sequence));
+            var read = ((ILineString)new TWKBReader(services).Read(bytes)).CoordinateSequence;
+
+            Assert.AreEqual(sequence.Count, read.Count);
+            for (int i = 0; i < sequence.Count; i++)
+            {
+                Assert.AreEqual(sequence.GetOrdinate(i, Ordinate.X), read.GetOrdinate(i, Ordinate.X), 1e-9);
+                Assert.AreEqual(sequence.GetOrdinate(i, Ordinate.Y), read.GetOrdinate(i, Ordinate.Y), 1e-9);
+                Assert.AreEqual(sequence.GetOrdinate(i, Ordinate.Z), read.GetOrdinate(i, Ordinate.Z), 1e-9);
+                Assert.AreEqual(sequence.GetOrdinate(i, Ordinate.M), read.GetOrdinate(i, Ordinate.M), 1e-9);
+            }
+        }
+
+        [TestAttribute]
+        public void TestIds()
+        {
+            IGeometry multiPoint = Rdr.Read("MULTIPOINT ((0 0), (1 1))");
+            byte[] bytes = new TWKBWriter(0, 0, 0).Write(multiPoint, new long[] { 10, 20 });
+            Assert.AreEqual("040402142800000202", WKBWriter.ToHex(bytes));
+
+            IGeometry read = _twkbReader.Read(bytes);
+            Assert.IsTrue(multiPoint.EqualsExact(read));
+            Assert.AreEqual(10L, read.GetGeometryN(0).UserData);
+            Assert.AreEqual(20L, read.GetGeometryN(1).UserData);
+
+            Assert.Throws<ArgumentException>(() => new TWKBWriter().Write(multiPoint, new long[] { 1 }));
+            Assert.Throws<ArgumentException>(() => new TWKBWriter().Write(Rdr.Read("POINT (1 1)"), new long[] { 1 }));
+        }
+
+        [TestAttribute]
+        public void TestReadSequence()
+        {
+            var writer = new TWKBWriter(1, 0, 0);
+            var stream = new MemoryStream();
+            writer.Write(Rdr.Read("POINT (1 2)"), stream);
+            writer.Write(Rdr.Read("LINESTRING (1 2, 3 4)"), stream);
+            writer.Write(Rdr.Read("POINT EMPTY"), stream);
+
+            stream.Position = 0;
+            Assert.IsTrue(Rdr.Read("POINT (1 2)").EqualsExact(_twkbReader.Read(stream)));
+            Assert.IsTrue(Rdr.Read("LINESTRING (1 2, 3 4)").EqualsExact(_twkbReader.Read(stream)));
+            Assert.IsTrue(_twkbReader.Read(stream).IsEmpty);
+            Assert.AreEqual(stream.Length, stream.Position);
+        }
+
+        [TestAttribute]
+        public void TestReadTruncated()
+        {
+            Assert.Throws<GeoAPI.IO.ParseException>(() => _twkbReader.Read(WKBReader.HexToBytes("0200020202")));
+        }
+
+        private void CheckTwkb(string wkt, TWKBWriter writer, string expectedHex)
+        {
+            IGeometry expected = Rdr.Read(wkt);
+            byte[] bytes = writer.Write(expected);
+            Assert.AreEqual(expectedHex, WKBWriter.ToHex(bytes));
+
+            IGeometry actual = _twkbReader.Read(bytes);
+            Assert.IsTrue(expected.EqualsExact(actual), wkt);
+        }
+    }
+}
@@ -2,6 +2,8 @@
 using System.IO;
 using System.Text;
 using GeoAPI.Geometries;
+using NetTopologySuite.Geometries;
+using NetTopologySuite.Geometries.Implementation;
 using NetTopologySuite.IO;
 using NUnit.Framework;
 
@@ -72,6 +74,60 @@ namespace NetTopologySuite.Tests.NUnit.IO
                 "GEOMETRYCOLLECTION(POINT(4 6),LINESTRING(4 6,7 10))");
         }
 
+        [TestAttribute]
+        public void TestReadArraySegment()
+        {
+            IGeometry expected = new WKTReader().Read("POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (2 2, 2 4, 4 4, 2 2))");
+            byte[] wkb = expected.AsBinary();
+
+            var data = new byte[wkb.Length + 7];
+            Array.Copy(wkb, 0, data, 3, wkb.Length);
+
+            IGeometry actual = new WKBReader().Read(data, 3, wkb.Length);
+            Assert.IsTrue(expected.EqualsExact(actual));
+        }
+
+        [TestAttribute]
+        public void TestReadBigEndianArray()
+        {
+            IGeometry expected = new WKTReader().Read("MULTILINESTRING ((10 10 1, 20 20 2), (40 40 3, 30 30 4, 40 20 5))");
+            byte[] big = new WKBWriter(ByteOrder.BigEndian, false, true).Write(expected);
+            byte[] little = new WKBWriter(ByteOrder.LittleEndian, false, true).Write(expected);
+
+            var reader = new WKBReader();
+            IGeometry fromBig = reader.Read(big);
+            IGeometry fromLittle = reader.Read(little);
+            Assert.IsTrue(expected.EqualsExact(fromBig));
+            Assert.IsTrue(expected.EqualsExact(fromLittle));
+            for (int i = 0; i < expected.NumPoints; i++)
+            {
+                Assert.AreEqual(expected.Coordinates[i].Z, fromBig.Coordinates[i].Z);
+                Assert.AreEqual(expected.Coordinates[i].Z, fromLittle.Coordinates[i].Z);
+            }
+        }
+
+        [TestAttribute]
+        public void TestReadIntoPackedSequence()
+        {
+            var services = new NtsGeometryServices(PackedCoordinateSequenceFactory.DoubleFactory,
+                new PrecisionModel(PrecisionModels.Floating), -1);
+            var reader = new WKBReader(services);
+
+            IGeometry expected = new WKTReader().Read("LINESTRING (1 2 3, 4 5 6, 7 8 9)");
+            var actual = (ILineString)reader.Read(new WKBWriter(ByteOrder.LittleEndian, false, true).Write(expected));
+
+            Assert.IsInstanceOf<PackedDoubleCoordinateSequence>(actual.CoordinateSequence);
+            CollectionAssert.AreEqual(new double[] { 1, 2, 3, 4, 5, 6, 7, 8, 9 },
+                ((PackedDoubleCoordinateSequence)actual.CoordinateSequence).GetRawCoordinates());
+        }
+
+        [TestAttribute]
+        public void TestReadTruncatedArray()
+        {
+            byte[] wkb = new WKTReader().Read("LINESTRING (1 2, 3 4)").AsBinary();
+            Assert.Throws<GeoAPI.IO.ParseException>(() => new WKBReader().Read(wkb, 0, wkb.Length - 1));
+        }
+
         [TestAttribute, Ignore("Not yet implemented satisfactorily.")]
         public void TestIllFormedWKB()
         {
@@ -26,6 +26,26 @@ namespace NetTopologySuite.Tests.NUnit.IO
             RunGeometry(g, 2, ByteOrder.BigEndian, false, 100);
         }
         
+        [TestAttribute]
+        public void TestWriteToBuffer()
+        {
+            var writer = new WKBWriter(ByteOrder.LittleEndian, true, true);
+            var buffer = new byte[1024];
+            foreach (string wkt in new[] { "POINT (1 2)", "LINESTRING (1 2, 10 20, 100 200)", "MULTIPOINT ((0 0), (1 4))" })
+            {
+                IGeometry g = Rdr.Read(wkt);
+                g.SRID = 4326;
+                int size = writer.Write(g, buffer, 0);
+
+                IGeometry g2 = _wkbReader.Read(buffer, 0, size);
+                Assert.IsTrue(g.EqualsExact(g2));
+                Assert.AreEqual(4326, g2.SRID);
+            }
+
+            IGeometry line = Rdr.Read("LINESTRING (1 2, 10 20, 100 200)");
+            Assert.Throws<ArgumentException>(() => writer.Write(line, new byte[writer.GetEncodedSize(line) - 1], 0));
+        }
+
         [TestAttribute]
         public void TestFirst()
         {
@@ -204,6 +224,13 @@ namespace NetTopologySuite.Tests.NUnit.IO
 
             WKBWriter wkbWriter = new WKBWriter(byteOrder, includeSRID, dimension==2 ? false : true);
             byte[] wkb = wkbWriter.Write(g);
+
+            // writing into a caller supplied buffer gives the same bytes
+            Assert.AreEqual(wkb.Length, wkbWriter.GetEncodedSize(g));
+            var buffer = new byte[wkb.Length + 3];
+            Assert.AreEqual(wkb.Length, wkbWriter.Write(g, buffer, 3));
+            for (int i = 0; i < wkb.Length; i++)
+                Assert.AreEqual(wkb[i], buffer[i + 3]);
             String wkbHex = null;
             if (toHex)
                 wkbHex = WKBWriter.ToHex(wkb);
@@ -129,6 +129,68 @@ namespace NetTopologySuite.Tests.NUnit.IO
             Assert.AreEqual(point1.Coordinate.Y, point2.Coordinate.Y, 1E-7);
         }
 
+        [TestAttribute]
+        public void TestReadSrid()
+        {
+            var pt = _reader.Read("SRID=4326;POINT (1 2)");
+            Assert.AreEqual(4326, pt.SRID);
+            Assert.AreEqual(new Coordinate(1, 2), pt.Coordinate);
+            Assert.AreEqual(0, _reader.Read("POINT (1 2)").SRID);
+        }
+
+        [TestAttribute]
+        public void TestReadOrdinateSuffixes()
+        {
+            Assert.AreEqual(3, _reader.Read("POINT Z (1 2 3)").Coordinate.Z);
+            Assert.AreEqual(3, _reader.Read("POINT M (1 2 3)").Coordinate.Z);
+            Assert.AreEqual("LINESTRING EMPTY", _writer.Write(_reader.Read("LINESTRING ZM EMPTY")));
+            Assert.AreEqual("POLYGON EMPTY", _writer.Write(_reader.Read("polygon z empty")));
+        }
+
+        [TestAttribute]
+        public void TestReadMultiPointWithoutParentheses()
+        {
+            Assert.AreEqual("MULTIPOINT ((10 10), (20 20))", _writer.Write(_reader.Read("MULTIPOINT (10 10, 20 20)")));
+        }
+
+        [TestAttribute]
+        public void TestReadNumberFormats()
+        {
+            var reader = new WKTReader(new GeometryFactory(new PrecisionModel(), 0));
+            var numbers = new[]
+                {
+                    "0", "-0", "1.5", "-.25", "7.", "1e3", "1E-3", "-2.5e+2", "0.1", "0.3",
+                    "123456789.0123456789", "0.000000000000000000000001234", "1.7976931348623157e308",
+                    "4.9e-324", "98765432109876543210", "3.14159265358979323846"
+                };
+            foreach (string number in numbers)
+            {
+                double expected = Double.Parse(number, System.Globalization.CultureInfo.InvariantCulture);
+                var c = reader.Read("POINT (" + number + " " + number + ")").Coordinate;
+                Assert.AreEqual(expected, c.X, 0, number);
+                Assert.AreEqual(expected, c.Y, 0, number);
+            }
+        }
+
+        [TestAttribute]
+        public void TestReadFromTextReaderAcrossBuffer()
+        {
+            var sb = new System.Text.StringBuilder("LINESTRING (");
+            for (int i = 0; i < 2000; i++)
+            {
+                if (i > 0) sb.Append(", ");
+                sb.AppendFormat(System.Globalization.CultureInfo.InvariantCulture, "{0}.25 {1}.5", i, -i);
+            }
+            sb.Append(")");
+
+            var reader = new WKTReader(new GeometryFactory(new PrecisionModel(), 0));
+            var fromString = reader.Read(sb.ToString());
+            var fromReader = reader.Read(new System.IO.StringReader(sb.ToString()));
+            Assert.AreEqual(2000, fromReader.NumPoints);
+            Assert.IsTrue(fromString.EqualsExact(fromReader));
+            Assert.AreEqual(new Coordinate(1999.25, -1999.5), fromReader.Coordinates[1999]);
+        }
+
         [TestAttribute]
         [Explicit("doesn't works on my machine")]
         public void RepeatedTestThreading()
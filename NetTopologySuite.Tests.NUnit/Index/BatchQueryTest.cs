@@ -0,0 +1,134 @@
+using System;
+using System.Collections.Generic;
+using System.Threading;
+using GeoAPI.Geometries;
+using NetTopologySuite.Index;
+using NetTopologySuite.Index.Quadtree;
+using NetTopologySuite.Index.Strtree;
+using NUnit.Framework;
+
+namespace NetTopologySuite.Tests.NUnit.Index
+{
+    public class BatchQueryTest
+    {
+        private const int ItemCount = 2000;
+        private const int QueryCount = 500;
+
+        [TestAttribute]
+        public void TestSTRtree()
+        {
+            var tree = new STRtree<Envelope>();
+            foreach (var env in CreateEnvelopes(ItemCount, 10, 1))
+                tree.Insert(env, env);
+            var queries = CreateQueries();
+
+            CheckResults(queries, tree.Query, (q, v) => tree.Query(q, v));
+            CheckResults(queries, tree.Query, (q, v) => tree.Query(q, v, 4));
+        }
+
+        [TestAttribute]
+        public void TestQuadtree()
+        {
+            var tree = new Quadtree<Envelope>();
+            foreach (var env in CreateEnvelopes(ItemCount, 10, 1))
+                tree.Insert(env, env);
+            var queries = CreateQueries();
+
+            CheckResults(queries, tree.Query, (q, v) => tree.Query(q, v));
+            CheckResults(queries, tree.Query, (q, v) => tree.Query(q, v, 4));
+        }
+
+        [TestAttribute]
+        public void TestPackedSTRtree()
+        {
+            var tree = new PackedSTRtree<Envelope>();
+            foreach (var env in CreateEnvelopes(ItemCount, 10, 1))
+                tree.Insert(env, env);
+            var queries = CreateQueries();
+
+            CheckResults(queries, tree.Query, (q, v) => tree.Query(q, v));
+            CheckResults(queries, tree.Query, (q, v) => tree.Query(q, v, 4));
+        }
+
+        [TestAttribute]
+        public void TestEmptyBatch()
+        {
+            var tree = new STRtree<Envelope>();
+            tree.Insert(new Envelope(0, 1, 0, 1), new Envelope(0, 1, 0, 1));
+            var visitor = new BatchCollector(0);
+            tree.Query(new Envelope[0], visitor, -1);
+            Assert.AreEqual(0, visitor.VisitCount);
+
+            visitor = new BatchCollector(2);
+            tree.Query(new Envelope[] { null, new Envelope() }, visitor);
+            Assert.AreEqual(0, visitor.VisitCount);
+            Assert.AreEqual(0, visitor.Results[0].Count);
+            Assert.AreEqual(0, visitor.Results[1].Count);
+        }
+
+        private static Envelope[] CreateQueries()
+        {
+            var queries = CreateEnvelopes(QueryCount, 10, 5);
+            // null entries are skipped
+            queries[7] = null;
+            queries[11] = new Envelope();
+            return queries;
+        }
+
+        private static Envelope[] CreateEnvelopes(int count, double extent, double maxSize)
+        {
+            var rnd = new Random(17);
+            var res = new Envelope[count];
+            for (var i = 0; i < count; i++)
+            {
+                var x = rnd.NextDouble() * extent;
+                var y = rnd.NextDouble() * extent;
+                res[i] = new Envelope(x, x + rnd.NextDouble() * maxSize, y, y + rnd.NextDouble() * maxSize);
+            }
+            return res;
+        }
+
+        private static void CheckResults(Envelope[] queries, Func<Envelope, IList<Envelope>> query,
+            Action<Envelope[], IBatchItemVisitor<Envelope>> batchQuery)
+        {
+            var visitor = new BatchCollector(queries.Length);
+            batchQuery(queries, visitor);
+
+            for (var i = 0; i < queries.Length; i++)
+            {
+                var expected = queries[i] == null || queries[i].IsNull 
+                    ? new List<Envelope>() 
+                    : new List<Envelope>(query(queries[i]));
+                var actual = visitor.Results[i];
+                Assert.AreEqual(expected.Count, actual.Count);
+                foreach (var item in expected)
+                    Assert.IsTrue(actual.Contains(item));
+            }
+        }
+
+        private class BatchCollector : IBatchItemVisitor<Envelope>
+        {
+            public readonly List<Envelope>[] Results;
+            private int _visitCount;
+
+            public BatchCollector(int count)
+            {
+                Results = new List<Envelope>[count];
+                for (var i = 0; i < count; i++)
+                    Results[i] = new List<Envelope>();
+            }
+
+            public int VisitCount
+            {
+                get { return _visitCount; }
+            }
+
+            public void VisitItem(int queryIndex, Envelope item)
+            {
+                Interlocked.Increment(ref _visitCount);
+                // each query is executed by a single worker
+                Results[queryIndex].Add(item);
+            }
+        }
+    }
+}
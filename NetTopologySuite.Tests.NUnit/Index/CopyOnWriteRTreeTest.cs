@@ -0,0 +1,102 @@
+using System;
+using System.Collections.Generic;
+#if !PCL
+using System.Threading;
+#endif
+using GeoAPI.Geometries;
+using NetTopologySuite.Index.RStarTree;
+using NUnit.Framework;
+
+namespace NetTopologySuite.Tests.NUnit.Index
+{
+    public class CopyOnWriteRTreeTest
+    {
+        [TestAttribute]
+        public void TestSpatialIndex()
+        {
+            var tester = new SpatialIndexTester { SpatialIndex = new CopyOnWriteRTree<object>(4) };
+            tester.Init();
+            tester.Run();
+            Assert.IsTrue(tester.IsSuccess);
+        }
+
+        [TestAttribute]
+        public void TestInterleavedUpdates()
+        {
+            var tree = new CopyOnWriteRTree<Envelope>(6);
+            var items = new List<Envelope>();
+            var rnd = new Random(29);
+            for (var round = 0; round < 10; round++)
+            {
+                for (var i = 0; i < 300; i++)
+                {
+                    var x = rnd.NextDouble() * 100;
+                    var y = rnd.NextDouble() * 100;
+                    var env = new Envelope(x, x + rnd.NextDouble() * 2, y, y + rnd.NextDouble() * 2);
+                    tree.Insert(env, env);
+                    items.Add(env);
+                }
+                for (var i = 0; i < 200; i++)
+                {
+                    var index = rnd.Next(items.Count);
+                    Assert.IsTrue(tree.Remove(items[index], items[index]));
+                    items.RemoveAt(index);
+                }
+                Assert.AreEqual(items.Count, tree.Count);
+
+                var query = new Envelope(20, 60, 30, 50);
+                Assert.AreEqual(items.FindAll(query.Intersects).Count, tree.Query(query).Count);
+            }
+
+            foreach (var item in items)
+                Assert.IsTrue(tree.Remove(item, item));
+            Assert.IsTrue(tree.IsEmpty);
+            Assert.AreEqual(1, tree.Depth);
+        }
+
+#if !PCL
+        [TestAttribute]
+        public void TestQueriesDuringEdits()
+        {
+            const int itemCount = 20000;
+            var tree = new CopyOnWriteRTree<Envelope>();
+            var extent = new Envelope(0, 100, 0, 100);
+            var failed = false;
+            var done = 0;
+
+            // since the writer only inserts, every reader must see a growing tree
+            var readers = new Thread[4];
+            for (var i = 0; i < readers.Length; i++)
+            {
+                readers[i] = new Thread(() =>
+                    {
+                        var last = 0;
+                        while (Thread.VolatileRead(ref done) == 0)
+                        {
+                            var count = tree.Query(extent).Count;
+                            if (count < last)
+                                failed = true;
+                            last = count;
+                        }
+                    });
+                readers[i].Start();
+            }
+
+            var rnd = new Random(7);
+            for (var i = 0; i < itemCount; i++)
+            {
+                var x = rnd.NextDouble() * 99;
+                var y = rnd.NextDouble() * 99;
+                var env = new Envelope(x, x + 1, y, y + 1);
+                tree.Insert(env, env);
+            }
+            Thread.VolatileWrite(ref done, 1);
+            foreach (var reader in readers)
+                reader.Join();
+
+            Assert.IsFalse(failed);
+            Assert.AreEqual(itemCount, tree.Query(extent).Count);
+        }
+#endif
+    }
+}
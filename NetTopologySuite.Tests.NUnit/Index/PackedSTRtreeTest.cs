@@ -0,0 +1,116 @@
+using System;
+using System.Collections.Generic;
+using GeoAPI.Geometries;
+using NetTopologySuite.Index.Strtree;
+using NUnit.Framework;
+using NetTopologySuite.Tests.NUnit.Utilities;
+
+namespace NetTopologySuite.Tests.NUnit.Index
+{
+    public class PackedSTRtreeTest
+    {
+        [TestAttribute]
+        public void TestSpatialIndex()
+        {
+            var tester = new SpatialIndexTester { SpatialIndex = new PackedSTRtree<object>(4) };
+            tester.Init();
+            tester.Run();
+            Assert.IsTrue(tester.IsSuccess);
+        }
+
+#if !PCL
+        [TestAttribute]
+        public void TestSerialization()
+        {
+            var tester = new SpatialIndexTester { SpatialIndex = new PackedSTRtree<object>(4) };
+            tester.Init();
+            tester.Run();
+
+            var tree1 = (PackedSTRtree<object>)tester.SpatialIndex;
+            var data = SerializationUtility.Serialize(tree1);
+            tester.SpatialIndex = SerializationUtility.Deserialize<PackedSTRtree<object>>(data);
+            tester.Run();
+            Assert.IsTrue(tester.IsSuccess);
+        }
+#endif
+
+        [TestAttribute]
+        public void TestEmptyTree()
+        {
+            var tree = new PackedSTRtree<object>();
+            Assert.IsTrue(tree.IsEmpty);
+            Assert.AreEqual(0, tree.Query(new Envelope(0, 1, 0, 1)).Count);
+            Assert.AreEqual(0, tree.Depth);
+        }
+
+        [TestAttribute]
+        public void TestSingleItem()
+        {
+            var tree = new PackedSTRtree<object>();
+            var item = new object();
+            tree.Insert(new Envelope(0, 1, 0, 1), item);
+            var res = tree.Query(new Envelope(0.5, 2, 0.5, 2));
+            Assert.AreEqual(1, res.Count);
+            Assert.AreSame(item, res[0]);
+            Assert.AreEqual(0, tree.Query(new Envelope(2, 3, 2, 3)).Count);
+        }
+
+        [TestAttribute]
+        public void TestDisallowedInserts()
+        {
+            var t = new PackedSTRtree<object>(5);
+            t.Insert(new Envelope(0, 0, 0, 0), new Object());
+            t.Query(new Envelope());
+            Assert.Throws<NetTopologySuite.Utilities.AssertionFailedException>(
+                () => t.Insert(new Envelope(0, 0, 0, 0), new Object()));
+        }
+
+        [TestAttribute]
+        public void TestQueryMatchesSTRtree()
+        {
+            var rnd = new Random(13);
+            var packed = new PackedSTRtree<Envelope>(8);
+            var tree = new STRtree<Envelope>(8);
+            for (var i = 0; i < 5000; i++)
+            {
+                var x = rnd.NextDouble() * 1000;
+                var y = rnd.NextDouble() * 1000;
+                var env = new Envelope(x, x + rnd.NextDouble() * 10, y, y + rnd.NextDouble() * 10);
+                packed.Insert(env, env);
+                tree.Insert(env, env);
+            }
+            Assert.AreEqual(5000, packed.Count);
+
+            for (var i = 0; i < 200; i++)
+            {
+                var x = rnd.NextDouble() * 1000;
+                var y = rnd.NextDouble() * 1000;
+                var query = new Envelope(x, x + 50, y, y + 50);
+                var expected = new HashSet<Envelope>(tree.Query(query));
+                var actual = packed.Query(query);
+                Assert.AreEqual(expected.Count, actual.Count);
+                foreach (var env in actual)
+                    Assert.IsTrue(expected.Contains(env));
+            }
+        }
+
+        [TestAttribute]
+        public void TestRemove()
+        {
+            var tree = new PackedSTRtree<string>(4);
+            for (var i = 0; i < 100; i++)
+                tree.Insert(new Envelope(i, i + 1, i, i + 1), "item" + i);
+
+            Assert.IsTrue(tree.Remove(new Envelope(10, 11, 10, 11), "item10"));
+            Assert.IsFalse(tree.Remove(new Envelope(10, 11, 10, 11), "item10"));
+            Assert.IsFalse(tree.Remove(new Envelope(50, 51, 50, 51), "item10"));
+            Assert.AreEqual(99, tree.Count);
+
+            var res = tree.Query(new Envelope(10.2, 10.8, 10.2, 10.8));
+            Assert.AreEqual(0, res.Count);
+            res = tree.Query(new Envelope(9, 12, 9, 12));
+            Assert.AreEqual(4, res.Count);
+            Assert.IsFalse(res.Contains("item10"));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+using System;
+using System.Collections.Generic;
+using GeoAPI.Geometries;
+using NetTopologySuite.Index.RStarTree;
+using NUnit.Framework;
+using NetTopologySuite.Tests.NUnit.Utilities;
+
+namespace NetTopologySuite.Tests.NUnit.Index
+{
+    public class RStarTreeTest
+    {
+        [TestAttribute]
+        public void TestSpatialIndex()
+        {
+            var tester = new SpatialIndexTester { SpatialIndex = new RStarTree<object>(4) };
+            tester.Init();
+            tester.Run();
+            Assert.IsTrue(tester.IsSuccess);
+        }
+
+#if !PCL
+        [TestAttribute]
+        public void TestSerialization()
+        {
+            var tester = new SpatialIndexTester { SpatialIndex = new RStarTree<object>(4) };
+            tester.Init();
+            tester.Run();
+
+            var tree1 = (RStarTree<object>)tester.SpatialIndex;
+            var data = SerializationUtility.Serialize(tree1);
+            tester.SpatialIndex = SerializationUtility.Deserialize<RStarTree<object>>(data);
+            tester.Run();
+            Assert.IsTrue(tester.IsSuccess);
+        }
+#endif
+
+        [TestAttribute]
+        public void TestEmptyTree()
+        {
+            var tree = new RStarTree<object>();
+            Assert.IsTrue(tree.IsEmpty);
+            Assert.AreEqual(1, tree.Depth);
+            Assert.AreEqual(0, tree.Query(new Envelope(0, 1, 0, 1)).Count);
+            Assert.IsFalse(tree.Remove(new Envelope(0, 1, 0, 1), "a"));
+        }
+
+        [TestAttribute]
+        public void TestInterleavedUpdates()
+        {
+            var tree = new RStarTree<Envelope>(6);
+            var items = new List<Envelope>();
+            var rnd = new Random(23);
+            for (var round = 0; round < 20; round++)
+            {
+                for (var i = 0; i < 300; i++)
+                {
+                    var x = rnd.NextDouble() * 100;
+                    var y = rnd.NextDouble() * 100;
+                    var env = new Envelope(x, x + rnd.NextDouble() * 2, y, y + rnd.NextDouble() * 2);
+                    tree.Insert(env, env);
+                    items.Add(env);
+                }
+                for (var i = 0; i < 200; i++)
+                {
+                    var index = rnd.Next(items.Count);
+                    Assert.IsTrue(tree.Remove(items[index], items[index]));
+                    items.RemoveAt(index);
+                }
+                Assert.AreEqual(items.Count, tree.Count);
+
+                for (var i = 0; i < 20; i++)
+                {
+                    var x = rnd.NextDouble() * 100;
+                    var y = rnd.NextDouble() * 100;
+                    var query = new Envelope(x, x + 10, y, y + 10);
+                    var expected = items.FindAll(query.Intersects);
+                    var actual = tree.Query(query);
+                    Assert.AreEqual(expected.Count, actual.Count);
+                    foreach (var item in actual)
+                        Assert.IsTrue(query.Intersects(item));
+                }
+            }
+
+            foreach (var item in items)
+                Assert.IsTrue(tree.Remove(item, item));
+            Assert.IsTrue(tree.IsEmpty);
+            Assert.AreEqual(1, tree.Depth);
+        }
+    }
+}
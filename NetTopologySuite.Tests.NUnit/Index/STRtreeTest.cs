@@ -81,6 +81,139 @@ namespace NetTopologySuite.Tests.NUnit.Index
         }
 
 
+        [TestAttribute]
+        public void TestParallelBuildMatchesSequential()
+        {
+            var sequential = new STRtree(8);
+            var parallel = new STRtree(8) { MaxDegreeOfParallelism = 4 };
+            var rnd = new Random(17);
+            for (var i = 0; i < 50000; i++)
+            {
+                // use a coarse grid to produce many ties
+                var x = rnd.Next(500);
+                var y = rnd.Next(500);
+                var env = new Envelope(x, x + 1, y, y + 1);
+                sequential.Insert(env, env);
+                parallel.Insert(env, env);
+            }
+            sequential.Build();
+            parallel.Build();
+
+            Assert.AreEqual(sequential.Depth, parallel.Depth);
+            var seqItems = sequential.ItemsTree();
+            var parItems = parallel.ItemsTree();
+            Assert.AreEqual(seqItems.Count, parItems.Count);
+            for (var i = 0; i < seqItems.Count; i++)
+                Assert.AreSame(seqItems[i], parItems[i]);
+        }
+
+        [TestAttribute]
+        public void TestNearestNeighbours()
+        {
+            var factory = new GeometryFactory();
+            var rnd = new Random(31);
+            var points = new List<IGeometry>();
+            var tree = new STRtree<IGeometry>(4);
+            for (var i = 0; i < 2000; i++)
+            {
+                var pt = factory.CreatePoint(new Coordinate(rnd.NextDouble() * 100, rnd.NextDouble() * 100));
+                points.Add(pt);
+                tree.Insert(pt.EnvelopeInternal, pt);
+            }
+            var itemDist = new GeometryItemDistance();
+
+            for (var i = 0; i < 20; i++)
+            {
+                var query = factory.CreatePoint(new Coordinate(rnd.NextDouble() * 100, rnd.NextDouble() * 100));
+                var sorted = new List<IGeometry>(points);
+                sorted.Sort((a, b) => a.Distance(query).CompareTo(b.Distance(query)));
+
+                var nearest = tree.NearestNeighbour(query.EnvelopeInternal, query, itemDist, 7);
+                Assert.AreEqual(7, nearest.Length);
+                for (var j = 0; j < nearest.Length; j++)
+                    Assert.AreEqual(sorted[j].Distance(query), nearest[j].Distance(query));
+
+                var within = tree.ItemsWithinDistance(query.EnvelopeInternal, query, itemDist, 5);
+                var expected = sorted.FindAll(g => g.Distance(query) <= 5);
+                Assert.AreEqual(expected.Count, within.Count);
+                foreach (var g in within)
+                    Assert.IsTrue(g.Distance(query) <= 5);
+
+                var nearestWithin = tree.NearestNeighbour(query.EnvelopeInternal, query, itemDist, 1000, 5);
+                Assert.AreEqual(sorted.FindAll(g => g.Distance(query) < 5).Count, nearestWithin.Length);
+            }
+
+            var all = tree.NearestNeighbour(new Envelope(0, 0, 0, 0), factory.CreatePoint(new Coordinate(0, 0)), itemDist, 5000);
+            Assert.AreEqual(points.Count, all.Length);
+
+            var empty = new STRtree<IGeometry>();
+            Assert.AreEqual(0, empty.NearestNeighbour(new Envelope(0, 0, 0, 0), factory.CreatePoint(new Coordinate(0, 0)), itemDist, 3).Length);
+            Assert.AreEqual(0, empty.ItemsWithinDistance(new Envelope(0, 0, 0, 0), factory.CreatePoint(new Coordinate(0, 0)), itemDist, 3).Count);
+        }
+
+        [TestAttribute]
+        public void TestJoin()
+        {
+            var envs1 = CreateRandomEnvelopes(1000, 3);
+            var envs2 = CreateRandomEnvelopes(700, 5);
+            var tree1 = new STRtree(4);
+            foreach (var env in envs1)
+                tree1.Insert(env, env);
+            var tree2 = new STRtree(6);
+            foreach (var env in envs2)
+                tree2.Insert(env, env);
+
+            // brute force
+            var expected = new HashSet<KeyValuePair<object, object>>();
+            foreach (var env1 in envs1)
+                foreach (var env2 in envs2)
+                    if (env1.Intersects(env2))
+                        expected.Add(new KeyValuePair<object, object>(env1, env2));
+
+            CheckJoin(expected, tree1.Join(tree2));
+
+            var visitor = new ItemPairCollector();
+            tree1.Join(tree2, null, visitor, 4);
+            CheckJoin(expected, visitor.Pairs);
+
+            // refine by predicate
+            expected.RemoveWhere(p => ((Envelope)p.Key).Contains((Envelope)p.Value));
+            CheckJoin(expected, tree1.Join(tree2, (a, b) => !((Envelope)a).Contains((Envelope)b)));
+
+            Assert.AreEqual(0, tree1.Join(new STRtree()).Count);
+        }
+
+        private static List<Envelope> CreateRandomEnvelopes(int count, double maxSize)
+        {
+            var rnd = new Random(count);
+            var res = new List<Envelope>();
+            for (var i = 0; i < count; i++)
+            {
+                var x = rnd.NextDouble() * 100;
+                var y = rnd.NextDouble() * 100;
+                res.Add(new Envelope(x, x + rnd.NextDouble() * maxSize, y, y + rnd.NextDouble() * maxSize));
+            }
+            return res;
+        }
+
+        private static void CheckJoin(HashSet<KeyValuePair<object, object>> expected, IList<object[]> pairs)
+        {
+            Assert.AreEqual(expected.Count, pairs.Count);
+            foreach (var pair in pairs)
+                Assert.IsTrue(expected.Contains(new KeyValuePair<object, object>(pair[0], pair[1])));
+        }
+
+        private class ItemPairCollector : IItemPairVisitor<object>
+        {
+            public readonly List<object[]> Pairs = new List<object[]>();
+
+            public void VisitItemPair(object item1, object item2)
+            {
+                lock (Pairs)
+                    Pairs.Add(new[] { item1, item2 });
+            }
+        }
+
         [TestAttribute]
         public void TestCreateParentsFromVerticalSlice()
         {
@@ -50,6 +50,19 @@ namespace NetTopologySuite.Tests.NUnit.Operation.Union
   		            CascadedPolygonUnionTester.MinSimilarityMeaure);
         }
 
+        [TestAttribute]
+        public void TestParallelMatchesSequential()
+        {
+            var geoms = CreateDiscs(16, 0.7);
+
+            var sequential = CascadedPolygonUnion.Union(geoms);
+            var op = new CascadedPolygonUnion(geoms);
+            op.MaxDegreeOfParallelism = 4;
+            op.SequentialCutoff = 4;
+            var parallel = op.Union();
+
+            Assert.IsTrue(sequential.EqualsExact(parallel));
+        }
 
         // TODO: add some synthetic tests
 
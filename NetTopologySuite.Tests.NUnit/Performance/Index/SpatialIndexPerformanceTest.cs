@@ -0,0 +1,153 @@
+using System;
+using System.Collections.Generic;
+using GeoAPI.Geometries;
+using NetTopologySuite.Index;
+using NetTopologySuite.Index.Quadtree;
+using NetTopologySuite.Index.RStarTree;
+using NetTopologySuite.Index.Strtree;
+using NUnit.Framework;
+
+namespace NetTopologySuite.Tests.NUnit.Performance.Index
+{
+    /// <summary>
+    /// Compares a dynamic <see cref="RStarTree{T}"/> with a <see cref="Quadtree{T}"/>
+    /// and an <see cref="STRtree{TItem}"/> which is rebuilt after every batch of edits,
+    /// on skewed (clustered) data.
+    /// </summary>
+    public class SpatialIndexPerformanceTest : PerformanceTestCase
+    {
+        private const int EditBatchSize = 100;
+        private const int RemovesPerBatch = 10;
+        private const int QueriesPerBatch = 50;
+
+        private List<Envelope> _items;
+        private List<Envelope> _queries;
+
+        public SpatialIndexPerformanceTest()
+            : this("SpatialIndexPerformanceTest") { }
+
+        public SpatialIndexPerformanceTest(String name)
+            : base(name)
+        {
+            RunSize = new[] { 10000, 100000 };
+            RunIterations = 1;
+        }
+
+        [TestAttribute, CategoryAttribute("LongRunning"), Explicit("takes ages to complete")]
+        public void Test()
+        {
+            PerformanceTestRunner.Run(typeof(SpatialIndexPerformanceTest));
+        }
+
+        public override void StartRun(int size)
+        {
+            Console.WriteLine("Running with size " + size);
+            var rnd = new Random(size);
+            _items = CreateClusteredEnvelopes(rnd, size);
+            _queries = CreateClusteredEnvelopes(rnd, size / EditBatchSize * QueriesPerBatch);
+        }
+
+        public void RunRStarTree()
+        {
+            Run(new RStarTree<Envelope>());
+        }
+
+        public void RunQuadtree()
+        {
+            Run(new Quadtree<Envelope>());
+        }
+
+        public void RunRebuiltSTRtree()
+        {
+            // an STRtree can not be edited once built, so it is rebuilt after every batch
+            var items = new List<Envelope>();
+            var queryIndex = 0;
+            for (var start = 0; start < _items.Count; start += EditBatchSize)
+            {
+                var end = Math.Min(start + EditBatchSize, _items.Count);
+                for (var i = start; i < end; i++)
+                    items.Add(_items[i]);
+                for (var i = 0; i < RemovesPerBatch; i++)
+                    items.RemoveAt(items.Count / 2);
+
+                var tree = new STRtree<Envelope>();
+                foreach (var item in items)
+                    tree.Insert(item, item);
+                queryIndex = RunQueries(tree, queryIndex);
+            }
+        }
+
+        private void Run(ISpatialIndex<Envelope> index)
+        {
+            var items = new List<Envelope>();
+            var queryIndex = 0;
+            for (var start = 0; start < _items.Count; start += EditBatchSize)
+            {
+                var end = Math.Min(start + EditBatchSize, _items.Count);
+                for (var i = start; i < end; i++)
+                {
+                    index.Insert(_items[i], _items[i]);
+                    items.Add(_items[i]);
+                }
+                for (var i = 0; i < RemovesPerBatch; i++)
+                {
+                    var removed = items[items.Count / 2];
+                    index.Remove(removed, removed);
+                    items.RemoveAt(items.Count / 2);
+                }
+                queryIndex = RunQueries(index, queryIndex);
+            }
+        }
+
+        private int RunQueries(ISpatialIndex<Envelope> index, int queryIndex)
+        {
+            var visitor = new CountingVisitor();
+            for (var j = 0; j < QueriesPerBatch && queryIndex < _queries.Count; j++)
+                index.Query(_queries[queryIndex++], visitor);
+            return queryIndex;
+        }
+
+        /// <summary>
+        /// Creates small envelopes, most of which are packed into a few dense clusters.
+        /// </summary>
+        private static List<Envelope> CreateClusteredEnvelopes(Random rnd, int count)
+        {
+            var res = new List<Envelope>(count);
+            for (var i = 0; i < count; i++)
+            {
+                double x, y;
+                if (i % 10 == 0)
+                {
+                    x = rnd.NextDouble() * 1000;
+                    y = rnd.NextDouble() * 1000;
+                }
+                else
+                {
+                    var cluster = rnd.Next(5);
+                    x = 100 + 200 * cluster + Gaussian(rnd) * 5;
+                    y = 500 + Gaussian(rnd) * 5;
+                }
+                var size = rnd.NextDouble();
+                res.Add(new Envelope(x, x + size, y, y + size));
+            }
+            return res;
+        }
+
+        private static double Gaussian(Random rnd)
+        {
+            var u1 = 1 - rnd.NextDouble();
+            var u2 = rnd.NextDouble();
+            return Math.Sqrt(-2 * Math.Log(u1)) * Math.Cos(2 * Math.PI * u2);
+        }
+
+        private class CountingVisitor : IItemVisitor<Envelope>
+        {
+            public int Count;
+
+            public void VisitItem(Envelope item)
+            {
+                Count++;
+            }
+        }
+    }
+}
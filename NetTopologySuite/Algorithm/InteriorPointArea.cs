@@ -129,7 +129,7 @@ namespace NetTopologySuite.Algorithm
             var widestGeometry = gc.GetGeometryN(0);
             // scan remaining geom components to see if any are wider
             for (int i = 1; i < gc.NumGeometries; i++) //Start at 1        
-                if (gc.GetGeometryN(i).EnvelopeInternal.Width > widestGeometry.EnvelopeInternal.Width)
+                if (SharedEnvelope.Get(gc.GetGeometryN(i)).Width > SharedEnvelope.Get(widestGeometry).Width)
                     widestGeometry = gc.GetGeometryN(i);
             return widestGeometry;
         }
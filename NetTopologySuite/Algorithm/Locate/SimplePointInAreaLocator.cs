@@ -68,7 +68,7 @@ namespace NetTopologySuite.Algorithm.Locate
         private static Boolean IsPointInRing(Coordinate p, ILinearRing ring)
         {
             // short-circuit if point is not in ring envelope
-            if (!ring.EnvelopeInternal.Intersects(p))
+            if (!SharedEnvelope.Get(ring).Intersects(p))
                 return false;
             return CGAlgorithms.IsPointInRing(p, ring.Coordinates);
         }
@@ -145,7 +145,7 @@ namespace NetTopologySuite.Algorithm
         private static Location Locate(Coordinate p, ILineString l)
         {
             // bounding-box check
-            if (!l.EnvelopeInternal.Intersects(p)) 
+            if (!SharedEnvelope.Get(l).Intersects(p)) 
                 return Location.Exterior;
   	
 
@@ -167,7 +167,7 @@ namespace NetTopologySuite.Algorithm
         private static Location LocateInPolygonRing(Coordinate p, ILinearRing ring)
         {
   	        // bounding-box check
-  	        if (! ring.EnvelopeInternal.Intersects(p)) return Location.Exterior;
+  	        if (!SharedEnvelope.Get(ring).Intersects(p)) return Location.Exterior;
 
   	        return CGAlgorithms.LocatePointInRing(p, ring.Coordinates);
         }
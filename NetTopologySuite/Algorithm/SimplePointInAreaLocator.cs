@@ -90,7 +90,7 @@ namespace NetTopologySuite.Algorithm
         private static bool IsPointInRing(ICoordinate p, ILinearRing ring)
         {
             // short-circuit if point is not in ring envelope
-            if (!ring.EnvelopeInternal.Intersects(p))
+            if (!SharedEnvelope.Get(ring).Intersects(p))
                 return false;
             return CGAlgorithms.IsPointInRing(p, ring.Coordinates);
         }
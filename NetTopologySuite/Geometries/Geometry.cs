@@ -446,7 +446,7 @@ namespace NetTopologySuite.Geometries
         /// <returns><c>true</c> if the geometries are less than <c>distance</c> apart.</returns>
         public bool IsWithinDistance(IGeometry geom, double distance)
         {
-            double envDist = EnvelopeInternal.Distance(geom.EnvelopeInternal);
+            double envDist = CachedEnvelope.Distance(SharedEnvelope.Get(geom));
             if (envDist > distance)
                 return false;
             return DistanceOp.IsWithinDistance(this, geom, distance);
@@ -645,16 +645,33 @@ namespace NetTopologySuite.Geometries
         /// The returned object is a copy of the one maintained internally,
         /// to avoid aliasing issues.  
         /// For best performance, clients which access this
-        /// envelope frequently should cache the return value.</remarks>
+        /// envelope frequently should cache the return value, 
+        /// or use <see cref="SharedEnvelope.Get"/> for read-only access.</remarks>
         /// <returns>the envelope of this <c>Geometry</c>.</returns>
         /// <returns>An empty Envelope if this Geometry is empty</returns>
         public Envelope EnvelopeInternal
         {
             get
             {
-                if (_envelope == null)
-                    _envelope = ComputeEnvelopeInternal();
-                return new Envelope(_envelope);
+                return new Envelope(CachedEnvelope);
+            }
+        }
+
+        /// <summary>
+        /// Gets the <see cref="GeoAPI.Geometries.Envelope"/> maintained internally 
+        /// by this <c>Geometry</c>, computing it if necessary.
+        /// </summary>
+        /// <remarks>
+        /// The returned object is <b>not</b> a copy and must not be modified.
+        /// </remarks>
+        internal Envelope CachedEnvelope
+        {
+            get
+            {
+                var envelope = _envelope;
+                if (envelope == null)
+                    _envelope = envelope = ComputeEnvelopeInternal();
+                return envelope;
             }
         }
 
@@ -706,7 +723,7 @@ namespace NetTopologySuite.Geometries
         public bool Disjoint(IGeometry g)
         {
             // short-circuit test
-            if (!EnvelopeInternal.Intersects(g.EnvelopeInternal))
+            if (!CachedEnvelope.Intersects(SharedEnvelope.Get(g)))
                 return true;
             return Relate(g).IsDisjoint();
         }
@@ -739,7 +756,7 @@ namespace NetTopologySuite.Geometries
         public bool Touches(IGeometry g)
         {
             // short-circuit test
-            if (!EnvelopeInternal.Intersects(g.EnvelopeInternal))
+            if (!CachedEnvelope.Intersects(SharedEnvelope.Get(g)))
                 return false;
             return Relate(g).IsTouches(Dimension, g.Dimension);
         }
@@ -765,7 +782,7 @@ namespace NetTopologySuite.Geometries
         public bool Intersects(IGeometry g)
         {
             // short-circuit test
-            if (!EnvelopeInternal.Intersects(g.EnvelopeInternal))
+            if (!CachedEnvelope.Intersects(SharedEnvelope.Get(g)))
                 return false;
             /*
              * TODO: (MD) Add optimizations:
@@ -820,7 +837,7 @@ namespace NetTopologySuite.Geometries
         public bool Crosses(IGeometry g)
         {
             // short-circuit test
-            if (!EnvelopeInternal.Intersects(g.EnvelopeInternal))
+            if (!CachedEnvelope.Intersects(SharedEnvelope.Get(g)))
                 return false;
             return Relate(g).IsCrosses(Dimension, g.Dimension);
         }
@@ -885,7 +902,7 @@ namespace NetTopologySuite.Geometries
         public bool Contains(IGeometry g)
         {
             // short-circuit test
-            if (!EnvelopeInternal.Contains(g.EnvelopeInternal))
+            if (!CachedEnvelope.Contains(SharedEnvelope.Get(g)))
                 return false;
             // optimizations for rectangle arguments
             if (IsRectangle)
@@ -923,7 +940,7 @@ namespace NetTopologySuite.Geometries
         public bool Overlaps(IGeometry g)
         {
             // short-circuit test
-            if (!EnvelopeInternal.Intersects(g.EnvelopeInternal))
+            if (!CachedEnvelope.Intersects(SharedEnvelope.Get(g)))
                 return false;
             return Relate(g).IsOverlaps(Dimension, g.Dimension);
         }
@@ -965,7 +982,7 @@ namespace NetTopologySuite.Geometries
         public bool Covers(IGeometry g)
         {
             // short-circuit test
-            if (!EnvelopeInternal.Covers(g.EnvelopeInternal))
+            if (!CachedEnvelope.Covers(SharedEnvelope.Get(g)))
                 return false;
 
             // optimization for rectangle arguments
@@ -1098,7 +1115,7 @@ namespace NetTopologySuite.Geometries
         public bool EqualsTopologically(IGeometry g)
         {
             // short-circuit test
-            if (!EnvelopeInternal.Equals(g.EnvelopeInternal))
+            if (!CachedEnvelope.Equals(SharedEnvelope.Get(g)))
                 return false;
 
             return Relate(g).IsEquals(Dimension, g.Dimension);
@@ -1198,7 +1215,7 @@ namespace NetTopologySuite.Geometries
         /// </returns>
         public override int GetHashCode()
         {
-            return EnvelopeInternal.GetHashCode();
+            return CachedEnvelope.GetHashCode();
             //int result = 17;
             //return GetHashCodeInternal(result, x => 37 * x );
             ////
@@ -408,7 +408,7 @@ namespace NetTopologySuite.Geometries
         {
             Envelope envelope = new Envelope();
             for (int i = 0; i < _geometries.Length; i++) 
-                envelope.ExpandToInclude(_geometries[i].EnvelopeInternal);
+                envelope.ExpandToInclude(SharedEnvelope.Get(_geometries[i]));
             return envelope;
         }
 
@@ -67,7 +67,7 @@ namespace NetTopologySuite.Geometries.Prepared
         /// <returns>true if the envelopes intersect</returns>
         protected bool EnvelopesIntersect(IGeometry g)
         {
-            if (!_baseGeom.EnvelopeInternal.Intersects(g.EnvelopeInternal))
+            if (!SharedEnvelope.Intersects(_baseGeom, g))
                 return false;
             return true;
         }
@@ -79,7 +79,7 @@ namespace NetTopologySuite.Geometries.Prepared
         /// <returns>true if g is contained in this envelope</returns>
         protected bool EnvelopeCovers(IGeometry g)
         {
-            if (!_baseGeom.EnvelopeInternal.Covers(g.EnvelopeInternal))
+            if (!SharedEnvelope.Get(_baseGeom).Covers(SharedEnvelope.Get(g)))
                 return false;
             return true;
         }
@@ -134,7 +134,7 @@ namespace NetTopologySuite.Geometries.Prepared
             // since raw relate is used, provide some optimizations
 
             // short-circuit test
-            if (!_baseGeom.EnvelopeInternal.Contains(g.EnvelopeInternal))
+            if (!SharedEnvelope.Get(_baseGeom).Contains(SharedEnvelope.Get(g)))
                 return false;
 
             // otherwise, compute using relate mask
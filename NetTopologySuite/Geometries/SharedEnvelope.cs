@@ -0,0 +1,45 @@
+using GeoAPI.Geometries;
+
+namespace NetTopologySuite.Geometries
+{
+    /// <summary>
+    /// Provides read-only access to the <see cref="Envelope"/> of a geometry
+    /// without copying it.
+    /// </summary>
+    /// <remarks>
+    /// <see cref="IGeometry.EnvelopeInternal"/> returns a copy of the envelope 
+    /// maintained by the geometry, to avoid aliasing issues.
+    /// Code which tests envelopes in inner loops (spatial indexes, predicates, overlay)
+    /// can use the methods of this class instead to avoid allocating a new envelope on each access.
+    /// <para/>
+    /// The envelopes returned by <see cref="Get"/> are shared with the geometry 
+    /// and <b>must not</b> be modified.
+    /// </remarks>
+    public static class SharedEnvelope
+    {
+        /// <summary>
+        /// Gets the envelope of <paramref name="geometry"/>. 
+        /// For <see cref="Geometry"/> instances, the envelope maintained internally is returned.
+        /// </summary>
+        /// <param name="geometry">A geometry</param>
+        /// <returns>The envelope of <paramref name="geometry"/>, which must be treated as read-only</returns>
+        public static Envelope Get(IGeometry geometry)
+        {
+            var geom = geometry as Geometry;
+            return geom != null
+                ? geom.CachedEnvelope
+                : geometry.EnvelopeInternal;
+        }
+
+        /// <summary>
+        /// Tests whether the envelopes of two geometries intersect.
+        /// </summary>
+        /// <param name="g0">A geometry</param>
+        /// <param name="g1">A geometry</param>
+        /// <returns><c>true</c> if the envelopes of <paramref name="g0"/> and <paramref name="g1"/> intersect</returns>
+        public static bool Intersects(IGeometry g0, IGeometry g1)
+        {
+            return Get(g0).Intersects(Get(g1));
+        }
+    }
+}
@@ -44,6 +44,20 @@ namespace NetTopologySuite.Geometries
             this.pt = new Coordinate(pt);
         }
 
+        /// <summary>
+        /// Creates an exception caused by another one.
+        /// If that one is a <see cref="TopologyException"/>, its coordinate is kept.
+        /// </summary>
+        /// <param name="msg"></param>
+        /// <param name="innerException">The exception that caused this one</param>
+        public TopologyException(string msg, System.Exception innerException)
+            : base(msg, innerException)
+        {
+            var topologyException = innerException as TopologyException;
+            if (topologyException != null && topologyException.Coordinate != null)
+                pt = new Coordinate(topologyException.Coordinate);
+        }
+
         /// <summary>
         /// 
         /// </summary>
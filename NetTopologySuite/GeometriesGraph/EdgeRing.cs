@@ -335,7 +335,7 @@ namespace NetTopologySuite.GeometriesGraph
         public bool ContainsPoint(Coordinate p)
         {
             ILinearRing shell = LinearRing;
-            Envelope env = shell.EnvelopeInternal;
+            Envelope env = SharedEnvelope.Get(shell);
             if (!env.Contains(p)) 
                 return false;
             if (!CGAlgorithms.IsPointInRing(p, shell.Coordinates)) 
@@ -0,0 +1,358 @@
+using System;
+using System.IO;
+using GeoAPI;
+using GeoAPI.Geometries;
+using GeoAPI.IO;
+using NetTopologySuite.Geometries;
+
+namespace NetTopologySuite.IO
+{
+    /// <summary>
+    /// Reads a <c>Geometry</c> from its Tiny Well-Known Binary (TWKB) representation.
+    /// </summary>
+    /// <remarks>
+    /// The ids of the parts of a multi-geometry or geometry collection, if present, are
+    /// set as the <see cref="IGeometry.UserData"/> of the parts. Bounding boxes and sizes
+    /// are skipped. TWKB has no SRID, the geometries are created with an SRID of 0.
+    /// </remarks>
+    /// <seealso cref="TWKBWriter"/>
+    public class TWKBReader : IBinaryGeometryReader
+    {
+        private readonly IGeometryServices _geometryServices;
+        private readonly ICoordinateSequenceFactory _sequenceFactory;
+        private readonly IPrecisionModel _precisionModel;
+
+        /// <summary>
+        /// Initialize reader with the standard geometry services.
+        /// </summary>
+        public TWKBReader()
+            : this(GeometryServiceProvider.Instance)
+        {
+        }
+
+        /// <summary>
+        /// Initialize reader with the given geometry services.
+        /// </summary>
+        /// <param name="services">The services to create the geometries with</param>
+        public TWKBReader(IGeometryServices services)
+        {
+            services = services ?? GeometryServiceProvider.Instance;
+            _geometryServices = services;
+            _sequenceFactory = services.DefaultCoordinateSequenceFactory;
+            _precisionModel = services.DefaultPrecisionModel;
+
+            HandleOrdinates = AllowedOrdinates;
+        }
+
+        /// <summary>
+        /// Reads a geometry from an array of <see cref="byte"/>s.
+        /// </summary>
+        /// <param name="data">The byte array to read from</param>
+        /// <returns>The geometry read</returns>
+        /// <exception cref="GeoAPI.IO.ParseException"> if the TWKB data is ill-formed.</exception>
+        public IGeometry Read(byte[] data)
+        {
+            if (data == null)
+                throw new ArgumentNullException("data");
+
+            using (var stream = new MemoryStream(data, false))
+                return Read(stream);
+        }
+
+        /// <summary>
+        /// Reads a geometry from a <see cref="Stream"/>.
+        /// </summary>
+        /// <remarks>
+        /// Only the bytes of the geometry are read, so that several geometries written
+        /// one after the other can be read by calling this method repeatedly.
+        /// </remarks>
+        /// <param name="stream">The stream to read from</param>
+        /// <returns>The geometry read</returns>
+        /// <exception cref="GeoAPI.IO.ParseException"> if the TWKB data is ill-formed.</exception>
+        public IGeometry Read(Stream stream)
+        {
+            if (stream == null)
+                throw new ArgumentNullException("stream");
+
+            IGeometryFactory factory = _geometryServices.CreateGeometryFactory(_precisionModel, 0, _sequenceFactory);
+            return Read(stream, factory);
+        }
+
+        private IGeometry Read(Stream stream, IGeometryFactory factory)
+        {
+            byte header = ReadByte(stream);
+            int type = header & 0x0F;
+            int precisionXY = UnZigZag(header >> 4);
+
+            byte metadata = ReadByte(stream);
+            bool hasBBox = (metadata & 0x01) != 0;
+            bool hasSize = (metadata & 0x02) != 0;
+            bool hasIds = (metadata & 0x04) != 0;
+            bool hasExtendedDimensions = (metadata & 0x08) != 0;
+            bool isEmpty = (metadata & 0x10) != 0;
+
+            var decoder = new Decoder(precisionXY);
+            if (hasExtendedDimensions)
+            {
+                byte extended = ReadByte(stream);
+                decoder.SetExtendedDimensions(extended, _handleOrdinates, _sequenceFactory.Ordinates);
+            }
+
+            if (isEmpty)
+                return CreateEmpty(type, factory);
+
+            if (hasSize)
+                ReadUnsigned(stream);
+            if (hasBBox)
+            {
+                for (int i = 0; i < 2 * decoder.Dimension; i++)
+                    ReadSigned(stream);
+            }
+
+            switch (type)
+            {
+                case 1:
+                    return factory.CreatePoint(decoder.ReadPoints(stream, 1, _sequenceFactory));
+                case 2:
+                    return factory.CreateLineString(decoder.ReadPoints(stream, ReadCount(stream), _sequenceFactory));
+                case 3:
+                    return ReadPolygon(stream, decoder, factory);
+            }
+            if (type < 4 || type > 7)
+                throw new GeoAPI.IO.ParseException(String.Format("Unknown TWKB geometry type: {0}", type));
+
+            int count = ReadCount(stream);
+            long[] ids = null;
+            if (hasIds)
+            {
+                ids = new long[count];
+                for (int i = 0; i < count; i++)
+                    ids[i] = ReadSigned(stream);
+            }
+
+            IGeometry result;
+            switch (type)
+            {
+                case 4:
+                    var points = new IPoint[count];
+                    for (int i = 0; i < count; i++)
+                        points[i] = factory.CreatePoint(decoder.ReadPoints(stream, 1, _sequenceFactory));
+                    result = factory.CreateMultiPoint(points);
+                    break;
+                case 5:
+                    var lineStrings = new ILineString[count];
+                    for (int i = 0; i < count; i++)
+                        lineStrings[i] = factory.CreateLineString(decoder.ReadPoints(stream, ReadCount(stream), _sequenceFactory));
+                    result = factory.CreateMultiLineString(lineStrings);
+                    break;
+                case 6:
+                    var polygons = new IPolygon[count];
+                    for (int i = 0; i < count; i++)
+                        polygons[i] = ReadPolygon(stream, decoder, factory);
+                    result = factory.CreateMultiPolygon(polygons);
+                    break;
+                default:
+                    // the parts of a collection are complete geometries
+                    var geometries = new IGeometry[count];
+                    for (int i = 0; i < count; i++)
+                        geometries[i] = Read(stream, factory);
+                    result = factory.CreateGeometryCollection(geometries);
+                    break;
+            }
+
+            if (ids != null)
+            {
+                for (int i = 0; i < count; i++)
+                    result.GetGeometryN(i).UserData = ids[i];
+            }
+            return result;
+        }
+
+        private IPolygon ReadPolygon(Stream stream, Decoder decoder, IGeometryFactory factory)
+        {
+            int count = ReadCount(stream);
+            if (count == 0)
+                return factory.CreatePolygon(null, null);
+
+            ILinearRing shell = ReadRing(stream, decoder, factory);
+            var holes = new ILinearRing[count - 1];
+            for (int i = 0; i < holes.Length; i++)
+                holes[i] = ReadRing(stream, decoder, factory);
+            return factory.CreatePolygon(shell, holes);
+        }
+
+        private ILinearRing ReadRing(Stream stream, Decoder decoder, IGeometryFactory factory)
+        {
+            ICoordinateSequence sequence = decoder.ReadPoints(stream, ReadCount(stream), _sequenceFactory);
+            if (RepairRings)
+                sequence = CoordinateSequences.EnsureValidRing(_sequenceFactory, sequence);
+            return factory.CreateLinearRing(sequence);
+        }
+
+        private static IGeometry CreateEmpty(int type, IGeometryFactory factory)
+        {
+            switch (type)
+            {
+                case 1:
+                    return factory.CreatePoint((ICoordinateSequence)null);
+                case 2:
+                    return factory.CreateLineString((ICoordinateSequence)null);
+                case 3:
+                    return factory.CreatePolygon(null, null);
+                case 4:
+                    return factory.CreateMultiPoint((IPoint[])null);
+                case 5:
+                    return factory.CreateMultiLineString(null);
+                case 6:
+                    return factory.CreateMultiPolygon(null);
+                case 7:
+                    return factory.CreateGeometryCollection(null);
+                default:
+                    throw new GeoAPI.IO.ParseException(String.Format("Unknown TWKB geometry type: {0}", type));
+            }
+        }
+
+        /// <summary>
+        /// Turns the differences of the points of one geometry back into ordinates.
+        /// </summary>
+        private class Decoder
+        {
+            private readonly double[] _scales = new double[4];
+            private readonly long[] _previous = new long[4];
+            private int _dimension = 2;
+
+            // the ordinate of each stored value, and whether it is kept
+            private readonly Ordinate[] _ordinates = { Ordinate.X, Ordinate.Y, Ordinate.Z, Ordinate.M };
+            private readonly bool[] _handled = { true, true, false, false };
+            private Ordinates _sequenceOrdinates = Ordinates.XY;
+
+            public Decoder(int precisionXY)
+            {
+                // multiplying by 10 is exact where dividing by 0.1 is not, so a negative precision is kept as a negative scale
+                _scales[0] = _scales[1] = precisionXY >= 0 ? Math.Pow(10, precisionXY) : -Math.Pow(10, -precisionXY);
+            }
+
+            private static double ToOrdinate(long value, double scale)
+            {
+                return scale > 0 ? value / scale : value * -scale;
+            }
+
+            /// <summary>
+            /// Gets the number of values stored for each point.
+            /// </summary>
+            public int Dimension
+            {
+                get { return _dimension; }
+            }
+
+            public void SetExtendedDimensions(byte extended, Ordinates handleOrdinates, Ordinates supportedOrdinates)
+            {
+                bool hasZ = (extended & 0x01) != 0;
+                bool hasM = (extended & 0x02) != 0;
+                Ordinates handled = handleOrdinates & supportedOrdinates;
+
+                if (hasZ)
+                {
+                    _ordinates[_dimension] = Ordinate.Z;
+                    _scales[_dimension] = Math.Pow(10, (extended >> 2) & 0x07);
+                    _handled[_dimension] = (handled & Ordinates.Z) != 0;
+                    if (_handled[_dimension])
+                        _sequenceOrdinates |= Ordinates.Z;
+                    _dimension++;
+                }
+                if (hasM)
+                {
+                    _ordinates[_dimension] = Ordinate.M;
+                    _scales[_dimension] = Math.Pow(10, (extended >> 5) & 0x07);
+                    _handled[_dimension] = (handled & Ordinates.M) != 0;
+                    if (_handled[_dimension])
+                        _sequenceOrdinates |= Ordinates.M;
+                    _dimension++;
+                }
+            }
+
+            public ICoordinateSequence ReadPoints(Stream stream, int count, ICoordinateSequenceFactory factory)
+            {
+                ICoordinateSequence sequence = factory.Create(count, _sequenceOrdinates);
+                for (int i = 0; i < count; i++)
+                {
+                    for (int j = 0; j < _dimension; j++)
+                    {
+                        _previous[j] += ReadSigned(stream);
+                        if (_handled[j])
+                            sequence.SetOrdinate(i, _ordinates[j], ToOrdinate(_previous[j], _scales[j]));
+                    }
+                }
+                return sequence;
+            }
+        }
+
+        private static byte ReadByte(Stream stream)
+        {
+            int value = stream.ReadByte();
+            if (value < 0)
+                throw new GeoAPI.IO.ParseException("Unexpected end of TWKB data");
+            return (byte)value;
+        }
+
+        private static int ReadCount(Stream stream)
+        {
+            ulong count = ReadUnsigned(stream);
+            if (count > int.MaxValue)
+                throw new GeoAPI.IO.ParseException(String.Format("Invalid number of elements in TWKB data: {0}", count));
+            return (int)count;
+        }
+
+        private static long ReadSigned(Stream stream)
+        {
+            ulong value = ReadUnsigned(stream);
+            return (long)(value >> 1) ^ -(long)(value & 1);
+        }
+
+        private static ulong ReadUnsigned(Stream stream)
+        {
+            ulong value = 0;
+            for (int shift = 0; shift < 64; shift += 7)
+            {
+                byte b = ReadByte(stream);
+                value |= (ulong)(b & 0x7F) << shift;
+                if (b < 0x80)
+                    return value;
+            }
+            throw new GeoAPI.IO.ParseException("Invalid varint in TWKB data");
+        }
+
+        private static int UnZigZag(int value)
+        {
+            return (value >> 1) ^ -(value & 1);
+        }
+
+        /// <summary>
+        /// Gets or sets whether invalid linear rings should be fixed
+        /// </summary>
+        public bool RepairRings { get; set; }
+
+        #region Implementation of IGeometryIOSettings
+
+        public bool HandleSRID
+        {
+            get { return false; }
+            set { }
+        }
+
+        public Ordinates AllowedOrdinates
+        {
+            get { return Ordinates.XYZM & _sequenceFactory.Ordinates; }
+        }
+
+        private Ordinates _handleOrdinates;
+
+        public Ordinates HandleOrdinates
+        {
+            get { return _handleOrdinates; }
+            set { _handleOrdinates = Ordinates.XY | (AllowedOrdinates & value); }
+        }
+
+        #endregion Implementation of IGeometryIOSettings
+    }
+}
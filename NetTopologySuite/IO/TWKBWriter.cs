@@ -0,0 +1,519 @@
+using System;
+using System.Collections.Generic;
+using System.IO;
+using GeoAPI.Geometries;
+using GeoAPI.IO;
+
+namespace NetTopologySuite.IO
+{
+    /// <summary>
+    /// Writes a Tiny Well-Known Binary (TWKB) representation of a <c>Geometry</c>.
+    /// </summary>
+    /// <remarks>
+    /// TWKB stores the ordinates as integers, scaled by a power of ten and rounded, and each of them
+    /// as the difference to the previous one, in variable length zigzag encoding. A geometry of nearby
+    /// points thus needs one to three bytes per ordinate instead of eight.
+    /// <para>
+    /// Z and M values are written if <see cref="HandleOrdinates"/> asks for them and the geometry has any.
+    /// A missing value is written as 0. TWKB has no SRID.
+    /// </para>
+    /// </remarks>
+    public class TWKBWriter : IBinaryGeometryWriter
+    {
+        private int _precisionXY;
+        private int _precisionZ;
+        private int _precisionM;
+
+        /// <summary>
+        /// Initializes writer with a precision of 7 decimal places for X and Y, and 0 for Z and M.
+        /// </summary>
+        public TWKBWriter()
+            : this(7, 0, 0)
+        {
+        }
+
+        /// <summary>
+        /// Initializes writer with the specified precisions.
+        /// </summary>
+        /// <param name="precisionXY">The number of decimal places of X and Y, between -7 and 7</param>
+        /// <param name="precisionZ">The number of decimal places of Z, between 0 and 7</param>
+        /// <param name="precisionM">The number of decimal places of M, between 0 and 7</param>
+        public TWKBWriter(int precisionXY, int precisionZ, int precisionM)
+        {
+            PrecisionXY = precisionXY;
+            PrecisionZ = precisionZ;
+            PrecisionM = precisionM;
+            HandleOrdinates = Ordinates.XYZM;
+        }
+
+        /// <summary>
+        /// Gets or sets the number of decimal places of X and Y, between -7 and 7.
+        /// A negative value rounds to tens, hundreds, ...
+        /// </summary>
+        public int PrecisionXY
+        {
+            get { return _precisionXY; }
+            set
+            {
+                if (value < -7 || value > 7)
+                    throw new ArgumentOutOfRangeException("value", "The precision of X and Y must be between -7 and 7");
+                _precisionXY = value;
+            }
+        }
+
+        /// <summary>
+        /// Gets or sets the number of decimal places of Z, between 0 and 7.
+        /// </summary>
+        public int PrecisionZ
+        {
+            get { return _precisionZ; }
+            set
+            {
+                if (value < 0 || value > 7)
+                    throw new ArgumentOutOfRangeException("value", "The precision of Z must be between 0 and 7");
+                _precisionZ = value;
+            }
+        }
+
+        /// <summary>
+        /// Gets or sets the number of decimal places of M, between 0 and 7.
+        /// </summary>
+        public int PrecisionM
+        {
+            get { return _precisionM; }
+            set
+            {
+                if (value < 0 || value > 7)
+                    throw new ArgumentOutOfRangeException("value", "The precision of M must be between 0 and 7");
+                _precisionM = value;
+            }
+        }
+
+        /// <summary>
+        /// Gets or sets whether the bounding box is written, which lets a reader filter geometries without decoding them.
+        /// </summary>
+        public bool IncludeBBox { get; set; }
+
+        /// <summary>
+        /// Gets or sets whether the size in bytes is written, which lets a reader skip geometries without decoding them.
+        /// </summary>
+        public bool IncludeSize { get; set; }
+
+        /// <summary>
+        /// Writes a geometry.
+        /// </summary>
+        /// <param name="geometry">The geometry to write</param>
+        /// <returns>The TWKB bytes</returns>
+        public byte[] Write(IGeometry geometry)
+        {
+            return Write(geometry, null);
+        }
+
+        /// <summary>
+        /// Writes a multi-geometry or geometry collection, with an id for each of its parts.
+        /// </summary>
+        /// <param name="geometry">The geometry to write</param>
+        /// <param name="ids">The ids of the parts of <paramref name="geometry"/>, or <c>null</c></param>
+        /// <returns>The TWKB bytes</returns>
+        public byte[] Write(IGeometry geometry, IList<long> ids)
+        {
+            using (var stream = new MemoryStream())
+            {
+                Write(geometry, ids, stream);
+                return stream.ToArray();
+            }
+        }
+
+        /// <summary>
+        /// Writes a geometry to a stream.
+        /// </summary>
+        /// <param name="geometry">The geometry to write</param>
+        /// <param name="stream">The stream to write to</param>
+        public void Write(IGeometry geometry, Stream stream)
+        {
+            Write(geometry, null, stream);
+        }
+
+        /// <summary>
+        /// Writes a multi-geometry or geometry collection to a stream, with an id for each of its parts.
+        /// </summary>
+        /// <remarks>
+        /// <see cref="TWKBReader"/> sets the <see cref="IGeometry.UserData"/> of each part to its id.
+        /// </remarks>
+        /// <param name="geometry">The geometry to write</param>
+        /// <param name="ids">The ids of the parts of <paramref name="geometry"/>, or <c>null</c></param>
+        /// <param name="stream">The stream to write to</param>
+        public void Write(IGeometry geometry, IList<long> ids, Stream stream)
+        {
+            if (geometry == null)
+                throw new ArgumentNullException("geometry");
+            if (stream == null)
+                throw new ArgumentNullException("stream");
+            if (ids != null)
+            {
+                if (!(geometry is IGeometryCollection))
+                    throw new ArgumentException("Only multi-geometries and geometry collections have ids", "ids");
+                if (ids.Count != geometry.NumGeometries)
+                    throw new ArgumentException("There must be one id for each part of the geometry", "ids");
+            }
+
+            var encoder = new Encoder(this, geometry);
+            encoder.Write(stream, geometry, ids);
+        }
+
+        #region Implementation of IGeometryIOSettings
+
+        public bool HandleSRID
+        {
+            get { return false; }
+            set
+            {
+                if (value)
+                    throw new InvalidOperationException("TWKB has no SRID");
+            }
+        }
+
+        public Ordinates AllowedOrdinates
+        {
+            get { return Ordinates.XYZM; }
+        }
+
+        private Ordinates _handleOrdinates;
+        public Ordinates HandleOrdinates
+        {
+            get { return _handleOrdinates; }
+            set { _handleOrdinates = Ordinates.XY | (AllowedOrdinates & value); }
+        }
+
+        #endregion
+
+        #region Implementation of IBinaryGeometryWriter
+
+        /// <summary>
+        /// Gets the byte order, which does not apply to TWKB as it is written byte by byte.
+        /// </summary>
+        public ByteOrder ByteOrder
+        {
+            get { return ByteOrder.LittleEndian; }
+            set { }
+        }
+
+        #endregion
+
+        /// <summary>
+        /// Encodes one geometry, and the parts of it if it is a collection.
+        /// </summary>
+        private class Encoder
+        {
+            private readonly int _precisionXY;
+            private readonly bool _includeBBox;
+            private readonly bool _includeSize;
+
+            private readonly bool _hasZ;
+            private readonly bool _hasM;
+            private readonly byte _extendedDimensions;
+
+            // the ordinates written for each point, and the factors scaling them to integers
+            private readonly Ordinate[] _ordinates;
+            private readonly double[] _scales;
+
+            public Encoder(TWKBWriter writer, IGeometry geometry)
+            {
+                _precisionXY = writer.PrecisionXY;
+                _includeBBox = writer.IncludeBBox;
+                _includeSize = writer.IncludeSize;
+
+                Ordinates handle = writer.HandleOrdinates;
+                _hasZ = (handle & Ordinates.Z) != 0 && HasValues(geometry, Ordinate.Z);
+                _hasM = (handle & Ordinates.M) != 0 && HasValues(geometry, Ordinate.M);
+
+                var ordinates = new List<Ordinate> { Ordinate.X, Ordinate.Y };
+                var scales = new List<double> { Math.Pow(10, writer.PrecisionXY), Math.Pow(10, writer.PrecisionXY) };
+                if (_hasZ)
+                {
+                    ordinates.Add(Ordinate.Z);
+                    scales.Add(Math.Pow(10, writer.PrecisionZ));
+                    _extendedDimensions |= (byte)(0x01 | writer.PrecisionZ << 2);
+                }
+                if (_hasM)
+                {
+                    ordinates.Add(Ordinate.M);
+                    scales.Add(Math.Pow(10, writer.PrecisionM));
+                    _extendedDimensions |= (byte)(0x02 | writer.PrecisionM << 5);
+                }
+                _ordinates = ordinates.ToArray();
+                _scales = scales.ToArray();
+            }
+
+            /// <summary>
+            /// Writes a geometry with its header.
+            /// </summary>
+            public void Write(Stream stream, IGeometry geometry, IList<long> ids)
+            {
+                bool empty = geometry.IsEmpty;
+
+                byte metadata = 0;
+                if (_includeBBox && !empty)
+                    metadata |= 0x01;
+                if (_includeSize && !empty)
+                    metadata |= 0x02;
+                if (ids != null && !empty)
+                    metadata |= 0x04;
+                if (_hasZ || _hasM)
+                    metadata |= 0x08;
+                if (empty)
+                    metadata |= 0x10;
+
+                stream.WriteByte((byte)(GetTypeCode(geometry) | ZigZag(_precisionXY) << 4));
+                stream.WriteByte(metadata);
+                if (_hasZ || _hasM)
+                    stream.WriteByte(_extendedDimensions);
+                if (empty)
+                    return;
+
+                // the size counts the bytes after it, so the rest is encoded first
+                using (var rest = new MemoryStream())
+                {
+                    if (_includeBBox)
+                        WriteBBox(rest, geometry);
+                    WriteBody(rest, geometry, ids);
+
+                    if (_includeSize)
+                        WriteUnsigned(stream, (ulong)rest.Length);
+                    rest.WriteTo(stream);
+                }
+            }
+
+            private void WriteBody(Stream stream, IGeometry geometry, IList<long> ids)
+            {
+                // the differences run on through all parts of a geometry
+                var previous = new long[_ordinates.Length];
+
+                if (geometry is IPoint)
+                {
+                    WritePoints(stream, ((IPoint)geometry).CoordinateSequence, previous, false);
+                }
+                else if (geometry is ILineString)
+                {
+                    WritePoints(stream, ((ILineString)geometry).CoordinateSequence, previous, true);
+                }
+                else if (geometry is IPolygon)
+                {
+                    WriteRings(stream, (IPolygon)geometry, previous);
+                }
+                else if (geometry is IGeometryCollection)
+                {
+                    int count = geometry.NumGeometries;
+                    WriteUnsigned(stream, (ulong)count);
+                    if (ids != null)
+                    {
+                        foreach (long id in ids)
+                            WriteSigned(stream, id);
+                    }
+
+                    for (int i = 0; i < count; i++)
+                    {
+                        IGeometry part = geometry.GetGeometryN(i);
+                        if (geometry is IMultiPoint)
+                        {
+                            if (part.IsEmpty)
+                                throw new ArgumentException("TWKB cannot write an empty point in a MultiPoint", "geometry");
+                            WritePoints(stream, ((IPoint)part).CoordinateSequence, previous, false);
+                        }
+                        else if (geometry is IMultiLineString)
+                        {
+                            WritePoints(stream, ((ILineString)part).CoordinateSequence, previous, true);
+                        }
+                        else if (geometry is IMultiPolygon)
+                        {
+                            WriteRings(stream, (IPolygon)part, previous);
+                        }
+                        else
+                        {
+                            // the parts of a collection are complete geometries
+                            Write(stream, part, null);
+                        }
+                    }
+                }
+                else
+                {
+                    throw new ArgumentException("Unsupported geometry type: " + geometry.GeometryType, "geometry");
+                }
+            }
+
+            private void WriteRings(Stream stream, IPolygon polygon, long[] previous)
+            {
+                if (polygon.IsEmpty)
+                {
+                    WriteUnsigned(stream, 0);
+                    return;
+                }
+
+                WriteUnsigned(stream, (ulong)(polygon.NumInteriorRings + 1));
+                WritePoints(stream, polygon.ExteriorRing.CoordinateSequence, previous, true);
+                for (int i = 0; i < polygon.NumInteriorRings; i++)
+                    WritePoints(stream, polygon.GetInteriorRingN(i).CoordinateSequence, previous, true);
+            }
+
+            private void WritePoints(Stream stream, ICoordinateSequence sequence, long[] previous, bool withCount)
+            {
+                if (withCount)
+                    WriteUnsigned(stream, (ulong)sequence.Count);
+
+                for (int i = 0; i < sequence.Count; i++)
+                {
+                    for (int j = 0; j < _ordinates.Length; j++)
+                    {
+                        long value = Scale(sequence.GetOrdinate(i, _ordinates[j]), _scales[j]);
+                        WriteSigned(stream, value - previous[j]);
+                        previous[j] = value;
+                    }
+                }
+            }
+
+            /// <summary>
+            /// Writes the minimum and the extent of each ordinate, scaled like the points.
+            /// </summary>
+            private void WriteBBox(Stream stream, IGeometry geometry)
+            {
+                var min = new long[_ordinates.Length];
+                var max = new long[_ordinates.Length];
+                for (int j = 0; j < min.Length; j++)
+                {
+                    min[j] = long.MaxValue;
+                    max[j] = long.MinValue;
+                }
+                ExpandBBox(geometry, min, max);
+
+                for (int j = 0; j < min.Length; j++)
+                {
+                    WriteSigned(stream, min[j]);
+                    WriteSigned(stream, max[j] - min[j]);
+                }
+            }
+
+            private void ExpandBBox(IGeometry geometry, long[] min, long[] max)
+            {
+                if (geometry is IPoint)
+                {
+                    ExpandBBox(((IPoint)geometry).CoordinateSequence, min, max);
+                }
+                else if (geometry is ILineString)
+                {
+                    ExpandBBox(((ILineString)geometry).CoordinateSequence, min, max);
+                }
+                else if (geometry is IPolygon)
+                {
+                    var polygon = (IPolygon)geometry;
+                    ExpandBBox(polygon.ExteriorRing.CoordinateSequence, min, max);
+                    for (int i = 0; i < polygon.NumInteriorRings; i++)
+                        ExpandBBox(polygon.GetInteriorRingN(i).CoordinateSequence, min, max);
+                }
+                else
+                {
+                    for (int i = 0; i < geometry.NumGeometries; i++)
+                        ExpandBBox(geometry.GetGeometryN(i), min, max);
+                }
+            }
+
+            private void ExpandBBox(ICoordinateSequence sequence, long[] min, long[] max)
+            {
+                for (int i = 0; i < sequence.Count; i++)
+                {
+                    for (int j = 0; j < _ordinates.Length; j++)
+                    {
+                        long value = Scale(sequence.GetOrdinate(i, _ordinates[j]), _scales[j]);
+                        if (value < min[j])
+                            min[j] = value;
+                        if (value > max[j])
+                            max[j] = value;
+                    }
+                }
+            }
+
+            private static long Scale(double value, double scale)
+            {
+                if (Double.IsNaN(value))
+                    return 0;
+                return (long)Math.Round(value * scale);
+            }
+
+            private static bool HasValues(IGeometry geometry, Ordinate ordinate)
+            {
+                if (geometry is IPoint)
+                    return HasValues(((IPoint)geometry).CoordinateSequence, ordinate);
+                if (geometry is ILineString)
+                    return HasValues(((ILineString)geometry).CoordinateSequence, ordinate);
+                if (geometry is IPolygon)
+                {
+                    var polygon = (IPolygon)geometry;
+                    if (HasValues(polygon.ExteriorRing.CoordinateSequence, ordinate))
+                        return true;
+                    for (int i = 0; i < polygon.NumInteriorRings; i++)
+                    {
+                        if (HasValues(polygon.GetInteriorRingN(i).CoordinateSequence, ordinate))
+                            return true;
+                    }
+                    return false;
+                }
+                for (int i = 0; i < geometry.NumGeometries; i++)
+                {
+                    if (HasValues(geometry.GetGeometryN(i), ordinate))
+                        return true;
+                }
+                return false;
+            }
+
+            private static bool HasValues(ICoordinateSequence sequence, Ordinate ordinate)
+            {
+                if ((sequence.Ordinates & (ordinate == Ordinate.Z ? Ordinates.Z : Ordinates.M)) == 0)
+                    return false;
+                for (int i = 0; i < sequence.Count; i++)
+                {
+                    if (!Double.IsNaN(sequence.GetOrdinate(i, ordinate)))
+                        return true;
+                }
+                return false;
+            }
+
+            private static int GetTypeCode(IGeometry geometry)
+            {
+                if (geometry is IPoint)
+                    return 1;
+                if (geometry is ILineString)
+                    return 2;
+                if (geometry is IPolygon)
+                    return 3;
+                if (geometry is IMultiPoint)
+                    return 4;
+                if (geometry is IMultiLineString)
+                    return 5;
+                if (geometry is IMultiPolygon)
+                    return 6;
+                if (geometry is IGeometryCollection)
+                    return 7;
+                throw new ArgumentException("Unsupported geometry type: " + geometry.GeometryType, "geometry");
+            }
+
+            private static int ZigZag(int value)
+            {
+                return (value << 1) ^ (value >> 31);
+            }
+
+            private static void WriteSigned(Stream stream, long value)
+            {
+                WriteUnsigned(stream, (ulong)((value << 1) ^ (value >> 63)));
+            }
+
+            private static void WriteUnsigned(Stream stream, ulong value)
+            {
+                while (value >= 0x80)
+                {
+                    stream.WriteByte((byte)(value | 0x80));
+                    value >>= 7;
+                }
+                stream.WriteByte((byte)value);
+            }
+        }
+    }
+}
@@ -4,6 +4,13 @@ using GeoAPI;
 using GeoAPI.Geometries;
 using GeoAPI.IO;
 using NetTopologySuite.Geometries;
+using NetTopologySuite.Geometries.Implementation;
+
+#if !(MONODROID || PCL)
+using BitConverter = System.BitConverter;
+#else
+using BitConverter = GeoAPI.BitConverterEx;
+#endif
 
 namespace NetTopologySuite.IO
 {
@@ -137,8 +144,45 @@ namespace NetTopologySuite.IO
         /// <exception cref="GeoAPI.IO.ParseException"> if the WKB data is ill-formed.</exception>
         public IGeometry Read(byte[] data)
         {
-            using (Stream stream = new MemoryStream(data))
-                return Read(stream);
+            if (data == null)
+                throw new ArgumentNullException("data");
+            return Read(data, 0, data.Length);
+        }
+
+        /// <summary>
+        /// Reads a <see cref="IGeometry"/> in binary WKB format from a segment of an array of <see cref="byte"/>s.
+        /// </summary>
+        /// <remarks>
+        /// The data is decoded in place, without copying it or wrapping it in a stream.
+        /// Ordinates are written directly to the storage of the coordinate sequences
+        /// if they are <see cref="PackedDoubleCoordinateSequence"/>s or <see cref="DotSpatialAffineCoordinateSequence"/>s.
+        /// </remarks>
+        /// <param name="data">The byte array to read from</param>
+        /// <param name="offset">The offset of the geometry in <paramref name="data"/></param>
+        /// <param name="count">The number of bytes available for the geometry</param>
+        /// <returns>The geometry read</returns>
+        /// <exception cref="GeoAPI.IO.ParseException"> if the WKB data is ill-formed.</exception>
+        public virtual IGeometry Read(byte[] data, int offset, int count)
+        {
+            if (data == null)
+                throw new ArgumentNullException("data");
+            if (offset < 0 || offset > data.Length)
+                throw new ArgumentOutOfRangeException("offset");
+            if (count < 0 || count > data.Length - offset)
+                throw new ArgumentOutOfRangeException("count");
+
+            var buffer = new WKBBuffer(data, offset, count);
+            ByteOrder byteOrder = (ByteOrder)buffer.ReadByte();
+            if (byteOrder == ByteOrder.BigEndian)
+                buffer.BigEndian = true;
+            else if (byteOrder != ByteOrder.LittleEndian && _isStrict)
+            {
+                string s = String.Format("Unknown geometry byte order (not LittleEndian or BigEndian): {0}", byteOrder);
+                throw new GeoAPI.IO.ParseException(s);
+            }
+            // as in Read(Stream), an unknown byte order is read as little endian if not strict
+
+            return Read(buffer);
         }
 
         /// <summary>
@@ -253,15 +297,6 @@ namespace NetTopologySuite.IO
         private WKBGeometryTypes ReadGeometryType(BinaryReader reader, out CoordinateSystem coordinateSystem, out int srid)
         {
             uint type = reader.ReadUInt32();
-            //Determine coordinate system
-            if ((type & (0x80000000 | 0x40000000)) == (0x80000000 | 0x40000000))
-                coordinateSystem = CoordinateSystem.XYZM;
-            else if ((type & 0x80000000) == 0x80000000)
-                coordinateSystem = CoordinateSystem.XYZ;
-            else if ((type & 0x40000000) == 0x40000000)
-                coordinateSystem = CoordinateSystem.XYM;
-            else
-                coordinateSystem = CoordinateSystem.XY;
 
             //Has SRID
             if ((type & 0x20000000) != 0)
@@ -271,22 +306,7 @@ namespace NetTopologySuite.IO
 
             if (!HandleSRID) srid = -1;
 
-            //Get cs from prefix
-            uint ordinate = (type & 0xffff) / 1000;
-            switch (ordinate)
-            {
-                case 1:
-                    coordinateSystem = CoordinateSystem.XYZ;
-                    break;
-                case 2:
-                    coordinateSystem = CoordinateSystem.XYM;
-                    break;
-                case 3:
-                    coordinateSystem = CoordinateSystem.XYZM;
-                    break;
-            }
-
-            return (WKBGeometryTypes)((type & 0xffff) % 1000);
+            return DecodeGeometryType(type, out coordinateSystem);
         }
 
         /// <summary>
@@ -611,6 +631,372 @@ namespace NetTopologySuite.IO
             return factory.CreateGeometryCollection(geometries);
         }
 
+        #region Byte array decoding
+
+        /// <summary>
+        /// A cursor on the WKB data in a byte array.
+        /// </summary>
+        private class WKBBuffer
+        {
+            private readonly byte[] _data;
+            private readonly int _end;
+            private int _position;
+
+            public WKBBuffer(byte[] data, int offset, int count)
+            {
+                _data = data;
+                _position = offset;
+                _end = offset + count;
+            }
+
+            public bool BigEndian;
+
+            public int Remaining
+            {
+                get { return _end - _position; }
+            }
+
+            private void Require(int count)
+            {
+                if (_end - _position < count)
+                    throw new GeoAPI.IO.ParseException("Unexpected end of WKB data");
+            }
+
+            public byte ReadByte()
+            {
+                Require(1);
+                return _data[_position++];
+            }
+
+            public uint ReadUInt32()
+            {
+                Require(4);
+                byte[] d = _data;
+                int p = _position;
+                _position += 4;
+                if (BigEndian)
+                    return (uint)(d[p] << 24 | d[p + 1] << 16 | d[p + 2] << 8 | d[p + 3]);
+                return (uint)(d[p] | d[p + 1] << 8 | d[p + 2] << 16 | d[p + 3] << 24);
+            }
+
+            public int ReadInt32()
+            {
+                return (int)ReadUInt32();
+            }
+
+            public double ReadDouble()
+            {
+                Require(8);
+                byte[] d = _data;
+                int p = _position;
+                _position += 8;
+
+                if (BigEndian == System.BitConverter.IsLittleEndian)
+                {
+                    // swap while assembling the bits
+                    long bits;
+                    if (BigEndian)
+                        bits = (long)d[p] << 56 | (long)d[p + 1] << 48 | (long)d[p + 2] << 40 | (long)d[p + 3] << 32 |
+                               (long)d[p + 4] << 24 | (long)d[p + 5] << 16 | (long)d[p + 6] << 8 | d[p + 7];
+                    else
+                        bits = d[p] | (long)d[p + 1] << 8 | (long)d[p + 2] << 16 | (long)d[p + 3] << 24 |
+                               (long)d[p + 4] << 32 | (long)d[p + 5] << 40 | (long)d[p + 6] << 48 | (long)d[p + 7] << 56;
+                    return BitConverter.Int64BitsToDouble(bits);
+                }
+                return System.BitConverter.ToDouble(d, p);
+            }
+
+            /// <summary>
+            /// Reads the byte order of a nested geometry. WKB allows it to differ from the one of the parent.
+            /// </summary>
+            public void ReadByteOrder()
+            {
+                ByteOrder byteOrder = (ByteOrder)ReadByte();
+                if (byteOrder == ByteOrder.BigEndian)
+                    BigEndian = true;
+                else if (byteOrder == ByteOrder.LittleEndian)
+                    BigEndian = false;
+            }
+
+            /// <summary>
+            /// Reads a number of elements, checking that the remaining data can hold them.
+            /// </summary>
+            public int ReadCount(int minElementSize)
+            {
+                int count = ReadInt32();
+                if (count < 0 || count > Remaining / minElementSize)
+                    throw new GeoAPI.IO.ParseException(String.Format("Invalid number of elements in WKB data: {0}", count));
+                return count;
+            }
+        }
+
+        private IGeometry Read(WKBBuffer buffer)
+        {
+            CoordinateSystem cs;
+            int srid;
+            WKBGeometryTypes geometryType = ReadGeometryType(buffer, out cs, out srid);
+            return Read(buffer, geometryType, cs, srid);
+        }
+
+        private IGeometry Read(WKBBuffer buffer, WKBGeometryTypes geometryType, CoordinateSystem cs, int srid)
+        {
+            switch (geometryType)
+            {
+                case WKBGeometryTypes.WKBPoint:
+                    return ReadPoint(buffer, cs, srid);
+                case WKBGeometryTypes.WKBLineString:
+                    return ReadLineString(buffer, cs, srid);
+                case WKBGeometryTypes.WKBPolygon:
+                    return ReadPolygon(buffer, cs, srid);
+                case WKBGeometryTypes.WKBMultiPoint:
+                case WKBGeometryTypes.WKBMultiLineString:
+                case WKBGeometryTypes.WKBMultiPolygon:
+                case WKBGeometryTypes.WKBGeometryCollection:
+                    return ReadCollection(buffer, geometryType, srid);
+                default:
+                    throw new ArgumentException("Geometry type not recognized. GeometryCode: " + geometryType);
+            }
+        }
+
+        private WKBGeometryTypes ReadGeometryType(WKBBuffer buffer, out CoordinateSystem coordinateSystem, out int srid)
+        {
+            uint type = buffer.ReadUInt32();
+            srid = (type & 0x20000000) != 0 ? buffer.ReadInt32() : -1;
+            if (!HandleSRID) srid = -1;
+            return DecodeGeometryType(type, out coordinateSystem);
+        }
+
+        /// <summary>
+        /// Decodes the geometry type and the coordinate system from either the flags
+        /// of the PostGIS extended WKB or the ISO type codes.
+        /// </summary>
+        private static WKBGeometryTypes DecodeGeometryType(uint type, out CoordinateSystem coordinateSystem)
+        {
+            //Determine coordinate system
+            if ((type & (0x80000000 | 0x40000000)) == (0x80000000 | 0x40000000))
+                coordinateSystem = CoordinateSystem.XYZM;
+            else if ((type & 0x80000000) == 0x80000000)
+                coordinateSystem = CoordinateSystem.XYZ;
+            else if ((type & 0x40000000) == 0x40000000)
+                coordinateSystem = CoordinateSystem.XYM;
+            else
+                coordinateSystem = CoordinateSystem.XY;
+
+            //Get cs from prefix
+            switch ((type & 0xffff) / 1000)
+            {
+                case 1:
+                    coordinateSystem = CoordinateSystem.XYZ;
+                    break;
+                case 2:
+                    coordinateSystem = CoordinateSystem.XYM;
+                    break;
+                case 3:
+                    coordinateSystem = CoordinateSystem.XYZM;
+                    break;
+            }
+
+            return (WKBGeometryTypes)((type & 0xffff) % 1000);
+        }
+
+        private static int GetOrdinateCount(CoordinateSystem cs)
+        {
+            switch (cs)
+            {
+                case CoordinateSystem.XY:
+                    return 2;
+                case CoordinateSystem.XYZ:
+                case CoordinateSystem.XYM:
+                    return 3;
+                default:
+                    return 4;
+            }
+        }
+
+        private ICoordinateSequence ReadCoordinateSequence(WKBBuffer buffer, int size, CoordinateSystem cs)
+        {
+            ICoordinateSequence sequence = _sequenceFactory.Create(size, ToOrdinates(cs));
+
+            bool hasZ = cs == CoordinateSystem.XYZ || cs == CoordinateSystem.XYZM;
+            bool hasM = cs == CoordinateSystem.XYM || cs == CoordinateSystem.XYZM;
+            bool handleZ = hasZ && HandleOrdinate(Ordinate.Z);
+            bool handleM = hasM && HandleOrdinate(Ordinate.M);
+
+            var packed = sequence as PackedDoubleCoordinateSequence;
+            if (packed != null)
+            {
+                double[] coords = packed.GetRawCoordinates();
+                int dimension = packed.Dimension;
+                handleZ &= dimension > 2;
+                handleM &= dimension > 3;
+                for (int i = 0, j = 0; i < size; i++, j += dimension)
+                {
+                    coords[j] = ReadPreciseDouble(buffer);
+                    coords[j + 1] = ReadPreciseDouble(buffer);
+                    if (hasZ)
+                    {
+                        double z = buffer.ReadDouble();
+                        if (handleZ) coords[j + 2] = z;
+                    }
+                    if (hasM)
+                    {
+                        double m = buffer.ReadDouble();
+                        if (handleM) coords[j + 3] = m;
+                    }
+                }
+                return sequence;
+            }
+
+            var dotSpatial = sequence as DotSpatialAffineCoordinateSequence;
+            if (dotSpatial != null)
+            {
+                double[] xy = dotSpatial.XY, zs = dotSpatial.Z, ms = dotSpatial.M;
+                handleZ &= zs != null;
+                handleM &= ms != null;
+                for (int i = 0; i < size; i++)
+                {
+                    xy[2 * i] = ReadPreciseDouble(buffer);
+                    xy[2 * i + 1] = ReadPreciseDouble(buffer);
+                    if (hasZ)
+                    {
+                        double z = buffer.ReadDouble();
+                        if (handleZ) zs[i] = z;
+                    }
+                    if (hasM)
+                    {
+                        double m = buffer.ReadDouble();
+                        if (handleM) ms[i] = m;
+                    }
+                }
+                return sequence;
+            }
+
+            for (int i = 0; i < size; i++)
+            {
+                sequence.SetOrdinate(i, Ordinate.X, ReadPreciseDouble(buffer));
+                sequence.SetOrdinate(i, Ordinate.Y, ReadPreciseDouble(buffer));
+                if (hasZ)
+                {
+                    double z = buffer.ReadDouble();
+                    if (handleZ) sequence.SetOrdinate(i, Ordinate.Z, z);
+                }
+                if (hasM)
+                {
+                    double m = buffer.ReadDouble();
+                    if (handleM) sequence.SetOrdinate(i, Ordinate.M, m);
+                }
+            }
+            return sequence;
+        }
+
+        private double ReadPreciseDouble(WKBBuffer buffer)
+        {
+            double value = buffer.ReadDouble();
+            return _precisionModel != null ? _precisionModel.MakePrecise(value) : value;
+        }
+
+        private ICoordinateSequence ReadCoordinateSequence(WKBBuffer buffer, CoordinateSystem cs)
+        {
+            int size = buffer.ReadCount(8 * GetOrdinateCount(cs));
+            return ReadCoordinateSequence(buffer, size, cs);
+        }
+
+        private IGeometry ReadPoint(WKBBuffer buffer, CoordinateSystem cs, int srid)
+        {
+            IGeometryFactory factory = _geometryServices.CreateGeometryFactory(_precisionModel, srid, _sequenceFactory);
+            return factory.CreatePoint(ReadCoordinateSequence(buffer, 1, cs));
+        }
+
+        private IGeometry ReadLineString(WKBBuffer buffer, CoordinateSystem cs, int srid)
+        {
+            IGeometryFactory factory = _geometryServices.CreateGeometryFactory(_precisionModel, srid, _sequenceFactory);
+            ICoordinateSequence sequence = ReadCoordinateSequence(buffer, cs);
+            if (!_isStrict && sequence.Count == 1)
+                sequence = CoordinateSequences.Extend(_geometryServices.DefaultCoordinateSequenceFactory, sequence, 2);
+            return factory.CreateLineString(sequence);
+        }
+
+        private ILinearRing ReadLinearRing(WKBBuffer buffer, CoordinateSystem cs, IGeometryFactory factory)
+        {
+            ICoordinateSequence sequence = ReadCoordinateSequence(buffer, cs);
+            if (!_isStrict && !CoordinateSequences.IsRing(sequence))
+                sequence = CoordinateSequences.EnsureValidRing(_sequenceFactory, sequence);
+            return factory.CreateLinearRing(sequence);
+        }
+
+        private IGeometry ReadPolygon(WKBBuffer buffer, CoordinateSystem cs, int srid)
+        {
+            IGeometryFactory factory = _geometryServices.CreateGeometryFactory(_precisionModel, srid, _sequenceFactory);
+            ILinearRing exteriorRing = null;
+            ILinearRing[] interiorRings = null;
+            int numRings = buffer.ReadCount(4);
+            if (numRings > 0)
+            {
+                exteriorRing = ReadLinearRing(buffer, cs, factory);
+                interiorRings = new ILinearRing[numRings - 1];
+                for (int i = 0; i < numRings - 1; i++)
+                    interiorRings[i] = ReadLinearRing(buffer, cs, factory);
+            }
+            return factory.CreatePolygon(exteriorRing, interiorRings);
+        }
+
+        private IGeometry ReadCollection(WKBBuffer buffer, WKBGeometryTypes collectionType, int srid)
+        {
+            IGeometryFactory factory = _geometryServices.CreateGeometryFactory(_precisionModel, srid, _sequenceFactory);
+
+            // a nested geometry needs at least its byte order and its type
+            int numGeometries = buffer.ReadCount(5);
+            IGeometry[] geometries;
+            switch (collectionType)
+            {
+                case WKBGeometryTypes.WKBMultiPoint:
+                    geometries = new IPoint[numGeometries];
+                    break;
+                case WKBGeometryTypes.WKBMultiLineString:
+                    geometries = new ILineString[numGeometries];
+                    break;
+                case WKBGeometryTypes.WKBMultiPolygon:
+                    geometries = new IPolygon[numGeometries];
+                    break;
+                default:
+                    geometries = new IGeometry[numGeometries];
+                    break;
+            }
+
+            for (int i = 0; i < numGeometries; i++)
+            {
+                bool bigEndian = buffer.BigEndian;
+                buffer.ReadByteOrder();
+
+                CoordinateSystem cs;
+                int srid2;
+                WKBGeometryTypes geometryType = ReadGeometryType(buffer, out cs, out srid2);
+                if (collectionType == WKBGeometryTypes.WKBMultiPoint && geometryType != WKBGeometryTypes.WKBPoint)
+                    throw new ArgumentException("IPoint feature expected");
+                if (collectionType == WKBGeometryTypes.WKBMultiLineString && geometryType != WKBGeometryTypes.WKBLineString)
+                    throw new ArgumentException("ILineString feature expected");
+                if (collectionType == WKBGeometryTypes.WKBMultiPolygon && geometryType != WKBGeometryTypes.WKBPolygon)
+                    throw new ArgumentException("IPolygon feature expected");
+
+                geometries[i] = Read(buffer, geometryType, cs, srid2);
+                buffer.BigEndian = bigEndian;
+            }
+
+            switch (collectionType)
+            {
+                case WKBGeometryTypes.WKBMultiPoint:
+                    return factory.CreateMultiPoint((IPoint[])geometries);
+                case WKBGeometryTypes.WKBMultiLineString:
+                    return factory.CreateMultiLineString((ILineString[])geometries);
+                case WKBGeometryTypes.WKBMultiPolygon:
+                    return factory.CreateMultiPolygon((IPolygon[])geometries);
+                default:
+                    return factory.CreateGeometryCollection(geometries);
+            }
+        }
+
+        #endregion
+
         #region Implementation of IGeometryIOSettings
 
         public bool HandleSRID { get; set; }
@@ -5,6 +5,12 @@ using GeoAPI.Geometries;
 using GeoAPI.IO;
 using NetTopologySuite.Utilities;
 
+#if !(MONODROID || PCL)
+using BitConverter = System.BitConverter;
+#else
+using BitConverter = GeoAPI.BitConverterEx;
+#endif
+
 namespace NetTopologySuite.IO
 {
     /// <summary>
@@ -112,6 +118,15 @@ namespace NetTopologySuite.IO
             //Byte Order
             WriteByteOrder(writer);
 
+            writer.Write(GetGeometryTypeCode(geom));
+
+            //Write SRID if needed
+            if (HandleSRID)
+                writer.Write(geom.SRID);
+        }
+
+        private uint GetGeometryTypeCode(IGeometry geom)
+        {
             WKBGeometryTypes geometryType;
             switch (geom.GeometryType)
             {
@@ -159,12 +174,7 @@ namespace NetTopologySuite.IO
             if (HandleSRID)
                 intGeometryType |= 0x20000000;
 
-            //
-            writer.Write(intGeometryType);
-
-            //Write SRID if needed
-            if (HandleSRID)
-                writer.Write(geom.SRID);
+            return intGeometryType;
         }
 
         protected ByteOrder EncodingType;
@@ -251,6 +261,48 @@ namespace NetTopologySuite.IO
             return bytes;
         }
 
+        /// <summary>
+        /// Computes the number of bytes the WKB representation of a given geometry takes.
+        /// </summary>
+        /// <param name="geometry">The geometry</param>
+        /// <returns>The size of the WKB representation in bytes, including the SRID if <see cref="HandleSRID"/> is set.</returns>
+        public int GetEncodedSize(IGeometry geometry)
+        {
+            if (geometry == null)
+                throw new ArgumentNullException("geometry");
+            return SetByteStream(geometry);
+        }
+
+        /// <summary>
+        /// Writes a WKB representation of a given geometry into a buffer supplied by the caller.
+        /// </summary>
+        /// <remarks>
+        /// This allows reusing one buffer for many geometries, rather than allocating an array for each
+        /// of them like <see cref="Write(IGeometry)"/> does. The buffer needs to hold at least
+        /// <see cref="GetEncodedSize"/> bytes from <paramref name="offset"/> on.
+        /// </remarks>
+        /// <param name="geometry">The geometry</param>
+        /// <param name="buffer">The buffer to write to</param>
+        /// <param name="offset">The offset in <paramref name="buffer"/> to write at</param>
+        /// <returns>The number of bytes written</returns>
+        public virtual int Write(IGeometry geometry, byte[] buffer, int offset)
+        {
+            if (geometry == null)
+                throw new ArgumentNullException("geometry");
+            if (buffer == null)
+                throw new ArgumentNullException("buffer");
+            if (offset < 0 || offset > buffer.Length)
+                throw new ArgumentOutOfRangeException("offset");
+
+            int size = GetEncodedSize(geometry);
+            if (buffer.Length - offset < size)
+                throw new ArgumentException(String.Format("The buffer is too small, {0} bytes are needed", size), "buffer");
+
+            int position = offset;
+            Write(geometry, buffer, ref position);
+            return position - offset;
+        }
+
         /// <summary>
         /// Writes a WKB representation of a given point.
         /// </summary>
@@ -635,6 +687,106 @@ namespace NetTopologySuite.IO
             //return Double.IsNaN(geometry.Coordinate.Z) ? 21 : 29;
         }
 
+        #region Writing to byte arrays
+
+        private void Write(IGeometry geometry, byte[] buffer, ref int position)
+        {
+            buffer[position++] = (byte)EncodingType;
+            WriteInt32(GetGeometryTypeCode(geometry), buffer, ref position);
+            if (HandleSRID)
+                WriteInt32((uint)geometry.SRID, buffer, ref position);
+
+            if (geometry is IPoint)
+            {
+                ICoordinateSequence sequence = ((IPoint)geometry).CoordinateSequence;
+                if (sequence.Count == 0)
+                {
+                    // the size of an empty point is that of a point, so the ordinates are written as NaN
+                    for (int i = 0; i < _coordinateSize; i += 8)
+                        WriteDouble(Double.NaN, buffer, ref position);
+                }
+                else
+                    Write(sequence, false, buffer, ref position);
+            }
+            else if (geometry is ILineString)
+                Write(((ILineString)geometry).CoordinateSequence, true, buffer, ref position);
+            else if (geometry is IPolygon)
+            {
+                var polygon = (IPolygon)geometry;
+                WriteInt32((uint)(polygon.NumInteriorRings + 1), buffer, ref position);
+                Write(polygon.ExteriorRing.CoordinateSequence, true, buffer, ref position);
+                for (int i = 0; i < polygon.NumInteriorRings; i++)
+                    Write(polygon.InteriorRings[i].CoordinateSequence, true, buffer, ref position);
+            }
+            else if (geometry is IGeometryCollection)
+            {
+                WriteInt32((uint)geometry.NumGeometries, buffer, ref position);
+                for (int i = 0; i < geometry.NumGeometries; i++)
+                    Write(geometry.GetGeometryN(i), buffer, ref position);
+            }
+            else throw new ArgumentException("Geometry not recognized: " + geometry);
+        }
+
+        private void Write(ICoordinateSequence sequence, bool emitSize, byte[] buffer, ref int position)
+        {
+            if (emitSize)
+                WriteInt32((uint)sequence.Count, buffer, ref position);
+
+            var getZ = (sequence.Ordinates & Ordinates.Z) == Ordinates.Z;
+            var getM = (sequence.Ordinates & Ordinates.M) == Ordinates.M;
+            var writeZ = (HandleOrdinates & Ordinates.Z) == Ordinates.Z;
+            var writeM = (HandleOrdinates & Ordinates.M) == Ordinates.M;
+
+            for (var index = 0; index < sequence.Count; index++)
+            {
+                WriteDouble(sequence.GetOrdinate(index, Ordinate.X), buffer, ref position);
+                WriteDouble(sequence.GetOrdinate(index, Ordinate.Y), buffer, ref position);
+                if (writeZ)
+                    WriteDouble(getZ ? sequence.GetOrdinate(index, Ordinate.Z) : Coordinate.NullOrdinate, buffer, ref position);
+                if (writeM)
+                    WriteDouble(getM ? sequence.GetOrdinate(index, Ordinate.M) : Coordinate.NullOrdinate, buffer, ref position);
+            }
+        }
+
+        private void WriteInt32(uint value, byte[] buffer, ref int position)
+        {
+            int p = position;
+            if (EncodingType == ByteOrder.BigEndian)
+            {
+                buffer[p] = (byte)(value >> 24);
+                buffer[p + 1] = (byte)(value >> 16);
+                buffer[p + 2] = (byte)(value >> 8);
+                buffer[p + 3] = (byte)value;
+            }
+            else
+            {
+                buffer[p] = (byte)value;
+                buffer[p + 1] = (byte)(value >> 8);
+                buffer[p + 2] = (byte)(value >> 16);
+                buffer[p + 3] = (byte)(value >> 24);
+            }
+            position = p + 4;
+        }
+
+        private void WriteDouble(double value, byte[] buffer, ref int position)
+        {
+            long bits = BitConverter.DoubleToInt64Bits(value);
+            int p = position;
+            if (EncodingType == ByteOrder.BigEndian)
+            {
+                for (int shift = 56; shift >= 0; shift -= 8)
+                    buffer[p++] = (byte)(bits >> shift);
+            }
+            else
+            {
+                for (int shift = 0; shift < 64; shift += 8)
+                    buffer[p++] = (byte)(bits >> shift);
+            }
+            position = p;
+        }
+
+        #endregion
+
         private int _coordinateSize = 16;
 
         private void CalcCoordinateSize()
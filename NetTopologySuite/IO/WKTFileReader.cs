@@ -2,7 +2,6 @@ using System;
 using System.Collections.Generic;
 using System.IO;
 using GeoAPI.Geometries;
-using RTools_NTS.Util;
 
 namespace NetTopologySuite.IO
 {
@@ -118,11 +117,11 @@ namespace NetTopologySuite.IO
         private IList<IGeometry> Read(TextReader bufferedReader)
         {
             IList<IGeometry> geoms = new List<IGeometry>();
-            var tokens = _wktReader.Tokenizer(bufferedReader);
-            tokens.MoveNext();
-            while (!IsAtEndOfTokens(tokens.Current) && !IsAtLimit(geoms))
+            var scanner = new WKTScanner(bufferedReader);
+            scanner.MoveNext();
+            while (!IsAtEndOfTokens(scanner) && !IsAtLimit(geoms))
             {
-                var g = _wktReader.ReadGeometryTaggedText(tokens);
+                var g = _wktReader.ReadGeometryTaggedText(scanner);
                 if (_count >= Offset)
                     geoms.Add(g);
                 _count++;
@@ -152,9 +151,9 @@ namespace NetTopologySuite.IO
         //    return !(_wktReader.Index < tokens.Count);
         //}
 
-        private static bool IsAtEndOfTokens(Token token)
+        private static bool IsAtEndOfTokens(WKTScanner scanner)
         {
-            return token is EofToken;
+            return scanner.Kind == WKTTokenKind.EndOfStream;
         }
 
         ///<summary>
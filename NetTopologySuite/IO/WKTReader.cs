@@ -39,9 +39,7 @@ namespace NetTopologySuite.IO
         private ICoordinateSequenceFactory _coordinateSequencefactory;
         private IPrecisionModel _precisionModel;
 
-        private static readonly System.Globalization.CultureInfo InvariantCulture =
-            System.Globalization.CultureInfo.InvariantCulture;
-        private static readonly string NaNString = double.NaN.ToString(InvariantCulture); /*"NaN"*/
+        private const string NaNWord = "NAN";
 
         /// <summary> 
         /// Creates a <c>WKTReader</c> that creates objects using a basic GeometryFactory.
@@ -94,10 +92,7 @@ namespace NetTopologySuite.IO
         /// </returns>
         public IGeometry Read(string wellKnownText) 
         {
-            using (var reader = new StringReader(wellKnownText))
-            {
-                return Read(reader);
-            }            
+            return Read(new WKTScanner(wellKnownText));
         }
 
         /// <summary>
@@ -129,18 +124,9 @@ namespace NetTopologySuite.IO
         /// </returns>
         public IGeometry Read(TextReader reader)
         {
-            /*
-            var tokens = Tokenize(reader);
-            StreamTokenizer tokenizer = new StreamTokenizer(reader);
-            IList<Token> tokens = new List<Token>();
-            tokenizer.Tokenize(tokens);     // Read directly all tokens
-             */
-            //_index = 0;                      // Reset pointer to start of tokens
             try
             {
-                var enumerator = new StreamTokenizer(reader).GetEnumerator();
-                enumerator.MoveNext();
-                return ReadGeometryTaggedText(enumerator);
+                return Read(new WKTScanner(reader));
             }
             catch (IOException e)
             {
@@ -148,26 +134,17 @@ namespace NetTopologySuite.IO
             }            
         }
 
-        internal IEnumerator<Token> Tokenizer(TextReader reader)
+        private IGeometry Read(WKTScanner scanner)
         {
-            return new StreamTokenizer(reader).GetEnumerator();
+            scanner.MoveNext();
+            return ReadGeometryTaggedText(scanner);
         }
 
-        internal IList<Token> Tokenize(TextReader reader)
-        {
-            var tokenizer = new StreamTokenizer(reader);
-            IList<Token> tokens = new List<Token>();
-            tokenizer.Tokenize(tokens);     // Read directly all tokens
-            return tokens;
-        }
-
-        //internal int Index { get { return _index; } set { _index = value; } }
-
 		/// <summary>
 		/// Returns the next array of <c>Coordinate</c>s in the stream.
 		/// </summary>
-		/// <param name="tokens">
-		/// Tokenizer over a stream of text in Well-known Text
+		/// <param name="scanner">
+		/// Scanner over a stream of text in Well-known Text
 		/// format. The next element returned by the stream should be "(" (the
 		/// beginning of "(x1 y1, x2 y2, ..., xn yn)") or "EMPTY".
 		/// </param>
@@ -179,18 +156,18 @@ namespace NetTopologySuite.IO
 		/// stream, or an empty array if "EMPTY" is the next element returned by
 		/// the stream.
 		/// </returns>
-        private Coordinate[] GetCoordinates(IEnumerator<Token> tokens, Boolean skipExtraParenthesis)
+        private Coordinate[] GetCoordinates(WKTScanner scanner, Boolean skipExtraParenthesis)
 		{
-            string nextToken = GetNextEmptyOrOpener(tokens);
+            string nextToken = GetNextEmptyOrOpener(scanner);
             if (nextToken.Equals("EMPTY")) 
                 return new Coordinate[]{};
             var coordinates = new List<Coordinate>();
-			coordinates.Add(GetPreciseCoordinate(tokens, skipExtraParenthesis));
-            nextToken = GetNextCloserOrComma(tokens);
+			coordinates.Add(GetPreciseCoordinate(scanner, skipExtraParenthesis));
+            nextToken = GetNextCloserOrComma(scanner);
             while (nextToken.Equals(",")) 
             {
-				coordinates.Add(GetPreciseCoordinate(tokens, skipExtraParenthesis));
-                nextToken = GetNextCloserOrComma(tokens);
+				coordinates.Add(GetPreciseCoordinate(scanner, skipExtraParenthesis));
+                nextToken = GetNextCloserOrComma(scanner);
             }
             return coordinates.ToArray();
         }
@@ -198,113 +175,89 @@ namespace NetTopologySuite.IO
         /// <summary>
         /// 
         /// </summary>
-        /// <param name="tokens"></param>
+        /// <param name="scanner"></param>
         /// <param name="skipExtraParenthesis"></param>
         /// <returns></returns>
-        private Coordinate GetPreciseCoordinate(IEnumerator<Token> tokens, Boolean skipExtraParenthesis)
+        private Coordinate GetPreciseCoordinate(WKTScanner scanner, Boolean skipExtraParenthesis)
         {
             var coord = new Coordinate();
 			var extraParenthesisFound = false;
 			if (skipExtraParenthesis)
 			{
-				extraParenthesisFound = IsStringValueNext(tokens, "(");
+				extraParenthesisFound = scanner.Kind == WKTTokenKind.LeftParenthesis;
 				if (extraParenthesisFound)
-				{
-				    tokens.MoveNext();
-				    //_index++;
-				}
+				    scanner.MoveNext();
 			}
-			coord.X = GetNextNumber(tokens);
-			coord.Y = GetNextNumber(tokens);
-            if (IsNumberNext(tokens))
-                coord.Z = GetNextNumber(tokens);
+			coord.X = GetNextNumber(scanner);
+			coord.Y = GetNextNumber(scanner);
+            if (IsNumberNext(scanner))
+                coord.Z = GetNextNumber(scanner);
 
 			if (skipExtraParenthesis && 
 				extraParenthesisFound && 
-				IsStringValueNext(tokens, ")"))
+				scanner.Kind == WKTTokenKind.RightParenthesis)
 			{
-                tokens.MoveNext();
-                //_index++;
+                scanner.MoveNext();
             }
 
 			_precisionModel.MakePrecise(coord);
             return coord;
         }
 
-        private static Boolean IsStringValueNext(IEnumerator<Token> tokens, String stringValue)
-		{
-			var token = tokens.Current /*as Token*/;
-            if (token == null)
-                throw new InvalidOperationException("current Token is null");
-			return token.StringValue == stringValue;
-		}
-
         /// <summary>
         /// 
         /// </summary>
-        /// <param name="tokens"></param>
+        /// <param name="scanner"></param>
         /// <returns></returns>
-        private static bool IsNumberNext(IEnumerator<Token> tokens) 
+        private static bool IsNumberNext(WKTScanner scanner) 
         {
-            var token = tokens.Current /*as Token*/;
-            return token is FloatToken ||
-                   token is IntToken ||
-                   (token is WordToken && string.Compare(token.Object.ToString(), NaNString, StringComparison.OrdinalIgnoreCase) == 0);        
+            return scanner.Kind == WKTTokenKind.Number || scanner.IsWord(NaNWord);
         }
 
         /// <summary>
         /// Returns the next number in the stream.
         /// </summary>
-        /// <param name="tokens">
-        /// Tokenizer over a stream of text in Well-known Text
+        /// <param name="scanner">
+        /// Scanner over a stream of text in Well-known Text
         /// format. The next token must be a number.
         /// </param>
         /// <returns>The next number in the stream.</returns>
         /// <exception cref="GeoAPI.IO.ParseException">if the next token is not a valid number</exception>
-		private static double GetNextNumber(IEnumerator<Token> tokens)
+		private static double GetNextNumber(WKTScanner scanner)
         {
-            var token = tokens.Current /*as Token*/;
-            if (!tokens.MoveNext())
-                throw new InvalidOperationException("premature end of enumerator");
-
-            if (token == null)
-                throw new ArgumentNullException("tokens", "Token list contains a null value");
-            if (token is EofToken)
-                throw new GeoAPI.IO.ParseException("Expected number but encountered end of stream");
-            if (token is EolToken)
-                throw new GeoAPI.IO.ParseException("Expected number but encountered end of line");
-            if (token is FloatToken || token is IntToken)
-                return (double) token.ConvertToType(typeof(double));
-            if (token is WordToken)
+            double number;
+            switch (scanner.Kind)
             {
-                if (string.Compare(token.Object.ToString(), NaNString, StringComparison.OrdinalIgnoreCase) == 0)
-                {
-                    return Double.NaN;
-                }
-                throw new GeoAPI.IO.ParseException("Expected number but encountered word: " + token.StringValue);
+                case WKTTokenKind.Number:
+                    number = scanner.Number;
+                    break;
+                case WKTTokenKind.Word:
+                    if (!scanner.IsWord(NaNWord))
+                        throw new GeoAPI.IO.ParseException("Expected number but encountered word: " + scanner.Text);
+                    number = Double.NaN;
+                    break;
+                case WKTTokenKind.EndOfStream:
+                    throw new GeoAPI.IO.ParseException("Expected number but encountered end of stream");
+                default:
+                    throw new GeoAPI.IO.ParseException("Expected number but encountered '" + scanner.Text + "'");
             }
-            if (token.StringValue == "(")
-                throw new GeoAPI.IO.ParseException("Expected number but encountered '('");
-            if (token.StringValue == ")")
-                throw new GeoAPI.IO.ParseException("Expected number but encountered ')'");
-            if (token.StringValue == ",")
-                throw new GeoAPI.IO.ParseException("Expected number but encountered ','");
-
-            throw new GeoAPI.IO.ParseException("Expected number but encountered '" + token.StringValue + "'");
+
+            scanner.MoveNext();
+            return number;
         }
 
         /// <summary>
         /// Returns the next "EMPTY" or "(" in the stream as uppercase text.
         /// </summary>
-        /// <param name="tokens">
-        /// Tokenizer over a stream of text in Well-known Text
+        /// <param name="scanner">
+        /// Scanner over a stream of text in Well-known Text
         /// format. The next token must be "EMPTY" or "(".
         /// </param>
         /// <returns>
         /// The next "EMPTY" or "(" in the stream as uppercase text.</returns>
-        private static string GetNextEmptyOrOpener(IEnumerator<Token> tokens) 
+        private static string GetNextEmptyOrOpener(WKTScanner scanner) 
         {
-            string nextWord = GetNextWord(tokens);
+            string nextWord = GetNextWord(scanner);
             if (nextWord.Equals("EMPTY") || nextWord.Equals("(")) 
                 return nextWord;
             throw new GeoAPI.IO.ParseException("Expected 'EMPTY' or '(' but encountered '" + nextWord + "'");
@@ -313,15 +266,15 @@ namespace NetTopologySuite.IO
         /// <summary>
         /// Returns the next ")" or "," in the stream.
         /// </summary>
-        /// <param name="tokens">
-        /// Tokenizer over a stream of text in Well-known Text
+        /// <param name="scanner">
+        /// Scanner over a stream of text in Well-known Text
         /// format. The next token must be ")" or ",".
         /// </param>
         /// <returns>
         /// The next ")" or "," in the stream.</returns>
-        private static string GetNextCloserOrComma(IEnumerator<Token> tokens) 
+        private static string GetNextCloserOrComma(WKTScanner scanner) 
         {
-            string nextWord = GetNextWord(tokens);
+            string nextWord = GetNextWord(scanner);
             if (nextWord.Equals(",") || nextWord.Equals(")")) 
                 return nextWord;
 
@@ -332,15 +285,15 @@ namespace NetTopologySuite.IO
         /// <summary>
         /// Returns the next ")" in the stream.
         /// </summary>
-        /// <param name="tokens">
-        /// Tokenizer over a stream of text in Well-known Text
+        /// <param name="scanner">
+        /// Scanner over a stream of text in Well-known Text
         /// format. The next token must be ")".
         /// </param>
         /// <returns>
         /// The next ")" in the stream.</returns>
-        private static string GetNextCloser(IEnumerator<Token> tokens) 
+        private static string GetNextCloser(WKTScanner scanner) 
         {
-            var nextWord = GetNextWord(tokens);    
+            var nextWord = GetNextWord(scanner);    
             if (nextWord.Equals(")"))
                 return nextWord;
             throw new GeoAPI.IO.ParseException("Expected ')' but encountered '" + nextWord + "'");         
@@ -349,50 +302,56 @@ namespace NetTopologySuite.IO
         /// <summary>
         /// Returns the next word in the stream as uppercase text.
         /// </summary>
-        /// <param name="tokens">
-        /// Tokenizer over a stream of text in Well-known Text
-        /// format. The next token must be a word.
+        /// <param name="scanner">
+        /// Scanner over a stream of text in Well-known Text
+        /// format. The next token must be a word, "(", ")" or ",".
         /// </param>
         /// <returns>The next word in the stream as uppercase text.</returns>
-        private static string GetNextWord(IEnumerator<Token> tokens)
+        private static string GetNextWord(WKTScanner scanner)
         {
-            var token = tokens.Current /*as Token*/;
-            if (token == null)
-                throw new InvalidOperationException("current token is null");
-
-            if (!tokens.MoveNext())
-                throw new InvalidOperationException("premature end of enumerator");
-
-            if (token is EofToken)
-                throw new GeoAPI.IO.ParseException("Expected number but encountered end of stream");
-            if (token is EolToken)
-                throw new GeoAPI.IO.ParseException("Expected number but encountered end of line");
-            if (token is FloatToken || token is IntToken)
-                throw new GeoAPI.IO.ParseException("Expected word but encountered number: " + token.StringValue);
-            if (token is WordToken)
-                return token.StringValue.ToUpper();
-            if (token.StringValue == "(")
-                return "(";
-            if (token.StringValue == ")")
-                return ")";
-            if (token.StringValue == ",")
-                return ",";
-            
-            throw new InvalidOperationException("Should never reach here!");
-            //Assert.ShouldNeverReachHere();
-            //return null;
+            string word;
+            switch (scanner.Kind)
+            {
+                case WKTTokenKind.Word:
+                    word = scanner.Text.ToUpperInvariant();
+                    break;
+                case WKTTokenKind.LeftParenthesis:
+                case WKTTokenKind.RightParenthesis:
+                case WKTTokenKind.Comma:
+                    word = scanner.Text;
+                    break;
+                case WKTTokenKind.Number:
+                    throw new GeoAPI.IO.ParseException("Expected word but encountered number: " + scanner.Text);
+                case WKTTokenKind.EndOfStream:
+                    throw new GeoAPI.IO.ParseException("Expected word but encountered end of stream");
+                default:
+                    throw new GeoAPI.IO.ParseException("Expected word but encountered '" + scanner.Text + "'");
+            }
+
+            scanner.MoveNext();
+            return word;
+        }
+
+        /// <summary>
+        /// Consumes the next token, which must be of the given kind.
+        /// </summary>
+        private static void Expect(WKTScanner scanner, WKTTokenKind kind, string text)
+        {
+            if (scanner.Kind != kind)
+                throw new GeoAPI.IO.ParseException("Expected '" + text + "' but encountered '" + scanner.Text + "'");
+            scanner.MoveNext();
         }
 
         /// <summary>
         /// Creates a <c>Geometry</c> using the next token in the stream.
         /// </summary>
-        /// <param name="tokens">
-        /// Tokenizer over a stream of text in Well-known Text
+        /// <param name="scanner">
+        /// Scanner over a stream of text in Well-known Text
         /// format. The next tokens must form a &lt;Geometry Tagged Text.
         /// </param>
         /// <returns>A <c>Geometry</c> specified by the next token
         /// in the stream.</returns>
-        internal IGeometry ReadGeometryTaggedText(IEnumerator<Token> tokens)
+        internal IGeometry ReadGeometryTaggedText(WKTScanner scanner)
         {
             /*
              * A new different implementation by Marc Jacquin:
@@ -401,64 +360,52 @@ namespace NetTopologySuite.IO
             IGeometry returned;
 
             int srid;
-            var type = GetNextWord(tokens);
+            var type = GetNextWord(scanner);
             if (type == "SRID")
             {
-                tokens.MoveNext(); // =
-                srid = Convert.ToInt32(GetNextNumber(tokens));
-                tokens.MoveNext(); // ;
-                type = GetNextWord(tokens);
-
-                //sridValue = tokens[2].ToString();
-                //// tokens.RemoveRange(0, 4);
-                //tokens.RemoveAt(0);
-                //tokens.RemoveAt(0);
-                //tokens.RemoveAt(0);
-                //tokens.RemoveAt(0);
+                Expect(scanner, WKTTokenKind.EqualsSign, "=");
+                srid = Convert.ToInt32(GetNextNumber(scanner));
+                Expect(scanner, WKTTokenKind.Semicolon, ";");
+                type = GetNextWord(scanner);
             }
             else
                 srid = DefaultSRID;
 
             /*Test of Z, M or ZM suffix*/
-            var suffix = tokens.Current;
-
-            if (suffix is WordToken)
+            if (scanner.IsWord("Z"))
             {
-                if (suffix == "Z")
-                {
-                    tokens.MoveNext();
-                }
-                else if (suffix == "ZM")
-                {
-                    tokens.MoveNext();
-                    Logger.Log.Debug("M-Values not supported");
-                }
-                else if (suffix == "M")
-                {
-                    tokens.MoveNext();
-                    Logger.Log.Debug("M-Values not supported");
-                }
+                scanner.MoveNext();
+            }
+            else if (scanner.IsWord("ZM"))
+            {
+                scanner.MoveNext();
+                Logger.Log.Debug("M-Values not supported");
+            }
+            else if (scanner.IsWord("M"))
+            {
+                scanner.MoveNext();
+                Logger.Log.Debug("M-Values not supported");
             }
 
             var factory = GeoAPI.GeometryServiceProvider.Instance.CreateGeometryFactory(_precisionModel, srid,
                 _coordinateSequencefactory);
 
             if (type.Equals("POINT"))
-                returned = ReadPointText(tokens, factory);
+                returned = ReadPointText(scanner, factory);
             else if (type.Equals("LINESTRING"))
-                returned = ReadLineStringText(tokens, factory);
+                returned = ReadLineStringText(scanner, factory);
             else if (type.Equals("LINEARRING"))
-                returned = ReadLinearRingText(tokens, factory);
+                returned = ReadLinearRingText(scanner, factory);
             else if (type.Equals("POLYGON"))
-                returned = ReadPolygonText(tokens, factory);
+                returned = ReadPolygonText(scanner, factory);
             else if (type.Equals("MULTIPOINT"))
-                returned = ReadMultiPointText(tokens, factory);
+                returned = ReadMultiPointText(scanner, factory);
             else if (type.Equals("MULTILINESTRING"))
-                returned = ReadMultiLineStringText(tokens, factory);
+                returned = ReadMultiLineStringText(scanner, factory);
             else if (type.Equals("MULTIPOLYGON"))
-                returned = ReadMultiPolygonText(tokens, factory);
+                returned = ReadMultiPolygonText(scanner, factory);
             else if (type.Equals("GEOMETRYCOLLECTION"))
-                returned = ReadGeometryCollectionText(tokens, factory);
+                returned = ReadGeometryCollectionText(scanner, factory);
             else throw new GeoAPI.IO.ParseException("Unknown type: " + type);
 
             if (returned == null)
@@ -470,68 +417,68 @@ namespace NetTopologySuite.IO
         /// <summary>
         /// Creates a <c>Point</c> using the next token in the stream.
         /// </summary>
-        /// <param name="tokens">
-        ///   Tokenizer over a stream of text in Well-known Text
+        /// <param name="scanner">
+        ///   Scanner over a stream of text in Well-known Text
         ///   format. The next tokens must form a &lt;Point Text.
         /// </param>
         /// <param name="factory"> </param>
         /// <returns>A <c>Point</c> specified by the next token in
         /// the stream.</returns>
-        private IPoint ReadPointText(IEnumerator<Token> tokens, IGeometryFactory factory) 
+        private IPoint ReadPointText(WKTScanner scanner, IGeometryFactory factory) 
         {
-            var nextToken = GetNextEmptyOrOpener(tokens);
+            var nextToken = GetNextEmptyOrOpener(scanner);
             if (nextToken.Equals("EMPTY")) 
                 return factory.CreatePoint((Coordinate) null);
-            var point = factory.CreatePoint(GetPreciseCoordinate(tokens, false));
-            /*var closer = */GetNextCloser(tokens);
+            var point = factory.CreatePoint(GetPreciseCoordinate(scanner, false));
+            /*var closer = */GetNextCloser(scanner);
             return point;
         }
 
         /// <summary>
         /// Creates a <c>LineString</c> using the next token in the stream.
         /// </summary>
-        /// <param name="tokens">
-        ///   Tokenizer over a stream of text in Well-known Text
+        /// <param name="scanner">
+        ///   Scanner over a stream of text in Well-known Text
         ///   format. The next tokens must form a &lt;LineString Text.
         /// </param>
         /// <param name="factory"> </param>
         /// <returns>
         /// A <c>LineString</c> specified by the next
         /// token in the stream.</returns>
-        private ILineString ReadLineStringText(IEnumerator<Token> tokens, IGeometryFactory factory) 
+        private ILineString ReadLineStringText(WKTScanner scanner, IGeometryFactory factory) 
         {
-            return factory.CreateLineString(GetCoordinates(tokens, false));
+            return factory.CreateLineString(GetCoordinates(scanner, false));
         }
 
         /// <summary>
         /// Creates a <c>LinearRing</c> using the next token in the stream.
         /// </summary>
-        /// <param name="tokens">
-        ///   Tokenizer over a stream of text in Well-known Text
+        /// <param name="scanner">
+        ///   Scanner over a stream of text in Well-known Text
         ///   format. The next tokens must form a &lt;LineString Text.
         /// </param>
         /// <param name="factory"> </param>
         /// <returns>A <c>LinearRing</c> specified by the next
         /// token in the stream.</returns>
-        private ILinearRing ReadLinearRingText(IEnumerator<Token> tokens, IGeometryFactory factory)
+        private ILinearRing ReadLinearRingText(WKTScanner scanner, IGeometryFactory factory)
         {
-            return factory.CreateLinearRing(GetCoordinates(tokens, false));
+            return factory.CreateLinearRing(GetCoordinates(scanner, false));
         }
 
         /// <summary>
         /// Creates a <c>MultiPoint</c> using the next token in the stream.
         /// </summary>
-        /// <param name="tokens">
-        ///   Tokenizer over a stream of text in Well-known Text
+        /// <param name="scanner">
+        ///   Scanner over a stream of text in Well-known Text
         ///   format. The next tokens must form a &lt;MultiPoint Text.
         /// </param>
         /// <param name="factory"> </param>
         /// <returns>
         /// A <c>MultiPoint</c> specified by the next
         /// token in the stream.</returns>
-        private IMultiPoint ReadMultiPointText(IEnumerator<Token> tokens, IGeometryFactory factory) 
+        private IMultiPoint ReadMultiPointText(WKTScanner scanner, IGeometryFactory factory) 
         {
-            return factory.CreateMultiPoint(ToPoints(GetCoordinates(tokens, true), factory));
+            return factory.CreateMultiPoint(ToPoints(GetCoordinates(scanner, true), factory));
         }
 
         /// <summary> 
@@ -556,8 +503,8 @@ namespace NetTopologySuite.IO
         /// <summary>  
         /// Creates a <c>Polygon</c> using the next token in the stream.
         /// </summary>
-        /// <param name="tokens">
-        ///   Tokenizer over a stream of text in Well-known Text
+        /// <param name="scanner">
+        ///   Scanner over a stream of text in Well-known Text
         ///   format. The next tokens must form a Polygon Text.
         /// </param>
         /// <param name="factory"> </param>
@@ -565,21 +512,21 @@ namespace NetTopologySuite.IO
         /// A <c>Polygon</c> specified by the next token
         /// in the stream.        
         /// </returns>
-        private IPolygon ReadPolygonText(IEnumerator<Token> tokens, IGeometryFactory factory) 
+        private IPolygon ReadPolygonText(WKTScanner scanner, IGeometryFactory factory) 
         {
-            string nextToken = GetNextEmptyOrOpener(tokens);
+            string nextToken = GetNextEmptyOrOpener(scanner);
             if (nextToken.Equals("EMPTY")) 
                 return factory.CreatePolygon(
                     factory.CreateLinearRing(new Coordinate[] { } ), new ILinearRing[] { } );
 
             var holes = new List<ILinearRing>();
-            var shell = ReadLinearRingText(tokens, factory);
-            nextToken = GetNextCloserOrComma(tokens);
+            var shell = ReadLinearRingText(scanner, factory);
+            nextToken = GetNextCloserOrComma(scanner);
             while (nextToken.Equals(",")) 
             {
-                ILinearRing hole = ReadLinearRingText(tokens, factory);
+                ILinearRing hole = ReadLinearRingText(scanner, factory);
                 holes.Add(hole);
-                nextToken = GetNextCloserOrComma(tokens);
+                nextToken = GetNextCloserOrComma(scanner);
             }
             return factory.CreatePolygon(shell, holes.ToArray());
         }
@@ -587,29 +534,29 @@ namespace NetTopologySuite.IO
         /// <summary>
         /// Creates a <c>MultiLineString</c> using the next token in the stream.
         /// </summary>
-        /// <param name="tokens">
-        ///   Tokenizer over a stream of text in Well-known Text
+        /// <param name="scanner">
+        ///   Scanner over a stream of text in Well-known Text
         ///   format. The next tokens must form a MultiLineString Text.
         /// </param>
         /// <param name="factory"> </param>
         /// <returns>
         /// A <c>MultiLineString</c> specified by the
         /// next token in the stream.</returns>
-        private IMultiLineString ReadMultiLineStringText(IEnumerator<Token> tokens, IGeometryFactory factory) 
+        private IMultiLineString ReadMultiLineStringText(WKTScanner scanner, IGeometryFactory factory) 
         {
-            string nextToken = GetNextEmptyOrOpener(tokens);
+            string nextToken = GetNextEmptyOrOpener(scanner);
             if (nextToken.Equals("EMPTY")) 
                 return factory.CreateMultiLineString( new ILineString[] { } );
 
             var lineStrings = new List<ILineString>();
-            var lineString = ReadLineStringText(tokens, factory);
+            var lineString = ReadLineStringText(scanner, factory);
             lineStrings.Add(lineString);
-            nextToken = GetNextCloserOrComma(tokens);
+            nextToken = GetNextCloserOrComma(scanner);
             while (nextToken.Equals(",")) {
             
-                lineString = ReadLineStringText(tokens, factory);
+                lineString = ReadLineStringText(scanner, factory);
                 lineStrings.Add(lineString);
-                nextToken = GetNextCloserOrComma(tokens);
+                nextToken = GetNextCloserOrComma(scanner);
             }            
             return factory.CreateMultiLineString(lineStrings.ToArray());
         }
@@ -617,7 +564,7 @@ namespace NetTopologySuite.IO
         /// <summary>  
         /// Creates a <c>MultiPolygon</c> using the next token in the stream.
         /// </summary>
-        /// <param name="tokens">Tokenizer over a stream of text in Well-known Text
+        /// <param name="scanner">Scanner over a stream of text in Well-known Text
         ///   format. The next tokens must form a MultiPolygon Text.
         /// </param>
         /// <param name="factory"> </param>
@@ -625,21 +572,21 @@ namespace NetTopologySuite.IO
         /// A <c>MultiPolygon</c> specified by the next
         /// token in the stream, or if if the coordinates used to create the
         /// <c>Polygon</c> shells and holes do not form closed linestrings.</returns>
-        private IMultiPolygon ReadMultiPolygonText(IEnumerator<Token> tokens, IGeometryFactory factory) 
+        private IMultiPolygon ReadMultiPolygonText(WKTScanner scanner, IGeometryFactory factory) 
         {
-            string nextToken = GetNextEmptyOrOpener(tokens);
+            string nextToken = GetNextEmptyOrOpener(scanner);
             if (nextToken.Equals("EMPTY")) 
                 return factory.CreateMultiPolygon(new IPolygon[]{});
 
             var polygons = new List<IPolygon>();
-            var polygon = ReadPolygonText(tokens, factory);
+            var polygon = ReadPolygonText(scanner, factory);
             polygons.Add(polygon);
-            nextToken = GetNextCloserOrComma(tokens);
+            nextToken = GetNextCloserOrComma(scanner);
             while (nextToken.Equals(",")) 
             {
-                polygon = ReadPolygonText(tokens, factory);
+                polygon = ReadPolygonText(scanner, factory);
                 polygons.Add(polygon);
-                nextToken = GetNextCloserOrComma(tokens);
+                nextToken = GetNextCloserOrComma(scanner);
             }            
             return factory.CreateMultiPolygon(polygons.ToArray());
         }
@@ -648,29 +595,29 @@ namespace NetTopologySuite.IO
         /// Creates a <c>GeometryCollection</c> using the next token in the
         /// stream.
         /// </summary>
-        /// <param name="tokens">
-        ///   Tokenizer over a stream of text in Well-known Text
+        /// <param name="scanner">
+        ///   Scanner over a stream of text in Well-known Text
         ///   format. The next tokens must form a &lt;GeometryCollection Text.
         /// </param>
         /// <param name="factory"> </param>
         /// <returns>
         /// A <c>GeometryCollection</c> specified by the
         /// next token in the stream.</returns>
-        private IGeometryCollection ReadGeometryCollectionText(IEnumerator<Token> tokens, IGeometryFactory factory) 
+        private IGeometryCollection ReadGeometryCollectionText(WKTScanner scanner, IGeometryFactory factory) 
         {
-            string nextToken = GetNextEmptyOrOpener(tokens);
+            string nextToken = GetNextEmptyOrOpener(scanner);
             if (nextToken.Equals("EMPTY")) 
                 return factory.CreateGeometryCollection(new IGeometry[] { } );
 
             var geometries = new List<IGeometry>();
-            var geometry = ReadGeometryTaggedText(tokens);
+            var geometry = ReadGeometryTaggedText(scanner);
             geometries.Add(geometry);
-            nextToken = GetNextCloserOrComma(tokens);
+            nextToken = GetNextCloserOrComma(scanner);
             while (nextToken.Equals(",")) 
             {
-                geometry = ReadGeometryTaggedText(tokens);
+                geometry = ReadGeometryTaggedText(scanner);
                 geometries.Add(geometry);
-                nextToken = GetNextCloserOrComma(tokens);
+                nextToken = GetNextCloserOrComma(scanner);
             }            
             return factory.CreateGeometryCollection(geometries.ToArray());
         }
@@ -0,0 +1,375 @@
+using System;
+using System.Globalization;
+using System.IO;
+using GeoAPI.IO;
+
+namespace NetTopologySuite.IO
+{
+    /// <summary>
+    /// The kinds of tokens read by a <see cref="WKTScanner"/>.
+    /// </summary>
+    internal enum WKTTokenKind
+    {
+        EndOfStream,
+        Word,
+        Number,
+        LeftParenthesis,
+        RightParenthesis,
+        Comma,
+        EqualsSign,
+        Semicolon
+    }
+
+    /// <summary>
+    /// A lexer for Well-known Text, which scans the characters directly
+    /// from a string or a <see cref="TextReader"/>.
+    /// </summary>
+    /// <remarks>
+    /// The scanner always holds one token of lookahead, described by <see cref="Kind"/>,
+    /// <see cref="Number"/> and <see cref="Text"/>. No object is created per token:
+    /// numbers are parsed while their characters are read, and the text of a token is
+    /// only turned into a string on demand.
+    /// </remarks>
+    internal sealed class WKTScanner
+    {
+        private const int BufferSize = 4096;
+
+        /// <summary>
+        /// The powers of ten that are exactly representable as doubles.
+        /// </summary>
+        private static readonly double[] PowersOf10 =
+        {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+        };
+
+        private readonly string _text;
+        private int _textPosition;
+        private readonly int _textEnd;
+        private readonly TextReader _reader;
+
+        private readonly char[] _buffer;
+        private int _position;
+        private int _length;
+
+        // the characters of the current word or number
+        private char[] _token = new char[32];
+        private int _tokenLength;
+
+        private WKTTokenKind _kind;
+        private double _number;
+
+        /// <summary>
+        /// Creates a scanner for a string.
+        /// </summary>
+        /// <param name="text">The Well-known Text.</param>
+        public WKTScanner(string text)
+        {
+            if (text == null)
+                throw new ArgumentNullException("text");
+
+            _text = text;
+            _textEnd = text.Length;
+            _buffer = new char[Math.Max(1, Math.Min(BufferSize, text.Length))];
+        }
+
+        /// <summary>
+        /// Creates a scanner for a <see cref="TextReader"/>.
+        /// </summary>
+        /// <param name="reader">The reader of the Well-known Text.</param>
+        public WKTScanner(TextReader reader)
+        {
+            if (reader == null)
+                throw new ArgumentNullException("reader");
+
+            _reader = reader;
+            _buffer = new char[BufferSize];
+        }
+
+        /// <summary>
+        /// Gets the kind of the current token.
+        /// </summary>
+        public WKTTokenKind Kind
+        {
+            get { return _kind; }
+        }
+
+        /// <summary>
+        /// Gets the value of the current token, if it is a <see cref="WKTTokenKind.Number"/>.
+        /// </summary>
+        public double Number
+        {
+            get { return _number; }
+        }
+
+        /// <summary>
+        /// Gets the text of the current token, as found in the input.
+        /// </summary>
+        public string Text
+        {
+            get
+            {
+                switch (_kind)
+                {
+                    case WKTTokenKind.Word:
+                    case WKTTokenKind.Number:
+                        return new string(_token, 0, _tokenLength);
+                    case WKTTokenKind.LeftParenthesis:
+                        return "(";
+                    case WKTTokenKind.RightParenthesis:
+                        return ")";
+                    case WKTTokenKind.Comma:
+                        return ",";
+                    case WKTTokenKind.EqualsSign:
+                        return "=";
+                    case WKTTokenKind.Semicolon:
+                        return ";";
+                    default:
+                        return String.Empty;
+                }
+            }
+        }
+
+        /// <summary>
+        /// Tests if the current token is the given word, ignoring case.
+        /// </summary>
+        /// <param name="word">An uppercase word.</param>
+        public bool IsWord(string word)
+        {
+            if (_kind != WKTTokenKind.Word || _tokenLength != word.Length)
+                return false;
+
+            for (int i = 0; i < _tokenLength; i++)
+            {
+                char c = _token[i];
+                if (c >= 'a' && c <= 'z')
+                    c = (char)(c - 'a' + 'A');
+                if (c != word[i])
+                    return false;
+            }
+            return true;
+        }
+
+        /// <summary>
+        /// Reads the next token.
+        /// </summary>
+        /// <returns>The kind of the token read.</returns>
+        /// <exception cref="ParseException">If the input contains a character that cannot start a token, or a malformed number.</exception>
+        public WKTTokenKind MoveNext()
+        {
+            _tokenLength = 0;
+
+            int c = Peek();
+            while (c >= 0 && c <= ' ')
+            {
+                _position++;
+                c = Peek();
+            }
+
+            switch (c)
+            {
+                case -1:
+                    return _kind = WKTTokenKind.EndOfStream;
+                case '(':
+                    _position++;
+                    return _kind = WKTTokenKind.LeftParenthesis;
+                case ')':
+                    _position++;
+                    return _kind = WKTTokenKind.RightParenthesis;
+                case ',':
+                    _position++;
+                    return _kind = WKTTokenKind.Comma;
+                case '=':
+                    _position++;
+                    return _kind = WKTTokenKind.EqualsSign;
+                case ';':
+                    _position++;
+                    return _kind = WKTTokenKind.Semicolon;
+            }
+
+            if (IsDigit(c) || c == '-' || c == '.')
+            {
+                _number = ScanNumber();
+                return _kind = WKTTokenKind.Number;
+            }
+
+            if (IsWordChar(c))
+            {
+                while (IsWordChar(c))
+                    c = Append(c);
+                return _kind = WKTTokenKind.Word;
+            }
+
+            throw new ParseException("Unexpected character '" + (char)c + "'");
+        }
+
+        /// <summary>
+        /// Parses the number at the current position.
+        /// </summary>
+        /// <remarks>
+        /// Numbers with at most 15 significant digits and a small decimal exponent are computed
+        /// directly from their digits, which yields the correctly rounded value. Any other number
+        /// is handed to <see cref="Double.Parse(string, NumberStyles, IFormatProvider)"/>.
+        /// </remarks>
+        private double ScanNumber()
+        {
+            bool negative = false;
+            int c = Peek();
+            if (c == '-')
+            {
+                negative = true;
+                c = Append(c);
+            }
+
+            ulong mantissa = 0;
+            int significantDigits = 0;
+            int scale = 0;
+            int digits = 0;
+            bool truncated = false;
+
+            while (IsDigit(c))
+            {
+                if (significantDigits < 19)
+                {
+                    mantissa = mantissa * 10 + (ulong)(c - '0');
+                    if (mantissa != 0)
+                        significantDigits++;
+                }
+                else
+                {
+                    scale++;
+                    truncated = true;
+                }
+                digits++;
+                c = Append(c);
+            }
+
+            if (c == '.')
+            {
+                c = Append(c);
+                while (IsDigit(c))
+                {
+                    if (significantDigits < 19)
+                    {
+                        mantissa = mantissa * 10 + (ulong)(c - '0');
+                        if (mantissa != 0)
+                            significantDigits++;
+                        scale--;
+                    }
+                    else
+                    {
+                        truncated = true;
+                    }
+                    digits++;
+                    c = Append(c);
+                }
+            }
+
+            if (digits == 0)
+                throw MalformedNumber(c);
+
+            if (c == 'e' || c == 'E')
+            {
+                c = Append(c);
+                bool negativeExponent = false;
+                if (c == '-' || c == '+')
+                {
+                    negativeExponent = c == '-';
+                    c = Append(c);
+                }
+
+                if (!IsDigit(c))
+                    throw MalformedNumber(c);
+
+                int exponent = 0;
+                while (IsDigit(c))
+                {
+                    if (exponent < 100000)
+                        exponent = exponent * 10 + (c - '0');
+                    c = Append(c);
+                }
+                scale += negativeExponent ? -exponent : exponent;
+            }
+
+            if (IsWordChar(c) || c == '.' || c == '-')
+                throw MalformedNumber(c);
+
+            if (!truncated && significantDigits <= 15 && scale >= -22 && scale <= 22)
+            {
+                double value = mantissa;
+                value = scale < 0 ? value / PowersOf10[-scale] : value * PowersOf10[scale];
+                return negative ? -value : value;
+            }
+
+            var text = new string(_token, 0, _tokenLength);
+            try
+            {
+                return Double.Parse(text, NumberStyles.Float, CultureInfo.InvariantCulture);
+            }
+            catch (OverflowException)
+            {
+                throw new ParseException("Number out of range: " + text);
+            }
+        }
+
+        /// <summary>
+        /// Creates the exception for a malformed number, after reading the rest of it.
+        /// </summary>
+        private ParseException MalformedNumber(int c)
+        {
+            while (IsWordChar(c) || c == '.' || c == '-' || c == '+')
+                c = Append(c);
+            return new ParseException("Expected number but encountered '" + new string(_token, 0, _tokenLength) + "'");
+        }
+
+        /// <summary>
+        /// Adds the current character to the token text and moves to the next one.
+        /// </summary>
+        /// <returns>The next character, or -1 at the end of the input.</returns>
+        private int Append(int c)
+        {
+            if (_tokenLength == _token.Length)
+                Array.Resize(ref _token, 2 * _token.Length);
+            _token[_tokenLength++] = (char)c;
+            _position++;
+            return Peek();
+        }
+
+        /// <summary>
+        /// Gets the current character without consuming it.
+        /// </summary>
+        /// <returns>The current character, or -1 at the end of the input.</returns>
+        private int Peek()
+        {
+            if (_position < _length)
+                return _buffer[_position];
+            return Fill() ? _buffer[_position] : -1;
+        }
+
+        private bool Fill()
+        {
+            _position = 0;
+            if (_reader != null)
+            {
+                _length = _reader.Read(_buffer, 0, _buffer.Length);
+            }
+            else
+            {
+                _length = Math.Min(_buffer.Length, _textEnd - _textPosition);
+                _text.CopyTo(_textPosition, _buffer, 0, _length);
+                _textPosition += _length;
+            }
+            return _length > 0;
+        }
+
+        private static bool IsDigit(int c)
+        {
+            return c >= '0' && c <= '9';
+        }
+
+        private static bool IsWordChar(int c)
+        {
+            return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9');
+        }
+    }
+}
@@ -0,0 +1,158 @@
+using System;
+using GeoAPI.Geometries;
+#if !PCL
+using System.Threading.Tasks;
+#endif
+
+namespace NetTopologySuite.Index
+{
+    /// <summary>
+    /// Executes a batch of envelope queries against a spatial index.
+    /// </summary>
+    /// <remarks>
+    /// The queries are executed in Z-order of the centres of the query envelopes,
+    /// so that consecutive queries traverse mostly the same index nodes.
+    /// When several cores are used, each worker processes
+    /// a contiguous run of this order.
+    /// </remarks>
+    internal static class BatchQuery
+    {
+        /// <summary>
+        /// A method which visits all items of an index intersecting an envelope.
+        /// </summary>
+        internal delegate void QueryMethod<T>(Envelope searchEnv, IItemVisitor<T> visitor);
+
+        /// <summary>
+        /// The number of runs assigned to each core, to balance uneven query costs.
+        /// </summary>
+        private const int RunsPerWorker = 4;
+
+        /// <summary>
+        /// Queries the index for each envelope of <paramref name="searchEnvs"/>.
+        /// </summary>
+        /// <param name="searchEnvs">The query envelopes</param>
+        /// <param name="visitor">The visitor receiving the matches</param>
+        /// <param name="maxDegreeOfParallelism">The maximum number of cores to use, or <c>-1</c> to use all cores</param>
+        /// <param name="createQueryMethod">A function creating the query method used by one worker</param>
+        public static void Execute<T>(Envelope[] searchEnvs, IBatchItemVisitor<T> visitor, int maxDegreeOfParallelism,
+            Func<QueryMethod<T>> createQueryMethod)
+        {
+            if (searchEnvs == null)
+                throw new ArgumentNullException("searchEnvs");
+            if (visitor == null)
+                throw new ArgumentNullException("visitor");
+            if (maxDegreeOfParallelism == 0 || maxDegreeOfParallelism < -1)
+                throw new ArgumentOutOfRangeException("maxDegreeOfParallelism", "maxDegreeOfParallelism must be positive or -1");
+            if (maxDegreeOfParallelism == -1)
+                maxDegreeOfParallelism = Environment.ProcessorCount;
+
+            var order = SpatialOrder(searchEnvs);
+            if (order.Length == 0)
+                return;
+
+#if !PCL
+            if (maxDegreeOfParallelism > 1 && order.Length > 1)
+            {
+                var runCount = Math.Min(order.Length, maxDegreeOfParallelism * RunsPerWorker);
+                var options = new ParallelOptions { MaxDegreeOfParallelism = maxDegreeOfParallelism };
+                Parallel.For(0, runCount, options, i =>
+                    {
+                        var start = (int)((long)order.Length * i / runCount);
+                        var end = (int)((long)order.Length * (i + 1) / runCount);
+                        Execute(searchEnvs, order, start, end, visitor, createQueryMethod());
+                    });
+                return;
+            }
+#endif
+            Execute(searchEnvs, order, 0, order.Length, visitor, createQueryMethod());
+        }
+
+        private static void Execute<T>(Envelope[] searchEnvs, int[] order, int start, int end, 
+            IBatchItemVisitor<T> visitor, QueryMethod<T> query)
+        {
+            var itemVisitor = new BatchItemVisitorAdapter<T>(visitor);
+            for (var i = start; i < end; i++)
+            {
+                var queryIndex = order[i];
+                itemVisitor.QueryIndex = queryIndex;
+                query(searchEnvs[queryIndex], itemVisitor);
+            }
+        }
+
+        /// <summary>
+        /// Computes the Z-order of the centres of the envelopes.
+        /// Null or empty envelopes are omitted.
+        /// </summary>
+        /// <param name="envs">The envelopes</param>
+        /// <returns>The indices of the envelopes in Z-order</returns>
+        internal static int[] SpatialOrder(Envelope[] envs)
+        {
+            var count = 0;
+            var extent = new Envelope();
+            foreach (var env in envs)
+            {
+                if (env == null || env.IsNull)
+                    continue;
+                extent.ExpandToInclude(env.Centre);
+                count++;
+            }
+
+            var order = new int[count];
+            var keys = new ulong[count];
+            var scaleX = extent.Width > 0 ? ushort.MaxValue / extent.Width : 0;
+            var scaleY = extent.Height > 0 ? ushort.MaxValue / extent.Height : 0;
+            var j = 0;
+            for (var i = 0; i < envs.Length; i++)
+            {
+                var env = envs[i];
+                if (env == null || env.IsNull)
+                    continue;
+                var x = (uint)((0.5 * (env.MinX + env.MaxX) - extent.MinX) * scaleX);
+                var y = (uint)((0.5 * (env.MinY + env.MaxY) - extent.MinY) * scaleY);
+                keys[j] = Interleave(x, y);
+                order[j] = i;
+                j++;
+            }
+            Array.Sort(keys, order);
+            return order;
+        }
+
+        /// <summary>
+        /// Interleaves the bits of two 16-bit values into a Morton code.
+        /// </summary>
+        private static ulong Interleave(uint x, uint y)
+        {
+            return (ulong)(Spread(x) | (Spread(y) << 1));
+        }
+
+        private static uint Spread(uint v)
+        {
+            v &= 0x0000ffff;
+            v = (v | (v << 8)) & 0x00ff00ff;
+            v = (v | (v << 4)) & 0x0f0f0f0f;
+            v = (v | (v << 2)) & 0x33333333;
+            v = (v | (v << 1)) & 0x55555555;
+            return v;
+        }
+
+        /// <summary>
+        /// Passes items to a <see cref="IBatchItemVisitor{T}"/>, tagged with the index of the current query.
+        /// </summary>
+        private class BatchItemVisitorAdapter<T> : IItemVisitor<T>
+        {
+            private readonly IBatchItemVisitor<T> _visitor;
+
+            public BatchItemVisitorAdapter(IBatchItemVisitor<T> visitor)
+            {
+                _visitor = visitor;
+            }
+
+            public int QueryIndex { get; set; }
+
+            public void VisitItem(T item)
+            {
+                _visitor.VisitItem(QueryIndex, item);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+namespace NetTopologySuite.Index
+{
+    /// <summary>
+    /// A visitor for the items found by a batch of index queries.
+    /// </summary>
+    /// <remarks>
+    /// When a batch is queried on several cores, 
+    /// <see cref="VisitItem"/> is called concurrently and must be thread-safe.
+    /// </remarks>
+    public interface IBatchItemVisitor<T>
+    {
+        /// <summary>
+        /// Visits an item matching one of the queries of the batch.
+        /// </summary>
+        /// <param name="queryIndex">The index of the query envelope in the batch</param>
+        /// <param name="item">The matching item</param>
+        void VisitItem(int queryIndex, T item);
+    }
+}
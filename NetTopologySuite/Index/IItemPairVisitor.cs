@@ -0,0 +1,15 @@
+namespace NetTopologySuite.Index
+{
+    /// <summary>
+    /// A visitor for pairs of items found by a join of two spatial indexes.
+    /// </summary>
+    public interface IItemPairVisitor<T>
+    {
+        /// <summary>
+        /// Visits a pair of items.
+        /// </summary>
+        /// <param name="item1">The item from the first index</param>
+        /// <param name="item2">The item from the second index</param>
+        void VisitItemPair(T item1, T item2);
+    }
+}
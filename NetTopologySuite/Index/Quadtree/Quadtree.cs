@@ -200,6 +200,38 @@ namespace NetTopologySuite.Index.Quadtree
             _root.Visit(searchEnv, visitor);
         }
 
+        /// <summary>
+        /// Queries the tree and visits items which may lie in any of the given search envelopes.
+        /// </summary>
+        /// <remarks>
+        /// The queries are executed in spatial order of the envelopes, not in array order.
+        /// As with <see cref="Query(Envelope, IItemVisitor{T})"/>, some items with 
+        /// non-intersecting envelopes may be visited as well.
+        /// </remarks>
+        /// <param name="searchEnvs">The envelopes of the desired query areas.</param>
+        /// <param name="visitor">A visitor object which is passed the visited items, together with the index of the search envelope</param>
+        public void Query(Envelope[] searchEnvs, IBatchItemVisitor<T> visitor)
+        {
+            Query(searchEnvs, visitor, 1);
+        }
+
+        /// <summary>
+        /// Queries the tree and visits items which may lie in any of the given search envelopes,
+        /// using up to <paramref name="maxDegreeOfParallelism"/> cores.
+        /// </summary>
+        /// <remarks>
+        /// The queries are executed in spatial order of the envelopes, not in array order.
+        /// If more than one core is used, the visitor is called concurrently.
+        /// The tree must not be modified while the query is running.
+        /// </remarks>
+        /// <param name="searchEnvs">The envelopes of the desired query areas.</param>
+        /// <param name="visitor">A visitor object which is passed the visited items, together with the index of the search envelope</param>
+        /// <param name="maxDegreeOfParallelism">The maximum number of cores to use, or <c>-1</c> to use all cores</param>
+        public void Query(Envelope[] searchEnvs, IBatchItemVisitor<T> visitor, int maxDegreeOfParallelism)
+        {
+            BatchQuery.Execute<T>(searchEnvs, visitor, maxDegreeOfParallelism, () => Query);
+        }
+
         /// <summary>
         /// Return a list of all items in the Quadtree.
         /// </summary>
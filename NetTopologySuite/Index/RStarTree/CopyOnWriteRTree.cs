@@ -0,0 +1,325 @@
+using System;
+using System.Collections.Generic;
+using GeoAPI.Geometries;
+using NetTopologySuite.Utilities;
+
+namespace NetTopologySuite.Index.RStarTree
+{
+    /// <summary>
+    /// An R-tree which can be queried concurrently, without locking, while it is being edited.
+    /// <para>
+    /// The nodes of the tree are never modified once they are published.
+    /// An edit copies the nodes on the path from the root to the changed leaf
+    /// and then publishes the new root in a single write,
+    /// so every query sees the tree either completely before or completely after an edit.
+    /// Edits are serialized by a lock; queries never take it.
+    /// </para>
+    /// <para>
+    /// New entries are placed and overflowing nodes are split using the heuristics of the R*-tree
+    /// (see <see cref="RStarTree{T}"/>), but without forced reinsertion, since that would
+    /// copy many more nodes per edit.
+    /// Nodes left underfull by removals are kept; empty nodes are dropped.
+    /// </para>
+    /// </summary>
+    /// <typeparam name="T">The type of the items in the index</typeparam>
+#if !PCL
+    [Serializable]
+#endif
+    public class CopyOnWriteRTree<T> : ISpatialIndex<T>
+    {
+        /// <summary>
+        /// An immutable node. Leaf nodes are on level 0 and hold items,
+        /// the other nodes hold child nodes.
+        /// </summary>
+#if !PCL
+        [Serializable]
+#endif
+        private sealed class Node
+        {
+            public readonly int Level;
+            public readonly int Count;
+            public readonly Envelope Bounds;
+            public readonly Envelope[] EntryBounds;
+            public readonly Node[] Children;
+            public readonly T[] Items;
+
+            public Node(Envelope[] entryBounds, T[] items)
+            {
+                EntryBounds = entryBounds;
+                Items = items;
+                Count = items.Length;
+                Bounds = ComputeBounds(entryBounds);
+            }
+
+            public Node(int level, Node[] children)
+            {
+                Level = level;
+                Children = children;
+                EntryBounds = new Envelope[children.Length];
+                for (var i = 0; i < children.Length; i++)
+                {
+                    EntryBounds[i] = children[i].Bounds;
+                    Count += children[i].Count;
+                }
+                Bounds = ComputeBounds(EntryBounds);
+            }
+
+            public bool IsLeaf
+            {
+                get { return Level == 0; }
+            }
+
+            private static Envelope ComputeBounds(Envelope[] entryBounds)
+            {
+                var bounds = new Envelope();
+                foreach (var entry in entryBounds)
+                    bounds.ExpandToInclude(entry);
+                return bounds;
+            }
+        }
+
+        private readonly object _writeLock = new object();
+        private readonly int _maxEntries;
+        private readonly int _minEntries;
+        private volatile Node _root;
+
+        /// <summary>
+        /// Constructs an empty tree with the default maximum number of entries per node.
+        /// </summary>
+        public CopyOnWriteRTree()
+            : this(RStarTree<T>.DefaultMaxEntries)
+        {
+        }
+
+        /// <summary>
+        /// Constructs an empty tree.
+        /// </summary>
+        /// <param name="maxEntries">The maximum number of entries per node, at least 4</param>
+        public CopyOnWriteRTree(int maxEntries)
+        {
+            Assert.IsTrue(maxEntries >= 4, "Node capacity must be at least 4");
+            _maxEntries = maxEntries;
+            _minEntries = Math.Max(2, (int)(maxEntries * 0.4));
+            _root = new Node(new Envelope[0], new T[0]);
+        }
+
+        /// <summary>
+        /// Gets the number of items in the tree.
+        /// </summary>
+        public int Count
+        {
+            get { return _root.Count; }
+        }
+
+        /// <summary>
+        /// Gets a value indicating whether the tree is empty.
+        /// </summary>
+        public bool IsEmpty
+        {
+            get { return _root.Count == 0; }
+        }
+
+        /// <summary>
+        /// Gets the number of levels in the tree.
+        /// </summary>
+        public int Depth
+        {
+            get { return _root.Level + 1; }
+        }
+
+        /// <summary>
+        /// Adds a spatial item with an extent specified by the given <c>Envelope</c> to the index.
+        /// Queries running concurrently do not see the item.
+        /// </summary>
+        /// <param name="itemEnv">The envelope of the item</param>
+        /// <param name="item">The item</param>
+        public void Insert(Envelope itemEnv, T item)
+        {
+            if (itemEnv == null || itemEnv.IsNull)
+                return;
+
+            lock (_writeLock)
+            {
+                var root = _root;
+                var nodes = Insert(root, new Envelope(itemEnv), item);
+                _root = nodes.Length == 1 ? nodes[0] : new Node(root.Level + 1, nodes);
+            }
+        }
+
+        /// <summary>
+        /// Removes a single item from the tree.
+        /// Queries running concurrently still see the item.
+        /// </summary>
+        /// <param name="itemEnv">The envelope of the item to remove</param>
+        /// <param name="item">The item to remove</param>
+        /// <returns><c>true</c> if the item was found</returns>
+        public bool Remove(Envelope itemEnv, T item)
+        {
+            if (itemEnv == null || itemEnv.IsNull)
+                return false;
+
+            lock (_writeLock)
+            {
+                var root = Remove(_root, itemEnv, item);
+                if (root == null)
+                    return false;
+
+                // shorten the tree while the root has a single child
+                while (!root.IsLeaf && root.Children.Length <= 1)
+                    root = root.Children.Length == 1 ? root.Children[0] : new Node(new Envelope[0], new T[0]);
+                _root = root;
+                return true;
+            }
+        }
+
+        /// <summary>
+        /// Queries the index for all items whose extents intersect the given search <c>Envelope</c>.
+        /// </summary>
+        /// <param name="searchEnv">The envelope to query for</param>
+        /// <returns>A list of the items found by the query</returns>
+        public IList<T> Query(Envelope searchEnv)
+        {
+            var visitor = new ArrayListVisitor<T>();
+            Query(searchEnv, visitor);
+            return visitor.Items;
+        }
+
+        /// <summary>
+        /// Queries the index for all items whose extents intersect the given search <c>Envelope</c>,
+        /// and applies an <see cref="IItemVisitor{T}" /> to them.
+        /// The query runs on the tree as it was when the query started.
+        /// </summary>
+        /// <param name="searchEnv">The envelope to query for</param>
+        /// <param name="visitor">A visitor object to apply to the items found</param>
+        public void Query(Envelope searchEnv, IItemVisitor<T> visitor)
+        {
+            if (searchEnv == null || searchEnv.IsNull)
+                return;
+            Query(_root, searchEnv, visitor);
+        }
+
+        private static void Query(Node node, Envelope searchEnv, IItemVisitor<T> visitor)
+        {
+            var entryBounds = node.EntryBounds;
+            for (var i = 0; i < entryBounds.Length; i++)
+            {
+                if (!entryBounds[i].Intersects(searchEnv))
+                    continue;
+                if (node.IsLeaf)
+                    visitor.VisitItem(node.Items[i]);
+                else
+                    Query(node.Children[i], searchEnv, visitor);
+            }
+        }
+
+        /// <summary>
+        /// Creates a copy of <paramref name="node"/> with the item inserted.
+        /// </summary>
+        /// <returns>The copy, or the two halves of the copy if it had to be split</returns>
+        private Node[] Insert(Node node, Envelope itemEnv, T item)
+        {
+            if (node.IsLeaf)
+            {
+                var bounds = Append(node.EntryBounds, itemEnv);
+                var items = Append(node.Items, item);
+                if (items.Length <= _maxEntries)
+                    return new[] { new Node(bounds, items) };
+
+                int splitIndex;
+                var order = RStarHeuristics.Split(bounds, _minEntries, out splitIndex);
+                return new[]
+                    {
+                        new Node(Select(bounds, order, 0, splitIndex), Select(items, order, 0, splitIndex)),
+                        new Node(Select(bounds, order, splitIndex, order.Length), Select(items, order, splitIndex, order.Length))
+                    };
+            }
+
+            var index = RStarHeuristics.ChooseSubtree(node.EntryBounds, itemEnv, node.Level == 1);
+            var childNodes = Insert(node.Children[index], itemEnv, item);
+
+            var children = (Node[])node.Children.Clone();
+            children[index] = childNodes[0];
+            if (childNodes.Length > 1)
+                children = Append(children, childNodes[1]);
+            if (children.Length <= _maxEntries)
+                return new[] { new Node(node.Level, children) };
+
+            var childBounds = new Envelope[children.Length];
+            for (var i = 0; i < children.Length; i++)
+                childBounds[i] = children[i].Bounds;
+            int childSplitIndex;
+            var childOrder = RStarHeuristics.Split(childBounds, _minEntries, out childSplitIndex);
+            return new[]
+                {
+                    new Node(node.Level, Select(children, childOrder, 0, childSplitIndex)),
+                    new Node(node.Level, Select(children, childOrder, childSplitIndex, childOrder.Length))
+                };
+        }
+
+        /// <summary>
+        /// Creates a copy of <paramref name="node"/> with the item removed.
+        /// </summary>
+        /// <returns>The copy, or <c>null</c> if the item was not found</returns>
+        private static Node Remove(Node node, Envelope itemEnv, T item)
+        {
+            var entryBounds = node.EntryBounds;
+            if (node.IsLeaf)
+            {
+                var comparer = EqualityComparer<T>.Default;
+                for (var i = 0; i < entryBounds.Length; i++)
+                {
+                    if (entryBounds[i].Intersects(itemEnv) && comparer.Equals(node.Items[i], item))
+                        return new Node(RemoveAt(entryBounds, i), RemoveAt(node.Items, i));
+                }
+                return null;
+            }
+
+            for (var i = 0; i < entryBounds.Length; i++)
+            {
+                if (!entryBounds[i].Intersects(itemEnv))
+                    continue;
+                var child = Remove(node.Children[i], itemEnv, item);
+                if (child == null)
+                    continue;
+
+                // drop the child if it became empty
+                Node[] children;
+                if (child.EntryBounds.Length == 0)
+                {
+                    children = RemoveAt(node.Children, i);
+                }
+                else
+                {
+                    children = (Node[])node.Children.Clone();
+                    children[i] = child;
+                }
+                return new Node(node.Level, children);
+            }
+            return null;
+        }
+
+        private static TE[] Append<TE>(TE[] array, TE value)
+        {
+            var res = new TE[array.Length + 1];
+            Array.Copy(array, res, array.Length);
+            res[array.Length] = value;
+            return res;
+        }
+
+        private static TE[] RemoveAt<TE>(TE[] array, int index)
+        {
+            var res = new TE[array.Length - 1];
+            Array.Copy(array, 0, res, 0, index);
+            Array.Copy(array, index + 1, res, index, res.Length - index);
+            return res;
+        }
+
+        private static TE[] Select<TE>(TE[] array, int[] order, int start, int end)
+        {
+            var res = new TE[end - start];
+            for (var i = start; i < end; i++)
+                res[i - start] = array[order[i]];
+            return res;
+        }
+    }
+}
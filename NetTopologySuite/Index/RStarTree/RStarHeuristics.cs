@@ -0,0 +1,184 @@
+using System;
+using System.Collections.Generic;
+using GeoAPI.Geometries;
+
+namespace NetTopologySuite.Index.RStarTree
+{
+    /// <summary>
+    /// The subtree selection and node splitting heuristics of the R*-tree,
+    /// operating on the bounds of the entries of a node.
+    /// </summary>
+    internal static class RStarHeuristics
+    {
+        /// <summary>
+        /// Chooses the entry to insert new bounds into.
+        /// The entry needing least area enlargement is chosen, or,
+        /// if <paramref name="minimizeOverlap"/> is set (directly above the leaves),
+        /// the entry needing least overlap enlargement.
+        /// Ties are resolved by the smaller area enlargement, then the smaller area.
+        /// </summary>
+        /// <param name="entryBounds">The bounds of the entries of a node</param>
+        /// <param name="bounds">The bounds to insert</param>
+        /// <param name="minimizeOverlap">A flag indicating whether to minimize the overlap enlargement</param>
+        /// <returns>The index of the chosen entry</returns>
+        public static int ChooseSubtree(IList<Envelope> entryBounds, Envelope bounds, bool minimizeOverlap)
+        {
+            var best = 0;
+            var bestOverlap = double.PositiveInfinity;
+            var bestEnlargement = double.PositiveInfinity;
+            var bestArea = double.PositiveInfinity;
+            for (var i = 0; i < entryBounds.Count; i++)
+            {
+                var entry = entryBounds[i];
+                var area = entry.Area;
+                var enlarged = Union(entry, bounds);
+                var enlargement = enlarged.Area - area;
+
+                var overlap = 0d;
+                if (minimizeOverlap)
+                {
+                    for (var j = 0; j < entryBounds.Count; j++)
+                    {
+                        if (j == i)
+                            continue;
+                        var other = entryBounds[j];
+                        overlap += IntersectionArea(enlarged, other) - IntersectionArea(entry, other);
+                    }
+                }
+
+                if (overlap < bestOverlap ||
+                    overlap == bestOverlap && (enlargement < bestEnlargement ||
+                                               enlargement == bestEnlargement && area < bestArea))
+                {
+                    best = i;
+                    bestOverlap = overlap;
+                    bestEnlargement = enlargement;
+                    bestArea = area;
+                }
+            }
+            return best;
+        }
+
+        /// <summary>
+        /// Splits the entries of an overflowing node into two groups.
+        /// The split axis is the one with the minimum sum of margins over all distributions;
+        /// along that axis the distribution with minimum overlap (then minimum area) is chosen.
+        /// </summary>
+        /// <param name="entryBounds">The bounds of the entries of the node</param>
+        /// <param name="minEntries">The minimum number of entries in each group</param>
+        /// <param name="splitIndex">The number of entries in the first group</param>
+        /// <returns>The entry indices, ordered so that the first group precedes the second</returns>
+        public static int[] Split(IList<Envelope> entryBounds, int minEntries, out int splitIndex)
+        {
+            // choose the axis
+            int[] byMin = null, byMax = null;
+            var bestMargin = double.PositiveInfinity;
+            for (var axis = 0; axis < 2; axis++)
+            {
+                var axisByMin = SortByAxis(entryBounds, axis, true);
+                var axisByMax = SortByAxis(entryBounds, axis, false);
+                var margin = MarginSum(entryBounds, axisByMin, minEntries) + MarginSum(entryBounds, axisByMax, minEntries);
+                if (margin < bestMargin)
+                {
+                    bestMargin = margin;
+                    byMin = axisByMin;
+                    byMax = axisByMax;
+                }
+            }
+
+            // choose the distribution along the axis
+            int[] best = null;
+            splitIndex = 0;
+            var bestOverlap = double.PositiveInfinity;
+            var bestArea = double.PositiveInfinity;
+            foreach (var order in new[] { byMin, byMax })
+            {
+                Envelope[] prefix, suffix;
+                GroupBounds(entryBounds, order, out prefix, out suffix);
+                for (var k = minEntries; k <= order.Length - minEntries; k++)
+                {
+                    var overlap = IntersectionArea(prefix[k], suffix[k]);
+                    var area = prefix[k].Area + suffix[k].Area;
+                    if (overlap < bestOverlap || overlap == bestOverlap && area < bestArea)
+                    {
+                        best = order;
+                        splitIndex = k;
+                        bestOverlap = overlap;
+                        bestArea = area;
+                    }
+                }
+            }
+            return best;
+        }
+
+        private static int[] SortByAxis(IList<Envelope> entryBounds, int axis, bool byMin)
+        {
+            var order = new int[entryBounds.Count];
+            var keys = new double[order.Length];
+            for (var i = 0; i < order.Length; i++)
+            {
+                var b = entryBounds[i];
+                order[i] = i;
+                if (axis == 0)
+                    keys[i] = byMin ? b.MinX : b.MaxX;
+                else
+                    keys[i] = byMin ? b.MinY : b.MaxY;
+            }
+            Array.Sort(keys, order);
+            return order;
+        }
+
+        /// <summary>
+        /// Computes the bounds of the first <c>k</c> entries (prefix)
+        /// and of the entries from <c>k</c> on (suffix), for every <c>k</c>.
+        /// </summary>
+        private static void GroupBounds(IList<Envelope> entryBounds, int[] order, out Envelope[] prefix, out Envelope[] suffix)
+        {
+            var n = order.Length;
+            prefix = new Envelope[n + 1];
+            suffix = new Envelope[n + 1];
+            prefix[0] = new Envelope();
+            for (var i = 0; i < n; i++)
+                prefix[i + 1] = Union(prefix[i], entryBounds[order[i]]);
+            suffix[n] = new Envelope();
+            for (var i = n - 1; i >= 0; i--)
+                suffix[i] = Union(suffix[i + 1], entryBounds[order[i]]);
+        }
+
+        private static double MarginSum(IList<Envelope> entryBounds, int[] order, int minEntries)
+        {
+            Envelope[] prefix, suffix;
+            GroupBounds(entryBounds, order, out prefix, out suffix);
+            var sum = 0d;
+            for (var k = minEntries; k <= order.Length - minEntries; k++)
+                sum += Margin(prefix[k]) + Margin(suffix[k]);
+            return sum;
+        }
+
+        /// <summary>
+        /// Computes the union of two envelopes, without modifying them.
+        /// </summary>
+        public static Envelope Union(Envelope a, Envelope b)
+        {
+            var res = new Envelope(a);
+            res.ExpandToInclude(b);
+            return res;
+        }
+
+        private static double Margin(Envelope env)
+        {
+            return env.IsNull ? 0d : env.Width + env.Height;
+        }
+
+        private static double IntersectionArea(Envelope a, Envelope b)
+        {
+            var w = Math.Min(a.MaxX, b.MaxX) - Math.Max(a.MinX, b.MinX);
+            if (w <= 0)
+                return 0d;
+            var h = Math.Min(a.MaxY, b.MaxY) - Math.Max(a.MinY, b.MinY);
+            if (h <= 0)
+                return 0d;
+            return w * h;
+        }
+    }
+}
@@ -0,0 +1,415 @@
+using System;
+using System.Collections.Generic;
+using GeoAPI.Geometries;
+using NetTopologySuite.Utilities;
+
+namespace NetTopologySuite.Index.RStarTree
+{
+    /// <summary>
+    /// A dynamic R-tree which uses the insertion and node splitting strategies of the R*-tree,
+    /// as described in:
+    /// N. Beckmann, H.-P. Kriegel, R. Schneider and B. Seeger.
+    /// <i>The R*-tree: An Efficient and Robust Access Method for Points and Rectangles</i>.
+    /// Proc. ACM SIGMOD, 1990.
+    /// <para>
+    /// Unlike <see cref="Strtree.STRtree{TItem}"/>, items can be inserted and removed
+    /// at any time, interleaved with queries.
+    /// Overflowing nodes first have some of their entries reinserted
+    /// (at most once per level and insertion), and are only split if they overflow again.
+    /// Underflowing nodes created by removals are dissolved and their entries reinserted.
+    /// </para>
+    /// <para>
+    /// The tree is not thread-safe. Queries may run concurrently with each other,
+    /// but not with <see cref="Insert"/> or <see cref="Remove"/>.
+    /// </para>
+    /// </summary>
+    /// <typeparam name="T">The type of the items in the index</typeparam>
+#if !PCL
+    [Serializable]
+#endif
+    public class RStarTree<T> : ISpatialIndex<T>
+    {
+        /// <summary>
+        /// The default maximum number of entries in a node.
+        /// </summary>
+        public const int DefaultMaxEntries = 16;
+
+        /// <summary>
+        /// The fraction of the entries of an overflowing node which is reinserted.
+        /// </summary>
+        private const double ReinsertFraction = 0.3;
+
+        /// <summary>
+        /// An entry of a node: the bounds of either an item (in leaf nodes) or of a child node.
+        /// </summary>
+#if !PCL
+        [Serializable]
+#endif
+        private class Entry
+        {
+            public Envelope Bounds;
+            public readonly Node Child;
+            public readonly T Item;
+
+            public Entry(Envelope bounds, T item)
+            {
+                Bounds = bounds;
+                Item = item;
+            }
+
+            public Entry(Node child)
+            {
+                Bounds = child.ComputeBounds();
+                Child = child;
+            }
+        }
+
+        /// <summary>
+        /// A node of the tree. Leaf nodes are on level 0.
+        /// </summary>
+#if !PCL
+        [Serializable]
+#endif
+        private class Node
+        {
+            public readonly int Level;
+            public readonly List<Entry> Entries;
+
+            public Node(int level, int capacity)
+            {
+                Level = level;
+                Entries = new List<Entry>(capacity);
+            }
+
+            public Envelope ComputeBounds()
+            {
+                var bounds = new Envelope();
+                foreach (var entry in Entries)
+                    bounds.ExpandToInclude(entry.Bounds);
+                return bounds;
+            }
+        }
+
+        /// <summary>
+        /// The state of a single top-level insertion or removal.
+        /// </summary>
+        private class UpdateState
+        {
+            /// <summary>
+            /// The levels on which entries have already been reinserted, as a bit mask.
+            /// </summary>
+            public long ReinsertedLevels;
+
+            /// <summary>
+            /// Entries waiting to be inserted, together with the level of the node they belong to.
+            /// </summary>
+            public readonly Stack<KeyValuePair<Entry, int>> Pending = new Stack<KeyValuePair<Entry, int>>();
+        }
+
+        private readonly int _maxEntries;
+        private readonly int _minEntries;
+        private Node _root;
+        private int _count;
+
+        /// <summary>
+        /// Constructs an empty tree with the default maximum number of entries per node.
+        /// </summary>
+        public RStarTree()
+            : this(DefaultMaxEntries)
+        {
+        }
+
+        /// <summary>
+        /// Constructs an empty tree.
+        /// </summary>
+        /// <param name="maxEntries">The maximum number of entries per node, at least 4</param>
+        public RStarTree(int maxEntries)
+        {
+            Assert.IsTrue(maxEntries >= 4, "Node capacity must be at least 4");
+            _maxEntries = maxEntries;
+            // 40% minimum fill performs best according to the R*-tree paper
+            _minEntries = Math.Max(2, (int)(maxEntries * 0.4));
+            _root = new Node(0, maxEntries + 1);
+        }
+
+        /// <summary>
+        /// Gets the maximum number of entries per node.
+        /// </summary>
+        public int MaxEntries
+        {
+            get { return _maxEntries; }
+        }
+
+        /// <summary>
+        /// Gets the number of items in the tree.
+        /// </summary>
+        public int Count
+        {
+            get { return _count; }
+        }
+
+        /// <summary>
+        /// Gets a value indicating whether the tree is empty.
+        /// </summary>
+        public bool IsEmpty
+        {
+            get { return _count == 0; }
+        }
+
+        /// <summary>
+        /// Gets the number of levels in the tree.
+        /// </summary>
+        public int Depth
+        {
+            get { return _root.Level + 1; }
+        }
+
+        /// <summary>
+        /// Adds a spatial item with an extent specified by the given <c>Envelope</c> to the index.
+        /// </summary>
+        /// <param name="itemEnv">The envelope of the item</param>
+        /// <param name="item">The item</param>
+        public void Insert(Envelope itemEnv, T item)
+        {
+            if (itemEnv == null || itemEnv.IsNull)
+                return;
+
+            var state = new UpdateState();
+            Insert(new Entry(new Envelope(itemEnv), item), 0, state);
+            InsertPending(state);
+            _count++;
+        }
+
+        /// <summary>
+        /// Removes a single item from the tree.
+        /// </summary>
+        /// <param name="itemEnv">The envelope of the item to remove</param>
+        /// <param name="item">The item to remove</param>
+        /// <returns><c>true</c> if the item was found</returns>
+        public bool Remove(Envelope itemEnv, T item)
+        {
+            if (itemEnv == null || itemEnv.IsNull)
+                return false;
+
+            var state = new UpdateState();
+            if (!Remove(_root, itemEnv, item, state))
+                return false;
+            _count--;
+
+            // reinsert the entries of dissolved nodes, higher levels first
+            InsertPending(state);
+
+            // shorten the tree while the root has a single child
+            while (_root.Level > 0 && _root.Entries.Count == 1)
+                _root = _root.Entries[0].Child;
+            return true;
+        }
+
+        /// <summary>
+        /// Queries the index for all items whose extents intersect the given search <c>Envelope</c>.
+        /// </summary>
+        /// <param name="searchEnv">The envelope to query for</param>
+        /// <returns>A list of the items found by the query</returns>
+        public IList<T> Query(Envelope searchEnv)
+        {
+            var visitor = new ArrayListVisitor<T>();
+            Query(searchEnv, visitor);
+            return visitor.Items;
+        }
+
+        /// <summary>
+        /// Queries the index for all items whose extents intersect the given search <c>Envelope</c>,
+        /// and applies an <see cref="IItemVisitor{T}" /> to them.
+        /// </summary>
+        /// <param name="searchEnv">The envelope to query for</param>
+        /// <param name="visitor">A visitor object to apply to the items found</param>
+        public void Query(Envelope searchEnv, IItemVisitor<T> visitor)
+        {
+            if (searchEnv == null || searchEnv.IsNull)
+                return;
+            Query(_root, searchEnv, visitor);
+        }
+
+        private static void Query(Node node, Envelope searchEnv, IItemVisitor<T> visitor)
+        {
+            var entries = node.Entries;
+            for (var i = 0; i < entries.Count; i++)
+            {
+                var entry = entries[i];
+                if (!entry.Bounds.Intersects(searchEnv))
+                    continue;
+                if (node.Level == 0)
+                    visitor.VisitItem(entry.Item);
+                else
+                    Query(entry.Child, searchEnv, visitor);
+            }
+        }
+
+        private void InsertPending(UpdateState state)
+        {
+            while (state.Pending.Count > 0)
+            {
+                var pending = state.Pending.Pop();
+                Insert(pending.Key, pending.Value, state);
+            }
+        }
+
+        /// <summary>
+        /// Inserts an entry into a node on the given level, growing the tree if the root splits.
+        /// </summary>
+        private void Insert(Entry entry, int level, UpdateState state)
+        {
+            var split = Insert(_root, entry, level, state);
+            if (split == null)
+                return;
+
+            var root = new Node(_root.Level + 1, _maxEntries + 1);
+            root.Entries.Add(new Entry(_root));
+            root.Entries.Add(new Entry(split));
+            _root = root;
+        }
+
+        /// <summary>
+        /// Inserts an entry into the subtree of <paramref name="node"/>.
+        /// </summary>
+        /// <returns>The new sibling of <paramref name="node"/>, if it had to be split; otherwise <c>null</c></returns>
+        private Node Insert(Node node, Entry entry, int level, UpdateState state)
+        {
+            if (node.Level == level)
+            {
+                node.Entries.Add(entry);
+            }
+            else
+            {
+                var subtree = node.Entries[RStarHeuristics.ChooseSubtree(EntryBounds(node), entry.Bounds, node.Level == 1)];
+                var split = Insert(subtree.Child, entry, level, state);
+
+                // the child may have grown, or shrunk by a reinsertion or split
+                subtree.Bounds = subtree.Child.ComputeBounds();
+                if (split != null)
+                    node.Entries.Add(new Entry(split));
+            }
+
+            if (node.Entries.Count <= _maxEntries)
+                return null;
+            return TreatOverflow(node, state);
+        }
+
+        private static Envelope[] EntryBounds(Node node)
+        {
+            var bounds = new Envelope[node.Entries.Count];
+            for (var i = 0; i < bounds.Length; i++)
+                bounds[i] = node.Entries[i].Bounds;
+            return bounds;
+        }
+
+        /// <summary>
+        /// Handles an overflowing node, either by reinserting some of its entries
+        /// (the first time a level overflows during an update) or by splitting it.
+        /// </summary>
+        /// <returns>The new sibling node if <paramref name="node"/> was split; otherwise <c>null</c></returns>
+        private Node TreatOverflow(Node node, UpdateState state)
+        {
+            var levelBit = 1L << node.Level;
+            if (node != _root && (state.ReinsertedLevels & levelBit) == 0)
+            {
+                state.ReinsertedLevels |= levelBit;
+                Reinsert(node, state);
+                return null;
+            }
+            return Split(node);
+        }
+
+        /// <summary>
+        /// Removes the entries farthest from the centre of the node
+        /// and queues them for reinsertion, nearest first.
+        /// </summary>
+        private void Reinsert(Node node, UpdateState state)
+        {
+            var centre = node.ComputeBounds().Centre;
+            var entries = node.Entries;
+            var distances = new double[entries.Count];
+            var sorted = entries.ToArray();
+            for (var i = 0; i < sorted.Length; i++)
+            {
+                var c = sorted[i].Bounds.Centre;
+                var dx = c.X - centre.X;
+                var dy = c.Y - centre.Y;
+                distances[i] = dx * dx + dy * dy;
+            }
+            Array.Sort(distances, sorted);
+
+            var reinsertCount = Math.Max(1, (int)(sorted.Length * ReinsertFraction));
+            var keepCount = sorted.Length - reinsertCount;
+            entries.Clear();
+            for (var i = 0; i < keepCount; i++)
+                entries.Add(sorted[i]);
+
+            // the pending entries are a stack, so push the farthest entry first
+            for (var i = sorted.Length - 1; i >= keepCount; i--)
+                state.Pending.Push(new KeyValuePair<Entry, int>(sorted[i], node.Level));
+        }
+
+        /// <summary>
+        /// Splits an overflowing node.
+        /// </summary>
+        /// <returns>The new sibling node holding the second group of entries</returns>
+        private Node Split(Node node)
+        {
+            var entries = node.Entries.ToArray();
+            int splitIndex;
+            var order = RStarHeuristics.Split(EntryBounds(node), _minEntries, out splitIndex);
+
+            var sibling = new Node(node.Level, _maxEntries + 1);
+            node.Entries.Clear();
+            for (var i = 0; i < splitIndex; i++)
+                node.Entries.Add(entries[order[i]]);
+            for (var i = splitIndex; i < order.Length; i++)
+                sibling.Entries.Add(entries[order[i]]);
+            return sibling;
+        }
+
+        /// <summary>
+        /// Removes an item from the subtree of <paramref name="node"/>.
+        /// Child nodes which underflow are removed, and their entries queued for reinsertion.
+        /// </summary>
+        private bool Remove(Node node, Envelope itemEnv, T item, UpdateState state)
+        {
+            var entries = node.Entries;
+            if (node.Level == 0)
+            {
+                var comparer = EqualityComparer<T>.Default;
+                for (var i = 0; i < entries.Count; i++)
+                {
+                    if (entries[i].Bounds.Intersects(itemEnv) && comparer.Equals(entries[i].Item, item))
+                    {
+                        entries.RemoveAt(i);
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            for (var i = 0; i < entries.Count; i++)
+            {
+                var entry = entries[i];
+                if (!entry.Bounds.Intersects(itemEnv) || !Remove(entry.Child, itemEnv, item, state))
+                    continue;
+
+                var child = entry.Child;
+                if (child.Entries.Count < _minEntries)
+                {
+                    entries.RemoveAt(i);
+                    foreach (var orphan in child.Entries)
+                        state.Pending.Push(new KeyValuePair<Entry, int>(orphan, child.Level));
+                }
+                else
+                {
+                    entry.Bounds = child.ComputeBounds();
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+}
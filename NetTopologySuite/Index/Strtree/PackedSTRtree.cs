@@ -0,0 +1,491 @@
+using System;
+using System.Collections.Generic;
+using GeoAPI.Geometries;
+using NetTopologySuite.Utilities;
+
+namespace NetTopologySuite.Index.Strtree
+{
+    /// <summary>
+    /// A query-only R-tree created using the Sort-Tile-Recursive (STR) algorithm,
+    /// which stores its nodes in flat arrays.
+    /// <para/>
+    /// The tree is packed in the same way as <see cref="STRtree{TItem}"/>,
+    /// but instead of a graph of node and item objects
+    /// the bounds of all items and nodes are kept in a single contiguous <see cref="double"/> array,
+    /// the items in a parallel array and the child ranges of the nodes in an <see cref="int"/> array.
+    /// This avoids the per-item overhead of <see cref="ItemBoundable{T,TItem}"/> and <see cref="Envelope"/> objects
+    /// and gives queries a cache-friendly memory access pattern,
+    /// which makes it suitable for indexes holding a very large number of items.
+    /// <para/>
+    /// Once the tree has been built (explicitly or on the first query),
+    /// items may not be added.
+    /// Items can be removed after the tree has been built,
+    /// but the space they occupy is not reclaimed.
+    /// </summary>
+    /// <typeparam name="TItem">The type of the items in the index</typeparam>
+#if !PCL
+    [Serializable]
+#endif
+    public class PackedSTRtree<TItem> : ISpatialIndex<TItem>
+    {
+        private const int DefaultNodeCapacity = 10;
+
+        private readonly object _buildLock = new object();
+        private readonly int _nodeCapacity;
+
+        private volatile bool _built;
+
+        /*
+         * Items inserted before the tree is built.
+         * Set to null when the index is built, to avoid retaining memory.
+         */
+        private List<TItem> _insertedItems = new List<TItem>();
+        private List<double> _insertedBounds = new List<double>();
+
+        /*
+         * The bounds of all entries, as (minX, minY, maxX, maxY) quadruples.
+         * The first _itemCount entries are the items,
+         * followed by the nodes of each level, from the leaves up to the root.
+         */
+        private double[] _bounds;
+        private TItem[] _items;
+
+        /*
+         * The children of node entry k are the entries in the range
+         * [_childRanges[2 * (k - _itemCount)], _childRanges[2 * (k - _itemCount) + 1]).
+         */
+        private int[] _childRanges;
+
+        private int _itemCount;
+        private int _removedCount;
+        private int _root = -1;
+        private int _depth;
+
+        /// <summary>
+        /// Constructs a packed STRtree with the default (10) node capacity.
+        /// </summary>
+        public PackedSTRtree()
+            : this(DefaultNodeCapacity)
+        {
+        }
+
+        /// <summary>
+        /// Constructs a packed STRtree with the given maximum number of child entries that
+        /// a node may have.
+        /// </summary>
+        /// <remarks>The minimum recommended capacity setting is 4.</remarks>
+        public PackedSTRtree(int nodeCapacity)
+        {
+            Assert.IsTrue(nodeCapacity > 1, "Node capacity must be greater than 1");
+            _nodeCapacity = nodeCapacity;
+        }
+
+        /// <summary>
+        /// Returns the maximum number of child entries that a node may have.
+        /// </summary>
+        public int NodeCapacity
+        {
+            get { return _nodeCapacity; }
+        }
+
+        /// <summary>
+        /// Gets the number of items in the index.
+        /// </summary>
+        public int Count
+        {
+            get
+            {
+                return _built
+                    ? _itemCount - _removedCount
+                    : _insertedItems.Count;
+            }
+        }
+
+        /// <summary>
+        /// Tests whether the index contains any items.
+        /// This method does not build the index,
+        /// so items can still be inserted after it has been called.
+        /// </summary>
+        public bool IsEmpty
+        {
+            get { return Count == 0; }
+        }
+
+        /// <summary>
+        /// Gets the number of node levels of the index, building it if necessary.
+        /// </summary>
+        public int Depth
+        {
+            get
+            {
+                Build();
+                return _depth;
+            }
+        }
+
+        /// <summary>
+        /// Inserts an item having the given bounds into the tree.
+        /// </summary>
+        /// <param name="itemEnv">The envelope of the item</param>
+        /// <param name="item">The item</param>
+        public void Insert(Envelope itemEnv, TItem item)
+        {
+            Assert.IsTrue(!_built, "Cannot insert items into an STR packed R-tree after it has been built.");
+            if (itemEnv.IsNull)
+                return;
+            _insertedItems.Add(item);
+            _insertedBounds.Add(itemEnv.MinX);
+            _insertedBounds.Add(itemEnv.MinY);
+            _insertedBounds.Add(itemEnv.MaxX);
+            _insertedBounds.Add(itemEnv.MaxY);
+        }
+
+        /// <summary>
+        /// Creates the node levels of the tree for the items which have been inserted.
+        /// Can only be called once, and thus can be called only after
+        /// all of the data has been inserted into the tree.
+        /// </summary>
+        public void Build()
+        {
+            if (_built)
+                return;
+
+            lock (_buildLock)
+            {
+                if (_built)
+                    return;
+
+                _itemCount = _insertedItems.Count;
+                var levels = new List<double[]>();
+                var childRanges = new List<int[]>();
+
+                var itemBounds = _insertedBounds.ToArray();
+                var items = _insertedItems.ToArray();
+                _insertedBounds = null;
+                _insertedItems = null;
+
+                // pack each level in STR order, from the items up to the root
+                var levelBounds = itemBounds;
+                var levelCount = _itemCount;
+                var levelOffset = 0;
+                var isItemLevel = true;
+                int[] levelChildRanges = null;
+                var total = _itemCount;
+                _depth = 0;
+
+                while (levelCount > 0)
+                {
+                    int[] groupStart;
+                    var order = StrOrder(levelBounds, levelCount, out groupStart);
+
+                    // reorder the entries of this level
+                    levelBounds = Permute(levelBounds, order);
+                    if (isItemLevel)
+                        items = Permute(items, order);
+                    else
+                        levelChildRanges = PermuteRanges(levelChildRanges, order);
+
+                    if (!isItemLevel)
+                        childRanges.Add(levelChildRanges);
+                    levels.Add(levelBounds);
+
+                    // create the parent level
+                    var parentCount = groupStart.Length - 1;
+                    var parentBounds = new double[4 * parentCount];
+                    var parentChildRanges = new int[2 * parentCount];
+                    for (var i = 0; i < parentCount; i++)
+                    {
+                        ComputeBounds(levelBounds, groupStart[i], groupStart[i + 1], parentBounds, i);
+                        parentChildRanges[2 * i] = levelOffset + groupStart[i];
+                        parentChildRanges[2 * i + 1] = levelOffset + groupStart[i + 1];
+                    }
+
+                    _depth++;
+                    levelOffset += levelCount;
+                    total += parentCount;
+                    isItemLevel = false;
+
+                    if (parentCount == 1)
+                    {
+                        childRanges.Add(parentChildRanges);
+                        levels.Add(parentBounds);
+                        break;
+                    }
+
+                    levelBounds = parentBounds;
+                    levelCount = parentCount;
+                    levelChildRanges = parentChildRanges;
+                }
+
+                // copy the levels into the flat arrays
+                _bounds = new double[4 * total];
+                var offset = 0;
+                foreach (var level in levels)
+                {
+                    Array.Copy(level, 0, _bounds, offset, level.Length);
+                    offset += level.Length;
+                }
+
+                _childRanges = new int[2 * (total - _itemCount)];
+                offset = 0;
+                foreach (var ranges in childRanges)
+                {
+                    Array.Copy(ranges, 0, _childRanges, offset, ranges.Length);
+                    offset += ranges.Length;
+                }
+
+                _items = items;
+                _root = total - 1;
+                _built = true;
+            }
+        }
+
+        /// <summary>
+        /// Computes the STR order of the entries of a level.
+        /// The entries are sorted by the x-value of their midpoints
+        /// and grouped into vertical slices. Each slice is sorted by the y-value of the midpoints
+        /// and divided into groups of at most <see cref="NodeCapacity"/> entries.
+        /// </summary>
+        /// <param name="bounds">The bounds of the entries</param>
+        /// <param name="count">The number of entries</param>
+        /// <param name="groupStart">The start indices (in the sorted order) of the groups, followed by <paramref name="count"/></param>
+        /// <returns>The entry indices in STR order</returns>
+        private int[] StrOrder(double[] bounds, int count, out int[] groupStart)
+        {
+            var order = new int[count];
+            var keys = new double[count];
+            for (var i = 0; i < count; i++)
+            {
+                order[i] = i;
+                keys[i] = bounds[4 * i] + bounds[4 * i + 2];
+            }
+            Array.Sort(keys, order);
+
+            var minLeafCount = (int)Math.Ceiling(count / (double)_nodeCapacity);
+            var sliceCount = (int)Math.Ceiling(Math.Sqrt(minLeafCount));
+            var sliceCapacity = (int)Math.Ceiling(count / (double)sliceCount);
+
+            var groups = new List<int>();
+            for (var sliceStart = 0; sliceStart < count; sliceStart += sliceCapacity)
+            {
+                var sliceEnd = Math.Min(sliceStart + sliceCapacity, count);
+                for (var i = sliceStart; i < sliceEnd; i++)
+                    keys[i] = bounds[4 * order[i] + 1] + bounds[4 * order[i] + 3];
+                Array.Sort(keys, order, sliceStart, sliceEnd - sliceStart);
+
+                for (var i = sliceStart; i < sliceEnd; i += _nodeCapacity)
+                    groups.Add(i);
+            }
+            groups.Add(count);
+            groupStart = groups.ToArray();
+            return order;
+        }
+
+        private static double[] Permute(double[] bounds, int[] order)
+        {
+            var res = new double[4 * order.Length];
+            for (var i = 0; i < order.Length; i++)
+                Array.Copy(bounds, 4 * order[i], res, 4 * i, 4);
+            return res;
+        }
+
+        private static TItem[] Permute(TItem[] items, int[] order)
+        {
+            var res = new TItem[order.Length];
+            for (var i = 0; i < order.Length; i++)
+                res[i] = items[order[i]];
+            return res;
+        }
+
+        private static int[] PermuteRanges(int[] ranges, int[] order)
+        {
+            var res = new int[2 * order.Length];
+            for (var i = 0; i < order.Length; i++)
+            {
+                res[2 * i] = ranges[2 * order[i]];
+                res[2 * i + 1] = ranges[2 * order[i] + 1];
+            }
+            return res;
+        }
+
+        private static void ComputeBounds(double[] bounds, int start, int end, double[] target, int index)
+        {
+            double minX = double.PositiveInfinity, minY = double.PositiveInfinity;
+            double maxX = double.NegativeInfinity, maxY = double.NegativeInfinity;
+            for (var i = start; i < end; i++)
+            {
+                var j = 4 * i;
+                if (bounds[j] < minX) minX = bounds[j];
+                if (bounds[j + 1] < minY) minY = bounds[j + 1];
+                if (bounds[j + 2] > maxX) maxX = bounds[j + 2];
+                if (bounds[j + 3] > maxY) maxY = bounds[j + 3];
+            }
+            var k = 4 * index;
+            target[k] = minX;
+            target[k + 1] = minY;
+            target[k + 2] = maxX;
+            target[k + 3] = maxY;
+        }
+
+        /// <summary>
+        /// Tests whether the bounds of entry <paramref name="entry"/> intersect the given query rectangle.
+        /// </summary>
+        /// <remarks>
+        /// The comparisons are written so that entries with <see cref="double.NaN"/> bounds
+        /// (removed items) never intersect.
+        /// </remarks>
+        private bool Intersects(int entry, double minX, double minY, double maxX, double maxY)
+        {
+            var j = 4 * entry;
+            return _bounds[j] <= maxX && _bounds[j + 2] >= minX &&
+                   _bounds[j + 1] <= maxY && _bounds[j + 3] >= minY;
+        }
+
+        /// <summary>
+        /// Returns items whose bounds intersect the given envelope.
+        /// </summary>
+        /// <param name="searchEnv">The envelope to query for</param>
+        public IList<TItem> Query(Envelope searchEnv)
+        {
+            var visitor = new ArrayListVisitor<TItem>();
+            Query(searchEnv, visitor);
+            return visitor.Items;
+        }
+
+        /// <summary>
+        /// Visits all items whose bounds intersect the given envelope.
+        /// </summary>
+        /// <param name="searchEnv">The envelope to query for</param>
+        /// <param name="visitor">A visitor to pass the matching items to</param>
+        public void Query(Envelope searchEnv, IItemVisitor<TItem> visitor)
+        {
+            Build();
+            Query(searchEnv, visitor, new int[_depth * _nodeCapacity + 1]);
+        }
+
+        /// <summary>
+        /// Visits all items whose bounds intersect any of the given envelopes.
+        /// (Builds the tree, if necessary.)
+        /// </summary>
+        /// <remarks>
+        /// The queries are executed in spatial order of the envelopes, not in array order.
+        /// </remarks>
+        /// <param name="searchEnvs">The envelopes to query for</param>
+        /// <param name="visitor">A visitor to pass the matching items to, together with the index of the matching envelope</param>
+        public void Query(Envelope[] searchEnvs, IBatchItemVisitor<TItem> visitor)
+        {
+            Query(searchEnvs, visitor, 1);
+        }
+
+        /// <summary>
+        /// Visits all items whose bounds intersect any of the given envelopes,
+        /// using up to <paramref name="maxDegreeOfParallelism"/> cores.
+        /// (Builds the tree, if necessary.)
+        /// </summary>
+        /// <remarks>
+        /// The queries are executed in spatial order of the envelopes, not in array order.
+        /// If more than one core is used, the visitor is called concurrently.
+        /// </remarks>
+        /// <param name="searchEnvs">The envelopes to query for</param>
+        /// <param name="visitor">A visitor to pass the matching items to, together with the index of the matching envelope</param>
+        /// <param name="maxDegreeOfParallelism">The maximum number of cores to use, or <c>-1</c> to use all cores</param>
+        public void Query(Envelope[] searchEnvs, IBatchItemVisitor<TItem> visitor, int maxDegreeOfParallelism)
+        {
+            Build();
+            BatchQuery.Execute(searchEnvs, visitor, maxDegreeOfParallelism, () =>
+                {
+                    // each worker reuses its own traversal stack
+                    var stack = new int[_depth * _nodeCapacity + 1];
+                    return (env, itemVisitor) => Query(env, itemVisitor, stack);
+                });
+        }
+
+        private void Query(Envelope searchEnv, IItemVisitor<TItem> visitor, int[] stack)
+        {
+            if (_root < 0 || searchEnv.IsNull)
+                return;
+
+            double minX = searchEnv.MinX, minY = searchEnv.MinY;
+            double maxX = searchEnv.MaxX, maxY = searchEnv.MaxY;
+            if (!Intersects(_root, minX, minY, maxX, maxY))
+                return;
+
+            var top = 0;
+            stack[top++] = _root;
+            while (top > 0)
+            {
+                var node = 2 * (stack[--top] - _itemCount);
+                var start = _childRanges[node];
+                var end = _childRanges[node + 1];
+                if (start < _itemCount)
+                {
+                    // leaf node
+                    for (var i = start; i < end; i++)
+                    {
+                        if (Intersects(i, minX, minY, maxX, maxY))
+                            visitor.VisitItem(_items[i]);
+                    }
+                }
+                else
+                {
+                    // push in reverse order, so that children are visited in tree order
+                    for (var i = end - 1; i >= start; i--)
+                    {
+                        if (Intersects(i, minX, minY, maxX, maxY))
+                            stack[top++] = i;
+                    }
+                }
+            }
+        }
+
+        /// <summary>
+        /// Removes a single item from the tree.
+        /// (Builds the tree, if necessary.)
+        /// </summary>
+        /// <param name="itemEnv">The Envelope of the item to remove.</param>
+        /// <param name="item">The item to remove.</param>
+        /// <returns><c>true</c> if the item was found.</returns>
+        public bool Remove(Envelope itemEnv, TItem item)
+        {
+            Build();
+            if (_root < 0 || itemEnv.IsNull)
+                return false;
+
+            double minX = itemEnv.MinX, minY = itemEnv.MinY;
+            double maxX = itemEnv.MaxX, maxY = itemEnv.MaxY;
+            if (!Intersects(_root, minX, minY, maxX, maxY))
+                return false;
+
+            var comparer = EqualityComparer<TItem>.Default;
+            var stack = new int[_depth * _nodeCapacity + 1];
+            var top = 0;
+            stack[top++] = _root;
+            while (top > 0)
+            {
+                var node = 2 * (stack[--top] - _itemCount);
+                var start = _childRanges[node];
+                var end = _childRanges[node + 1];
+                for (var i = start; i < end; i++)
+                {
+                    if (!Intersects(i, minX, minY, maxX, maxY))
+                        continue;
+                    if (i >= _itemCount)
+                    {
+                        stack[top++] = i;
+                        continue;
+                    }
+                    if (!comparer.Equals(_items[i], item))
+                        continue;
+
+                    // mark the entry as removed, so it never matches a query
+                    var j = 4 * i;
+                    _bounds[j] = _bounds[j + 1] = _bounds[j + 2] = _bounds[j + 3] = double.NaN;
+                    _items[i] = default(TItem);
+                    _removedCount++;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
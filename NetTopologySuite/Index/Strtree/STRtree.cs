@@ -1,6 +1,9 @@
 using System;
 using IList = System.Collections.Generic.IList<object>;
 using System.Collections.Generic;
+#if !PCL
+using System.Threading.Tasks;
+#endif
 using GeoAPI.Geometries;
 using NetTopologySuite.Utilities;
 
@@ -16,21 +19,46 @@ namespace NetTopologySuite.Index.Strtree
     /// not be added or removed. 
     /// Described in: P. Rigaux, Michel Scholl and Agnes Voisard. Spatial Databases With
     /// Application To GIS. Morgan Kaufmann, San Francisco, 2002.
+    /// <para/>
+    /// Building a large tree can be spread over several cores 
+    /// by setting <see cref="MaxDegreeOfParallelism"/> before the tree is built.
+    /// The resulting tree is identical to the one built sequentially.
     /// </summary>
 #if !PCL
     [Serializable]
 #endif
     public class STRtree<TItem> : AbstractSTRtree<Envelope, TItem>, ISpatialIndex<TItem>
     {
-        private static readonly AnonymousXComparerImpl XComparer = new AnonymousXComparerImpl();
         private static readonly AnonymousYComparerImpl YComparer = new AnonymousYComparerImpl();
-        
-        private class AnonymousXComparerImpl : Comparer<IBoundable<Envelope, TItem>>
+        private static readonly CentreXComparerImpl CentreXComparer = new CentreXComparerImpl();
+
+        /// <summary>
+        /// The minimum number of boundables on a level for it to be built in parallel.
+        /// </summary>
+        private const int ParallelBuildThreshold = 8192;
+
+        /// <summary>
+        /// A boundable, together with the x-value of its midpoint 
+        /// and its position in the level it belongs to.
+        /// </summary>
+        private struct CentreXEntry
         {
-            public override int Compare(IBoundable<Envelope, TItem> o1, IBoundable<Envelope, TItem> o2)
+            public double CentreX;
+            public int Index;
+            public IBoundable<Envelope, TItem> Boundable;
+        }
+
+        /// <summary>
+        /// Orders <see cref="CentreXEntry"/>s by the x-value of the midpoints.
+        /// Ties are broken by the position in the level, so that
+        /// the order is total and does not depend on the sorting algorithm.
+        /// </summary>
+        private class CentreXComparerImpl : Comparer<CentreXEntry>
+        {
+            public override int Compare(CentreXEntry o1, CentreXEntry o2)
             {
-                return CompareDoubles(CentreX(o1.Bounds),
-                                      CentreX(o2.Bounds));
+                var res = CompareDoubles(o1.CentreX, o2.CentreX);
+                return res != 0 ? res : o1.Index.CompareTo(o2.Index);
             }
         }
 
@@ -97,6 +125,40 @@ namespace NetTopologySuite.Index.Strtree
         {
         }
 
+        private int _maxDegreeOfParallelism = 1;
+
+        /// <summary>
+        /// Gets or sets the maximum number of cores used to build the tree.
+        /// </summary>
+        /// <remarks>
+        /// The default value is <c>1</c>, which builds the tree on the calling thread only.
+        /// A value of <c>-1</c> uses <see cref="Environment.ProcessorCount"/> cores.
+        /// Only levels holding a large number of boundables are built in parallel;
+        /// on platforms without the Task Parallel Library the tree is always built sequentially.
+        /// </remarks>
+        public int MaxDegreeOfParallelism
+        {
+            get { return _maxDegreeOfParallelism; }
+            set
+            {
+                if (value == 0 || value < -1)
+                    throw new ArgumentOutOfRangeException("value", "MaxDegreeOfParallelism must be positive or -1");
+                _maxDegreeOfParallelism = value == -1 ? Environment.ProcessorCount : value;
+            }
+        }
+
+        /// <summary>
+        /// Tests whether a level with the given number of boundables should be built in parallel.
+        /// </summary>
+        private bool IsParallelBuild(int count)
+        {
+#if !PCL
+            return _maxDegreeOfParallelism > 1 && count >= ParallelBuildThreshold;
+#else
+            return false;
+#endif
+        }
+
         /// <summary>
         /// 
         /// </summary>
@@ -141,8 +203,7 @@ namespace NetTopologySuite.Index.Strtree
         {
             Assert.IsTrue(childBoundables.Count != 0);
             var minLeafCount = (int) Math.Ceiling((childBoundables.Count/(double) NodeCapacity));
-            var sortedChildBoundables = new List<IBoundable<Envelope, TItem>>(childBoundables);
-            sortedChildBoundables.Sort(XComparer);
+            var sortedChildBoundables = SortByCentreX(childBoundables);
             var verticalSlices = VerticalSlices(sortedChildBoundables,
                                                     (int) Math.Ceiling(Math.Sqrt(minLeafCount)));
             var tempList = CreateParentBoundablesFromVerticalSlices(verticalSlices, newLevel);
@@ -159,15 +220,147 @@ namespace NetTopologySuite.Index.Strtree
         {
             Assert.IsTrue(verticalSlices.Length > 0);
             var parentBoundables = new List<IBoundable<Envelope, TItem>>();
-            for (int i = 0; i < verticalSlices.Length; i++)
+
+            var slicesParentBoundables = new IList<IBoundable<Envelope, TItem>>[verticalSlices.Length];
+#if !PCL
+            if (IsParallelBuild(verticalSlices.Length * verticalSlices[0].Count))
+            {
+                var options = new ParallelOptions { MaxDegreeOfParallelism = _maxDegreeOfParallelism };
+                Parallel.For(0, verticalSlices.Length, options, 
+                    i => slicesParentBoundables[i] = CreateParentBoundablesFromVerticalSlice(verticalSlices[i], newLevel));
+            }
+            else
+#endif
+            {
+                for (var i = 0; i < verticalSlices.Length; i++)
+                    slicesParentBoundables[i] = CreateParentBoundablesFromVerticalSlice(verticalSlices[i], newLevel);
+            }
+
+            // collect the parents in slice order
+            foreach (var tempList in slicesParentBoundables)
             {
-                var tempList = CreateParentBoundablesFromVerticalSlice(verticalSlices[i], newLevel);
                 foreach (var o in tempList)
                     parentBoundables.Add(o);
             }
             return parentBoundables;
         }
 
+        /// <summary>
+        /// Sorts boundables by the x-value of their midpoints.
+        /// Boundables with equal x-values keep their relative order,
+        /// so sequential and parallel sorting yield the same result.
+        /// </summary>
+        /// <param name="childBoundables">The boundables to sort</param>
+        /// <returns>A new list of the sorted boundables</returns>
+        private List<IBoundable<Envelope, TItem>> SortByCentreX(IList<IBoundable<Envelope, TItem>> childBoundables)
+        {
+            var count = childBoundables.Count;
+            var entries = new CentreXEntry[count];
+            for (var i = 0; i < count; i++)
+            {
+                var childBoundable = childBoundables[i];
+                entries[i].Boundable = childBoundable;
+                entries[i].Index = i;
+            }
+
+#if !PCL
+            if (IsParallelBuild(count))
+                ParallelSort(entries);
+            else
+#endif
+            {
+                ComputeCentreX(entries, 0, count);
+                Array.Sort(entries, CentreXComparer);
+            }
+
+            var res = new List<IBoundable<Envelope, TItem>>(count);
+            for (var i = 0; i < count; i++)
+                res.Add(entries[i].Boundable);
+            return res;
+        }
+
+        private static void ComputeCentreX(CentreXEntry[] entries, int start, int end)
+        {
+            for (var i = start; i < end; i++)
+                entries[i].CentreX = CentreX(entries[i].Boundable.Bounds);
+        }
+
+#if !PCL
+        /// <summary>
+        /// Sorts <paramref name="entries"/> by sorting 
+        /// one run per core in parallel, and then merging pairs of runs in parallel.
+        /// </summary>
+        private void ParallelSort(CentreXEntry[] entries)
+        {
+            var count = entries.Length;
+            var runCount = Math.Min(_maxDegreeOfParallelism, count / (ParallelBuildThreshold / 4));
+            if (runCount < 2) runCount = 2;
+
+            var runStart = new int[runCount + 1];
+            for (var i = 0; i <= runCount; i++)
+                runStart[i] = (int)((long)count * i / runCount);
+
+            var options = new ParallelOptions { MaxDegreeOfParallelism = _maxDegreeOfParallelism };
+            Parallel.For(0, runCount, options, i =>
+                {
+                    ComputeCentreX(entries, runStart[i], runStart[i + 1]);
+                    Array.Sort(entries, runStart[i], runStart[i + 1] - runStart[i], CentreXComparer);
+                });
+
+            var source = entries;
+            var target = new CentreXEntry[count];
+            while (runCount > 1)
+            {
+                var mergedCount = (runCount + 1) / 2;
+                var mergedStart = new int[mergedCount + 1];
+                for (var i = 0; i < mergedCount; i++)
+                    mergedStart[i] = runStart[2 * i];
+                mergedStart[mergedCount] = count;
+
+                var src = source;
+                var tgt = target;
+                var starts = runStart;
+                var runs = runCount;
+                Parallel.For(0, mergedCount, options, i =>
+                    {
+                        var lo = starts[2 * i];
+                        var mid = 2 * i + 1 < runs ? starts[2 * i + 1] : starts[runs];
+                        var hi = starts[Math.Min(2 * i + 2, runs)];
+                        Merge(src, lo, mid, hi, tgt);
+                    });
+
+                source = tgt;
+                target = src;
+                runStart = mergedStart;
+                runCount = mergedCount;
+            }
+
+            if (!ReferenceEquals(source, entries))
+                Array.Copy(source, entries, count);
+        }
+
+        /// <summary>
+        /// Merges the sorted ranges [<paramref name="lo"/>, <paramref name="mid"/>) 
+        /// and [<paramref name="mid"/>, <paramref name="hi"/>) of <paramref name="source"/>
+        /// into the same range of <paramref name="target"/>.
+        /// </summary>
+        private static void Merge(CentreXEntry[] source, int lo, int mid, int hi, CentreXEntry[] target)
+        {
+            int i = lo, j = mid, k = lo;
+            while (i < mid && j < hi)
+            {
+                if (CentreXComparer.Compare(source[j], source[i]) < 0)
+                    target[k++] = source[j++];
+                else
+                    target[k++] = source[i++];
+            }
+            while (i < mid)
+                target[k++] = source[i++];
+            while (j < hi)
+                target[k++] = source[j++];
+        }
+#endif
+
         /// <summary>
         /// 
         /// </summary>
@@ -263,6 +456,39 @@ namespace NetTopologySuite.Index.Strtree
             base.Query(searchEnv, visitor);
         }
 
+        /// <summary>
+        /// Visits all items whose bounds intersect any of the given envelopes.
+        /// (Builds the tree, if necessary.)
+        /// </summary>
+        /// <remarks>
+        /// The queries are executed in spatial order of the envelopes, not in array order.
+        /// </remarks>
+        /// <param name="searchEnvs">The envelopes to query for</param>
+        /// <param name="visitor">A visitor to pass the matching items to, together with the index of the matching envelope</param>
+        public void Query(Envelope[] searchEnvs, IBatchItemVisitor<TItem> visitor)
+        {
+            Query(searchEnvs, visitor, 1);
+        }
+
+        /// <summary>
+        /// Visits all items whose bounds intersect any of the given envelopes,
+        /// using up to <paramref name="maxDegreeOfParallelism"/> cores.
+        /// (Builds the tree, if necessary.)
+        /// </summary>
+        /// <remarks>
+        /// The queries are executed in spatial order of the envelopes, not in array order.
+        /// If more than one core is used, the visitor is called concurrently.
+        /// </remarks>
+        /// <param name="searchEnvs">The envelopes to query for</param>
+        /// <param name="visitor">A visitor to pass the matching items to, together with the index of the matching envelope</param>
+        /// <param name="maxDegreeOfParallelism">The maximum number of cores to use, or <c>-1</c> to use all cores</param>
+        public void Query(Envelope[] searchEnvs, IBatchItemVisitor<TItem> visitor, int maxDegreeOfParallelism)
+        {
+            // build up front, so that the workers only read the tree
+            Build();
+            BatchQuery.Execute<TItem>(searchEnvs, visitor, maxDegreeOfParallelism, () => Query);
+        }
+
         /// <summary> 
         /// Removes a single item from the tree.
         /// </summary>
@@ -283,6 +509,192 @@ namespace NetTopologySuite.Index.Strtree
             return YComparer;
         }
 
+        /// <summary>
+        /// Finds all pairs of items, one from this tree and one from <paramref name="tree"/>,
+        /// whose bounds intersect.
+        /// The two trees are traversed together, so that only pairs of nodes
+        /// with intersecting bounds are ever compared.
+        /// (Builds both trees, if necessary.)
+        /// </summary>
+        /// <param name="tree">Another tree</param>
+        /// <returns>The pairs of items, the first from this tree and the second from the argument tree</returns>
+        public IList<TItem[]> Join(STRtree<TItem> tree)
+        {
+            return Join(tree, null);
+        }
+
+        /// <summary>
+        /// Finds all pairs of items, one from this tree and one from <paramref name="tree"/>,
+        /// whose bounds intersect and which satisfy <paramref name="predicate"/>.
+        /// (Builds both trees, if necessary.)
+        /// </summary>
+        /// <param name="tree">Another tree</param>
+        /// <param name="predicate">A test refining the pairs with intersecting bounds, or <c>null</c></param>
+        /// <returns>The pairs of items, the first from this tree and the second from the argument tree</returns>
+        public IList<TItem[]> Join(STRtree<TItem> tree, Func<TItem, TItem, bool> predicate)
+        {
+            var visitor = new ItemPairListVisitor();
+            Join(tree, predicate, visitor, 1);
+            return visitor.Pairs;
+        }
+
+        /// <summary>
+        /// Visits all pairs of items, one from this tree and one from <paramref name="tree"/>,
+        /// whose bounds intersect and which satisfy <paramref name="predicate"/>,
+        /// using up to <paramref name="maxDegreeOfParallelism"/> cores.
+        /// (Builds both trees, if necessary.)
+        /// </summary>
+        /// <remarks>
+        /// In parallel mode the traversal is split into independent pairs of nodes
+        /// near the top of the trees. Both <paramref name="predicate"/> and 
+        /// <paramref name="visitor"/> are then called concurrently, and the pairs
+        /// are not visited in a deterministic order.
+        /// </remarks>
+        /// <param name="tree">Another tree</param>
+        /// <param name="predicate">A test refining the pairs with intersecting bounds, or <c>null</c></param>
+        /// <param name="visitor">A visitor to pass the pairs to, the item from this tree first</param>
+        /// <param name="maxDegreeOfParallelism">The maximum number of cores to use, or <c>-1</c> to use all cores</param>
+        public void Join(STRtree<TItem> tree, Func<TItem, TItem, bool> predicate, IItemPairVisitor<TItem> visitor, int maxDegreeOfParallelism)
+        {
+            if (tree == null)
+                throw new ArgumentNullException("tree");
+            if (visitor == null)
+                throw new ArgumentNullException("visitor");
+            if (maxDegreeOfParallelism == 0 || maxDegreeOfParallelism < -1)
+                throw new ArgumentOutOfRangeException("maxDegreeOfParallelism", "maxDegreeOfParallelism must be positive or -1");
+            if (maxDegreeOfParallelism == -1)
+                maxDegreeOfParallelism = Environment.ProcessorCount;
+
+            var root1 = Root;
+            var root2 = tree.Root;
+            if (root1.IsEmpty || root2.IsEmpty || !root1.Bounds.Intersects(root2.Bounds))
+                return;
+
+#if !PCL
+            if (maxDegreeOfParallelism > 1)
+            {
+                var nodePairs = SplitJoin(root1, root2, 4 * maxDegreeOfParallelism);
+                var options = new ParallelOptions { MaxDegreeOfParallelism = maxDegreeOfParallelism };
+                Parallel.For(0, nodePairs.Count, options, i =>
+                    Join(nodePairs[i].Key, nodePairs[i].Value, predicate, visitor));
+                return;
+            }
+#endif
+            Join(root1, root2, predicate, visitor);
+        }
+
+        /// <summary>
+        /// Joins two nodes with intersecting bounds.
+        /// If both nodes are on the same level, both are expanded;
+        /// otherwise the node on the higher level is expanded, until the leaves of both trees are reached.
+        /// </summary>
+        private static void Join(AbstractNode<Envelope, TItem> node1, AbstractNode<Envelope, TItem> node2,
+            Func<TItem, TItem, bool> predicate, IItemPairVisitor<TItem> visitor)
+        {
+            var bounds1 = node1.Bounds;
+            var bounds2 = node2.Bounds;
+            if (node1.Level == node2.Level)
+            {
+                foreach (var child1 in node1.ChildBoundables)
+                {
+                    var childBounds1 = child1.Bounds;
+                    if (!childBounds1.Intersects(bounds2))
+                        continue;
+                    foreach (var child2 in node2.ChildBoundables)
+                    {
+                        if (!childBounds1.Intersects(child2.Bounds))
+                            continue;
+                        if (node1.Level == 0)
+                            VisitItemPair(child1.Item, child2.Item, predicate, visitor);
+                        else
+                            Join((AbstractNode<Envelope, TItem>)child1, (AbstractNode<Envelope, TItem>)child2, predicate, visitor);
+                    }
+                }
+            }
+            else if (node1.Level > node2.Level)
+            {
+                foreach (var child1 in node1.ChildBoundables)
+                {
+                    if (child1.Bounds.Intersects(bounds2))
+                        Join((AbstractNode<Envelope, TItem>)child1, node2, predicate, visitor);
+                }
+            }
+            else
+            {
+                foreach (var child2 in node2.ChildBoundables)
+                {
+                    if (bounds1.Intersects(child2.Bounds))
+                        Join(node1, (AbstractNode<Envelope, TItem>)child2, predicate, visitor);
+                }
+            }
+        }
+
+        private static void VisitItemPair(TItem item1, TItem item2, Func<TItem, TItem, bool> predicate, IItemPairVisitor<TItem> visitor)
+        {
+            if (predicate == null || predicate(item1, item2))
+                visitor.VisitItemPair(item1, item2);
+        }
+
+#if !PCL
+        /// <summary>
+        /// Expands the pair of root nodes level by level, until there are at least 
+        /// <paramref name="minCount"/> pairs of nodes with intersecting bounds, or only pairs of leaves are left.
+        /// </summary>
+        private static List<KeyValuePair<AbstractNode<Envelope, TItem>, AbstractNode<Envelope, TItem>>> SplitJoin(
+            AbstractNode<Envelope, TItem> root1, AbstractNode<Envelope, TItem> root2, int minCount)
+        {
+            var pairs = new List<KeyValuePair<AbstractNode<Envelope, TItem>, AbstractNode<Envelope, TItem>>>();
+            pairs.Add(new KeyValuePair<AbstractNode<Envelope, TItem>, AbstractNode<Envelope, TItem>>(root1, root2));
+            while (pairs.Count < minCount)
+            {
+                var expanded = false;
+                var nextPairs = new List<KeyValuePair<AbstractNode<Envelope, TItem>, AbstractNode<Envelope, TItem>>>();
+                foreach (var pair in pairs)
+                {
+                    var node1 = pair.Key;
+                    var node2 = pair.Value;
+                    if (node1.Level == 0 && node2.Level == 0)
+                    {
+                        nextPairs.Add(pair);
+                        continue;
+                    }
+
+                    expanded = true;
+                    var children1 = node1.Level >= node2.Level ? node1.ChildBoundables : new IBoundable<Envelope, TItem>[] { node1 };
+                    var children2 = node2.Level >= node1.Level ? node2.ChildBoundables : new IBoundable<Envelope, TItem>[] { node2 };
+                    foreach (var child1 in children1)
+                    {
+                        foreach (var child2 in children2)
+                        {
+                            if (child1.Bounds.Intersects(child2.Bounds))
+                                nextPairs.Add(new KeyValuePair<AbstractNode<Envelope, TItem>, AbstractNode<Envelope, TItem>>(
+                                    (AbstractNode<Envelope, TItem>)child1, (AbstractNode<Envelope, TItem>)child2));
+                        }
+                    }
+                }
+                pairs = nextPairs;
+                if (!expanded)
+                    break;
+            }
+            return pairs;
+        }
+#endif
+
+        /// <summary>
+        /// Collects the visited pairs of items in a list.
+        /// </summary>
+        private class ItemPairListVisitor : IItemPairVisitor<TItem>
+        {
+            private readonly List<TItem[]> _pairs = new List<TItem[]>();
+
+            public IList<TItem[]> Pairs { get { return _pairs; } }
+
+            public void VisitItemPair(TItem item1, TItem item2)
+            {
+                _pairs.Add(new[] { item1, item2 });
+            }
+        }
+
         /// <summary>
         /// Finds the two nearest items in the tree, 
         /// using <see cref="IItemDistance{Envelope, TItem}"/> as the distance metric.
@@ -319,6 +731,138 @@ namespace NetTopologySuite.Index.Strtree
             return NearestNeighbour(bp)[0];
         }
 
+        /// <summary>
+        /// Finds the <paramref name="k"/> items in this tree which are nearest to the given <paramref name="item"/>,
+        /// using <see cref="IItemDistance{Envelope,TItem}"/> as the distance metric.
+        /// A best-first traversal is used, which stops as soon as no unexplored node
+        /// can contain an item nearer than the current <paramref name="k"/>-th nearest item.
+        /// <para/>
+        /// The query <paramref name="item"/> does <b>not</b> have to be 
+        /// contained in the tree, but it does 
+        /// have to be compatible with the <paramref name="itemDist"/> 
+        /// distance metric. 
+        /// </summary>
+        /// <param name="env">The envelope of the query item</param>
+        /// <param name="item">The item to find the nearest neighbours of</param>
+        /// <param name="itemDist">A distance metric applicable to the items in this tree and the query item</param>
+        /// <param name="k">The number of items to find</param>
+        /// <returns>The nearest items in this tree, ordered by increasing distance. 
+        /// Fewer than <paramref name="k"/> items are returned if the tree contains fewer items.</returns>
+        public TItem[] NearestNeighbour(Envelope env, TItem item, IItemDistance<Envelope, TItem> itemDist, int k)
+        {
+            return NearestNeighbour(env, item, itemDist, k, Double.PositiveInfinity);
+        }
+
+        /// <summary>
+        /// Finds the <paramref name="k"/> items in this tree which are nearest to the given <paramref name="item"/>
+        /// and whose distance to it is less than <paramref name="maxDistance"/>,
+        /// using <see cref="IItemDistance{Envelope,TItem}"/> as the distance metric.
+        /// </summary>
+        /// <param name="env">The envelope of the query item</param>
+        /// <param name="item">The item to find the nearest neighbours of</param>
+        /// <param name="itemDist">A distance metric applicable to the items in this tree and the query item</param>
+        /// <param name="k">The number of items to find</param>
+        /// <param name="maxDistance">The distance below which items are considered</param>
+        /// <returns>The nearest items in this tree, ordered by increasing distance</returns>
+        public TItem[] NearestNeighbour(Envelope env, TItem item, IItemDistance<Envelope, TItem> itemDist, int k, double maxDistance)
+        {
+            Assert.IsTrue(k > 0, "k must be positive");
+
+            var root = Root;
+            if (root.IsEmpty)
+                return new TItem[0];
+
+            var bnd = new ItemBoundable<Envelope, TItem>(env, item);
+            var priQ = new PriorityQueue<BoundablePair<TItem>>();
+            priQ.Add(new BoundablePair<TItem>(root, bnd, itemDist));
+
+            // the nearest leaf pairs found so far, ordered by distance
+            var nearest = new List<BoundablePair<TItem>>(k + 1);
+            var distanceUpperBound = maxDistance;
+            while (!priQ.IsEmpty())
+            {
+                var bndPair = priQ.Poll();
+
+                // no remaining pair can be nearer than the k-th nearest item
+                if (bndPair.Distance >= distanceUpperBound)
+                    break;
+
+                if (bndPair.IsLeaves)
+                {
+                    var index = nearest.BinarySearch(bndPair);
+                    nearest.Insert(index < 0 ? ~index : index, bndPair);
+                    if (nearest.Count > k)
+                        nearest.RemoveAt(k);
+                    if (nearest.Count == k)
+                        distanceUpperBound = nearest[k - 1].Distance;
+                }
+                else
+                {
+                    bndPair.ExpandToQueue(priQ, distanceUpperBound);
+                }
+            }
+
+            var res = new TItem[nearest.Count];
+            for (var i = 0; i < res.Length; i++)
+                res[i] = nearest[i].GetBoundable(0).Item;
+            return res;
+        }
+
+        /// <summary>
+        /// Finds all items in this tree whose distance to the given <paramref name="item"/>
+        /// is not greater than <paramref name="maxDistance"/>,
+        /// using <see cref="IItemDistance{Envelope,TItem}"/> as the distance metric.
+        /// Only subtrees whose bounds lie within <paramref name="maxDistance"/> of
+        /// <paramref name="env"/> are searched.
+        /// </summary>
+        /// <param name="env">The envelope of the query item</param>
+        /// <param name="item">The query item</param>
+        /// <param name="itemDist">A distance metric applicable to the items in this tree and the query item</param>
+        /// <param name="maxDistance">The maximum distance</param>
+        /// <returns>The items within the distance, in no particular order</returns>
+        public IList<TItem> ItemsWithinDistance(Envelope env, TItem item, IItemDistance<Envelope, TItem> itemDist, double maxDistance)
+        {
+            var visitor = new ArrayListVisitor<TItem>();
+            ItemsWithinDistance(env, item, itemDist, maxDistance, visitor);
+            return visitor.Items;
+        }
+
+        /// <summary>
+        /// Visits all items in this tree whose distance to the given <paramref name="item"/>
+        /// is not greater than <paramref name="maxDistance"/>,
+        /// using <see cref="IItemDistance{Envelope,TItem}"/> as the distance metric.
+        /// </summary>
+        /// <param name="env">The envelope of the query item</param>
+        /// <param name="item">The query item</param>
+        /// <param name="itemDist">A distance metric applicable to the items in this tree and the query item</param>
+        /// <param name="maxDistance">The maximum distance</param>
+        /// <param name="visitor">A visitor to pass the items to</param>
+        public void ItemsWithinDistance(Envelope env, TItem item, IItemDistance<Envelope, TItem> itemDist, double maxDistance, IItemVisitor<TItem> visitor)
+        {
+            var root = Root;
+            if (root.IsEmpty || root.Bounds.Distance(env) > maxDistance)
+                return;
+            var bnd = new ItemBoundable<Envelope, TItem>(env, item);
+            ItemsWithinDistance(root, bnd, itemDist, maxDistance, visitor);
+        }
+
+        private static void ItemsWithinDistance(AbstractNode<Envelope, TItem> node, ItemBoundable<Envelope, TItem> bnd,
+            IItemDistance<Envelope, TItem> itemDist, double maxDistance, IItemVisitor<TItem> visitor)
+        {
+            var env = bnd.Bounds;
+            foreach (var child in node.ChildBoundables)
+            {
+                // the bounds distance is a lower bound of the item distance
+                if (child.Bounds.Distance(env) > maxDistance)
+                    continue;
+                var childNode = child as AbstractNode<Envelope, TItem>;
+                if (childNode != null)
+                    ItemsWithinDistance(childNode, bnd, itemDist, maxDistance, visitor);
+                else if (itemDist.Distance(child, bnd) <= maxDistance)
+                    visitor.VisitItem(child.Item);
+            }
+        }
+
         /// <summary>
         /// Finds the two nearest items from this tree 
         /// and another tree,
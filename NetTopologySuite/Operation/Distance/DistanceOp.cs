@@ -447,7 +447,7 @@ namespace NetTopologySuite.Operation.Distance
         /// <param name="locGeom"></param>
         private void ComputeMinDistance(ILineString line0, ILineString line1, GeometryLocation[] locGeom)
         {
-            if (line0.EnvelopeInternal.Distance(line1.EnvelopeInternal) > _minDistance) 
+            if (SharedEnvelope.Get(line0).Distance(SharedEnvelope.Get(line1)) > _minDistance) 
                 return;
             var coord0 = line0.Coordinates;
             var coord1 = line1.Coordinates;
@@ -481,7 +481,7 @@ namespace NetTopologySuite.Operation.Distance
         /// <param name="locGeom"></param>
         private void ComputeMinDistance(ILineString line, IPoint pt, GeometryLocation[] locGeom)
         {
-            if (line.EnvelopeInternal.Distance(pt.EnvelopeInternal) > _minDistance) return;
+            if (SharedEnvelope.Get(line).Distance(SharedEnvelope.Get(pt)) > _minDistance) return;
             Coordinate[] coord0 = line.Coordinates;
             Coordinate coord = pt.Coordinate;
             // brute force approach!
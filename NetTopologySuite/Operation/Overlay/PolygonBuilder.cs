@@ -236,7 +236,7 @@ namespace NetTopologySuite.Operation.Overlay
         private static EdgeRing FindEdgeRingContaining(EdgeRing testEr, IEnumerable<EdgeRing> shellList)
         {
             ILinearRing teString = testEr.LinearRing;
-            Envelope testEnv = teString.EnvelopeInternal;
+            Envelope testEnv = SharedEnvelope.Get(teString);
             Coordinate testPt = teString.GetCoordinateN(0);
 
             EdgeRing minShell = null;
@@ -244,9 +244,9 @@ namespace NetTopologySuite.Operation.Overlay
             foreach (EdgeRing tryShell in shellList)
             {
                 ILinearRing tryRing = tryShell.LinearRing;
-                Envelope tryEnv = tryRing.EnvelopeInternal;
+                Envelope tryEnv = SharedEnvelope.Get(tryRing);
                 if (minShell != null)
-                    minEnv = minShell.LinearRing.EnvelopeInternal;
+                    minEnv = SharedEnvelope.Get(minShell.LinearRing);
                 bool isContained = false;
                 if (tryEnv.Contains(testEnv) && CGAlgorithms.IsPointInRing(testPt, tryRing.Coordinates))
                         isContained = true;
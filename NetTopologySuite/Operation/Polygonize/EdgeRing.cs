@@ -29,16 +29,16 @@ namespace NetTopologySuite.Operation.Polygonize
         public static EdgeRing FindEdgeRingContaining(EdgeRing testEr, IList<EdgeRing> shellList)
         {
             ILinearRing teString = testEr.Ring;
-            Envelope testEnv = teString.EnvelopeInternal;
+            Envelope testEnv = SharedEnvelope.Get(teString);
 
             EdgeRing minShell = null;
             Envelope minShellEnv = null;
             foreach (var tryShell in shellList)
             {
                 var tryShellRing = tryShell.Ring;
-                var tryShellEnv = tryShellRing.EnvelopeInternal;
+                var tryShellEnv = SharedEnvelope.Get(tryShellRing);
                 if (minShell != null)
-                    minShellEnv = minShell.Ring.EnvelopeInternal;
+                    minShellEnv = SharedEnvelope.Get(minShell.Ring);
 
                 // the hole envelope cannot equal the shell envelope
                 // (also guards against testing rings against themselves)
@@ -55,7 +55,7 @@ namespace NetTopologySuite.Operation.Polygonize
                     if (minShell == null || minShellEnv.Contains(tryShellEnv))
                     {
                         minShell = tryShell;
-                        minShellEnv = minShell.Ring.EnvelopeInternal;
+                        minShellEnv = SharedEnvelope.Get(minShell.Ring);
                     }
                 }
             }
@@ -44,7 +44,7 @@ namespace NetTopologySuite.Operation.Predicate
         /// <returns></returns>
         public bool Contains(IGeometry geom)
         {
-            if (!rectEnv.Contains(geom.EnvelopeInternal))
+            if (!rectEnv.Contains(SharedEnvelope.Get(geom)))
                 return false;
             // check that geom is not contained entirely in the rectangle boundary
             if (IsContainedInBoundary(geom))
@@ -1,5 +1,6 @@
 using System.Collections.Generic;
 using GeoAPI.Geometries;
+using NetTopologySuite.Geometries;
 using NetTopologySuite.Algorithm;
 using NetTopologySuite.Algorithm.Locate;
 using NetTopologySuite.Geometries.Utilities;
@@ -59,7 +60,7 @@ namespace NetTopologySuite.Operation.Predicate
         /// or <value>false</value> if no conclusion about intersection can be made</returns>
         public bool Intersects(IGeometry geom)
         {
-            if (!_rectEnv.Intersects(geom.EnvelopeInternal))
+            if (!_rectEnv.Intersects(SharedEnvelope.Get(geom)))
                 return false;
 
             /**
@@ -120,7 +121,7 @@ namespace NetTopologySuite.Operation.Predicate
         /// <param name="element"></param>
         protected override void Visit(IGeometry element)
         {
-            var elementEnv = element.EnvelopeInternal;
+            var elementEnv = SharedEnvelope.Get(element);
 
             // disjoint => no intersection
             if (!_rectEnv.Intersects(elementEnv))
@@ -201,7 +202,7 @@ namespace NetTopologySuite.Operation.Predicate
             if (!(geom is IPolygon))
                 return;
             
-            var elementEnv = geom.EnvelopeInternal;
+            var elementEnv = SharedEnvelope.Get(geom);
             if (! _rectEnv.Intersects(elementEnv))
                 return;
             
@@ -266,7 +267,7 @@ namespace NetTopologySuite.Operation.Predicate
              * envelope of the geometry component are disjoint,
              * so it is worth checking this simple condition.
              */
-            var elementEnv = geom.EnvelopeInternal;
+            var elementEnv = SharedEnvelope.Get(geom);
             if (!_rectEnv.Intersects(elementEnv))
                 return;
 
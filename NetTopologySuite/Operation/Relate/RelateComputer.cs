@@ -1,6 +1,7 @@
 //using System.Collections;
 using System.Collections.Generic;
 using GeoAPI.Geometries;
+using NetTopologySuite.Geometries;
 using NetTopologySuite.Algorithm;
 using NetTopologySuite.GeometriesGraph;
 using NetTopologySuite.GeometriesGraph.Index;
@@ -47,7 +48,7 @@ namespace NetTopologySuite.Operation.Relate
             im.Set(Location.Exterior, Location.Exterior, Dimension.Surface);
 
             // if the Geometries don't overlap there is nothing to do
-            if (!_arg[0].Geometry.EnvelopeInternal.Intersects(_arg[1].Geometry.EnvelopeInternal))
+            if (!SharedEnvelope.Intersects(_arg[0].Geometry, _arg[1].Geometry))
             {
                 ComputeDisjointIM(im);
                 return im;
@@ -1,10 +1,9 @@
-//#define UseWorker
-
 using System;
 using IList = System.Collections.Generic.IList<object>;
 using System.Collections.Generic;
-#if UseWorker
+#if !PCL
 using System.Threading;
+using System.Threading.Tasks;
 #endif
 using GeoAPI.Geometries;
 using NetTopologySuite.Geometries;
@@ -37,6 +36,12 @@ namespace NetTopologySuite.Operation.Union
     /// The best situation for using <tt>buffer(0)</tt> is the trivial case
     /// where there is <i>no</i> overlap between the input geometries. 
     /// However, this case is likely rare in practice.
+    /// <para/>
+    /// The cascade can optionally be evaluated in parallel
+    /// (see <see cref="MaxDegreeOfParallelism"/>).
+    /// Both halves of a section are unioned independently and
+    /// combined in the same order as the sequential evaluation,
+    /// so the result is identical to the sequential union.
     /// </summary>
     /// <author>Martin Davis</author>
     /// <seealso href="http://code.google.com/p/nettopologysuite/issues/detail?id=44"/>
@@ -44,9 +49,11 @@ namespace NetTopologySuite.Operation.Union
     {
         private ICollection<IGeometry> _inputPolys;
         private IGeometryFactory _geomFactory;
-#if UseWorker
-        private int _numThreadsStarted = 0;
-#endif
+
+        private int _maxDegreeOfParallelism = 1;
+        private int _sequentialCutoff = DefaultSequentialCutoff;
+        private int _freeWorkers;
+
         /// <summary>
         /// Computes the union of
         /// a collection of <see cref="IGeometry"/>s.
@@ -59,6 +66,21 @@ namespace NetTopologySuite.Operation.Union
             return op.Union();
         }
 
+        /// <summary>
+        /// Computes the union of
+        /// a collection of <see cref="IGeometry"/>s, 
+        /// using up to <paramref name="maxDegreeOfParallelism"/> concurrent workers.
+        /// </summary>
+        /// <param name="polys">A collection of <see cref="IPolygonal"/> <see cref="IGeometry"/>s.</param>
+        /// <param name="maxDegreeOfParallelism">The maximum number of sections unioned concurrently</param>
+        /// <returns>The union of the input geometries, or <c>null</c> if no input geometries were provided</returns>
+        public static IGeometry Union(ICollection<IGeometry> polys, int maxDegreeOfParallelism)
+        {
+            var op = new CascadedPolygonUnion(polys);
+            op.MaxDegreeOfParallelism = maxDegreeOfParallelism;
+            return op.Union();
+        }
+
         /// <summary>
         /// Creates a new instance to union
         /// the given collection of <see cref="IGeometry"/>s.
@@ -79,6 +101,50 @@ namespace NetTopologySuite.Operation.Union
          */
         private const int StrtreeNodeCapacity = 4;
 
+        /// <summary>
+        /// The default minimum number of geometries in a section
+        /// for it to be split across workers.
+        /// </summary>
+        public const int DefaultSequentialCutoff = 32;
+
+        /// <summary>
+        /// Gets or sets the maximum number of sections which are unioned concurrently.
+        /// </summary>
+        /// <remarks>
+        /// The default value is <c>1</c>, which performs the union on the calling thread only.
+        /// A value of <c>-1</c> uses <see cref="Environment.ProcessorCount"/> workers.
+        /// On platforms without the Task Parallel Library the union is always computed sequentially.
+        /// With more than one worker, a <see cref="TopologyException"/> raised by a worker is rethrown
+        /// as a new <see cref="TopologyException"/> with the original one as its inner exception,
+        /// while any other failure is thrown as an <see cref="AggregateException"/>.
+        /// </remarks>
+        public int MaxDegreeOfParallelism
+        {
+            get { return _maxDegreeOfParallelism; }
+            set
+            {
+                if (value == 0 || value < -1)
+                    throw new ArgumentOutOfRangeException("value", "MaxDegreeOfParallelism must be positive or -1");
+                _maxDegreeOfParallelism = value == -1 ? Environment.ProcessorCount : value;
+            }
+        }
+
+        /// <summary>
+        /// Gets or sets the minimum number of geometries a section of the cascade
+        /// must contain to have its halves unioned by separate workers.
+        /// Smaller sections are always unioned sequentially.
+        /// </summary>
+        public int SequentialCutoff
+        {
+            get { return _sequentialCutoff; }
+            set
+            {
+                if (value < 2)
+                    throw new ArgumentOutOfRangeException("value", "SequentialCutoff must be at least 2");
+                _sequentialCutoff = value;
+            }
+        }
+
         private IGeometryFactory Factory()
         {
             var geomenumerator = _inputPolys.GetEnumerator();
@@ -122,6 +188,7 @@ namespace NetTopologySuite.Operation.Union
 
             // To avoiding holding memory remove references to the input geometries,
             _inputPolys = null;
+            _freeWorkers = _maxDegreeOfParallelism - 1;
 
             var itemTree = index.ItemsTree();
             var unionAll = UnionTree(itemTree);
@@ -206,57 +273,61 @@ namespace NetTopologySuite.Operation.Union
             // recurse on both halves of the list
             var mid = (end + start) / 2;
 
-#if !UseWorker
+#if !PCL
+            if (end - start >= _sequentialCutoff && TryAcquireWorker())
+                return ParallelBinaryUnion(geoms, start, mid, end);
+#endif
             g0 = BinaryUnion(geoms, start, mid);
             g1 = BinaryUnion(geoms, mid, end);
             return UnionSafe(g0, g1);
-#else
-            //IGeometry g0 = BinaryUnion(geoms, start, mid);
-            var worker0 = new Worker(this, geoms, start, mid);
-            var t0 = new Thread(worker0.Execute);
-            _numThreadsStarted++;
-            //IGeometry g1 = BinaryUnion(geoms, mid, end);
-            var worker1 = new Worker(this, geoms, mid, end);
-            var t1 = new Thread(worker1.Execute);
-            _numThreadsStarted++;
-
-            t0.Start();
-            t1.Start();
-            t0.Join();
-            t1.Join();
-
-            //return UnionSafe(g0, g1);
-            return UnionSafe(worker0.Geometry, worker1.Geometry);
-#endif
         }
 
-#if UseWorker
-        class Worker
+#if !PCL
+        /// <summary>
+        /// Unions the two halves of a section concurrently.
+        /// The caller must have acquired a worker via <see cref="TryAcquireWorker"/>.
+        /// </summary>
+        /// <param name="geoms">The list of geometries containing the section to union</param>
+        /// <param name="start">The start index of the section</param>
+        /// <param name="mid">The index splitting the section</param>
+        /// <param name="end">The index after the end of the section</param>
+        /// <returns>The union of the list section</returns>
+        private IGeometry ParallelBinaryUnion(IList<IGeometry> geoms, int start, int mid, int end)
         {
-            private readonly CascadedPolygonUnion _tool;
-            private readonly IList<IGeometry> _geoms;
-            private readonly int _start;
-            private readonly int _end;
-
-            private IGeometry _ret;
-
-            protected internal Worker(CascadedPolygonUnion tool, IList<IGeometry> geoms, int start, int end)
+            IGeometry g0 = null, g1 = null;
+            try
             {
-                _tool = tool;
-                _geoms = geoms;
-                _start = start;
-                _end = end;
+                Parallel.Invoke(() => g0 = BinaryUnion(geoms, start, mid),
+                                () => g1 = BinaryUnion(geoms, mid, end));
             }
-
-            internal void Execute()
+            catch (AggregateException ex)
             {
-                _ret = _tool.BinaryUnion(_geoms, _start, _end);
+                // surface a topology failure as the sequential evaluation would, keeping the worker's
+                // exception, and its stack trace, as the inner exception; anything else stays aggregated
+                var topologyException = ex.Flatten().InnerExceptions[0] as TopologyException;
+                if (topologyException == null)
+                    throw;
+                throw new TopologyException(topologyException.Message, topologyException);
             }
-
-            public IGeometry Geometry
+            finally
             {
-                get { return _ret; }
+                Interlocked.Increment(ref _freeWorkers);
             }
+            return UnionSafe(g0, g1);
+        }
+
+        /// <summary>
+        /// Reserves one of the additional workers, if any is available.
+        /// </summary>
+        /// <returns><c>true</c> if a worker was reserved</returns>
+        private bool TryAcquireWorker()
+        {
+            if (_freeWorkers <= 0)
+                return false;
+            if (Interlocked.Decrement(ref _freeWorkers) >= 0)
+                return true;
+            Interlocked.Increment(ref _freeWorkers);
+            return false;
         }
 #endif
 
@@ -317,8 +388,8 @@ namespace NetTopologySuite.Operation.Union
 
         private IGeometry UnionOptimized(IGeometry g0, IGeometry g1)
         {
-            var g0Env = g0.EnvelopeInternal;
-            var g1Env = g1.EnvelopeInternal;
+            var g0Env = SharedEnvelope.Get(g0);
+            var g1Env = SharedEnvelope.Get(g1);
             if (!g0Env.Intersects(g1Env))
             {
                 var combo = GeometryCombiner.Combine(g0, g1);
@@ -362,7 +433,7 @@ namespace NetTopologySuite.Operation.Union
             for (var i = 0; i < geom.NumGeometries; i++)
             {
                 var elem = geom.GetGeometryN(i);
-                if (elem.EnvelopeInternal.Intersects(env))
+                if (SharedEnvelope.Get(elem).Intersects(env))
                     intersectingGeoms.Add(elem);
                 else disjointGeoms.Add(elem);
             }
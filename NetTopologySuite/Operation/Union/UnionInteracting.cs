@@ -1,6 +1,7 @@
 using System;
 using System.Collections.Generic;
 using GeoAPI.Geometries;
+using NetTopologySuite.Geometries;
 using NetTopologySuite.Geometries.Utilities;
 
 namespace NetTopologySuite.Operation.Union
@@ -93,7 +94,7 @@ namespace NetTopologySuite.Operation.Union
             for (int i = 0; i < _g1.NumGeometries; i++)
             {
                 IGeometry elem1 = _g1.GetGeometryN(i);
-                bool interacts = elem1.EnvelopeInternal.Intersects(elem0.EnvelopeInternal);
+                bool interacts = SharedEnvelope.Intersects(elem1, elem0);
                 if (interacts) _interacts1[i] = true;
                 if (interacts)
                     interactsWithAny = true;
@@ -47,7 +47,7 @@ namespace NetTopologySuite.Operation.Valid
                 var innerRing = (ILinearRing)_rings[i];
                 Coordinate[] innerRingPts = innerRing.Coordinates;
 
-                var results = _index.Query(innerRing.EnvelopeInternal);
+                var results = _index.Query(SharedEnvelope.Get(innerRing));
                 for (int j = 0; j < results.Count; j++)
                 {
                     var searchRing = (ILinearRing)results[j];
@@ -56,7 +56,7 @@ namespace NetTopologySuite.Operation.Valid
                     if (innerRing == searchRing)
                         continue;
 
-                    if (!innerRing.EnvelopeInternal.Intersects(searchRing.EnvelopeInternal))
+                    if (!SharedEnvelope.Intersects(innerRing, searchRing))
                         continue;
 
                     Coordinate innerRingPt = IsValidOp.FindPointNotNode(innerRingPts, searchRing, _graph);
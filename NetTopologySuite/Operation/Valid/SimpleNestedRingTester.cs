@@ -1,5 +1,6 @@
 using System.Collections;
 using GeoAPI.Geometries;
+using NetTopologySuite.Geometries;
 using NetTopologySuite.Algorithm;
 using NetTopologySuite.GeometriesGraph;
 using NetTopologySuite.Utilities;
@@ -67,7 +68,7 @@ namespace NetTopologySuite.Operation.Valid
 
                     if (innerRing == searchRing) continue;
 
-                    if (!innerRing.EnvelopeInternal.Intersects(searchRing.EnvelopeInternal)) continue;
+                    if (!SharedEnvelope.Intersects(innerRing, searchRing)) continue;
 
                     Coordinate innerRingPt = IsValidOp.FindPointNotNode(innerRingPts, searchRing, graph);
                     Assert.IsTrue(innerRingPt != null, "Unable to find a ring point not a node of the search ring");
@@ -90,7 +90,7 @@ namespace NetTopologySuite.Operation.Valid
         {
             Coordinate[] innerRingPts = innerRing.Coordinates;
             Coordinate[] searchRingPts = searchRing.Coordinates;
-            if (!innerRing.EnvelopeInternal.Intersects(searchRing.EnvelopeInternal))
+            if (!SharedEnvelope.Intersects(innerRing, searchRing))
                 return false;
             Coordinate innerRingPt = IsValidOp.FindPointNotNode(innerRingPts, searchRing, graph);
             Assert.IsTrue(innerRingPt != null, "Unable to find a ring point not a node of the search ring");
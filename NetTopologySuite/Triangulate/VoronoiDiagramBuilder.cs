@@ -125,9 +125,9 @@ namespace NetTopologySuite.Triangulate
                 var g = geom.GetGeometryN(i);
                 IGeometry result = null;
                 // don't clip unless necessary
-                if (clipEnv.Contains(g.EnvelopeInternal))
+                if (clipEnv.Contains(SharedEnvelope.Get(g)))
                     result = g;
-                else if (clipEnv.Intersects(g.EnvelopeInternal))
+                else if (clipEnv.Intersects(SharedEnvelope.Get(g)))
                 {
                     result = clipPoly.Intersection(g);
                     // keep vertex key info